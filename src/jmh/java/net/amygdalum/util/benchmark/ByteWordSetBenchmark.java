@@ -0,0 +1,108 @@
+package net.amygdalum.util.benchmark;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.amygdalum.util.text.ByteAutomaton;
+import net.amygdalum.util.text.ByteWordSet;
+
+/**
+ * Measures lookup (find/contains) and scanning (cursor accept) throughput of byte based word sets.
+ * 
+ * Larger dictionaries can be selected on the command line, e.g. <code>-p size=10000000</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ByteWordSetBenchmark {
+
+	private static final int TEXT_LENGTH = 1 << 20;
+
+	@Param({ WordSets.DOUBLE_ARRAY_COMPACT_TRIE, WordSets.DOUBLE_ARRAY_FALLBACK_TRIE, WordSets.PACKED_DOUBLE_ARRAY_COMPACT_TRIE,
+		WordSets.LINKED_DAWG, WordSets.LINKED_FALLBACK_DAWG, WordSets.FLAT_DAWG, WordSets.FLAT_FALLBACK_DAWG, WordSets.LOUDS_TRIE })
+	public String wordSet;
+
+	@Param({ "1000", "100000", "1000000" })
+	public int size;
+
+	@Param({ Dictionaries.SYNTHETIC, Dictionaries.NATURAL, Dictionaries.CJK })
+	public String shape;
+
+	private ByteWordSet<String> words;
+	private byte[][] hits;
+	private byte[][] misses;
+	private byte[] text;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		String[] dictionary = Dictionaries.words(shape, size, 42);
+		words = WordSets.byteWordSet(wordSet, dictionary);
+
+		int samples = Math.min(size, 1 << 14);
+		String[] others = Dictionaries.words(shape, samples, 4711);
+		hits = new byte[samples][];
+		misses = new byte[samples][];
+		for (int i = 0; i < samples; i++) {
+			hits[i] = dictionary[(int) ((long) i * size / samples)].getBytes(UTF_8);
+			misses[i] = (others[i] + "#").getBytes(UTF_8);
+		}
+		text = Dictionaries.text(shape, dictionary, TEXT_LENGTH, 13).getBytes(UTF_8);
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public void findHits(Blackhole bh) {
+		for (byte[] hit : hits) {
+			bh.consume(words.find(hit));
+		}
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public void containsHits(Blackhole bh) {
+		for (byte[] hit : hits) {
+			bh.consume(words.contains(hit));
+		}
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public void containsMisses(Blackhole bh) {
+		for (byte[] miss : misses) {
+			bh.consume(words.contains(miss));
+		}
+	}
+
+	@Benchmark
+	public int cursorAccept() {
+		ByteAutomaton<String> cursor = words.cursor();
+		int matches = 0;
+		for (byte b : text) {
+			if (!cursor.accept(b)) {
+				cursor.reset();
+			} else if (cursor.hasAttachments()) {
+				matches++;
+			}
+		}
+		return matches;
+	}
+
+}
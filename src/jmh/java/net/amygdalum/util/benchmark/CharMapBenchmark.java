@@ -0,0 +1,87 @@
+package net.amygdalum.util.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.amygdalum.util.map.CharIntMap;
+import net.amygdalum.util.map.CharObjectMap;
+
+/**
+ * Measures get/put throughput of the primitive char keyed maps.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CharMapBenchmark {
+
+	@Param({ "4", "64", "4096" })
+	public int size;
+
+	private char[] keys;
+	private CharObjectMap<String> objectMap;
+	private CharIntMap intMap;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Random random = new Random(42);
+		keys = new char[size];
+		objectMap = new CharObjectMap<>(null);
+		intMap = new CharIntMap(-1);
+		for (int i = 0; i < size; i++) {
+			char key = (char) (1 + random.nextInt(Character.MAX_VALUE));
+			keys[i] = key;
+			objectMap.put(key, String.valueOf(key));
+			intMap.put(key, i);
+		}
+	}
+
+	@Benchmark
+	public void charObjectMapGet(Blackhole bh) {
+		for (char key : keys) {
+			bh.consume(objectMap.get(key));
+		}
+	}
+
+	@Benchmark
+	public CharObjectMap<String> charObjectMapPut() {
+		CharObjectMap<String> map = new CharObjectMap<>(null);
+		for (char key : keys) {
+			map.put(key, "");
+		}
+		return map;
+	}
+
+	@Benchmark
+	public void charIntMapGet(Blackhole bh) {
+		for (char key : keys) {
+			bh.consume(intMap.get(key));
+		}
+	}
+
+	@Benchmark
+	public CharIntMap charIntMapPut() {
+		CharIntMap map = new CharIntMap(-1);
+		for (int i = 0; i < keys.length; i++) {
+			map.put(keys[i], i);
+		}
+		return map;
+	}
+
+}
@@ -0,0 +1,106 @@
+package net.amygdalum.util.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.amygdalum.util.text.CharAutomaton;
+import net.amygdalum.util.text.CharWordSet;
+
+/**
+ * Measures lookup (find/contains) and scanning (cursor accept) throughput of char based word sets.
+ * 
+ * Larger dictionaries can be selected on the command line, e.g. <code>-p size=10000000</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CharWordSetBenchmark {
+
+	private static final int TEXT_LENGTH = 1 << 20;
+
+	@Param({ WordSets.DOUBLE_ARRAY_COMPACT_TRIE, WordSets.DOUBLE_ARRAY_FALLBACK_TRIE, WordSets.PACKED_DOUBLE_ARRAY_COMPACT_TRIE,
+		WordSets.LINKED_DAWG, WordSets.LINKED_FALLBACK_DAWG, WordSets.FLAT_DAWG, WordSets.FLAT_FALLBACK_DAWG, WordSets.LOUDS_TRIE })
+	public String wordSet;
+
+	@Param({ "1000", "100000", "1000000" })
+	public int size;
+
+	@Param({ Dictionaries.SYNTHETIC, Dictionaries.NATURAL, Dictionaries.CJK })
+	public String shape;
+
+	private CharWordSet<String> words;
+	private char[][] hits;
+	private char[][] misses;
+	private char[] text;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		String[] dictionary = Dictionaries.words(shape, size, 42);
+		words = WordSets.charWordSet(wordSet, dictionary);
+
+		int samples = Math.min(size, 1 << 14);
+		String[] others = Dictionaries.words(shape, samples, 4711);
+		hits = new char[samples][];
+		misses = new char[samples][];
+		for (int i = 0; i < samples; i++) {
+			hits[i] = dictionary[(int) ((long) i * size / samples)].toCharArray();
+			misses[i] = (others[i] + "#").toCharArray();
+		}
+		text = Dictionaries.text(shape, dictionary, TEXT_LENGTH, 13).toCharArray();
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public void findHits(Blackhole bh) {
+		for (char[] hit : hits) {
+			bh.consume(words.find(hit));
+		}
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public void containsHits(Blackhole bh) {
+		for (char[] hit : hits) {
+			bh.consume(words.contains(hit));
+		}
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public void containsMisses(Blackhole bh) {
+		for (char[] miss : misses) {
+			bh.consume(words.contains(miss));
+		}
+	}
+
+	@Benchmark
+	public int cursorAccept() {
+		CharAutomaton<String> cursor = words.cursor();
+		int matches = 0;
+		for (char c : text) {
+			if (!cursor.accept(c)) {
+				cursor.reset();
+			} else if (cursor.hasAttachments()) {
+				matches++;
+			}
+		}
+		return matches;
+	}
+
+}
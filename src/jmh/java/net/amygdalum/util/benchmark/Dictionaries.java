@@ -0,0 +1,126 @@
+package net.amygdalum.util.benchmark;
+
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Deterministic word lists for benchmarks. Three shapes are supported:
+ * - synthetic: uniformly random words over a small alphabet (few shared prefixes, many distinct suffixes)
+ * - natural: words composed of syllables with a skewed (zipf like) distribution (many shared prefixes and suffixes)
+ * - cjk: short words of CJK ideographs with a skewed (zipf like) distribution (a large but sparsely used alphabet)
+ */
+public final class Dictionaries {
+
+	public static final String SYNTHETIC = "synthetic";
+	public static final String NATURAL = "natural";
+	public static final String CJK = "cjk";
+
+	private static final int CJK_START = 0x4e00;
+	private static final int CJK_RANGE = 0x5200;
+	private static final int CJK_CHARS = 6000;
+
+	private static final String[] SYLLABLES = {
+		"a", "an", "ar", "be", "ber", "ca", "con", "de", "der", "di", "e", "en", "er", "es", "ex",
+		"ga", "ge", "ha", "i", "in", "ing", "is", "ka", "la", "le", "li", "lo", "ly", "ma", "me",
+		"mi", "mo", "na", "ne", "no", "o", "on", "or", "pa", "pe", "per", "pro", "ra", "re", "ri",
+		"ro", "sa", "se", "si", "so", "sta", "ta", "te", "ter", "ti", "tion", "to", "tra", "u", "un",
+		"ur", "va", "ve", "vi", "wa", "we", "y", "za"
+	};
+
+	private Dictionaries() {
+	}
+
+	public static String[] words(String shape, int size, long seed) {
+		if (NATURAL.equals(shape)) {
+			return natural(size, seed);
+		} else if (CJK.equals(shape)) {
+			return cjk(size, seed);
+		} else {
+			return synthetic(size, seed);
+		}
+	}
+
+	public static String[] synthetic(int size, long seed) {
+		Random random = new Random(seed);
+		Set<String> words = new LinkedHashSet<>(size * 2);
+		while (words.size() < size) {
+			int len = 4 + random.nextInt(12);
+			char[] chars = new char[len];
+			for (int i = 0; i < len; i++) {
+				chars[i] = (char) ('a' + random.nextInt(26));
+			}
+			words.add(new String(chars));
+		}
+		return words.toArray(new String[0]);
+	}
+
+	public static String[] natural(int size, long seed) {
+		Random random = new Random(seed);
+		Set<String> words = new LinkedHashSet<>(size * 2);
+		long attempts = 0;
+		while (words.size() < size) {
+			attempts++;
+			int syllables = 1 + zipf(random, 6);
+			StringBuilder word = new StringBuilder();
+			for (int i = 0; i < syllables; i++) {
+				word.append(SYLLABLES[zipf(random, SYLLABLES.length)]);
+			}
+			if (attempts > 8L * size) {
+				word.append(words.size());
+			}
+			words.add(word.toString());
+		}
+		return words.toArray(new String[0]);
+	}
+
+	public static String[] cjk(int size, long seed) {
+		Random random = new Random(seed);
+		Set<String> words = new LinkedHashSet<>(size * 2);
+		while (words.size() < size) {
+			int len = 2 + random.nextInt(3);
+			char[] chars = new char[len];
+			for (int i = 0; i < len; i++) {
+				chars[i] = ideograph(zipf(random, CJK_CHARS));
+			}
+			words.add(new String(chars));
+		}
+		return words.toArray(new String[0]);
+	}
+
+	private static char ideograph(int rank) {
+		return (char) (CJK_START + (rank * 7919) % CJK_RANGE);
+	}
+
+	private static int zipf(Random random, int n) {
+		double u = random.nextDouble();
+		return (int) (n * u * u);
+	}
+
+	public static String text(String[] words, int length, long seed) {
+		return text(SYNTHETIC, words, length, seed);
+	}
+
+	public static String text(String shape, String[] words, int length, long seed) {
+		Random random = new Random(seed);
+		StringBuilder text = new StringBuilder(length + 32);
+		while (text.length() < length) {
+			if (random.nextInt(4) == 0) {
+				text.append(words[random.nextInt(words.length)]);
+			} else {
+				int len = 1 + random.nextInt(8);
+				for (int i = 0; i < len; i++) {
+					if (CJK.equals(shape)) {
+						text.append(ideograph(zipf(random, CJK_CHARS)));
+					} else {
+						text.append((char) ('a' + random.nextInt(26)));
+					}
+				}
+			}
+			text.append(' ');
+		}
+		text.setLength(length);
+		return text.toString();
+	}
+
+}
@@ -0,0 +1,146 @@
+package net.amygdalum.util.benchmark;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.amygdalum.util.text.ByteFuzzySearch;
+import net.amygdalum.util.text.CharFuzzySearch;
+
+/**
+ * Compares the fuzzy search (all words within an edit distance) on word sets with a brute force baseline computing the edit distance to each word
+ * of the dictionary.
+ * 
+ * The queries are words of the dictionary with random edits (and some random words), so there are hits and misses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FuzzySearchBenchmark {
+
+	private static final int QUERIES = 64;
+
+	@Param({ WordSets.DOUBLE_ARRAY_COMPACT_TRIE, WordSets.LINKED_DAWG })
+	public String wordSet;
+
+	@Param({ "10000", "100000" })
+	public int size;
+
+	@Param({ Dictionaries.SYNTHETIC, Dictionaries.NATURAL })
+	public String shape;
+
+	@Param({ "1", "2" })
+	public int maxDistance;
+
+	private String[] dictionary;
+	private CharFuzzySearch<String> charSearch;
+	private ByteFuzzySearch<String> byteSearch;
+	private char[][] charQueries;
+	private byte[][] byteQueries;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		dictionary = Dictionaries.words(shape, size, 42);
+		charSearch = new CharFuzzySearch<>(WordSets.charWordSet(wordSet, dictionary));
+		byteSearch = new ByteFuzzySearch<>(WordSets.byteWordSet(wordSet, dictionary));
+
+		Random random = new Random(13);
+		charQueries = new char[QUERIES][];
+		byteQueries = new byte[QUERIES][];
+		for (int i = 0; i < QUERIES; i++) {
+			String query = edit(dictionary[random.nextInt(size)], random);
+			charQueries[i] = query.toCharArray();
+			byteQueries[i] = query.getBytes(UTF_8);
+		}
+	}
+
+	private static String edit(String word, Random random) {
+		StringBuilder edited = new StringBuilder(word);
+		int edits = random.nextInt(3);
+		for (int i = 0; i < edits && edited.length() > 1; i++) {
+			int pos = random.nextInt(edited.length());
+			char c = (char) ('a' + random.nextInt(26));
+			switch (random.nextInt(3)) {
+			case 0:
+				edited.setCharAt(pos, c);
+				break;
+			case 1:
+				edited.insert(pos, c);
+				break;
+			default:
+				edited.deleteCharAt(pos);
+				break;
+			}
+		}
+		return edited.toString();
+	}
+
+	@Benchmark
+	public void fuzzyChars(Blackhole bh) {
+		for (char[] query : charQueries) {
+			charSearch.search(query, maxDistance, bh::consume);
+		}
+	}
+
+	@Benchmark
+	public void fuzzyBytes(Blackhole bh) {
+		for (byte[] query : byteQueries) {
+			byteSearch.search(query, maxDistance, bh::consume);
+		}
+	}
+
+	@Benchmark
+	public void bruteForce(Blackhole bh) {
+		int[] prev = new int[64];
+		int[] next = new int[64];
+		for (char[] query : charQueries) {
+			for (String word : dictionary) {
+				if (Math.abs(word.length() - query.length) > maxDistance) {
+					continue;
+				}
+				int distance = distance(query, word, prev, next);
+				if (distance <= maxDistance) {
+					bh.consume(word);
+				}
+			}
+		}
+	}
+
+	private static int distance(char[] s, String t, int[] prev, int[] next) {
+		int n = t.length();
+		for (int j = 0; j <= n; j++) {
+			prev[j] = j;
+		}
+		for (int i = 1; i <= s.length; i++) {
+			next[0] = i;
+			char c = s[i - 1];
+			for (int j = 1; j <= n; j++) {
+				int cost = c == t.charAt(j - 1) ? 0 : 1;
+				next[j] = Math.min(Math.min(prev[j] + 1, next[j - 1] + 1), prev[j - 1] + cost);
+			}
+			int[] swap = prev;
+			prev = next;
+			next = swap;
+		}
+		return prev[n];
+	}
+
+}
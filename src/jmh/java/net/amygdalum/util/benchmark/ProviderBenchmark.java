@@ -0,0 +1,91 @@
+package net.amygdalum.util.benchmark;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.amygdalum.util.io.ByteProvider;
+import net.amygdalum.util.io.CharProvider;
+import net.amygdalum.util.io.ReaderCharProvider;
+import net.amygdalum.util.io.StreamByteProvider;
+import net.amygdalum.util.io.StringByteProvider;
+import net.amygdalum.util.io.StringCharProvider;
+
+/**
+ * Measures the next() loop of the char and byte providers over a fixed text.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProviderBenchmark {
+
+	@Param({ "1024", "65536" })
+	public int chunk;
+
+	@Param({ "1048576" })
+	public int length;
+
+	private String text;
+	private byte[] bytes;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		text = Dictionaries.text(Dictionaries.natural(1000, 42), length, 13);
+		bytes = text.getBytes(UTF_8);
+	}
+
+	@Benchmark
+	public int stringCharProvider() {
+		return consume(new StringCharProvider(text, 0));
+	}
+
+	@Benchmark
+	public int readerCharProvider() {
+		return consume(new ReaderCharProvider(new StringReader(text), 0, chunk, 2));
+	}
+
+	@Benchmark
+	public int stringByteProvider() {
+		return consume(new StringByteProvider(bytes, 0, UTF_8));
+	}
+
+	@Benchmark
+	public int streamByteProvider() {
+		return consume(new StreamByteProvider(new ByteArrayInputStream(bytes), UTF_8, 0, chunk, 2));
+	}
+
+	private static int consume(CharProvider chars) {
+		int sum = 0;
+		while (!chars.finished()) {
+			sum += chars.next();
+		}
+		return sum;
+	}
+
+	private static int consume(ByteProvider bytes) {
+		int sum = 0;
+		while (!bytes.finished()) {
+			sum += bytes.next();
+		}
+		return sum;
+	}
+
+}
@@ -0,0 +1,59 @@
+package net.amygdalum.util.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.amygdalum.util.text.ByteWordSet;
+import net.amygdalum.util.text.CharWordSet;
+
+/**
+ * Measures the time to build a word set from a dictionary (including the builder phase).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class WordSetBuildBenchmark {
+
+	@Param({ WordSets.DOUBLE_ARRAY_COMPACT_TRIE, WordSets.DOUBLE_ARRAY_FALLBACK_TRIE, WordSets.PACKED_DOUBLE_ARRAY_COMPACT_TRIE,
+		WordSets.LINKED_DAWG, WordSets.LINKED_FALLBACK_DAWG, WordSets.FLAT_DAWG, WordSets.FLAT_FALLBACK_DAWG, WordSets.LOUDS_TRIE })
+	public String wordSet;
+
+	@Param({ "1000", "100000", "1000000" })
+	public int size;
+
+	@Param({ Dictionaries.SYNTHETIC, Dictionaries.NATURAL, Dictionaries.CJK })
+	public String shape;
+
+	private String[] dictionary;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		dictionary = Dictionaries.words(shape, size, 42);
+	}
+
+	@Benchmark
+	public CharWordSet<String> buildChars() {
+		return WordSets.charWordSet(wordSet, dictionary);
+	}
+
+	@Benchmark
+	public ByteWordSet<String> buildBytes() {
+		return WordSets.byteWordSet(wordSet, dictionary);
+	}
+
+}
@@ -0,0 +1,64 @@
+package net.amygdalum.util.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+/**
+ * Reports the retained heap of each word set (the heap still in use after building and collecting garbage).
+ * 
+ * Run with <code>java -cp target/benchmarks.jar net.amygdalum.util.benchmark.WordSetFootprint [sizes...]</code>.
+ */
+public final class WordSetFootprint {
+
+	private static final String[] WORD_SETS = {
+		WordSets.DOUBLE_ARRAY_COMPACT_TRIE, WordSets.DOUBLE_ARRAY_FALLBACK_TRIE, WordSets.PACKED_DOUBLE_ARRAY_COMPACT_TRIE,
+		WordSets.LINKED_DAWG, WordSets.LINKED_FALLBACK_DAWG, WordSets.FLAT_DAWG, WordSets.FLAT_FALLBACK_DAWG, WordSets.LOUDS_TRIE };
+	private static final String[] SHAPES = { Dictionaries.SYNTHETIC, Dictionaries.NATURAL, Dictionaries.CJK };
+
+	/**
+	 * holds the measured word set while the heap is measured, so it cannot be collected before
+	 */
+	private static Object measured;
+
+	private WordSetFootprint() {
+	}
+
+	public static void main(String[] args) {
+		int[] sizes = args.length == 0 ? new int[] { 1_000, 100_000, 1_000_000 } : new int[args.length];
+		for (int i = 0; i < args.length; i++) {
+			sizes[i] = Integer.parseInt(args[i]);
+		}
+		System.out.printf("%-28s %-10s %10s %14s %14s%n", "word set", "shape", "size", "chars (bytes)", "bytes (bytes)");
+		for (String shape : SHAPES) {
+			for (int size : sizes) {
+				String[] dictionary = Dictionaries.words(shape, size, 42);
+				for (String wordSet : WORD_SETS) {
+					long chars = retained(() -> WordSets.charWordSet(wordSet, dictionary));
+					long bytes = retained(() -> WordSets.byteWordSet(wordSet, dictionary));
+					System.out.printf("%-28s %-10s %10d %14d %14d%n", wordSet, shape, size, chars, bytes);
+				}
+			}
+		}
+	}
+
+	private static long retained(Factory factory) {
+		long before = usedHeap();
+		measured = factory.create();
+		long after = usedHeap();
+		measured = null;
+		return after - before;
+	}
+
+	private static long usedHeap() {
+		MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		for (int i = 0; i < 4; i++) {
+			System.gc();
+		}
+		return memory.getHeapMemoryUsage().getUsed();
+	}
+
+	private interface Factory {
+		Object create();
+	}
+
+}
@@ -0,0 +1,218 @@
+package net.amygdalum.util.benchmark;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static net.amygdalum.util.text.AttachmentAdaptor.attach;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.amygdalum.util.text.ByteFallbackAdaptor;
+import net.amygdalum.util.text.ByteNode;
+import net.amygdalum.util.text.ByteTask;
+import net.amygdalum.util.text.ByteWordGraphCompiler;
+import net.amygdalum.util.text.ByteWordSet;
+import net.amygdalum.util.text.ByteWordSetBuilder;
+import net.amygdalum.util.text.CharFallbackAdaptor;
+import net.amygdalum.util.text.CharNode;
+import net.amygdalum.util.text.CharTask;
+import net.amygdalum.util.text.CharWordGraphCompiler;
+import net.amygdalum.util.text.CharWordSet;
+import net.amygdalum.util.text.CharWordSetBuilder;
+import net.amygdalum.util.text.doublearraytrie.DoubleArrayByteCompactTrie;
+import net.amygdalum.util.text.doublearraytrie.DoubleArrayByteCompactTrieCompiler;
+import net.amygdalum.util.text.doublearraytrie.DoubleArrayByteFallbackTrieCompiler;
+import net.amygdalum.util.text.doublearraytrie.DoubleArrayCharCompactTrie;
+import net.amygdalum.util.text.doublearraytrie.DoubleArrayCharCompactTrieCompiler;
+import net.amygdalum.util.text.doublearraytrie.DoubleArrayCharFallbackTrieCompiler;
+import net.amygdalum.util.text.linkeddawg.FlatByteDawgCompiler;
+import net.amygdalum.util.text.linkeddawg.FlatByteFallbackDawgCompiler;
+import net.amygdalum.util.text.linkeddawg.FlatCharDawgCompiler;
+import net.amygdalum.util.text.linkeddawg.FlatCharFallbackDawgCompiler;
+import net.amygdalum.util.text.linkeddawg.LinkedByteDawgCompiler;
+import net.amygdalum.util.text.linkeddawg.LinkedByteFallbackDawgCompiler;
+import net.amygdalum.util.text.linkeddawg.LinkedCharDawgCompiler;
+import net.amygdalum.util.text.linkeddawg.LinkedCharFallbackDawgCompiler;
+import net.amygdalum.util.text.louds.LoudsByteTrieCompiler;
+import net.amygdalum.util.text.louds.LoudsCharTrieCompiler;
+
+/**
+ * Creates the word sets under benchmark by the simple name of the resulting word set.
+ */
+public final class WordSets {
+
+	public static final String DOUBLE_ARRAY_COMPACT_TRIE = "DoubleArrayCompactTrie";
+	public static final String DOUBLE_ARRAY_FALLBACK_TRIE = "DoubleArrayFallbackTrie";
+	public static final String PACKED_DOUBLE_ARRAY_COMPACT_TRIE = "PackedDoubleArrayCompactTrie";
+	public static final String LINKED_DAWG = "LinkedDawg";
+	public static final String LINKED_FALLBACK_DAWG = "LinkedFallbackDawg";
+	public static final String FLAT_DAWG = "FlatDawg";
+	public static final String FLAT_FALLBACK_DAWG = "FlatFallbackDawg";
+	public static final String LOUDS_TRIE = "LoudsTrie";
+
+	private WordSets() {
+	}
+
+	public static boolean isFallback(String name) {
+		return name.contains("Fallback");
+	}
+
+	public static CharWordGraphCompiler<String, ? extends CharWordSet<String>> charCompiler(String name) {
+		switch (name) {
+		case DOUBLE_ARRAY_COMPACT_TRIE:
+		case PACKED_DOUBLE_ARRAY_COMPACT_TRIE:
+			return new DoubleArrayCharCompactTrieCompiler<>();
+		case DOUBLE_ARRAY_FALLBACK_TRIE:
+			return new DoubleArrayCharFallbackTrieCompiler<>();
+		case LINKED_DAWG:
+			return new LinkedCharDawgCompiler<>();
+		case LINKED_FALLBACK_DAWG:
+			return new LinkedCharFallbackDawgCompiler<>();
+		case FLAT_DAWG:
+			return new FlatCharDawgCompiler<>();
+		case FLAT_FALLBACK_DAWG:
+			return new FlatCharFallbackDawgCompiler<>();
+		case LOUDS_TRIE:
+			return new LoudsCharTrieCompiler<>();
+		default:
+			throw new IllegalArgumentException("unknown word set: " + name);
+		}
+	}
+
+	public static ByteWordGraphCompiler<String, ? extends ByteWordSet<String>> byteCompiler(String name) {
+		switch (name) {
+		case DOUBLE_ARRAY_COMPACT_TRIE:
+		case PACKED_DOUBLE_ARRAY_COMPACT_TRIE:
+			return new DoubleArrayByteCompactTrieCompiler<>();
+		case DOUBLE_ARRAY_FALLBACK_TRIE:
+			return new DoubleArrayByteFallbackTrieCompiler<>();
+		case LINKED_DAWG:
+			return new LinkedByteDawgCompiler<>();
+		case LINKED_FALLBACK_DAWG:
+			return new LinkedByteFallbackDawgCompiler<>();
+		case FLAT_DAWG:
+			return new FlatByteDawgCompiler<>();
+		case FLAT_FALLBACK_DAWG:
+			return new FlatByteFallbackDawgCompiler<>();
+		case LOUDS_TRIE:
+			return new LoudsByteTrieCompiler<>();
+		default:
+			throw new IllegalArgumentException("unknown word set: " + name);
+		}
+	}
+
+	public static CharWordSet<String> charWordSet(String name, String[] words) {
+		CharWordSet<String> wordSet = buildChars(charCompiler(name), isFallback(name), words);
+		if (PACKED_DOUBLE_ARRAY_COMPACT_TRIE.equals(name)) {
+			return ((DoubleArrayCharCompactTrie<String>) wordSet).pack();
+		}
+		return wordSet;
+	}
+
+	public static ByteWordSet<String> byteWordSet(String name, String[] words) {
+		ByteWordSet<String> wordSet = buildBytes(byteCompiler(name), isFallback(name), words);
+		if (PACKED_DOUBLE_ARRAY_COMPACT_TRIE.equals(name)) {
+			return ((DoubleArrayByteCompactTrie<String>) wordSet).pack();
+		}
+		return wordSet;
+	}
+
+	private static <R extends CharWordSet<String>> R buildChars(CharWordGraphCompiler<String, R> compiler, boolean fallback, String[] words) {
+		CharWordSetBuilder<String, R> builder = new CharWordSetBuilder<>(compiler);
+		for (String word : words) {
+			builder.extend(word.toCharArray(), word);
+		}
+		if (fallback) {
+			builder.work(new CharFallbackLinks());
+		}
+		return builder.build();
+	}
+
+	private static <R extends ByteWordSet<String>> R buildBytes(ByteWordGraphCompiler<String, R> compiler, boolean fallback, String[] words) {
+		ByteWordSetBuilder<String, R> builder = new ByteWordSetBuilder<>(compiler);
+		for (String word : words) {
+			builder.extend(word.getBytes(UTF_8), word);
+		}
+		if (fallback) {
+			builder.work(new ByteFallbackLinks());
+		}
+		return builder.build();
+	}
+
+	private static class CharFallbackLinks implements CharTask<String> {
+
+		private CharNode<String> root;
+
+		@Override
+		public List<CharNode<String>> init(CharNode<String> root) {
+			this.root = root;
+			CharFallbackAdaptor.setFallback(root, null);
+			return asList(root);
+		}
+
+		@Override
+		public List<CharNode<String>> process(CharNode<String> node) {
+			List<CharNode<String>> nexts = new ArrayList<>();
+			for (char c : node.getAlternatives()) {
+				CharNode<String> next = node.nextNode(c);
+				CharNode<String> down = CharFallbackAdaptor.getFallback(node);
+				while (down != null) {
+					CharNode<String> nextNode = down.nextNode(c);
+					if (nextNode != null) {
+						CharFallbackAdaptor.setFallback(next, nextNode);
+						if (next.getAttached() == null && nextNode.getAttached() != null) {
+							attach(next, nextNode.getAttached());
+						}
+						break;
+					}
+					down = CharFallbackAdaptor.getFallback(down);
+				}
+				if (down == null) {
+					CharFallbackAdaptor.setFallback(next, root);
+				}
+				nexts.add(next);
+			}
+			return nexts;
+		}
+
+	}
+
+	private static class ByteFallbackLinks implements ByteTask<String> {
+
+		private ByteNode<String> root;
+
+		@Override
+		public List<ByteNode<String>> init(ByteNode<String> root) {
+			this.root = root;
+			ByteFallbackAdaptor.setFallback(root, null);
+			return asList(root);
+		}
+
+		@Override
+		public List<ByteNode<String>> process(ByteNode<String> node) {
+			List<ByteNode<String>> nexts = new ArrayList<>();
+			for (byte b : node.getAlternatives()) {
+				ByteNode<String> next = node.nextNode(b);
+				ByteNode<String> down = ByteFallbackAdaptor.getFallback(node);
+				while (down != null) {
+					ByteNode<String> nextNode = down.nextNode(b);
+					if (nextNode != null) {
+						ByteFallbackAdaptor.setFallback(next, nextNode);
+						if (next.getAttached() == null && nextNode.getAttached() != null) {
+							attach(next, nextNode.getAttached());
+						}
+						break;
+					}
+					down = ByteFallbackAdaptor.getFallback(down);
+				}
+				if (down == null) {
+					ByteFallbackAdaptor.setFallback(next, root);
+				}
+				nexts.add(next);
+			}
+			return nexts;
+		}
+
+	}
+
+}
@@ -191,6 +191,10 @@ public class BitSet implements Cloneable {
 		}
 	}
 
+	long[] longs() {
+		return bits;
+	}
+
 	public int size() {
 		return size;
 	}
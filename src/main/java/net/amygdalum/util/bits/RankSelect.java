@@ -0,0 +1,156 @@
+package net.amygdalum.util.bits;
+
+/**
+ * A RankSelect is an immutable copy of a BitSet supporting rank and select queries in constant time:
+ * 
+ * - rank uses the number of set bits before each block of 8 longs (512 bits) and counts the bits of at most 8 longs
+ * - select starts at the block of a sampled position (each 512th set/clear bit) and scans the blocks and longs from there
+ * 
+ * The additional space is about one int per 512 bits (for ranks) and two ints per 512 set/clear bits (for samples).
+ */
+public class RankSelect {
+
+	private static final int BLOCK_SHIFT = 3;
+	private static final int BLOCK = 1 << BLOCK_SHIFT;
+	private static final int SAMPLE = BLOCK * 64;
+
+	private int size;
+	private long[] bits;
+	private int[] ranks;
+	private int[] ones;
+	private int[] zeros;
+
+	public RankSelect(BitSet bitset) {
+		this.size = bitset.size();
+		this.bits = bitset.longs().clone();
+		int blocks = (bits.length + BLOCK - 1) >>> BLOCK_SHIFT;
+		this.ranks = new int[blocks + 1];
+		for (int b = 0; b < blocks; b++) {
+			int rank = ranks[b];
+			int end = Math.min(bits.length, (b + 1) * BLOCK);
+			for (int w = b * BLOCK; w < end; w++) {
+				rank += Long.bitCount(bits[w]);
+			}
+			ranks[b + 1] = rank;
+		}
+		int count1 = ranks[blocks];
+		int count0 = size - count1;
+		this.ones = samples(count1, true);
+		this.zeros = samples(count0, false);
+	}
+
+	private int[] samples(int count, boolean set) {
+		int[] samples = new int[(count + SAMPLE - 1) / SAMPLE];
+		int block = 0;
+		for (int j = 0; j < samples.length; j++) {
+			int k = j * SAMPLE;
+			while (before(block + 1, set) <= k) {
+				block++;
+			}
+			samples[j] = block;
+		}
+		return samples;
+	}
+
+	/**
+	 * @return the number of bits
+	 */
+	public int size() {
+		return size;
+	}
+
+	public boolean get(int i) {
+		return (bits[i >>> 6] & (1l << i)) != 0;
+	}
+
+	/**
+	 * @param i a position (0 &lt;= i &lt;= size)
+	 * @return the number of set bits before position i
+	 */
+	public int rank1(int i) {
+		int w = i >>> 6;
+		int rank = ranks[w >>> BLOCK_SHIFT];
+		for (int v = w & ~(BLOCK - 1); v < w; v++) {
+			rank += Long.bitCount(bits[v]);
+		}
+		int offset = i & 63;
+		if (offset != 0) {
+			rank += Long.bitCount(bits[w] & ((1l << offset) - 1));
+		}
+		return rank;
+	}
+
+	/**
+	 * @param i a position (0 &lt;= i &lt;= size)
+	 * @return the number of clear bits before position i
+	 */
+	public int rank0(int i) {
+		return i - rank1(i);
+	}
+
+	/**
+	 * @param k the number of set bits to skip
+	 * @return the position of the k-th set bit (starting with 0) or -1 if there are not enough set bits
+	 */
+	public int select1(int k) {
+		return select(k, true, ones);
+	}
+
+	/**
+	 * @param k the number of clear bits to skip
+	 * @return the position of the k-th clear bit (starting with 0) or -1 if there are not enough clear bits
+	 */
+	public int select0(int k) {
+		return select(k, false, zeros);
+	}
+
+	private int select(int k, boolean set, int[] samples) {
+		if (k < 0 || k / SAMPLE >= samples.length) {
+			return -1;
+		}
+		int block = samples[k / SAMPLE];
+		int blocks = ranks.length - 1;
+		while (block + 1 < blocks && before(block + 1, set) <= k) {
+			block++;
+		}
+		int remaining = k - before(block, set);
+		int end = Math.min(bits.length, (block + 1) * BLOCK);
+		for (int w = block * BLOCK; w < end; w++) {
+			long word = word(w, set);
+			int count = Long.bitCount(word);
+			if (remaining < count) {
+				return (w << 6) + select(word, remaining);
+			}
+			remaining -= count;
+		}
+		return -1;
+	}
+
+	private int before(int block, boolean set) {
+		if (set) {
+			return ranks[block];
+		} else {
+			return Math.min(size, block * SAMPLE) - ranks[block];
+		}
+	}
+
+	private long word(int w, boolean set) {
+		if (set) {
+			return bits[w];
+		}
+		long word = ~bits[w];
+		int valid = size - (w << 6);
+		if (valid < 64) {
+			word &= (1l << valid) - 1;
+		}
+		return word;
+	}
+
+	private static int select(long word, int k) {
+		for (int i = 0; i < k; i++) {
+			word &= word - 1;
+		}
+		return Long.numberOfTrailingZeros(word);
+	}
+
+}
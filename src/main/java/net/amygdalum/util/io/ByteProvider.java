@@ -57,6 +57,26 @@ public interface ByteProvider {
 	 */
 	ByteString slice(long start, long end);
 
+	/**
+	 * This method copies the next bytes (starting at the current position) into the given buffer, without consuming them.
+	 * 
+	 * Reading a whole window at once avoids one call per byte. The caller may consume the processed bytes with forward(int). 
+	 * 
+	 * @throws OutOfBufferException if the provider cannot look ahead as far as requested
+	 * @param buffer the buffer to fill
+	 * @param off the first position in buffer to fill
+	 * @param len the maximum number of bytes to copy
+	 * @return the number of copied bytes, this is less than len only at the end of the input
+	 */
+	default int peek(byte[] buffer, int off, int len) {
+		int i = 0;
+		while (i < len && !finished(i)) {
+			buffer[off + i] = lookahead(i);
+			i++;
+		}
+		return i;
+	}
+
 	void forward(int i);
 	void finish();
 	boolean finished();
@@ -0,0 +1,271 @@
+package net.amygdalum.util.io;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.nio.charset.StandardCharsets.UTF_16LE;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import net.amygdalum.util.text.ByteString;
+
+public class MappedByteProvider implements RandomAccessByteProvider {
+
+	private static final long NO_MARK = Long.MIN_VALUE;
+	private static final int DEFAULT_SEGMENT_SIZE = 1 << 30;
+	private static final int TO_STRING_WINDOW = 32;
+
+	private Charset charset;
+	private long length;
+	private int segmentShift;
+	private long segmentMask;
+	private ByteBuffer[] segments;
+
+	private ByteBuffer segment;
+	private long segmentStart;
+	private long segmentEnd;
+
+	private long pos;
+	private long mark;
+
+	/**
+	 * provides a file as byte sequence. Uses UTF_16LE as CharSet for encoding/decoding.
+	 *
+	 * further description of the arguments are found in @link {@link #MappedByteProvider(Path, Charset, long, int)}
+	 *
+	 * @param file the source file
+	 * @param start the position to start from
+	 */
+	public MappedByteProvider(Path file, long start) {
+		this(file, UTF_16LE, start, DEFAULT_SEGMENT_SIZE);
+	}
+
+	/**
+	 * provides a file as byte sequence.
+	 *
+	 * further description of the arguments are found in @link {@link #MappedByteProvider(Path, Charset, long, int)}
+	 *
+	 * @param file the source file
+	 * @param charset the charset to use for encoding/decoding
+	 * @param start the position to start from
+	 */
+	public MappedByteProvider(Path file, Charset charset, long start) {
+		this(file, charset, start, DEFAULT_SEGMENT_SIZE);
+	}
+
+	/**
+	 * provides a file as byte sequence.
+	 *
+	 * The file is mapped into memory (not copied into the heap) in segments of the given size. Since the
+	 * complete file is accessible at any time, all positions can be visited without limits to lookahead or
+	 * lookbehind. The file is read-only and should not be changed while it is mapped.
+	 *
+	 * @param file the source file
+	 * @param charset the charset to use for encoding/decoding
+	 * @param start the position to start from
+	 * @param segmentSize the size of one mapped segment (must be a power of 2)
+	 */
+	public MappedByteProvider(Path file, Charset charset, long start, int segmentSize) {
+		if (segmentSize <= 0 || Integer.bitCount(segmentSize) != 1) {
+			throw new IllegalArgumentException("segment size must be a power of 2, but was " + segmentSize);
+		}
+		this.charset = charset;
+		this.segmentShift = Integer.numberOfTrailingZeros(segmentSize);
+		this.segmentMask = segmentSize - 1;
+		this.segments = map(file, segmentSize);
+		this.segment = ByteBuffer.allocate(0);
+		this.segmentStart = 0;
+		this.segmentEnd = 0;
+		this.pos = start;
+		this.mark = NO_MARK;
+	}
+
+	private ByteBuffer[] map(Path file, int segmentSize) {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			length = channel.size();
+			int segmentNumber = (int) ((length + segmentSize - 1) >>> segmentShift);
+			ByteBuffer[] segments = new ByteBuffer[segmentNumber];
+			for (int i = 0; i < segmentNumber; i++) {
+				long start = (long) i << segmentShift;
+				long size = min(segmentSize, length - start);
+				segments[i] = channel.map(MapMode.READ_ONLY, start, size);
+			}
+			return segments;
+		} catch (IOException e) {
+			throw new IORuntimeException(e);
+		}
+	}
+
+	@Override
+	public long length() {
+		return length;
+	}
+
+	private ByteBuffer segmentFor(long i) {
+		ByteBuffer current = segments[(int) (i >>> segmentShift)];
+		segment = current;
+		segmentStart = i & ~segmentMask;
+		segmentEnd = segmentStart + current.limit();
+		return current;
+	}
+
+	@Override
+	public byte next() {
+		long i = pos;
+		ByteBuffer current = segment;
+		if (i < segmentStart || i >= segmentEnd) {
+			current = segmentFor(i);
+		}
+		byte b = current.get((int) (i - segmentStart));
+		pos = i + 1;
+		return b;
+	}
+
+	@Override
+	public byte lookahead() {
+		return at(pos);
+	}
+
+	@Override
+	public byte lookahead(int i) {
+		return at(pos + i);
+	}
+
+	@Override
+	public byte prev() {
+		pos--;
+		return at(pos);
+	}
+
+	@Override
+	public byte lookbehind() {
+		return at(pos - 1);
+	}
+
+	@Override
+	public byte lookbehind(int i) {
+		return at(pos - 1 - i);
+	}
+
+	@Override
+	public long current() {
+		return pos;
+	}
+
+	@Override
+	public void move(long i) {
+		pos = i;
+	}
+
+	@Override
+	public void forward(int i) {
+		pos += i;
+	}
+
+	@Override
+	public void finish() {
+		pos = length;
+	}
+
+	@Override
+	public boolean finished() {
+		return pos >= length;
+	}
+
+	@Override
+	public boolean finished(int i) {
+		return length - pos <= i;
+	}
+
+	@Override
+	public int peek(byte[] buffer, int off, int len) {
+		int n = (int) max(0, min(len, length - pos));
+		copy(pos, buffer, off, n);
+		return n;
+	}
+
+	@Override
+	public byte at(long i) {
+		if (i >= segmentStart && i < segmentEnd) {
+			return segment.get((int) (i - segmentStart));
+		}
+		if (i < 0 || i >= length) {
+			throw new IndexOutOfBoundsException(String.valueOf(i));
+		}
+		return segments[(int) (i >>> segmentShift)].get((int) (i & segmentMask));
+	}
+
+	@Override
+	public byte[] between(long start, long end) {
+		int len = (int) (end - start);
+		byte[] between = new byte[len];
+		if (len == 0) {
+			return between;
+		} else if (start < 0 || end > length) {
+			throw new IndexOutOfBoundsException(start + ".." + end);
+		}
+		copy(start, between, 0, len);
+		return between;
+	}
+
+	private void copy(long start, byte[] target, int off, int len) {
+		int to = off;
+		int end = off + len;
+		long from = start;
+		while (to < end) {
+			ByteBuffer current = segments[(int) (from >>> segmentShift)].duplicate();
+			int offset = (int) (from & segmentMask);
+			int chunk = min(end - to, current.limit() - offset);
+			current.position(offset);
+			current.get(target, to, chunk);
+			to += chunk;
+			from += chunk;
+		}
+	}
+
+	@Override
+	public ByteString slice(long start, long end) {
+		return new ByteString(between(start, end), charset);
+	}
+
+	@Override
+	public void mark() {
+		mark = pos;
+	}
+
+	@Override
+	public boolean changed() {
+		boolean changed = mark != NO_MARK && mark != pos;
+		mark = NO_MARK;
+		return changed;
+	}
+
+	@Override
+	public String toString() {
+		long splitPoint = min(max(pos, 0), length);
+		long start = max(0, splitPoint - TO_STRING_WINDOW);
+		long end = min(length, splitPoint + TO_STRING_WINDOW);
+		StringBuilder buffer = new StringBuilder();
+		if (start > 0) {
+			buffer.append("...");
+		}
+		ByteString prefix = slice(start, splitPoint);
+		buffer.append(prefix.getMappablePrefix());
+		if (!prefix.isMappable()) {
+			buffer.append("~|~");
+		} else {
+			buffer.append('|');
+		}
+		buffer.append(slice(splitPoint, end).getMappableSuffix());
+		if (end < length) {
+			buffer.append("...");
+		}
+		return buffer.toString();
+	}
+
+}
@@ -59,6 +59,14 @@ public abstract class MappingCharProvider implements CharProvider {
 		chars.forward(i);
 	}
 
+	public int peek(char[] buffer, int off, int len) {
+		int n = chars.peek(buffer, off, len);
+		for (int i = off; i < off + n; i++) {
+			buffer[i] = map(buffer[i]);
+		}
+		return n;
+	}
+
 	public void finish() {
 		chars.finish();
 	}
@@ -0,0 +1,164 @@
+package net.amygdalum.util.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * A PrefetchInputStream reads the underlying input stream in a background thread, so that reading from the stream and
+ * processing the read bytes may overlap.
+ *
+ * The memory is bounded: the background thread reads chunks of fixed size into a fixed number of buffers and waits
+ * if all buffers are filled but not yet consumed. An IOException of the underlying stream is rethrown
+ * by read. Reads only return less bytes than requested at the end of the stream.
+ *
+ * Other exceptions of the underlying input stream are rethrown by read as IOException (with the original exception as cause).
+ * Closing this stream wakes up a blocked read (which then throws an IOException). The background thread ends at the end
+ * of the underlying input stream or when this stream is closed, so a stream that is dropped before its end should be closed, otherwise
+ * the (daemon) thread stays parked. StreamByteProvider closes it on finish().
+ */
+public class PrefetchInputStream extends InputStream {
+
+	private static final Chunk END = new Chunk(new byte[0]);
+
+	private InputStream input;
+	private BlockingQueue<Chunk> free;
+	private BlockingQueue<Chunk> filled;
+	private Chunk current;
+	private Thread prefetch;
+	private volatile boolean closed;
+
+	/**
+	 * @param input the underlying input stream
+	 * @param chunk the size of one chunk read in background
+	 * @param buffers the number of chunks that may be read ahead
+	 */
+	public PrefetchInputStream(InputStream input, int chunk, int buffers) {
+		this.input = input;
+		this.free = new ArrayBlockingQueue<>(buffers);
+		for (int i = 0; i < buffers; i++) {
+			free.add(new Chunk(new byte[chunk]));
+		}
+		this.filled = new LinkedBlockingQueue<>();
+		this.prefetch = new Thread(this::prefetch, "prefetch");
+		this.prefetch.setDaemon(true);
+		this.prefetch.start();
+	}
+
+	private void prefetch() {
+		try {
+			while (!closed) {
+				Chunk chunk = free.take();
+				chunk.pos = 0;
+				chunk.length = fill(chunk.bytes);
+				if (chunk.length > 0) {
+					filled.put(chunk);
+				}
+				if (chunk.length < chunk.bytes.length) {
+					filled.put(END);
+					return;
+				}
+			}
+		} catch (IOException e) {
+			filled.add(new Chunk(e));
+		} catch (InterruptedException e) {
+			return;
+		} catch (Throwable e) {
+			filled.add(new Chunk(new IOException("prefetch failed", e)));
+		}
+	}
+
+	private int fill(byte[] bytes) throws IOException {
+		int length = 0;
+		while (length < bytes.length) {
+			int read = input.read(bytes, length, bytes.length - length);
+			if (read < 0) {
+				break;
+			}
+			length += read;
+		}
+		return length;
+	}
+
+	@Override
+	public int read() throws IOException {
+		byte[] b = new byte[1];
+		int read = read(b, 0, 1);
+		if (read < 0) {
+			return -1;
+		}
+		return b[0] & 0xff;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		int read = 0;
+		while (read < len) {
+			if (current == null || current.pos >= current.length && !current.isLast()) {
+				current = next();
+			}
+			if (current.error != null && read == 0) {
+				throw current.error;
+			} else if (current.isLast()) {
+				break;
+			}
+			int n = Math.min(len - read, current.length - current.pos);
+			System.arraycopy(current.bytes, current.pos, b, off + read, n);
+			current.pos += n;
+			read += n;
+		}
+		if (read == 0) {
+			return -1;
+		}
+		return read;
+	}
+
+	private Chunk next() throws IOException {
+		if (current != null && !current.isLast()) {
+			free.add(current);
+		}
+		try {
+			return filled.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		closed = true;
+		filled.add(new Chunk(new IOException("stream closed")));
+		prefetch.interrupt();
+		input.close();
+	}
+
+	private static class Chunk {
+
+		private byte[] bytes;
+		private int pos;
+		private int length;
+		private IOException error;
+
+		Chunk(byte[] bytes) {
+			this.bytes = bytes;
+		}
+
+		Chunk(IOException error) {
+			this.bytes = new byte[0];
+			this.error = error;
+		}
+
+		boolean isLast() {
+			return this == END || error != null;
+		}
+
+	}
+
+}
@@ -0,0 +1,154 @@
+package net.amygdalum.util.io;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * A PrefetchReader reads the underlying reader in a background thread, so that reading from the reader and
+ * processing the read chars may overlap.
+ *
+ * The memory is bounded: the background thread reads chunks of fixed size into a fixed number of buffers and waits
+ * if all buffers are filled but not yet consumed. An IOException of the underlying reader is rethrown
+ * by read. Reads only return less chars than requested at the end of the reader.
+ *
+ * Other exceptions of the underlying reader are rethrown by read as IOException (with the original exception as cause).
+ * Closing this reader wakes up a blocked read (which then throws an IOException). The background thread ends at the end
+ * of the underlying reader or when this reader is closed, so a reader that is dropped before its end should be closed, otherwise
+ * the (daemon) thread stays parked. ReaderCharProvider closes it on finish().
+ */
+public class PrefetchReader extends Reader {
+
+	private static final Chunk END = new Chunk(new char[0]);
+
+	private Reader input;
+	private BlockingQueue<Chunk> free;
+	private BlockingQueue<Chunk> filled;
+	private Chunk current;
+	private Thread prefetch;
+	private volatile boolean closed;
+
+	/**
+	 * @param input the underlying reader
+	 * @param chunk the size of one chunk read in background
+	 * @param buffers the number of chunks that may be read ahead
+	 */
+	public PrefetchReader(Reader input, int chunk, int buffers) {
+		this.input = input;
+		this.free = new ArrayBlockingQueue<>(buffers);
+		for (int i = 0; i < buffers; i++) {
+			free.add(new Chunk(new char[chunk]));
+		}
+		this.filled = new LinkedBlockingQueue<>();
+		this.prefetch = new Thread(this::prefetch, "prefetch");
+		this.prefetch.setDaemon(true);
+		this.prefetch.start();
+	}
+
+	private void prefetch() {
+		try {
+			while (!closed) {
+				Chunk chunk = free.take();
+				chunk.pos = 0;
+				chunk.length = fill(chunk.chars);
+				if (chunk.length > 0) {
+					filled.put(chunk);
+				}
+				if (chunk.length < chunk.chars.length) {
+					filled.put(END);
+					return;
+				}
+			}
+		} catch (IOException e) {
+			filled.add(new Chunk(e));
+		} catch (InterruptedException e) {
+			return;
+		} catch (Throwable e) {
+			filled.add(new Chunk(new IOException("prefetch failed", e)));
+		}
+	}
+
+	private int fill(char[] chars) throws IOException {
+		int length = 0;
+		while (length < chars.length) {
+			int read = input.read(chars, length, chars.length - length);
+			if (read < 0) {
+				break;
+			}
+			length += read;
+		}
+		return length;
+	}
+
+	@Override
+	public int read(char[] cbuf, int off, int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		int read = 0;
+		while (read < len) {
+			if (current == null || current.pos >= current.length && !current.isLast()) {
+				current = next();
+			}
+			if (current.error != null && read == 0) {
+				throw current.error;
+			} else if (current.isLast()) {
+				break;
+			}
+			int n = Math.min(len - read, current.length - current.pos);
+			System.arraycopy(current.chars, current.pos, cbuf, off + read, n);
+			current.pos += n;
+			read += n;
+		}
+		if (read == 0) {
+			return -1;
+		}
+		return read;
+	}
+
+	private Chunk next() throws IOException {
+		if (current != null && !current.isLast()) {
+			free.add(current);
+		}
+		try {
+			return filled.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		closed = true;
+		filled.add(new Chunk(new IOException("reader closed")));
+		prefetch.interrupt();
+		input.close();
+	}
+
+	private static class Chunk {
+
+		private char[] chars;
+		private int pos;
+		private int length;
+		private IOException error;
+
+		Chunk(char[] chars) {
+			this.chars = chars;
+		}
+
+		Chunk(IOException error) {
+			this.chars = new char[0];
+			this.error = error;
+		}
+
+		boolean isLast() {
+			return this == END || error != null;
+		}
+
+	}
+
+}
@@ -0,0 +1,14 @@
+package net.amygdalum.util.io;
+
+/**
+ * A RandomAccessByteProvider knows its length and provides any position with at(long) - without moving the current position,
+ * so at(long) may be called from multiple threads (as long as no thread moves the provider).
+ */
+public interface RandomAccessByteProvider extends ByteProvider {
+
+	/**
+	 * @return the number of bytes of this provider
+	 */
+	long length();
+
+}
@@ -208,6 +208,17 @@ public class ReaderBufferCharProvider implements CharProvider {
 		return buffer.limit() - pos <= i && state == -1;
 	}
 
+	@Override
+	public int peek(char[] target, int off, int len) {
+		int n = Math.max(0, Math.min(len, buffer.limit() - pos));
+		System.arraycopy(buffer.array(), pos, target, off, n);
+		while (n < len && !finished(n)) {
+			target[off + n] = lookahead(n);
+			n++;
+		}
+		return n;
+	}
+
 	@Override
 	public char at(long i) {
 		long rel = i - absolutePos;
@@ -47,6 +47,21 @@ public class ReaderCharProvider implements CharProvider {
 		init(start);
 	}
 
+	/**
+	 * provides a reader as char sequence. The next chunks are read in background while the current chunk is processed.
+	 * 
+	 * further description of the arguments are found in {@link #ReaderCharProvider(Reader, long, int, int)}
+	 * 
+	 * @param input the source reader
+	 * @param start the position to start from
+	 * @param chunk the size of one chunk to search in
+	 * @param lookaroundBuffers number of chunks around the current chunk that are searchable
+	 * @param prefetchBuffers number of chunks that are read ahead in background (0 for synchronous reading)
+	 */
+	public ReaderCharProvider(Reader input, long start, int chunk, int lookaroundBuffers, int prefetchBuffers) {
+		this(prefetchBuffers > 0 ? new PrefetchReader(input, chunk, prefetchBuffers) : input, start, chunk, lookaroundBuffers);
+	}
+
 	public final void init(long start) {
 		int buffersToRead = (int) (start / (long) bufferSize) + 1;
 		read(buffersToRead);
@@ -319,6 +334,32 @@ public class ReaderCharProvider implements CharProvider {
 		return false;
 	}
 
+	@Override
+	public int peek(char[] buffer, int off, int len) {
+		int n = 0;
+		int index = currentIndex;
+		int pos = currentPos;
+		while (n < len) {
+			if (pos >= bufferSize) {
+				pos -= bufferSize;
+				index++;
+			}
+			int end = index < topIndex ? bufferSize : index == topIndex ? topPos : -1;
+			if (pos >= end) {
+				break;
+			}
+			int chunk = Math.min(len - n, end - pos);
+			System.arraycopy(buffers[index], pos, buffer, off + n, chunk);
+			n += chunk;
+			pos += chunk;
+		}
+		while (n < len && !finished(n)) {
+			buffer[off + n] = lookahead(n);
+			n++;
+		}
+		return n;
+	}
+
 	@Override
 	public char at(long pos) {
 		long relativePos = pos - absolutePos;
@@ -55,6 +55,24 @@ public class ReverseByteProvider implements ByteProvider {
 		bytes.move(i);
 	}
 	
+	@Override
+	public int peek(byte[] buffer, int off, int len) {
+		long current = bytes.current();
+		int n = (int) Math.min(len, current);
+		bytes.move(current - n);
+		try {
+			n = bytes.peek(buffer, off, n);
+		} finally {
+			bytes.move(current);
+		}
+		for (int i = off, j = off + n - 1; i < j; i++, j--) {
+			byte temp = buffer[i];
+			buffer[i] = buffer[j];
+			buffer[j] = temp;
+		}
+		return n;
+	}
+
 	@Override
 	public void forward(int i) {
 		bytes.forward(-i);
@@ -54,6 +54,24 @@ public class ReverseCharProvider implements CharProvider {
 		chars.move(i);
 	}
 	
+	@Override
+	public int peek(char[] buffer, int off, int len) {
+		long current = chars.current();
+		int n = (int) Math.min(len, current);
+		chars.move(current - n);
+		try {
+			n = chars.peek(buffer, off, n);
+		} finally {
+			chars.move(current);
+		}
+		for (int i = off, j = off + n - 1; i < j; i++, j--) {
+			char temp = buffer[i];
+			buffer[i] = buffer[j];
+			buffer[j] = temp;
+		}
+		return n;
+	}
+
 	@Override
 	public void forward(int i) {
 		chars.forward(-i);
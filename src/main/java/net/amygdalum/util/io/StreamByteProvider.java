@@ -69,6 +69,22 @@ public class StreamByteProvider implements ByteProvider {
 		init(start);
 	}
 
+	/**
+	 * provides an input stream as byte sequence. The next chunks are read in background while the current chunk is processed.
+	 * 
+	 * further description of the arguments are found in {@link #StreamByteProvider(InputStream, Charset, long, int, int)}
+	 * 
+	 * @param input the source input stream
+	 * @param charset the charset to use for encoding/decoding
+	 * @param start the position to start from
+	 * @param chunk the size of one buffer to search in
+	 * @param lookaroundBuffers number of chunks around the current chunk that are searchable
+	 * @param prefetchBuffers number of chunks that are read ahead in background (0 for synchronous reading)
+	 */
+	public StreamByteProvider(InputStream input, Charset charset, long start, int chunk, int lookaroundBuffers, int prefetchBuffers) {
+		this(prefetchBuffers > 0 ? new PrefetchInputStream(input, chunk, prefetchBuffers) : input, charset, start, chunk, lookaroundBuffers);
+	}
+
 	public final void init(long start) {
 		int buffersToRead = (int) (start / (long) bufferSize) + 1;
 		read(buffersToRead);
@@ -341,6 +357,32 @@ public class StreamByteProvider implements ByteProvider {
 		return false;
 	}
 
+	@Override
+	public int peek(byte[] buffer, int off, int len) {
+		int n = 0;
+		int index = currentIndex;
+		int pos = currentPos;
+		while (n < len) {
+			if (pos >= bufferSize) {
+				pos -= bufferSize;
+				index++;
+			}
+			int end = index < topIndex ? bufferSize : index == topIndex ? topPos : -1;
+			if (pos >= end) {
+				break;
+			}
+			int chunk = Math.min(len - n, end - pos);
+			System.arraycopy(buffers[index], pos, buffer, off + n, chunk);
+			n += chunk;
+			pos += chunk;
+		}
+		while (n < len && !finished(n)) {
+			buffer[off + n] = lookahead(n);
+			n++;
+		}
+		return n;
+	}
+
 	@Override
 	public byte at(long pos) {
 		long relativePos = pos - absolutePos;
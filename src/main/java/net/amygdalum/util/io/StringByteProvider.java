@@ -11,7 +11,7 @@ import java.nio.charset.CharsetEncoder;
 
 import net.amygdalum.util.text.ByteString;
 
-public class StringByteProvider implements ByteProvider {
+public class StringByteProvider implements RandomAccessByteProvider {
 
 	private static final int NO_MARK = -1;
 
@@ -120,6 +120,11 @@ public class StringByteProvider implements ByteProvider {
 		encoded.position(encoded.position() + i);
 	}
 
+	@Override
+	public long length() {
+		return encoded.limit();
+	}
+
 	@Override
 	public boolean finished() {
 		return !encoded.hasRemaining();
@@ -130,6 +135,13 @@ public class StringByteProvider implements ByteProvider {
 		return encoded.remaining() <= i;
 	}
 
+	@Override
+	public int peek(byte[] buffer, int off, int len) {
+		int n = Math.min(len, encoded.remaining());
+		encoded.duplicate().get(buffer, off, n);
+		return n;
+	}
+
 	@Override
 	public byte at(long i) {
 		return encoded.get((int) i);
@@ -1,6 +1,6 @@
 package net.amygdalum.util.io;
 
-public class StringCharProvider implements CharProvider {
+public class StringCharProvider implements RandomAccessCharProvider {
 
 	private static final int NO_MARK = -1;
 	
@@ -76,6 +76,11 @@ public class StringCharProvider implements CharProvider {
 		pos += i;
 	}
 
+	@Override
+	public long length() {
+		return input.length();
+	}
+
 	@Override
 	public boolean finished() {
 		return pos >= input.length();
@@ -86,6 +91,13 @@ public class StringCharProvider implements CharProvider {
 		return pos + i >= input.length();
 	}
 
+	@Override
+	public int peek(char[] buffer, int off, int len) {
+		int n = Math.max(0, Math.min(len, input.length() - pos));
+		input.getChars(pos, pos + n, buffer, off);
+		return n;
+	}
+
 	@Override
 	public char at(long i) {
 		return input.charAt((int) i);
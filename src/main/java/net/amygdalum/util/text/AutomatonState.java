@@ -0,0 +1,16 @@
+package net.amygdalum.util.text;
+
+/**
+ * An AutomatonState holds a snapshot of the state of a cursor (see {@link CharAutomaton#snapshot(AutomatonState)} and
+ * {@link ByteAutomaton#snapshot(AutomatonState)}). The state is owned by the caller and overwritten by each snapshot, so switching a
+ * cursor between many inputs does not allocate.
+ *
+ * - automatons on arrays (double array tries, flat dawgs, dfas) store their state number in {@link #state}
+ * - automatons on linked nodes store their node in {@link #node}
+ */
+public class AutomatonState {
+
+	public int state;
+	public Object node;
+
+}
@@ -2,6 +2,7 @@ package net.amygdalum.util.text;
 
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.function.Consumer;
 
 public interface ByteAutomaton<T> extends Iterable<T> {
 
@@ -41,4 +42,51 @@ public interface ByteAutomaton<T> extends Iterable<T> {
 
 	boolean hasAttachments();
 
-}
\ No newline at end of file
+	/**
+	 * @return the first attachment of the current state (the one that would be returned first by the iterator), or null if there is none
+	 */
+	default T getAttached() {
+		Iterator<T> attachments = iterator();
+		if (attachments.hasNext()) {
+			return attachments.next();
+		}
+		return null;
+	}
+
+	/**
+	 * passes all attachments of the current state (including the ones reachable by fallback) to the given consumer.
+	 * 
+	 * The automatons of this library report the attachments without allocating an iterator.
+	 * 
+	 * @param consumer the consumer of the attachments
+	 */
+	default void forEachAttachment(Consumer<? super T> consumer) {
+		for (T attachment : this) {
+			consumer.accept(attachment);
+		}
+	}
+
+	/**
+	 * stores the current state of this automaton in the given state. Restoring this state (on this or another cursor of the same word
+	 * set) continues at the position where the snapshot was taken.
+	 * 
+	 * The automatons with fallback links of this library support snapshots.
+	 * 
+	 * @throws UnsupportedOperationException if this automaton does not support snapshots
+	 * @param state the state to overwrite with the current state
+	 */
+	default void snapshot(AutomatonState state) {
+		throw new UnsupportedOperationException("snapshot");
+	}
+
+	/**
+	 * restores a state stored by {@link #snapshot(AutomatonState)}
+	 * 
+	 * @throws UnsupportedOperationException if this automaton does not support snapshots
+	 * @param state the state to restore
+	 */
+	default void restore(AutomatonState state) {
+		throw new UnsupportedOperationException("restore");
+	}
+
+}
@@ -34,19 +34,19 @@ public final class ByteEncoding {
 	public static List<ByteRange> getPartitioningFor(Charset charset) {
 		List<ByteRange> part = partitionings.get(charset);
 		if (part == null) {
-			part = bruteForce();
+			part = bruteForce(charset);
 			partitionings.put(charset, part);
 		}
 		return part;
 	}
 
-	private static List<ByteRange> bruteForce() {
+	private static List<ByteRange> bruteForce(Charset charset) {
 		List<ByteRange> ranges = new ArrayList<>();
 		byte[] start = null;
 		int size = 0;
 		byte[] last = null;
 		for (int i = Character.MIN_VALUE; i <= Character.MAX_VALUE; i++) {
-			byte[] current = encode((char) i);
+			byte[] current = encode(charset, (char) i);
 			if (start == null) {
 				start = current;
 				last = current;
@@ -60,8 +60,8 @@ public final class ByteEncoding {
 				last = current;
 				size = 1;
 			}
-			
 		}
+		ranges.add(new ByteRange(start, last, size));
 		return ranges;
 	}
 
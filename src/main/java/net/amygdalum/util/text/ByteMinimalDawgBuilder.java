@@ -0,0 +1,165 @@
+package net.amygdalum.util.text;
+
+import static net.amygdalum.util.text.AttachmentAdaptor.attach;
+import static net.amygdalum.util.text.ByteConnectionAdaptor.addNextNode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A ByteMinimalDawgBuilder builds a minimal word graph (equal suffixes with equal attachments share their nodes) from sorted input.
+ *
+ * Nodes are minimized as soon as no more words can be appended to them (i.e. a word with a different prefix is added). Equivalent nodes
+ * are merged with a register of already minimized nodes, so the complete trie of the words is never built.
+ *
+ * Words must be given in lexicographic order (comparing bytes unsigned), equal words are joined with the join strategy (if any).
+ *
+ * @param <T> the type of attachment storable in each graph node
+ * @param <R> the type of the resulting word set
+ */
+public class ByteMinimalDawgBuilder<T, R> {
+
+	private ByteWordGraphCompiler<T, R> compiler;
+	private JoinStrategy<T> strategy;
+	private ByteNode<T> root;
+	private Map<Signature<T>, ByteNode<T>> register;
+	private List<ByteNode<T>> path;
+	private byte[] last;
+
+	public ByteMinimalDawgBuilder(ByteWordGraphCompiler<T, R> compiler) {
+		this(compiler, null);
+	}
+
+	public ByteMinimalDawgBuilder(ByteWordGraphCompiler<T, R> compiler, JoinStrategy<T> strategy) {
+		this.compiler = compiler;
+		this.strategy = strategy;
+		this.root = compiler.create();
+		this.register = new HashMap<>();
+		this.path = new ArrayList<>();
+		this.path.add(root);
+	}
+
+	public ByteMinimalDawgBuilder<T, R> extend(byte[] bytes, T data) {
+		int prefix = 0;
+		if (last != null) {
+			prefix = commonPrefix(last, bytes);
+			if (prefix == bytes.length && prefix == last.length) {
+				join(path.get(prefix), data);
+				return this;
+			} else if (prefix == bytes.length || prefix < last.length && (bytes[prefix] & 0xff) < (last[prefix] & 0xff)) {
+				throw new IllegalArgumentException("words must be added in sorted order, but " + Arrays.toString(bytes) + " < " + Arrays.toString(last));
+			}
+			minimize(prefix);
+		}
+		ByteNode<T> node = path.get(prefix);
+		for (int i = prefix; i < bytes.length; i++) {
+			ByteNode<T> next = compiler.create();
+			addNextNode(node, bytes[i], next);
+			path.add(next);
+			node = next;
+		}
+		join(node, data);
+		last = bytes;
+		return this;
+	}
+
+	private static int commonPrefix(byte[] last, byte[] bytes) {
+		int length = Math.min(last.length, bytes.length);
+		for (int i = 0; i < length; i++) {
+			if (last[i] != bytes[i]) {
+				return i;
+			}
+		}
+		return length;
+	}
+
+	private void join(ByteNode<T> node, T data) {
+		if (data == null) {
+			return;
+		}
+		if (strategy != null) {
+			T existing = node.getAttached();
+			T joinedData = strategy.join(existing, data);
+			if (joinedData != existing) {
+				attach(node, joinedData);
+			}
+		} else {
+			attach(node, data);
+		}
+	}
+
+	/**
+	 * replaces or registers all nodes on the path of the last word deeper than the given length
+	 */
+	private void minimize(int length) {
+		for (int i = path.size() - 1; i > length; i--) {
+			ByteNode<T> node = path.remove(i);
+			Signature<T> signature = new Signature<>(node);
+			ByteNode<T> registered = register.putIfAbsent(signature, node);
+			if (registered != null) {
+				addNextNode(path.get(i - 1), last[i - 1], registered);
+			}
+		}
+	}
+
+	public R build() {
+		minimize(0);
+		register.clear();
+		return new ByteWordSetBuilder<>(compiler, strategy, root).build();
+	}
+
+	private static class Signature<T> {
+
+		private T attached;
+		private byte[] bytes;
+		private ByteNode<T>[] nexts;
+		private int hashCode;
+
+		@SuppressWarnings("unchecked")
+		public Signature(ByteNode<T> node) {
+			this.attached = node.getAttached();
+			this.bytes = node.getAlternatives();
+			Arrays.sort(bytes);
+			this.nexts = new ByteNode[bytes.length];
+			int hashCode = Objects.hashCode(attached) * 31 + Arrays.hashCode(bytes);
+			for (int i = 0; i < bytes.length; i++) {
+				nexts[i] = node.nextNode(bytes[i]);
+				hashCode = hashCode * 31 + System.identityHashCode(nexts[i]);
+			}
+			this.hashCode = hashCode;
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (obj == null || getClass() != obj.getClass()) {
+				return false;
+			}
+			Signature<?> that = (Signature<?>) obj;
+			if (this.hashCode != that.hashCode
+				|| !Objects.equals(this.attached, that.attached)
+				|| !Arrays.equals(this.bytes, that.bytes)) {
+				return false;
+			}
+			for (int i = 0; i < nexts.length; i++) {
+				if (this.nexts[i] != that.nexts[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+	}
+
+}
@@ -0,0 +1,25 @@
+package net.amygdalum.util.text;
+
+/**
+ * The output node of a node is the next node in its fallback chain that carries an attachment (skipping all nodes without attachment
+ * or with the same attachment as the node, e.g. attachments copied from the fallback node).
+ * 
+ * @param <T> the type of attachment
+ */
+public interface ByteOutputAdaptor<T> {
+
+	ByteNode<T> getOutput();
+
+	void setOutput(ByteNode<T> outputNode);
+
+	@SuppressWarnings("unchecked")
+	static <T> ByteNode<T> getOutput(Object node) {
+		return ((ByteOutputAdaptor<T>) node).getOutput();
+	}
+
+	@SuppressWarnings("unchecked")
+	static <T> void setOutput(Object node, ByteNode<T> output) {
+		((ByteOutputAdaptor<T>) node).setOutput(output);
+	}
+
+}
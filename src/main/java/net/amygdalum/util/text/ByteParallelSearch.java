@@ -0,0 +1,160 @@
+package net.amygdalum.util.text;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
+import net.amygdalum.util.io.IORuntimeException;
+
+/**
+ * A ByteParallelSearch scans a text (a byte array or a file) for the words of a word set, using multiple threads for one text.
+ *
+ * The text is split into segments, each segment is scanned with its own cursor (on a ForkJoinPool). The cursor of a segment starts
+ * maxLength - 1 bytes before the segment, so that matches crossing the segment start are found, but only matches ending in the segment
+ * are reported. The matches of all segments are returned in the order of their end positions (each match exactly once).
+ *
+ * The cursors of the word set must search (i.e. follow fallback links), maxLength must not be less than the length of the longest word
+ * (see {@link ByteUtils#maxLength(byte[][])}).
+ *
+ * @param <T> the type of attachment of the word set
+ */
+public class ByteParallelSearch<T> {
+
+	private static final int MIN_SEGMENT_SIZE = 1 << 16;
+
+	private ByteWordSet<T> words;
+	private int overlap;
+	private ForkJoinPool pool;
+	private int segments;
+	private int minSegmentSize;
+
+	public ByteParallelSearch(ByteWordSet<T> words, int maxLength) {
+		this(words, maxLength, ForkJoinPool.commonPool());
+	}
+
+	public ByteParallelSearch(ByteWordSet<T> words, int maxLength, ForkJoinPool pool) {
+		this(words, maxLength, pool, pool.getParallelism(), MIN_SEGMENT_SIZE);
+	}
+
+	/**
+	 * @param words the word set to search
+	 * @param maxLength the length of the longest word
+	 * @param pool the pool to scan the segments in
+	 * @param segments the number of segments a text is split into
+	 * @param minSegmentSize the minimum size of a segment (smaller texts are split into less segments)
+	 */
+	public ByteParallelSearch(ByteWordSet<T> words, int maxLength, ForkJoinPool pool, int segments, int minSegmentSize) {
+		this.words = words;
+		this.overlap = Math.max(0, maxLength - 1);
+		this.pool = pool;
+		this.segments = Math.max(1, segments);
+		this.minSegmentSize = Math.max(1, minSegmentSize);
+	}
+
+	public List<WordMatch<T>> search(byte[] bytes) {
+		int segmentSize = segmentSize(bytes.length);
+		List<Segment> tasks = new ArrayList<>();
+		for (int start = 0; start < bytes.length; start += segmentSize) {
+			int from = Math.max(0, start - overlap);
+			int end = (int) Math.min(bytes.length, (long) start + segmentSize);
+			tasks.add(new Segment(ByteBuffer.wrap(bytes, from, end - from).slice(), from, start - from));
+		}
+		return search(tasks);
+	}
+
+	/**
+	 * searches a file, each segment of the file is mapped into memory (not copied into the heap).
+	 *
+	 * @param file the file to search
+	 * @return the matches in the file
+	 */
+	public List<WordMatch<T>> search(Path file) {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long length = channel.size();
+			int segmentSize = segmentSize(length);
+			List<Segment> tasks = new ArrayList<>();
+			for (long start = 0; start < length; start += segmentSize) {
+				long from = Math.max(0, start - overlap);
+				long end = Math.min(length, start + segmentSize);
+				tasks.add(new Segment(channel.map(MapMode.READ_ONLY, from, end - from), from, (int) (start - from)));
+			}
+			return search(tasks);
+		} catch (IOException e) {
+			throw new IORuntimeException(e);
+		}
+	}
+
+	private int segmentSize(long length) {
+		long segmentSize = Math.max(minSegmentSize, (length + segments - 1) / segments);
+		return (int) Math.min(segmentSize, Integer.MAX_VALUE - overlap);
+	}
+
+	private List<WordMatch<T>> search(List<Segment> tasks) {
+		for (Segment task : tasks) {
+			pool.execute(task);
+		}
+		List<WordMatch<T>> matches = new ArrayList<>();
+		for (Segment task : tasks) {
+			matches.addAll(task.join());
+		}
+		return matches;
+	}
+
+	private class Segment extends RecursiveTask<List<WordMatch<T>>> {
+
+		private static final long serialVersionUID = 1L;
+
+		private ByteBuffer bytes;
+		private long offset;
+		private int start;
+
+		/**
+		 * @param bytes the bytes of the segment (including the overlap)
+		 * @param offset the position of the first byte in the text
+		 * @param start the first position (in bytes) a match may end in (the overlap before is only scanned)
+		 */
+		Segment(ByteBuffer bytes, long offset, int start) {
+			this.bytes = bytes;
+			this.offset = offset;
+			this.start = start;
+		}
+
+		@Override
+		protected List<WordMatch<T>> compute() {
+			Matches<T> matches = new Matches<>();
+			ByteAutomaton<T> cursor = words.cursor();
+			int end = bytes.limit();
+			for (int i = 0; i < end; i++) {
+				if (!cursor.accept(bytes.get(i))) {
+					cursor.reset();
+				} else if (i >= start) {
+					matches.end = offset + i + 1;
+					cursor.forEachAttachment(matches);
+				}
+			}
+			return matches.list;
+		}
+
+	}
+
+	private static class Matches<T> implements Consumer<T> {
+
+		private List<WordMatch<T>> list = new ArrayList<>();
+		private long end;
+
+		@Override
+		public void accept(T match) {
+			list.add(new WordMatch<>(end, match));
+		}
+
+	}
+
+}
@@ -0,0 +1,39 @@
+package net.amygdalum.util.text;
+
+/**
+ * A ByteWalker walks the plain transitions of a word set (ignoring any fallback links), starting at the root. In contrast to a
+ * {@link ByteAutomaton} it does not lose its state on a missing transition and it may step back to the previous state.
+ * 
+ * @param <T> the type of attachment
+ */
+public interface ByteWalker<T> {
+
+	/**
+	 * moves to the root
+	 */
+	void reset();
+
+	/**
+	 * follows the transition with the given byte
+	 * 
+	 * @param b the byte to follow
+	 * @return true if there was such a transition, false (and unchanged state) otherwise
+	 */
+	boolean step(byte b);
+
+	/**
+	 * undoes the last successful step (must not be called at the root)
+	 */
+	void back();
+
+	/**
+	 * @return the attachment of the word ending at the current state or null if there is none
+	 */
+	T getAttached();
+
+	/**
+	 * @return the sorted bytes of the transitions from the current state (the result must not be modified)
+	 */
+	byte[] getAlternatives();
+
+}
@@ -0,0 +1,144 @@
+package net.amygdalum.util.text;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * A ByteWordMatcher finds the words of a word set (with fallback links) in an input that is pushed chunk by chunk. The matcher
+ * keeps its state between the chunks, so matches spanning multiple chunks are found. Positions of matches are absolute (counted from
+ * the first byte fed after construction or reset).
+ *
+ * The state of a matcher can be taken with {@link #snapshot(State)} and restored with {@link #restore(State)}, so one matcher may serve
+ * many inputs (e.g. connections) alternately.
+ *
+ * @param <T> the type of attachment of the word set
+ */
+public class ByteWordMatcher<T> {
+
+	private ByteAutomaton<T> cursor;
+	private ToIntFunction<? super T> length;
+	private long position;
+	private Reporter reporter;
+
+	/**
+	 * @param words a word set with fallback links
+	 */
+	public ByteWordMatcher(ByteWordSet<T> words) {
+		this(words, null);
+	}
+
+	/**
+	 * @param words a word set with fallback links
+	 * @param length computes the length of the matched word from its attachment (or null if the start of matches is not needed)
+	 */
+	public ByteWordMatcher(ByteWordSet<T> words, ToIntFunction<? super T> length) {
+		this.cursor = words.cursor();
+		this.length = length;
+		this.reporter = new Reporter();
+	}
+
+	/**
+	 * @return the number of bytes fed since construction or reset
+	 */
+	public long position() {
+		return position;
+	}
+
+	public void reset() {
+		cursor.reset();
+		position = 0;
+	}
+
+	/**
+	 * feeds the next chunk of the input and reports all matches ending in this chunk
+	 *
+	 * @param chunk the buffer containing the chunk
+	 * @param off the start of the chunk in the buffer
+	 * @param len the length of the chunk
+	 * @param matches the consumer of the matches (in the order of their end positions)
+	 */
+	public void feed(byte[] chunk, int off, int len, Consumer<? super WordMatch<T>> matches) {
+		reporter.matches = matches;
+		int end = off + len;
+		for (int i = off; i < end; i++) {
+			position++;
+			if (!cursor.accept(chunk[i])) {
+				cursor.reset();
+			} else {
+				cursor.forEachAttachment(reporter);
+			}
+		}
+		reporter.matches = null;
+	}
+
+	/**
+	 * feeds the next chunk of the input
+	 *
+	 * @param chunk the buffer containing the chunk
+	 * @param off the start of the chunk in the buffer
+	 * @param len the length of the chunk
+	 * @return all matches ending in this chunk (in the order of their end positions)
+	 */
+	public List<WordMatch<T>> feed(byte[] chunk, int off, int len) {
+		List<WordMatch<T>> matches = new ArrayList<>();
+		feed(chunk, off, len, matches::add);
+		return matches;
+	}
+
+	/**
+	 * @return a new state of this matcher (which is not changed by further feeding)
+	 */
+	public State snapshot() {
+		State state = new State();
+		snapshot(state);
+		return state;
+	}
+
+	/**
+	 * stores the state of this matcher in a state owned by the caller, so switching between many inputs does not allocate
+	 *
+	 * @param state the state to overwrite
+	 */
+	public void snapshot(State state) {
+		cursor.snapshot(state);
+		state.position = position;
+	}
+
+	/**
+	 * continues matching in the given state
+	 *
+	 * @param state a state of a matcher of the same word set
+	 */
+	public void restore(State state) {
+		cursor.restore(state);
+		position = state.position;
+	}
+
+	public static class State extends AutomatonState {
+
+		private long position;
+
+		public long getPosition() {
+			return position;
+		}
+
+	}
+
+	private class Reporter implements Consumer<T> {
+
+		private Consumer<? super WordMatch<T>> matches;
+
+		@Override
+		public void accept(T match) {
+			if (length == null) {
+				matches.accept(new WordMatch<>(position, match));
+			} else {
+				matches.accept(new WordMatch<>(position - length.applyAsInt(match), position, match));
+			}
+		}
+
+	}
+
+}
@@ -3,11 +3,12 @@ package net.amygdalum.util.text;
 import static net.amygdalum.util.text.AttachmentAdaptor.attach;
 import static net.amygdalum.util.text.ByteConnectionAdaptor.addNextNode;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Deque;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -31,6 +32,12 @@ public class ByteWordSetBuilder<T, R> {
 		this.root = compiler.create();
 	}
 
+	ByteWordSetBuilder(ByteWordGraphCompiler<T, R> compiler, JoinStrategy<T> strategy, ByteNode<T> root) {
+		this.compiler = compiler;
+		this.strategy = strategy;
+		this.root = root;
+	}
+
 	public ByteWordSetBuilder<T, R> extend(byte[] bytes, T data) {
 		ByteNode<T> node = root;
 		for (byte b : bytes) {
@@ -57,7 +64,7 @@ public class ByteWordSetBuilder<T, R> {
 	}
 
 	public ByteWordSetBuilder<T, R> work(ByteTask<T> task) {
-		Queue<ByteNode<T>> worklist = new LinkedList<>();
+		Queue<ByteNode<T>> worklist = new ArrayDeque<>();
 		worklist.addAll(task.init(root));
 		while (!worklist.isEmpty()) {
 			ByteNode<T> current = worklist.remove();
@@ -70,7 +77,7 @@ public class ByteWordSetBuilder<T, R> {
 	private Queue<ByteNode<T>> postOrdered() {
 		Map<ByteNode<T>, int[]> counters = new IdentityHashMap<>();
 
-		Queue<ByteNode<T>> todo = new LinkedList<>();
+		Queue<ByteNode<T>> todo = new ArrayDeque<>();
 		todo.add(root);
 		counters.put(root, new int[1]);
 
@@ -92,7 +99,7 @@ public class ByteWordSetBuilder<T, R> {
 			}
 		}
 
-		Queue<ByteNode<T>> nexts = new LinkedList<>();
+		Queue<ByteNode<T>> nexts = new ArrayDeque<>();
 		Iterator<Entry<ByteNode<T>, int[]>> iterator = counters.entrySet().iterator();
 		while (iterator.hasNext()) {
 			Entry<ByteNode<T>, int[]> entry = iterator.next();
@@ -102,7 +109,7 @@ public class ByteWordSetBuilder<T, R> {
 			}
 		}
 
-		Deque<ByteNode<T>> postOrdered = new LinkedList<>();
+		Deque<ByteNode<T>> postOrdered = new ArrayDeque<>();
 
 		while (!counters.isEmpty()) {
 			if (nexts.isEmpty()) {
@@ -128,9 +135,9 @@ public class ByteWordSetBuilder<T, R> {
 
 	private List<ByteNode<T>> compiled() {
 		Set<ByteNode<T>> visited = new HashSet<>();
-		List<ByteNode<T>> compiled = new LinkedList<>();
+		List<ByteNode<T>> compiled = new ArrayList<>();
 
-		Queue<ByteNode<T>> todo = new LinkedList<>();
+		Queue<ByteNode<T>> todo = new ArrayDeque<>();
 		todo.add(root);
 		while (!todo.isEmpty()) {
 			ByteNode<T> current = todo.remove();
@@ -149,14 +156,23 @@ public class ByteWordSetBuilder<T, R> {
 	}
 
 	public R build() {
-		NodeResolver<ByteNode<T>> nodes = compiler.resolver();
+		return compiler.build(compile(compiler.resolver()));
+	}
+
+	/**
+	 * compiles and links all nodes of the graph with the given resolver
+	 *
+	 * @param nodes the resolver to compile the nodes with
+	 * @return the compiled root
+	 */
+	ByteNode<T> compile(NodeResolver<ByteNode<T>> nodes) {
 		for (ByteNode<T> node : postOrdered()) {
 			nodes.compile(node);
 		}
 		for (ByteNode<T> node : compiled()) {
 			nodes.link(node);
 		}
-		return compiler.build(nodes.resolve(root));
+		return nodes.resolve(root);
 	}
 
 }
@@ -0,0 +1,188 @@
+package net.amygdalum.util.text;
+
+import static net.amygdalum.util.text.ByteConnectionAdaptor.addNextNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * A ByteWordSetBulkBuilder collects all words before building the word set. The words are partitioned by their first byte,
+ * the sub graphs of the partitions are built and compiled in parallel (on a ForkJoinPool) and then joined under the root.
+ * Only the root is compiled after joining, the word set itself is built from the joined graph (in the calling thread).
+ *
+ * If tasks are scheduled (see {@link #work(ByteTask)}), the sub graphs are joined before compiling, because the tasks need
+ * the complete graph, so only the sub graphs are built in parallel.
+ *
+ * Words may be given in any order, attachments of equal words are joined in the order the words were given (the join
+ * strategy is called from the pool threads, so it should not rely on shared mutable state).
+ *
+ * @param <T> the type of attachment storable in each graph node
+ * @param <R> the type of the resulting word set
+ */
+public class ByteWordSetBulkBuilder<T, R> {
+
+	private ByteWordGraphCompiler<T, R> compiler;
+	private JoinStrategy<T> strategy;
+	private ForkJoinPool pool;
+	private List<byte[]> words;
+	private List<T> data;
+	private List<T> rootData;
+	private List<ByteTask<T>> tasks;
+
+	public ByteWordSetBulkBuilder(ByteWordGraphCompiler<T, R> compiler) {
+		this(compiler, null, ForkJoinPool.commonPool());
+	}
+
+	public ByteWordSetBulkBuilder(ByteWordGraphCompiler<T, R> compiler, JoinStrategy<T> strategy) {
+		this(compiler, strategy, ForkJoinPool.commonPool());
+	}
+
+	public ByteWordSetBulkBuilder(ByteWordGraphCompiler<T, R> compiler, JoinStrategy<T> strategy, ForkJoinPool pool) {
+		this.compiler = compiler;
+		this.strategy = strategy;
+		this.pool = pool;
+		this.words = new ArrayList<>();
+		this.data = new ArrayList<>();
+		this.rootData = new ArrayList<>();
+		this.tasks = new ArrayList<>();
+	}
+
+	public ByteWordSetBulkBuilder<T, R> extend(byte[] bytes, T data) {
+		if (bytes.length == 0) {
+			rootData.add(data);
+			return this;
+		}
+		this.words.add(bytes);
+		this.data.add(data);
+		return this;
+	}
+
+	/**
+	 * schedules a task to be run on the complete graph (before compiling it)
+	 *
+	 * @param task the task to work on the graph
+	 * @return this builder
+	 */
+	public ByteWordSetBulkBuilder<T, R> work(ByteTask<T> task) {
+		tasks.add(task);
+		return this;
+	}
+
+	public R build() {
+		ByteNode<T> root = compiler.create();
+		for (T data : rootData) {
+			attach(root, data, strategy);
+		}
+
+		int[] order = orderByFirst();
+		boolean compile = tasks.isEmpty();
+		List<SubGraph> subGraphs = new ArrayList<>();
+		int from = 0;
+		while (from < order.length) {
+			byte first = words.get(order[from])[0];
+			int to = from + 1;
+			while (to < order.length && words.get(order[to])[0] == first) {
+				to++;
+			}
+			subGraphs.add(new SubGraph(first, order, from, to, compile));
+			from = to;
+		}
+		for (SubGraph subGraph : subGraphs) {
+			pool.execute(subGraph);
+		}
+		for (SubGraph subGraph : subGraphs) {
+			addNextNode(root, subGraph.first, subGraph.join());
+		}
+
+		if (compile) {
+			NodeResolver<ByteNode<T>> nodes = compiler.resolver();
+			nodes.compile(root);
+			nodes.link(root);
+			return compiler.build(nodes.resolve(root));
+		}
+		ByteWordSetBuilder<T, R> builder = new ByteWordSetBuilder<>(compiler, strategy, root);
+		for (ByteTask<T> task : tasks) {
+			builder.work(task);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * sorts the indexes of the words by the first byte of each word (counting sort, equal first bytes keep the input order)
+	 */
+	private int[] orderByFirst() {
+		int[] starts = new int[257];
+		for (byte[] bytes : words) {
+			starts[(bytes[0] & 0xff) + 1]++;
+		}
+		for (int i = 1; i < starts.length; i++) {
+			starts[i] += starts[i - 1];
+		}
+		int[] order = new int[words.size()];
+		for (int i = 0; i < order.length; i++) {
+			order[starts[words.get(i)[0] & 0xff]++] = i;
+		}
+		return order;
+	}
+
+	private static <T> void attach(ByteNode<T> node, T data, JoinStrategy<T> strategy) {
+		if (data == null) {
+			return;
+		}
+		if (strategy != null) {
+			T existing = node.getAttached();
+			T joinedData = strategy.join(existing, data);
+			if (joinedData != existing) {
+				AttachmentAdaptor.attach(node, joinedData);
+			}
+		} else {
+			AttachmentAdaptor.attach(node, data);
+		}
+	}
+
+	private class SubGraph extends RecursiveTask<ByteNode<T>> {
+
+		private static final long serialVersionUID = 1L;
+
+		private byte first;
+		private int[] order;
+		private int from;
+		private int to;
+		private boolean compile;
+
+		public SubGraph(byte first, int[] order, int from, int to, boolean compile) {
+			this.first = first;
+			this.order = order;
+			this.from = from;
+			this.to = to;
+			this.compile = compile;
+		}
+
+		@Override
+		protected ByteNode<T> compute() {
+			ByteNode<T> start = compiler.create();
+			for (int i = from; i < to; i++) {
+				byte[] bytes = words.get(order[i]);
+				ByteNode<T> node = start;
+				for (int j = 1; j < bytes.length; j++) {
+					byte b = bytes[j];
+					ByteNode<T> next = node.nextNode(b);
+					if (next == null) {
+						next = compiler.create();
+						addNextNode(node, b, next);
+					}
+					node = next;
+				}
+				attach(node, data.get(order[i]), strategy);
+			}
+			if (compile) {
+				return new ByteWordSetBuilder<>(compiler, strategy, start).compile(compiler.resolver());
+			}
+			return start;
+		}
+
+	}
+
+}
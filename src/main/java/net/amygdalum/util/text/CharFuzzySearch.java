@@ -0,0 +1,162 @@
+package net.amygdalum.util.text;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A CharFuzzySearch finds all words of a word set within a given edit distance (levenshtein distance) of a searched word.
+ * 
+ * The search walks the word set depth first and simulates the levenshtein automaton of the searched word on each path, i.e. it keeps one row of the
+ * edit distance matrix per depth. Only the diagonal band of width 2 * maxDistance + 1 is computed, and a subtree is pruned as soon as no cell of the
+ * band is within the maximum distance, so the search visits only the prefixes of the word set that may still lead to a match.
+ * 
+ * The word set must support walkers (see {@link CharWordSet#walker()}). A CharFuzzySearch is not thread safe, use one search per thread.
+ *
+ * @param <T> the type of attachment
+ */
+public class CharFuzzySearch<T> {
+
+	private static final int INITIAL_DEPTH = 16;
+
+	private CharWalker<T> walker;
+	private int[][] rows;
+	private char[][] alternatives;
+	private int[] index;
+
+	public CharFuzzySearch(CharWordSet<T> words) {
+		this.walker = words.walker();
+		this.rows = new int[INITIAL_DEPTH][];
+		this.alternatives = new char[INITIAL_DEPTH][];
+		this.index = new int[INITIAL_DEPTH];
+	}
+
+	/**
+	 * @param word the searched word
+	 * @param maxDistance the maximum edit distance of a match
+	 * @return all matches (in lexicographic order of the matched words)
+	 */
+	public List<FuzzyMatch<T>> search(char[] word, int maxDistance) {
+		List<FuzzyMatch<T>> matches = new ArrayList<>();
+		search(word, maxDistance, matches::add);
+		return matches;
+	}
+
+	/**
+	 * @param word the searched word
+	 * @param maxDistance the maximum edit distance of a match
+	 * @param consumer receives all matches (in lexicographic order of the matched words)
+	 */
+	public void search(char[] word, int maxDistance, Consumer<? super FuzzyMatch<T>> consumer) {
+		int n = word.length;
+		walker.reset();
+		int[] first = row(0, n);
+		for (int j = 0; j <= n; j++) {
+			first[j] = j;
+		}
+		report(first[n], maxDistance, consumer);
+
+		int depth = 0;
+		alternatives[0] = walker.getAlternatives();
+		index[0] = 0;
+		while (depth >= 0) {
+			char[] alts = alternatives[depth];
+			int i = index[depth];
+			if (i >= alts.length) {
+				alternatives[depth] = null;
+				depth--;
+				if (depth >= 0) {
+					walker.back();
+				}
+				continue;
+			}
+			char c = alts[i];
+			index[depth] = i + 1;
+
+			int[] prev = rows[depth];
+			int[] next = row(depth + 1, n);
+			if (!step(word, c, depth + 1, prev, next, maxDistance)) {
+				continue;
+			}
+			walker.step(c);
+			depth++;
+			if (depth + maxDistance >= n) {
+				report(next[n], maxDistance, consumer);
+			}
+			ensureDepth(depth);
+			alternatives[depth] = walker.getAlternatives();
+			index[depth] = 0;
+		}
+	}
+
+	/**
+	 * computes the row of the edit distance matrix after the given char (at the given depth)
+	 * 
+	 * @return true if the row has a cell within the maximum distance, false if the subtree can be pruned
+	 */
+	private static boolean step(char[] word, char c, int depth, int[] prev, int[] next, int maxDistance) {
+		int n = word.length;
+		int limit = maxDistance + 1;
+		int from = Math.max(1, depth - maxDistance);
+		int to = Math.min(n, depth + maxDistance);
+		next[0] = depth <= maxDistance ? depth : limit;
+		if (from > 1) {
+			next[from - 1] = limit;
+		}
+		boolean alive = next[0] <= maxDistance;
+		for (int j = from; j <= to; j++) {
+			int cost = word[j - 1] == c ? 0 : 1;
+			int value = prev[j - 1] + cost;
+			int delete = prev[j] + 1;
+			if (delete < value) {
+				value = delete;
+			}
+			int insert = next[j - 1] + 1;
+			if (insert < value) {
+				value = insert;
+			}
+			if (value > limit) {
+				value = limit;
+			}
+			next[j] = value;
+			if (value <= maxDistance) {
+				alive = true;
+			}
+		}
+		if (to < n) {
+			next[to + 1] = limit;
+		}
+		return alive;
+	}
+
+	private void report(int distance, int maxDistance, Consumer<? super FuzzyMatch<T>> consumer) {
+		if (distance > maxDistance) {
+			return;
+		}
+		T attached = walker.getAttached();
+		if (attached != null) {
+			consumer.accept(new FuzzyMatch<>(attached, distance));
+		}
+	}
+
+	private int[] row(int depth, int n) {
+		ensureDepth(depth);
+		int[] row = rows[depth];
+		if (row == null || row.length < n + 1) {
+			row = new int[n + 1];
+			rows[depth] = row;
+		}
+		return row;
+	}
+
+	private void ensureDepth(int depth) {
+		if (depth >= rows.length) {
+			int length = Math.max(rows.length * 2, depth + 1);
+			rows = Arrays.copyOf(rows, length);
+			alternatives = Arrays.copyOf(alternatives, length);
+			index = Arrays.copyOf(index, length);
+		}
+	}
+
+}
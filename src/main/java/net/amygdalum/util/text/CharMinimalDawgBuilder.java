@@ -0,0 +1,165 @@
+package net.amygdalum.util.text;
+
+import static net.amygdalum.util.text.AttachmentAdaptor.attach;
+import static net.amygdalum.util.text.CharConnectionAdaptor.addNextNode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A CharMinimalDawgBuilder builds a minimal word graph (equal suffixes with equal attachments share their nodes) from sorted input.
+ *
+ * Nodes are minimized as soon as no more words can be appended to them (i.e. a word with a different prefix is added). Equivalent nodes
+ * are merged with a register of already minimized nodes, so the complete trie of the words is never built.
+ *
+ * Words must be given in lexicographic order, equal words are joined with the join strategy (if any).
+ *
+ * @param <T> the type of attachment storable in each graph node
+ * @param <R> the type of the resulting word set
+ */
+public class CharMinimalDawgBuilder<T, R> {
+
+	private CharWordGraphCompiler<T, R> compiler;
+	private JoinStrategy<T> strategy;
+	private CharNode<T> root;
+	private Map<Signature<T>, CharNode<T>> register;
+	private List<CharNode<T>> path;
+	private char[] last;
+
+	public CharMinimalDawgBuilder(CharWordGraphCompiler<T, R> compiler) {
+		this(compiler, null);
+	}
+
+	public CharMinimalDawgBuilder(CharWordGraphCompiler<T, R> compiler, JoinStrategy<T> strategy) {
+		this.compiler = compiler;
+		this.strategy = strategy;
+		this.root = compiler.create();
+		this.register = new HashMap<>();
+		this.path = new ArrayList<>();
+		this.path.add(root);
+	}
+
+	public CharMinimalDawgBuilder<T, R> extend(char[] chars, T data) {
+		int prefix = 0;
+		if (last != null) {
+			prefix = commonPrefix(last, chars);
+			if (prefix == chars.length && prefix == last.length) {
+				join(path.get(prefix), data);
+				return this;
+			} else if (prefix == chars.length || prefix < last.length && chars[prefix] < last[prefix]) {
+				throw new IllegalArgumentException("words must be added in sorted order, but " + new String(chars) + " < " + new String(last));
+			}
+			minimize(prefix);
+		}
+		CharNode<T> node = path.get(prefix);
+		for (int i = prefix; i < chars.length; i++) {
+			CharNode<T> next = compiler.create();
+			addNextNode(node, chars[i], next);
+			path.add(next);
+			node = next;
+		}
+		join(node, data);
+		last = chars;
+		return this;
+	}
+
+	private static int commonPrefix(char[] last, char[] chars) {
+		int length = Math.min(last.length, chars.length);
+		for (int i = 0; i < length; i++) {
+			if (last[i] != chars[i]) {
+				return i;
+			}
+		}
+		return length;
+	}
+
+	private void join(CharNode<T> node, T data) {
+		if (data == null) {
+			return;
+		}
+		if (strategy != null) {
+			T existing = node.getAttached();
+			T joinedData = strategy.join(existing, data);
+			if (joinedData != existing) {
+				attach(node, joinedData);
+			}
+		} else {
+			attach(node, data);
+		}
+	}
+
+	/**
+	 * replaces or registers all nodes on the path of the last word deeper than the given length
+	 */
+	private void minimize(int length) {
+		for (int i = path.size() - 1; i > length; i--) {
+			CharNode<T> node = path.remove(i);
+			Signature<T> signature = new Signature<>(node);
+			CharNode<T> registered = register.putIfAbsent(signature, node);
+			if (registered != null) {
+				addNextNode(path.get(i - 1), last[i - 1], registered);
+			}
+		}
+	}
+
+	public R build() {
+		minimize(0);
+		register.clear();
+		return new CharWordSetBuilder<>(compiler, strategy, root).build();
+	}
+
+	private static class Signature<T> {
+
+		private T attached;
+		private char[] chars;
+		private CharNode<T>[] nexts;
+		private int hashCode;
+
+		@SuppressWarnings("unchecked")
+		public Signature(CharNode<T> node) {
+			this.attached = node.getAttached();
+			this.chars = node.getAlternatives();
+			Arrays.sort(chars);
+			this.nexts = new CharNode[chars.length];
+			int hashCode = Objects.hashCode(attached) * 31 + Arrays.hashCode(chars);
+			for (int i = 0; i < chars.length; i++) {
+				nexts[i] = node.nextNode(chars[i]);
+				hashCode = hashCode * 31 + System.identityHashCode(nexts[i]);
+			}
+			this.hashCode = hashCode;
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (obj == null || getClass() != obj.getClass()) {
+				return false;
+			}
+			Signature<?> that = (Signature<?>) obj;
+			if (this.hashCode != that.hashCode
+				|| !Objects.equals(this.attached, that.attached)
+				|| !Arrays.equals(this.chars, that.chars)) {
+				return false;
+			}
+			for (int i = 0; i < nexts.length; i++) {
+				if (this.nexts[i] != that.nexts[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+	}
+
+}
@@ -0,0 +1,25 @@
+package net.amygdalum.util.text;
+
+/**
+ * The output node of a node is the next node in its fallback chain that carries an attachment (skipping all nodes without attachment
+ * or with the same attachment as the node, e.g. attachments copied from the fallback node).
+ * 
+ * @param <T> the type of attachment
+ */
+public interface CharOutputAdaptor<T> {
+
+	CharNode<T> getOutput();
+
+	void setOutput(CharNode<T> outputNode);
+
+	@SuppressWarnings("unchecked")
+	static <T> CharNode<T> getOutput(Object node) {
+		return ((CharOutputAdaptor<T>) node).getOutput();
+	}
+
+	@SuppressWarnings("unchecked")
+	static <T> void setOutput(Object node, CharNode<T> output) {
+		((CharOutputAdaptor<T>) node).setOutput(output);
+	}
+
+}
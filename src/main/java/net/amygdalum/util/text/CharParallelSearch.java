@@ -0,0 +1,113 @@
+package net.amygdalum.util.text;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
+/**
+ * A CharParallelSearch scans a text for the words of a word set, using multiple threads for one text.
+ *
+ * The text is split into segments, each segment is scanned with its own cursor (on a ForkJoinPool). The cursor of a segment starts
+ * maxLength - 1 chars before the segment, so that matches crossing the segment start are found, but only matches ending in the segment
+ * are reported. The matches of all segments are returned in the order of their end positions (each match exactly once).
+ *
+ * The cursors of the word set must search (i.e. follow fallback links), maxLength must not be less than the length of the longest word
+ * (see {@link CharUtils#maxLength(char[][])}).
+ *
+ * @param <T> the type of attachment of the word set
+ */
+public class CharParallelSearch<T> {
+
+	private static final int MIN_SEGMENT_SIZE = 1 << 16;
+
+	private CharWordSet<T> words;
+	private int overlap;
+	private ForkJoinPool pool;
+	private int segments;
+	private int minSegmentSize;
+
+	public CharParallelSearch(CharWordSet<T> words, int maxLength) {
+		this(words, maxLength, ForkJoinPool.commonPool());
+	}
+
+	public CharParallelSearch(CharWordSet<T> words, int maxLength, ForkJoinPool pool) {
+		this(words, maxLength, pool, pool.getParallelism(), MIN_SEGMENT_SIZE);
+	}
+
+	/**
+	 * @param words the word set to search
+	 * @param maxLength the length of the longest word
+	 * @param pool the pool to scan the segments in
+	 * @param segments the number of segments a text is split into
+	 * @param minSegmentSize the minimum size of a segment (smaller texts are split into less segments)
+	 */
+	public CharParallelSearch(CharWordSet<T> words, int maxLength, ForkJoinPool pool, int segments, int minSegmentSize) {
+		this.words = words;
+		this.overlap = Math.max(0, maxLength - 1);
+		this.pool = pool;
+		this.segments = Math.max(1, segments);
+		this.minSegmentSize = Math.max(1, minSegmentSize);
+	}
+
+	public List<WordMatch<T>> search(char[] chars) {
+		int segmentSize = Math.max(minSegmentSize, (int) ((chars.length + (long) segments - 1) / segments));
+		List<Segment> tasks = new ArrayList<>();
+		for (int start = 0; start < chars.length; start += segmentSize) {
+			tasks.add(new Segment(chars, start, (int) Math.min(chars.length, (long) start + segmentSize)));
+		}
+		for (Segment task : tasks) {
+			pool.execute(task);
+		}
+		List<WordMatch<T>> matches = new ArrayList<>();
+		for (Segment task : tasks) {
+			matches.addAll(task.join());
+		}
+		return matches;
+	}
+
+	private class Segment extends RecursiveTask<List<WordMatch<T>>> {
+
+		private static final long serialVersionUID = 1L;
+
+		private char[] chars;
+		private int start;
+		private int end;
+
+		Segment(char[] chars, int start, int end) {
+			this.chars = chars;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected List<WordMatch<T>> compute() {
+			Matches<T> matches = new Matches<>();
+			CharAutomaton<T> cursor = words.cursor();
+			for (int i = Math.max(0, start - overlap); i < end; i++) {
+				if (!cursor.accept(chars[i])) {
+					cursor.reset();
+				} else if (i >= start) {
+					matches.end = i + 1;
+					cursor.forEachAttachment(matches);
+				}
+			}
+			return matches.list;
+		}
+
+	}
+
+	private static class Matches<T> implements Consumer<T> {
+
+		private List<WordMatch<T>> list = new ArrayList<>();
+		private long end;
+
+		@Override
+		public void accept(T match) {
+			list.add(new WordMatch<>(end, match));
+		}
+
+	}
+
+}
@@ -0,0 +1,132 @@
+package net.amygdalum.util.text;
+
+import java.util.Arrays;
+
+/**
+ * A CharWordEnumeration lazily enumerates the words (with attachments) of a word set starting with a given prefix, in lexicographic order.
+ * 
+ * The enumeration reuses its word buffer, so enumerating does not allocate per word:
+ * 
+ * <pre>
+ * CharWordEnumeration&lt;T&gt; words = wordSet.withPrefix(prefix);
+ * while (words.next()) {
+ *   ... words.getBuffer() (up to words.getLength()) ... words.getAttached() ...
+ * }
+ * </pre>
+ * 
+ * @param <T> the type of attachment
+ */
+public class CharWordEnumeration<T> {
+
+	private static final int INITIAL_SIZE = 16;
+
+	private CharWalker<T> walker;
+	private char[] prefix;
+	private char[] buffer;
+	private int length;
+	private char[][] alternatives;
+	private int[] index;
+	private int depth;
+	private boolean started;
+
+	public CharWordEnumeration(CharWalker<T> walker, char[] prefix) {
+		this.walker = walker;
+		this.prefix = prefix;
+		this.buffer = new char[prefix.length + INITIAL_SIZE];
+		this.alternatives = new char[INITIAL_SIZE][];
+		this.index = new int[INITIAL_SIZE];
+		this.depth = -1;
+	}
+
+	/**
+	 * moves to the next word
+	 * 
+	 * @return true if there is a next word, false if all words are enumerated
+	 */
+	public boolean next() {
+		if (!started) {
+			started = true;
+			walker.reset();
+			for (int i = 0; i < prefix.length; i++) {
+				if (!walker.step(prefix[i])) {
+					return false;
+				}
+			}
+			System.arraycopy(prefix, 0, buffer, 0, prefix.length);
+			length = prefix.length;
+			push();
+			if (walker.getAttached() != null) {
+				return true;
+			}
+		}
+		while (depth >= 0) {
+			char[] alts = alternatives[depth];
+			int i = index[depth];
+			if (i < alts.length) {
+				char c = alts[i];
+				index[depth] = i + 1;
+				walker.step(c);
+				append(c);
+				push();
+				if (walker.getAttached() != null) {
+					return true;
+				}
+			} else {
+				alternatives[depth] = null;
+				depth--;
+				if (depth >= 0) {
+					walker.back();
+					length--;
+				}
+			}
+		}
+		return false;
+	}
+
+	private void push() {
+		depth++;
+		if (depth >= alternatives.length) {
+			alternatives = Arrays.copyOf(alternatives, alternatives.length * 2);
+			index = Arrays.copyOf(index, index.length * 2);
+		}
+		alternatives[depth] = walker.getAlternatives();
+		index[depth] = 0;
+	}
+
+	private void append(char c) {
+		if (length >= buffer.length) {
+			buffer = Arrays.copyOf(buffer, buffer.length * 2);
+		}
+		buffer[length] = c;
+		length++;
+	}
+
+	/**
+	 * @return the buffer containing the current word (from 0 to {@link #getLength()}), it is overwritten by the next call to {@link #next()}
+	 */
+	public char[] getBuffer() {
+		return buffer;
+	}
+
+	/**
+	 * @return the length of the current word
+	 */
+	public int getLength() {
+		return length;
+	}
+
+	/**
+	 * @return a copy of the current word
+	 */
+	public char[] getWord() {
+		return Arrays.copyOf(buffer, length);
+	}
+
+	/**
+	 * @return the attachment of the current word
+	 */
+	public T getAttached() {
+		return walker.getAttached();
+	}
+
+}
@@ -0,0 +1,316 @@
+package net.amygdalum.util.text;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import net.amygdalum.util.io.CharProvider;
+import net.amygdalum.util.io.RandomAccessCharProvider;
+
+/**
+ * A CharWordSearch finds the words of a word set in a char provider, the matches are computed lazily (as Spliterator or Stream).
+ *
+ * A plain search (for word sets without fallback links) tries to match the words at each position of the text, the matches are
+ * ordered by their start. A fallback search (for word sets with fallback links) scans the text only once, the matches are ordered by their
+ * end (the start of a match is computed from the length of the matched word, if a length function is given).
+ *
+ * A {@link RandomAccessCharProvider} is read with at(long), so it is not moved by the search and the search may be split for parallel streams.
+ * Other providers are consumed by the search.
+ *
+ * @param <T> the type of attachment of the word set
+ */
+public class CharWordSearch<T> {
+
+	private static final int MIN_SPLIT_SIZE = 1 << 12;
+
+	private CharWordSet<T> words;
+	private boolean fallback;
+	private int overlap;
+	private ToIntFunction<? super T> length;
+
+	private CharWordSearch(CharWordSet<T> words, boolean fallback, int maxLength, ToIntFunction<? super T> length) {
+		this.words = words;
+		this.fallback = fallback;
+		this.overlap = Math.max(0, maxLength - 1);
+		this.length = length;
+	}
+
+	/**
+	 * @param words a word set without fallback links
+	 * @param <T> the type of attachment of the word set
+	 * @return a search reporting all matches starting at any position
+	 */
+	public static <T> CharWordSearch<T> plain(CharWordSet<T> words) {
+		return new CharWordSearch<>(words, false, 0, null);
+	}
+
+	/**
+	 * @param words a word set with fallback links
+	 * @param maxLength the length of the longest word (see {@link CharUtils#maxLength(char[][])})
+	 * @param <T> the type of attachment of the word set
+	 * @return a search reporting all matches ending at any position (with unknown start)
+	 */
+	public static <T> CharWordSearch<T> fallback(CharWordSet<T> words, int maxLength) {
+		return new CharWordSearch<>(words, true, maxLength, null);
+	}
+
+	/**
+	 * @param words a word set with fallback links
+	 * @param maxLength the length of the longest word (see {@link CharUtils#maxLength(char[][])})
+	 * @param length computes the length of the matched word from its attachment
+	 * @param <T> the type of attachment of the word set
+	 * @return a search reporting all matches ending at any position
+	 */
+	public static <T> CharWordSearch<T> fallback(CharWordSet<T> words, int maxLength, ToIntFunction<? super T> length) {
+		return new CharWordSearch<>(words, true, maxLength, length);
+	}
+
+	public Stream<WordMatch<T>> matches(CharProvider chars) {
+		return StreamSupport.stream(spliterator(chars), false);
+	}
+
+	public Spliterator<WordMatch<T>> spliterator(CharProvider chars) {
+		if (chars instanceof RandomAccessCharProvider) {
+			RandomAccessCharProvider randomAccess = (RandomAccessCharProvider) chars;
+			long start = randomAccess.current();
+			long end = randomAccess.length();
+			if (fallback) {
+				return new FallbackRange(randomAccess, words.cursor(), start, start, start, end);
+			} else {
+				return new PlainRange(randomAccess, start, end);
+			}
+		} else if (fallback) {
+			return new FallbackScan(chars);
+		} else {
+			return new PlainScan(chars);
+		}
+	}
+
+	private abstract class Matches implements Spliterator<WordMatch<T>>, Consumer<T> {
+
+		protected CharAutomaton<T> cursor;
+		protected Deque<WordMatch<T>> pending;
+		protected long start;
+		protected long end;
+
+		Matches(CharAutomaton<T> cursor) {
+			this.cursor = cursor;
+			this.pending = new ArrayDeque<>();
+		}
+
+		/**
+		 * processes the next position of the text, adding all matches found there to the pending matches
+		 *
+		 * @return false if the text was completely processed, true otherwise
+		 */
+		protected abstract boolean advance();
+
+		@Override
+		public void accept(T match) {
+			if (!fallback) {
+				pending.add(new WordMatch<>(start, end, match));
+			} else if (length == null) {
+				pending.add(new WordMatch<>(end, match));
+			} else {
+				pending.add(new WordMatch<>(end - length.applyAsInt(match), end, match));
+			}
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super WordMatch<T>> action) {
+			while (pending.isEmpty()) {
+				if (!advance()) {
+					return false;
+				}
+			}
+			action.accept(pending.remove());
+			return true;
+		}
+
+		@Override
+		public Spliterator<WordMatch<T>> trySplit() {
+			return null;
+		}
+
+		@Override
+		public long estimateSize() {
+			return Long.MAX_VALUE;
+		}
+
+		@Override
+		public int characteristics() {
+			return ORDERED | NONNULL;
+		}
+
+	}
+
+	private class PlainScan extends Matches {
+
+		private CharProvider chars;
+
+		PlainScan(CharProvider chars) {
+			super(words.cursor());
+			this.chars = chars;
+		}
+
+		@Override
+		protected boolean advance() {
+			if (chars.finished()) {
+				return false;
+			}
+			start = chars.current();
+			cursor.reset();
+			for (int i = 0; !chars.finished(i) && cursor.accept(chars.lookahead(i)); i++) {
+				end = start + i + 1;
+				cursor.forEachAttachment(this);
+			}
+			chars.next();
+			return true;
+		}
+
+	}
+
+	private class FallbackScan extends Matches {
+
+		private CharProvider chars;
+
+		FallbackScan(CharProvider chars) {
+			super(words.cursor());
+			this.chars = chars;
+		}
+
+		@Override
+		protected boolean advance() {
+			if (chars.finished()) {
+				return false;
+			}
+			if (!cursor.accept(chars.next())) {
+				cursor.reset();
+			} else {
+				end = chars.current();
+				cursor.forEachAttachment(this);
+			}
+			return true;
+		}
+
+	}
+
+	private class PlainRange extends Matches {
+
+		private RandomAccessCharProvider chars;
+		private long from;
+		private long to;
+		private long limit;
+
+		/**
+		 * @param chars the text
+		 * @param from the first start position to search
+		 * @param to the position after the last start position to search
+		 */
+		PlainRange(RandomAccessCharProvider chars, long from, long to) {
+			super(words.cursor());
+			this.chars = chars;
+			this.from = from;
+			this.to = to;
+			this.limit = chars.length();
+		}
+
+		@Override
+		protected boolean advance() {
+			if (from >= to) {
+				return false;
+			}
+			start = from;
+			cursor.reset();
+			for (long i = from; i < limit && cursor.accept(chars.at(i)); i++) {
+				end = i + 1;
+				cursor.forEachAttachment(this);
+			}
+			from++;
+			return true;
+		}
+
+		@Override
+		public Spliterator<WordMatch<T>> trySplit() {
+			if (!pending.isEmpty() || to - from < MIN_SPLIT_SIZE) {
+				return null;
+			}
+			long mid = (from + to) >>> 1;
+			PlainRange prefix = new PlainRange(chars, from, mid);
+			from = mid;
+			return prefix;
+		}
+
+		@Override
+		public long estimateSize() {
+			return to - from;
+		}
+
+	}
+
+	private class FallbackRange extends Matches {
+
+		private RandomAccessCharProvider chars;
+		private long origin;
+		private long pos;
+		private long from;
+		private long to;
+
+		/**
+		 * @param chars the text
+		 * @param cursor the cursor (in the state reached at pos)
+		 * @param origin the first position of the text
+		 * @param pos the next position to scan
+		 * @param from the first position to report matches for (positions before are only scanned to get the right cursor state)
+		 * @param to the position after the last position to scan
+		 */
+		FallbackRange(RandomAccessCharProvider chars, CharAutomaton<T> cursor, long origin, long pos, long from, long to) {
+			super(cursor);
+			this.chars = chars;
+			this.origin = origin;
+			this.pos = pos;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected boolean advance() {
+			if (pos >= to) {
+				return false;
+			}
+			if (!cursor.accept(chars.at(pos))) {
+				cursor.reset();
+			} else if (pos >= from) {
+				end = pos + 1;
+				cursor.forEachAttachment(this);
+			}
+			pos++;
+			return true;
+		}
+
+		@Override
+		public Spliterator<WordMatch<T>> trySplit() {
+			long next = Math.max(pos, from);
+			if (!pending.isEmpty() || to - next < MIN_SPLIT_SIZE) {
+				return null;
+			}
+			long mid = (next + to) >>> 1;
+			FallbackRange prefix = new FallbackRange(chars, cursor, origin, pos, from, mid);
+			cursor = words.cursor();
+			pos = Math.max(origin, mid - overlap);
+			from = mid;
+			return prefix;
+		}
+
+		@Override
+		public long estimateSize() {
+			return to - Math.max(pos, from);
+		}
+
+	}
+
+}
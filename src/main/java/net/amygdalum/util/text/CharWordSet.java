@@ -1,5 +1,12 @@
 package net.amygdalum.util.text;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import net.amygdalum.util.io.CharProvider;
+
 public interface CharWordSet<T> {
 
 	CharAutomaton<T> cursor();
@@ -8,4 +15,164 @@ public interface CharWordSet<T> {
 
 	T find(char[] chars);
 
+	/**
+	 * checks for each key whether it is contained in this word set
+	 *
+	 * @param keys the keys to check
+	 * @param out receives for each key (at the same index) whether it is contained
+	 */
+	default void containsAll(char[][] keys, boolean[] out) {
+		for (int i = 0; i < keys.length; i++) {
+			out[i] = contains(keys[i]);
+		}
+	}
+
+	/**
+	 * checks for each key whether it is contained in this word set
+	 *
+	 * @param data the packed keys, key i starting at offsets[i] and ending before offsets[i + 1]
+	 * @param offsets the offsets of the keys (one more than the number of keys)
+	 * @param out receives for each key (at the same index) whether it is contained
+	 */
+	default void containsAll(char[] data, int[] offsets, boolean[] out) {
+		for (int i = 0; i < offsets.length - 1; i++) {
+			out[i] = contains(Arrays.copyOfRange(data, offsets[i], offsets[i + 1]));
+		}
+	}
+
+	/**
+	 * finds the attachment of each key
+	 *
+	 * @param keys the keys to find
+	 * @param out receives for each key (at the same index) the attachment or null if the key is not contained
+	 */
+	default void findAll(char[][] keys, T[] out) {
+		for (int i = 0; i < keys.length; i++) {
+			out[i] = find(keys[i]);
+		}
+	}
+
+	/**
+	 * finds the attachment of each key
+	 *
+	 * @param data the packed keys, key i starting at offsets[i] and ending before offsets[i + 1]
+	 * @param offsets the offsets of the keys (one more than the number of keys)
+	 * @param out receives for each key (at the same index) the attachment or null if the key is not contained
+	 */
+	default void findAll(char[] data, int[] offsets, T[] out) {
+		for (int i = 0; i < offsets.length - 1; i++) {
+			out[i] = find(Arrays.copyOfRange(data, offsets[i], offsets[i + 1]));
+		}
+	}
+
+	/**
+	 * returns a walker on the plain transitions of this word set, which is the base of the prefix queries.
+	 * 
+	 * The tries and dawgs of this library support walkers.
+	 * 
+	 * @throws UnsupportedOperationException if this word set does not support walkers
+	 * @return a new walker
+	 */
+	default CharWalker<T> walker() {
+		throw new UnsupportedOperationException("walker");
+	}
+
+	/**
+	 * finds the longest word of this word set that is a prefix of the given chars
+	 *
+	 * @param chars the chars to match
+	 * @return the match (starting at 0) of the longest word with an attachment or null if there is none
+	 */
+	default WordMatch<T> longestPrefixOf(char[] chars) {
+		CharWalker<T> walker = walker();
+		int end = -1;
+		T match = walker.getAttached();
+		if (match != null) {
+			end = 0;
+		}
+		for (int i = 0; i < chars.length && walker.step(chars[i]); i++) {
+			T attached = walker.getAttached();
+			if (attached != null) {
+				end = i + 1;
+				match = attached;
+			}
+		}
+		if (end < 0) {
+			return null;
+		}
+		return new WordMatch<>(0, end, match);
+	}
+
+	/**
+	 * finds the longest word of this word set that is a prefix of the chars at the current position of the given provider. The provider
+	 * is moved behind the match (or stays at its position if there is no match), so that it may be used for longest match segmentation.
+	 *
+	 * @param chars the provider to match, it must be able to move back to the position after the longest match
+	 * @return the match of the longest word with an attachment or null if there is none
+	 */
+	default WordMatch<T> longestPrefixOf(CharProvider chars) {
+		CharWalker<T> walker = walker();
+		long start = chars.current();
+		long end = -1;
+		T match = walker.getAttached();
+		if (match != null) {
+			end = start;
+		}
+		while (!chars.finished() && walker.step(chars.next())) {
+			T attached = walker.getAttached();
+			if (attached != null) {
+				end = chars.current();
+				match = attached;
+			}
+		}
+		if (end < 0) {
+			chars.move(start);
+			return null;
+		}
+		chars.move(end);
+		return new WordMatch<>(start, end, match);
+	}
+
+	/**
+	 * finds all words of this word set that are a prefix of the given chars (common prefix search)
+	 *
+	 * @param chars the chars to match
+	 * @param consumer receives the matches (starting at 0) of all words with attachments, shortest first
+	 */
+	default void allPrefixesOf(char[] chars, Consumer<? super WordMatch<T>> consumer) {
+		CharWalker<T> walker = walker();
+		T match = walker.getAttached();
+		if (match != null) {
+			consumer.accept(new WordMatch<>(0, 0, match));
+		}
+		for (int i = 0; i < chars.length && walker.step(chars[i]); i++) {
+			T attached = walker.getAttached();
+			if (attached != null) {
+				consumer.accept(new WordMatch<>(0, i + 1, attached));
+			}
+		}
+	}
+
+	/**
+	 * finds all words of this word set that are a prefix of the given chars (common prefix search)
+	 *
+	 * @param chars the chars to match
+	 * @return the matches (starting at 0) of all words with attachments, shortest first
+	 */
+	default List<WordMatch<T>> allPrefixesOf(char[] chars) {
+		List<WordMatch<T>> matches = new ArrayList<>();
+		allPrefixesOf(chars, matches::add);
+		return matches;
+	}
+
+	/**
+	 * enumerates all words of this word set (having an attachment) that start with the given prefix
+	 *
+	 * @param prefix the prefix of the words to enumerate
+	 * @return a lazy enumeration of the words in lexicographic order
+	 */
+	default CharWordEnumeration<T> withPrefix(char[] prefix) {
+		return new CharWordEnumeration<>(walker(), prefix);
+	}
+
 }
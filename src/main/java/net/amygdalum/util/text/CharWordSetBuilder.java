@@ -3,11 +3,12 @@ package net.amygdalum.util.text;
 import static net.amygdalum.util.text.AttachmentAdaptor.attach;
 import static net.amygdalum.util.text.CharConnectionAdaptor.addNextNode;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Deque;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -31,6 +32,12 @@ public class CharWordSetBuilder<T, R> {
 		this.root = compiler.create();
 	}
 
+	CharWordSetBuilder(CharWordGraphCompiler<T, R> compiler, JoinStrategy<T> strategy, CharNode<T> root) {
+		this.compiler = compiler;
+		this.strategy = strategy;
+		this.root = root;
+	}
+
 	public CharWordSetBuilder<T, R> extend(char[] chars, T data) {
 		CharNode<T> node = root;
 		for (char c : chars) {
@@ -57,7 +64,7 @@ public class CharWordSetBuilder<T, R> {
 	}
 
 	public CharWordSetBuilder<T, R> work(CharTask<T> task) {
-		Queue<CharNode<T>> worklist = new LinkedList<>();
+		Queue<CharNode<T>> worklist = new ArrayDeque<>();
 		worklist.addAll(task.init(root));
 		while (!worklist.isEmpty()) {
 			CharNode<T> current = worklist.remove();
@@ -70,7 +77,7 @@ public class CharWordSetBuilder<T, R> {
 	private Queue<CharNode<T>> postOrdered() {
 		Map<CharNode<T>, int[]> counters = new IdentityHashMap<>();
 
-		Queue<CharNode<T>> todo = new LinkedList<>();
+		Queue<CharNode<T>> todo = new ArrayDeque<>();
 		todo.add(root);
 		counters.put(root, new int[1]);
 
@@ -92,7 +99,7 @@ public class CharWordSetBuilder<T, R> {
 			}
 		}
 
-		Queue<CharNode<T>> nexts = new LinkedList<>();
+		Queue<CharNode<T>> nexts = new ArrayDeque<>();
 		Iterator<Entry<CharNode<T>, int[]>> iterator = counters.entrySet().iterator();
 		while (iterator.hasNext()) {
 			Entry<CharNode<T>, int[]> entry = iterator.next();
@@ -102,7 +109,7 @@ public class CharWordSetBuilder<T, R> {
 			}
 		}
 
-		Deque<CharNode<T>> postOrdered = new LinkedList<>();
+		Deque<CharNode<T>> postOrdered = new ArrayDeque<>();
 
 		while (!counters.isEmpty()) {
 			if (nexts.isEmpty()) {
@@ -128,9 +135,9 @@ public class CharWordSetBuilder<T, R> {
 
 	private List<CharNode<T>> compiled() {
 		Set<CharNode<T>> visited = new HashSet<>();
-		List<CharNode<T>> compiled = new LinkedList<>();
+		List<CharNode<T>> compiled = new ArrayList<>();
 
-		Queue<CharNode<T>> todo = new LinkedList<>();
+		Queue<CharNode<T>> todo = new ArrayDeque<>();
 		todo.add(root);
 		while (!todo.isEmpty()) {
 			CharNode<T> current = todo.remove();
@@ -149,14 +156,23 @@ public class CharWordSetBuilder<T, R> {
 	}
 
 	public R build() {
-		NodeResolver<CharNode<T>> nodes = compiler.resolver();
+		return compiler.build(compile(compiler.resolver()));
+	}
+
+	/**
+	 * compiles and links all nodes of the graph with the given resolver
+	 *
+	 * @param nodes the resolver to compile the nodes with
+	 * @return the compiled root
+	 */
+	CharNode<T> compile(NodeResolver<CharNode<T>> nodes) {
 		for (CharNode<T> node : postOrdered()) {
 			nodes.compile(node);
 		}
 		for (CharNode<T> node : compiled()) {
 			nodes.link(node);
 		}
-		return compiler.build(nodes.resolve(root));
+		return nodes.resolve(root);
 	}
 
 }
@@ -0,0 +1,370 @@
+package net.amygdalum.util.text;
+
+import static java.nio.charset.StandardCharsets.UTF_16BE;
+import static java.nio.charset.StandardCharsets.UTF_16LE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static net.amygdalum.util.text.AttachmentAdaptor.attach;
+import static net.amygdalum.util.text.ByteConnectionAdaptor.addNextNode;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An EncodedByteWordSetBuilder builds a byte word set from char words and char classes. The byte word set contains the encoded
+ * words (UTF-8, UTF-16BE or UTF-16LE), so encoded input (e.g. a ByteProvider on a mapped file) may be searched without decoding it to chars.
+ *
+ * - a char word is encoded as a whole (surrogate pairs are encoded as one code point)
+ * - a char class (a list of char ranges) is split into the partitions of {@link ByteEncoding#getPartitioningFor(Charset)}, each
+ *   partition is split into products of byte ranges, unpaired surrogates cannot be encoded and are skipped
+ *
+ * The encodings of a char class all lead to one node (the start of the next char class), so a pattern of char classes is built as a
+ * graph with shared suffixes, its size grows with the sum (not the product) of the class sizes. This graph is not a tree, so only
+ * compilers of dawgs (e.g. LinkedByteDawgCompiler or FlatByteDawgCompiler) can build it. Fallback links of dawgs are not valid
+ * for such graphs, search the built dawg with a plain search.
+ *
+ * @param <T> the type of attachment storable in each graph node
+ * @param <R> the type of the word set to build
+ */
+public class EncodedByteWordSetBuilder<T, R extends ByteDawg<T>> {
+
+	private static final char MIN_SURROGATE = Character.MIN_SURROGATE;
+	private static final char MAX_SURROGATE = Character.MAX_SURROGATE;
+
+	private ByteWordGraphCompiler<T, R> compiler;
+	private JoinStrategy<T> strategy;
+	private Charset charset;
+	private Charset ordered;
+	private byte following;
+	private CharsetEncoder encoder;
+	private ByteNode<T> root;
+
+	public EncodedByteWordSetBuilder(ByteWordGraphCompiler<T, R> compiler, Charset charset) {
+		this(compiler, null, charset);
+	}
+
+	/**
+	 * @param compiler the compiler of the dawg to build
+	 * @param strategy the strategy to join the attachments of words (and patterns) which are added more than once
+	 * @param charset the charset to encode the words with, one of UTF-8, UTF-16BE or UTF-16LE
+	 * @throws IllegalArgumentException if the charset is not supported
+	 */
+	public EncodedByteWordSetBuilder(ByteWordGraphCompiler<T, R> compiler, JoinStrategy<T> strategy, Charset charset) {
+		this.compiler = compiler;
+		this.strategy = strategy;
+		this.charset = charset;
+		this.ordered = charset.equals(UTF_16LE) ? UTF_16BE : charset;
+		if (ordered.equals(UTF_8)) {
+			this.following = (byte) 0b1000_0000;
+		} else if (ordered.equals(UTF_16BE)) {
+			this.following = (byte) 0b0000_0000;
+		} else {
+			throw new IllegalArgumentException("unsupported charset " + charset);
+		}
+		this.encoder = charset.newEncoder()
+			.onMalformedInput(CodingErrorAction.REPORT)
+			.onUnmappableCharacter(CodingErrorAction.REPORT);
+		this.root = compiler.create();
+	}
+
+	/**
+	 * adds the encoding of a char word
+	 *
+	 * @param chars the word to add
+	 * @param data the attachment of the word
+	 * @return this builder
+	 * @throws IllegalArgumentException if the word cannot be encoded
+	 */
+	public EncodedByteWordSetBuilder<T, R> extend(char[] chars, T data) {
+		byte[] bytes = encode(CharBuffer.wrap(chars));
+		if (bytes == null) {
+			throw new IllegalArgumentException("cannot encode " + new String(chars) + " with " + charset);
+		}
+		ByteNode<T> node = end(data);
+		for (int i = bytes.length - 1; i >= 0; i--) {
+			ByteNode<T> prev = compiler.create();
+			addNextNode(prev, bytes[i], node);
+			node = prev;
+		}
+		root = union(root, node);
+		return this;
+	}
+
+	/**
+	 * adds the encodings of all words matching a pattern of char classes
+	 *
+	 * @param pattern the char classes of the pattern, one for each char of the matching words
+	 * @param data the attachment of each matching word
+	 * @return this builder
+	 */
+	public EncodedByteWordSetBuilder<T, R> extend(List<List<CharRange>> pattern, T data) {
+		ByteNode<T> node = end(data);
+		for (int i = pattern.size() - 1; i >= 0; i--) {
+			List<Product> products = products(pattern.get(i));
+			if (products.isEmpty()) {
+				return this;
+			}
+			node = chars(products, node);
+		}
+		root = union(root, node);
+		return this;
+	}
+
+	private ByteNode<T> end(T data) {
+		ByteNode<T> node = compiler.create();
+		if (data != null) {
+			attach(node, data);
+		}
+		return node;
+	}
+
+	private ByteNode<T> chars(List<Product> products, ByteNode<T> target) {
+		Map<String, ByteNode<T>> suffixes = new HashMap<>();
+		ByteNode<T> start = null;
+		for (Product product : products) {
+			ByteNode<T> node = target;
+			StringBuilder suffix = new StringBuilder();
+			for (int i = product.from.length - 1; i >= 0; i--) {
+				suffix.append(product.from[i]).append('-').append(product.to[i]).append(',');
+				String key = suffix.toString();
+				ByteNode<T> prev = suffixes.get(key);
+				if (prev == null) {
+					prev = compiler.create();
+					for (int b = product.from[i] & 0xff; b <= (product.to[i] & 0xff); b++) {
+						addNextNode(prev, (byte) b, node);
+					}
+					suffixes.put(key, prev);
+				}
+				node = prev;
+			}
+			start = start == null ? node : union(start, node);
+		}
+		return start;
+	}
+
+	private ByteNode<T> union(ByteNode<T> node, ByteNode<T> other) {
+		return union(node, other, new IdentityHashMap<ByteNode<T>, Map<ByteNode<T>, ByteNode<T>>>());
+	}
+
+	/**
+	 * unites two graphs without changing them, nodes contained in only one of both graphs are shared with the united graph
+	 */
+	private ByteNode<T> union(ByteNode<T> node, ByteNode<T> other, Map<ByteNode<T>, Map<ByteNode<T>, ByteNode<T>>> unions) {
+		if (node == other) {
+			return node;
+		}
+		Map<ByteNode<T>, ByteNode<T>> united = unions.get(node);
+		if (united == null) {
+			united = new IdentityHashMap<>();
+			unions.put(node, united);
+		}
+		ByteNode<T> union = united.get(other);
+		if (union != null) {
+			return union;
+		}
+		union = compiler.create();
+		united.put(other, union);
+
+		boolean[] alternatives = new boolean[256];
+		for (byte b : node.getAlternatives()) {
+			alternatives[b & 0xff] = true;
+		}
+		for (byte b : other.getAlternatives()) {
+			alternatives[b & 0xff] = true;
+		}
+		for (int i = 0; i < alternatives.length; i++) {
+			if (!alternatives[i]) {
+				continue;
+			}
+			byte b = (byte) i;
+			ByteNode<T> next = node.nextNode(b);
+			ByteNode<T> otherNext = other.nextNode(b);
+			if (next == null) {
+				addNextNode(union, b, otherNext);
+			} else if (otherNext == null) {
+				addNextNode(union, b, next);
+			} else {
+				addNextNode(union, b, union(next, otherNext, unions));
+			}
+		}
+		T attached = join(node.getAttached(), other.getAttached());
+		if (attached != null) {
+			attach(union, attached);
+		}
+		return union;
+	}
+
+	private T join(T existing, T data) {
+		if (data == null) {
+			return existing;
+		} else if (strategy != null) {
+			return strategy.join(existing, data);
+		} else {
+			return data;
+		}
+	}
+
+	private List<Product> products(List<CharRange> charClass) {
+		List<Product> products = new ArrayList<>();
+		for (CharRange range : normalized(charClass)) {
+			int base = 0;
+			for (ByteRange part : ByteEncoding.getPartitioningFor(ordered)) {
+				int from = Math.max(range.from, base);
+				int to = Math.min(range.to, base + part.size() - 1);
+				if (part.length > 0 && from <= to) {
+					byte[] lo = ByteEncoding.encode(ordered, (char) from);
+					byte[] hi = ByteEncoding.encode(ordered, (char) to);
+					split(lo, hi, 0, new byte[lo.length], new byte[lo.length], products);
+				}
+				base += part.size();
+			}
+		}
+		if (charset.equals(UTF_16LE)) {
+			for (Product product : products) {
+				product.reverse();
+			}
+		}
+		return products;
+	}
+
+	private static List<CharRange> normalized(List<CharRange> charClass) {
+		List<CharRange> ranges = new ArrayList<>();
+		for (CharRange range : charClass) {
+			if (range.from < MIN_SURROGATE) {
+				ranges.add(new CharRange(range.from, range.to < MIN_SURROGATE ? range.to : (char) (MIN_SURROGATE - 1)));
+			}
+			if (range.to > MAX_SURROGATE) {
+				ranges.add(new CharRange(range.from > MAX_SURROGATE ? range.from : (char) (MAX_SURROGATE + 1), range.to));
+			}
+		}
+		ranges.sort(Comparator.comparingInt(range -> range.from));
+		List<CharRange> normalized = new ArrayList<>();
+		CharRange current = null;
+		for (CharRange range : ranges) {
+			if (current != null && range.from <= current.to + 1) {
+				current = new CharRange(current.from, range.to > current.to ? range.to : current.to);
+			} else {
+				if (current != null) {
+					normalized.add(current);
+				}
+				current = range;
+			}
+		}
+		if (current != null) {
+			normalized.add(current);
+		}
+		return normalized;
+	}
+
+	/**
+	 * splits the lexicographic interval of byte sequences lo..hi (of same length, sharing the prefix from[0..i-1]..to[0..i-1]) into
+	 * products of byte ranges. All bytes but the first are in the range of following bytes (following..0xbf for UTF-8, 0x00..0xff for UTF-16).
+	 */
+	private void split(byte[] lo, byte[] hi, int i, byte[] from, byte[] to, List<Product> products) {
+		if (i == lo.length - 1 || lo[i] == hi[i]) {
+			from[i] = lo[i];
+			to[i] = hi[i];
+			if (i == lo.length - 1) {
+				products.add(new Product(from.clone(), to.clone()));
+			} else {
+				split(lo, hi, i + 1, from, to, products);
+			}
+			return;
+		}
+		byte min = following;
+		byte max = following == 0 ? (byte) 0xff : (byte) 0b1011_1111;
+		int first = lo[i] & 0xff;
+		int last = hi[i] & 0xff;
+		if (!filled(lo, i + 1, min)) {
+			from[i] = lo[i];
+			to[i] = lo[i];
+			split(lo, fill(lo, i + 1, max), i + 1, from, to, products);
+			first++;
+		}
+		boolean lastFull = filled(hi, i + 1, max);
+		if (!lastFull) {
+			last--;
+		}
+		if (first <= last) {
+			from[i] = (byte) first;
+			to[i] = (byte) last;
+			for (int j = i + 1; j < from.length; j++) {
+				from[j] = min;
+				to[j] = max;
+			}
+			products.add(new Product(from.clone(), to.clone()));
+		}
+		if (!lastFull) {
+			from[i] = hi[i];
+			to[i] = hi[i];
+			split(fill(hi, i + 1, min), hi, i + 1, from, to, products);
+		}
+	}
+
+	private static boolean filled(byte[] bytes, int start, byte value) {
+		for (int i = start; i < bytes.length; i++) {
+			if (bytes[i] != value) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static byte[] fill(byte[] bytes, int start, byte value) {
+		byte[] filled = bytes.clone();
+		Arrays.fill(filled, start, filled.length, value);
+		return filled;
+	}
+
+	private byte[] encode(CharBuffer chars) {
+		try {
+			ByteBuffer buffer = encoder.encode(chars);
+			byte[] encoded = new byte[buffer.limit()];
+			buffer.get(encoded);
+			return encoded;
+		} catch (CharacterCodingException e) {
+			return null;
+		}
+	}
+
+	public R build() {
+		return new ByteWordSetBuilder<>(compiler, strategy, root).build();
+	}
+
+	/**
+	 * A Product contains all byte sequences with the i-th byte in from[i]..to[i].
+	 */
+	private static class Product {
+
+		private byte[] from;
+		private byte[] to;
+
+		Product(byte[] from, byte[] to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		void reverse() {
+			for (int i = 0, j = from.length - 1; i < j; i++, j--) {
+				byte swap = from[i];
+				from[i] = from[j];
+				from[j] = swap;
+				swap = to[i];
+				to[i] = to[j];
+				to[j] = swap;
+			}
+		}
+
+	}
+
+}
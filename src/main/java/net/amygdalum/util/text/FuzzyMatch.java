@@ -0,0 +1,54 @@
+package net.amygdalum.util.text;
+
+import java.util.Objects;
+
+/**
+ * A FuzzyMatch is a word of a word set that is similar to a searched word, i.e. the attachment of the word and its edit distance to the searched word.
+ *
+ * @param <T> the type of the attachment
+ */
+public class FuzzyMatch<T> {
+
+	private T match;
+	private int distance;
+
+	public FuzzyMatch(T match, int distance) {
+		this.match = match;
+		this.distance = distance;
+	}
+
+	public T getMatch() {
+		return match;
+	}
+
+	/**
+	 * @return the edit distance (levenshtein distance) between the matched and the searched word
+	 */
+	public int getDistance() {
+		return distance;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hashCode(match) * 31 + distance;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null || getClass() != obj.getClass()) {
+			return false;
+		}
+		FuzzyMatch<?> that = (FuzzyMatch<?>) obj;
+		return this.distance == that.distance
+			&& Objects.equals(this.match, that.match);
+	}
+
+	@Override
+	public String toString() {
+		return match + "~" + distance;
+	}
+
+}
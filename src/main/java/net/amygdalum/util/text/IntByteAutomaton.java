@@ -0,0 +1,30 @@
+package net.amygdalum.util.text;
+
+import java.util.function.IntConsumer;
+
+/**
+ * An automaton on bytes with int attachments. In contrast to ByteAutomaton it provides its attachments
+ * without boxing or allocation of an iterator.
+ */
+public interface IntByteAutomaton {
+
+	void reset();
+
+	boolean lookahead(byte b);
+	boolean accept(byte b);
+
+	boolean hasAttachments();
+
+	/**
+	 * @return the attachment of the current state, or the default value of the word set if there is none
+	 */
+	int getAttached();
+
+	/**
+	 * passes all attachments of the current state (including the ones reachable by fallback) to the given consumer
+	 *
+	 * @param consumer the consumer of the attachments
+	 */
+	void forEachAttachment(IntConsumer consumer);
+
+}
@@ -0,0 +1,15 @@
+package net.amygdalum.util.text;
+
+/**
+ * A word set on bytes with int attachments. A word without attachment (or not contained in the word set)
+ * is attached to the default value of the word set.
+ */
+public interface IntByteWordSet {
+
+	IntByteAutomaton cursor();
+
+	boolean contains(byte[] bytes);
+
+	int find(byte[] bytes);
+
+}
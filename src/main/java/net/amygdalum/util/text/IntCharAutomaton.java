@@ -0,0 +1,30 @@
+package net.amygdalum.util.text;
+
+import java.util.function.IntConsumer;
+
+/**
+ * An automaton on chars with int attachments. In contrast to CharAutomaton it provides its attachments
+ * without boxing or allocation of an iterator.
+ */
+public interface IntCharAutomaton {
+
+	void reset();
+
+	boolean lookahead(char c);
+	boolean accept(char c);
+
+	boolean hasAttachments();
+
+	/**
+	 * @return the attachment of the current state, or the default value of the word set if there is none
+	 */
+	int getAttached();
+
+	/**
+	 * passes all attachments of the current state (including the ones reachable by fallback) to the given consumer
+	 *
+	 * @param consumer the consumer of the attachments
+	 */
+	void forEachAttachment(IntConsumer consumer);
+
+}
@@ -0,0 +1,15 @@
+package net.amygdalum.util.text;
+
+/**
+ * A word set on chars with int attachments. A word without attachment (or not contained in the word set)
+ * is attached to the default value of the word set.
+ */
+public interface IntCharWordSet {
+
+	IntCharAutomaton cursor();
+
+	boolean contains(char[] chars);
+
+	int find(char[] chars);
+
+}
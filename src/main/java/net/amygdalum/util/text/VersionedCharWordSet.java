@@ -0,0 +1,263 @@
+package net.amygdalum.util.text;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * A VersionedCharWordSet holds the current version of a word set that may be changed while it is searched:
+ *
+ * - changes are collected in a {@link Batch} and applied copy-on-write: the words of the current version are enumerated, the batch
+ *   is applied to them and a new word set is built (with the compiler and the tasks of this versioned word set)
+ * - the new version is published atomically, a published version is never changed
+ * - readers do not lock, each cursor (or walker) keeps the version it was created from, new cursors use the latest version
+ * - batches may be applied in the background (see {@link Batch#applyAsync(Executor)}), batches are applied one at a time
+ *
+ * Without tasks the words are enumerated from the compiled word set (see {@link CharWordSet#withPrefix(char[])}), so the compiled word
+ * set is the only copy of the words. Tasks (e.g. computing fallback links) may attach data to nodes that do not end a word, and some
+ * word sets (e.g. dfas) do not support walkers. In these cases the words are kept in a map next to the compiled word set, which
+ * roughly doubles the retained memory.
+ *
+ * @param <T> the type of attachment storable in the word set
+ */
+public class VersionedCharWordSet<T> implements CharWordSet<T> {
+
+	private CharWordGraphCompiler<T, ? extends CharWordSet<T>> compiler;
+	private CharTask<T>[] tasks;
+	private volatile Version<T> current;
+
+	/**
+	 * @param compiler the compiler to build each version with
+	 * @param tasks the tasks to apply to the graph of each version before it is compiled
+	 */
+	@SafeVarargs
+	public VersionedCharWordSet(CharWordGraphCompiler<T, ? extends CharWordSet<T>> compiler, CharTask<T>... tasks) {
+		this.compiler = compiler;
+		this.tasks = tasks;
+		CharWordSet<T> words = build(new CharWordSetBuilder<>(compiler));
+		this.current = new Version<>(0, keepsWords(words) ? new HashMap<>() : null, 0, words);
+	}
+
+	private boolean keepsWords(CharWordSet<T> words) {
+		if (tasks.length > 0) {
+			return true;
+		}
+		try {
+			words.walker();
+			return false;
+		} catch (UnsupportedOperationException e) {
+			return true;
+		}
+	}
+
+	private CharWordSet<T> build(CharWordSetBuilder<T, ? extends CharWordSet<T>> builder) {
+		for (CharTask<T> task : tasks) {
+			builder.work(task);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * @return the number of the current version (0 for the initial empty word set, incremented with each applied batch)
+	 */
+	public long version() {
+		return current.number;
+	}
+
+	/**
+	 * @return the word set of the current version, it is not changed by batches applied later
+	 */
+	public CharWordSet<T> snapshot() {
+		return current.words;
+	}
+
+	/**
+	 * @return the number of words of the current version
+	 */
+	public int size() {
+		return current.size;
+	}
+
+	/**
+	 * @return a new empty batch of changes
+	 */
+	public Batch batch() {
+		return new Batch();
+	}
+
+	private synchronized long apply(List<Change<T>> changes) {
+		Map<CharBuffer, T> changed = new LinkedHashMap<>();
+		for (Change<T> change : changes) {
+			changed.put(change.word, change.data);
+		}
+		CharWordSetBuilder<T, ? extends CharWordSet<T>> builder = new CharWordSetBuilder<>(compiler);
+		Map<CharBuffer, T> entries = null;
+		int size = 0;
+		if (current.entries != null) {
+			entries = new HashMap<>(current.entries);
+			for (Map.Entry<CharBuffer, T> entry : changed.entrySet()) {
+				if (entry.getValue() == null) {
+					entries.remove(entry.getKey());
+				} else {
+					entries.put(entry.getKey(), entry.getValue());
+				}
+			}
+			for (Map.Entry<CharBuffer, T> entry : entries.entrySet()) {
+				builder.extend(entry.getKey().array(), entry.getValue());
+			}
+			size = entries.size();
+		} else {
+			CharWordEnumeration<T> words = current.words.withPrefix(new char[0]);
+			while (words.next()) {
+				char[] word = Arrays.copyOf(words.getBuffer(), words.getLength());
+				if (!changed.containsKey(CharBuffer.wrap(word))) {
+					builder.extend(word, words.getAttached());
+					size++;
+				}
+			}
+			for (Map.Entry<CharBuffer, T> entry : changed.entrySet()) {
+				if (entry.getValue() != null) {
+					builder.extend(entry.getKey().array(), entry.getValue());
+					size++;
+				}
+			}
+		}
+		Version<T> next = new Version<>(current.number + 1, entries, size, build(builder));
+		current = next;
+		return next.number;
+	}
+
+	@Override
+	public CharAutomaton<T> cursor() {
+		return current.words.cursor();
+	}
+
+	@Override
+	public boolean contains(char[] chars) {
+		return current.words.contains(chars);
+	}
+
+	@Override
+	public T find(char[] chars) {
+		return current.words.find(chars);
+	}
+
+	@Override
+	public void containsAll(char[][] keys, boolean[] out) {
+		current.words.containsAll(keys, out);
+	}
+
+	@Override
+	public void containsAll(char[] data, int[] offsets, boolean[] out) {
+		current.words.containsAll(data, offsets, out);
+	}
+
+	@Override
+	public void findAll(char[][] keys, T[] out) {
+		current.words.findAll(keys, out);
+	}
+
+	@Override
+	public void findAll(char[] data, int[] offsets, T[] out) {
+		current.words.findAll(data, offsets, out);
+	}
+
+	@Override
+	public CharWalker<T> walker() {
+		return current.words.walker();
+	}
+
+	/**
+	 * A Batch collects insertions and removals, which are applied in the order they were added.
+	 */
+	public class Batch {
+
+		private List<Change<T>> changes;
+
+		Batch() {
+			this.changes = new ArrayList<>();
+		}
+
+		/**
+		 * inserts a word (or replaces the attachment of a contained word)
+		 *
+		 * @param chars the word to insert
+		 * @param data the attachment of the word, must not be null
+		 * @return this batch
+		 */
+		public Batch put(char[] chars, T data) {
+			if (data == null) {
+				throw new NullPointerException("data");
+			}
+			changes.add(new Change<>(chars, data));
+			return this;
+		}
+
+		/**
+		 * removes a word (if it is contained)
+		 *
+		 * @param chars the word to remove
+		 * @return this batch
+		 */
+		public Batch remove(char[] chars) {
+			changes.add(new Change<>(chars, null));
+			return this;
+		}
+
+		/**
+		 * applies this batch in the calling thread and publishes the new version
+		 *
+		 * @return the number of the new version
+		 */
+		public long apply() {
+			return VersionedCharWordSet.this.apply(new ArrayList<>(changes));
+		}
+
+		/**
+		 * applies this batch in the background and publishes the new version, readers use the old version until then
+		 *
+		 * @param executor the executor to build the new version in
+		 * @return a future of the number of the new version
+		 */
+		public CompletableFuture<Long> applyAsync(Executor executor) {
+			List<Change<T>> changes = new ArrayList<>(this.changes);
+			return CompletableFuture.supplyAsync(() -> VersionedCharWordSet.this.apply(changes), executor);
+		}
+
+	}
+
+	private static class Change<T> {
+
+		private CharBuffer word;
+		private T data;
+
+		Change(char[] chars, T data) {
+			this.word = CharBuffer.wrap(chars.clone());
+			this.data = data;
+		}
+
+	}
+
+	private static class Version<T> {
+
+		private final long number;
+		private final Map<CharBuffer, T> entries;
+		private final int size;
+		private final CharWordSet<T> words;
+
+		Version(long number, Map<CharBuffer, T> entries, int size, CharWordSet<T> words) {
+			this.number = number;
+			this.entries = entries;
+			this.size = size;
+			this.words = words;
+		}
+
+	}
+
+}
@@ -0,0 +1,79 @@
+package net.amygdalum.util.text;
+
+import java.util.Objects;
+
+/**
+ * A WordMatch is a match of a word set in a text, i.e. the positions of the match and the attachment of the matched word.
+ *
+ * @param <T> the type of the attachment
+ */
+public class WordMatch<T> {
+
+	public static final long UNKNOWN = -1;
+
+	private long start;
+	private long end;
+	private T match;
+
+	/**
+	 * creates a match with unknown start (searches with fallback links only know the end of a match)
+	 *
+	 * @param end the position after the last char/byte of the match
+	 * @param match the attachment of the matched word
+	 */
+	public WordMatch(long end, T match) {
+		this(UNKNOWN, end, match);
+	}
+
+	public WordMatch(long start, long end, T match) {
+		this.start = start;
+		this.end = end;
+		this.match = match;
+	}
+
+	/**
+	 * @return the position of the first char/byte of the match or {@link #UNKNOWN}
+	 */
+	public long getStart() {
+		return start;
+	}
+
+	/**
+	 * @return the position after the last char/byte of the match
+	 */
+	public long getEnd() {
+		return end;
+	}
+
+	public T getMatch() {
+		return match;
+	}
+
+	@Override
+	public int hashCode() {
+		return (Long.hashCode(start) * 31 + Long.hashCode(end)) * 31 + Objects.hashCode(match);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null || getClass() != obj.getClass()) {
+			return false;
+		}
+		WordMatch<?> that = (WordMatch<?>) obj;
+		return this.start == that.start
+			&& this.end == that.end
+			&& Objects.equals(this.match, that.match);
+	}
+
+	@Override
+	public String toString() {
+		if (start == UNKNOWN) {
+			return end + ":" + match;
+		}
+		return start + "-" + end + ":" + match;
+	}
+
+}
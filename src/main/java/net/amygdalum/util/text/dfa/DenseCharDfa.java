@@ -0,0 +1,178 @@
+package net.amygdalum.util.text.dfa;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+import net.amygdalum.util.bits.BitSet;
+import net.amygdalum.util.io.CharClassMapper;
+import net.amygdalum.util.text.AutomatonState;
+import net.amygdalum.util.text.CharAutomaton;
+import net.amygdalum.util.text.CharWordSet;
+
+/**
+ * A DenseCharDfa is a fallback graph compiled to a full transition table:
+ * - the alphabet is compressed to char classes (by a CharClassMapper)
+ * - the table contains a transition for each state and each char class, fallback transitions are resolved at compile time
+ * - accepting a char costs one char class lookup and one table lookup
+ *
+ * @param <T> the type of attachment storable in each graph node
+ */
+public class DenseCharDfa<T> implements CharWordSet<T> {
+
+	static final int ROOT = 0;
+	static final int FAIL = -1;
+
+	private CharClassMapper mapper;
+	private int classes;
+	private int[] transitions;
+	private BitSet direct;
+	private T[] attachments;
+	private int[] output;
+
+	DenseCharDfa(CharClassMapper mapper, int[] transitions, BitSet direct, T[] attachments, int[] output) {
+		this.mapper = mapper;
+		this.classes = mapper.indexCount();
+		this.transitions = transitions;
+		this.direct = direct;
+		this.attachments = attachments;
+		this.output = output;
+	}
+
+	public CharClassMapper getMapper() {
+		return mapper;
+	}
+
+	public int getStates() {
+		return attachments.length;
+	}
+
+	@Override
+	public CharAutomaton<T> cursor() {
+		return new Cursor();
+	}
+
+	@Override
+	public boolean contains(char[] chars) {
+		int state = walk(chars);
+		return state != FAIL && attachments[state] != null;
+	}
+
+	@Override
+	public T find(char[] chars) {
+		int state = walk(chars);
+		if (state == FAIL) {
+			return null;
+		}
+		return attachments[state];
+	}
+
+	private int walk(char[] chars) {
+		int state = ROOT;
+		for (int i = 0; i < chars.length; i++) {
+			int index = state * classes + mapper.getIndex(chars[i]);
+			if (!direct.get(index)) {
+				return FAIL;
+			}
+			state = transitions[index];
+		}
+		return state;
+	}
+
+	private class Cursor implements CharAutomaton<T> {
+
+		private int state;
+		private AttachmentIterator iterator;
+
+		public Cursor() {
+			this.state = ROOT;
+			this.iterator = new AttachmentIterator();
+		}
+
+		@Override
+		public Iterator<T> iterator() {
+			iterator.init(state);
+			return iterator;
+		}
+
+		@Override
+		public void reset() {
+			this.state = ROOT;
+		}
+
+		@Override
+		public void snapshot(AutomatonState state) {
+			state.state = this.state;
+		}
+
+		@Override
+		public void restore(AutomatonState state) {
+			this.state = state.state;
+		}
+
+		@Override
+		public boolean lookahead(char c) {
+			return direct.get(state * classes + mapper.getIndex(c));
+		}
+
+		@Override
+		public boolean accept(char c) {
+			int next = transitions[state * classes + mapper.getIndex(c)];
+			if (next == FAIL) {
+				reset();
+				return false;
+			}
+			state = next;
+			return true;
+		}
+
+		@Override
+		public boolean hasAttachments() {
+			return attachments[state] != null || output[state] != FAIL;
+		}
+
+		@Override
+		public T getAttached() {
+			T attached = attachments[state];
+			if (attached == null && output[state] != FAIL) {
+				attached = attachments[output[state]];
+			}
+			return attached;
+		}
+
+		@Override
+		public void forEachAttachment(Consumer<? super T> consumer) {
+			int current = attachments[state] != null ? state : output[state];
+			while (current != FAIL) {
+				consumer.accept(attachments[current]);
+				current = output[current];
+			}
+		}
+
+		private class AttachmentIterator implements Iterator<T> {
+
+			private int state;
+
+			public void init(int state) {
+				this.state = attachments[state] != null ? state : output[state];
+			}
+
+			@Override
+			public boolean hasNext() {
+				return state != FAIL;
+			}
+
+			@Override
+			public T next() {
+				if (state == FAIL) {
+					throw new NoSuchElementException();
+				}
+				T a = attachments[state];
+				state = output[state];
+				return a;
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,171 @@
+package net.amygdalum.util.text.dfa;
+
+import static net.amygdalum.util.text.CharFallbackAdaptor.getFallback;
+import static net.amygdalum.util.text.dfa.DenseCharDfa.FAIL;
+import static net.amygdalum.util.text.dfa.DenseCharDfa.ROOT;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import net.amygdalum.util.bits.BitSet;
+import net.amygdalum.util.io.BitMaskCharClassMapper;
+import net.amygdalum.util.io.CharClassMapper;
+import net.amygdalum.util.io.SmallRangeCharClassMapper;
+import net.amygdalum.util.text.CharNode;
+import net.amygdalum.util.text.CharRange;
+import net.amygdalum.util.text.CharWordGraphCompiler;
+import net.amygdalum.util.text.CharWordSet;
+import net.amygdalum.util.text.NodeResolver;
+import net.amygdalum.util.text.linkeddawg.CharGenericFallbackNode;
+
+/**
+ * compiles a fallback graph (e.g. prepared with fallback links) to a DenseCharDfa.
+ *
+ * Each char of the pattern alphabet gets its own char class, all other chars share the dead class. Alphabets spanning a
+ * small range of chars are mapped with a SmallRangeCharClassMapper, all others with a BitMaskCharClassMapper.
+ */
+public class DenseCharDfaCompiler<T> implements CharWordGraphCompiler<T, CharWordSet<T>> {
+
+	private static final int SMALL_RANGE = 4096;
+
+	@Override
+	public CharNode<T> create() {
+		return new CharGenericFallbackNode<>();
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public CharWordSet<T> build(CharNode<T> node) {
+		List<CharNode<T>> nodes = new ArrayList<>();
+		Map<CharNode<T>, Integer> states = new IdentityHashMap<>();
+		Queue<CharNode<T>> todo = new LinkedList<>();
+		states.put(node, ROOT);
+		nodes.add(node);
+		todo.add(node);
+		while (!todo.isEmpty()) {
+			CharNode<T> current = todo.remove();
+			for (char c : current.getAlternatives()) {
+				CharNode<T> next = current.nextNode(c);
+				if (!states.containsKey(next)) {
+					states.put(next, nodes.size());
+					nodes.add(next);
+					todo.add(next);
+				}
+			}
+		}
+
+		CharClassMapper mapper = mapper(liveRanges(nodes));
+		char[] representatives = mapper.representatives();
+		int classes = representatives.length;
+
+		int[] transitions = new int[nodes.size() * classes];
+		BitSet direct = BitSet.empty(transitions.length);
+		int[] fallback = new int[nodes.size()];
+		T[] attachments = (T[]) new Object[nodes.size()];
+		for (int state = 0; state < nodes.size(); state++) {
+			CharNode<T> current = nodes.get(state);
+			attachments[state] = current.getAttached();
+			fallback[state] = states.getOrDefault(getFallback(current), FAIL);
+
+			int row = state * classes;
+			int fallbackRow = fallback[state] * classes;
+			for (int i = 0; i < classes; i++) {
+				CharNode<T> next = current.nextNode(representatives[i]);
+				if (next != null) {
+					transitions[row + i] = states.get(next);
+					direct.set(row + i);
+				} else if (fallback[state] != FAIL && fallback[state] < state) {
+					transitions[row + i] = transitions[fallbackRow + i];
+				} else {
+					transitions[row + i] = transition(getFallback(current), representatives[i], states);
+				}
+			}
+		}
+		return new DenseCharDfa<>(mapper, transitions, direct, attachments, outputs(fallback, attachments));
+	}
+
+	private static int transition(CharNode<?> node, char c, Map<? extends CharNode<?>, Integer> states) {
+		while (node != null) {
+			CharNode<?> next = node.nextNode(c);
+			if (next != null) {
+				return states.getOrDefault(next, FAIL);
+			}
+			node = getFallback(node);
+		}
+		return FAIL;
+	}
+
+	private static <T> List<CharRange> liveRanges(List<CharNode<T>> nodes) {
+		SortedSet<Character> chars = new TreeSet<>();
+		for (CharNode<T> node : nodes) {
+			for (char c : node.getAlternatives()) {
+				chars.add(c);
+			}
+		}
+		List<CharRange> liveRanges = new ArrayList<>(chars.size());
+		for (char c : chars) {
+			liveRanges.add(new CharRange(c, c));
+		}
+		return liveRanges;
+	}
+
+	private static CharClassMapper mapper(List<CharRange> liveRanges) {
+		if (!liveRanges.isEmpty()) {
+			char low = liveRanges.get(0).from;
+			char high = liveRanges.get(liveRanges.size() - 1).to;
+			if (high - low >= SMALL_RANGE) {
+				return new BitMaskCharClassMapper(liveRanges);
+			}
+		}
+		return new SmallRangeCharClassMapper(liveRanges);
+	}
+
+	/**
+	 * computes for each state the next state in the fallback chain with a (different) attachment
+	 */
+	private static <T> int[] outputs(int[] fallback, T[] attachments) {
+		int[] output = new int[attachments.length];
+		for (int state = 0; state < output.length; state++) {
+			T last = attachments[state];
+			int current = fallback[state];
+			while (current != FAIL) {
+				T a = attachments[current];
+				if (a != null && a != last) {
+					break;
+				}
+				current = fallback[current];
+			}
+			output[state] = current;
+		}
+		return output;
+	}
+
+	@Override
+	public NodeResolver<CharNode<T>> resolver() {
+		return new Resolver();
+	}
+
+	private class Resolver implements NodeResolver<CharNode<T>> {
+
+		@Override
+		public void compile(CharNode<T> node) {
+		}
+
+		@Override
+		public void link(CharNode<T> node) {
+		}
+
+		@Override
+		public CharNode<T> resolve(CharNode<T> node) {
+			return node;
+		}
+
+	}
+
+}
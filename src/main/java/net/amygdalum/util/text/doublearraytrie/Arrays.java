@@ -21,6 +21,23 @@ public final class Arrays {
 		return expandedArray;
 	}
 
+	public static int[] filled(int length, int fill) {
+		int[] array = new int[length];
+		if (fill != 0) {
+			java.util.Arrays.fill(array, fill);
+		}
+		return array;
+	}
+
+	public static int[] expand(int[] array, int next, int fill) {
+		int oldlength = array.length;
+		int[] expandedArray = expand(array, next);
+		if (fill != 0) {
+			java.util.Arrays.fill(expandedArray, oldlength, expandedArray.length, fill);
+		}
+		return expandedArray;
+	}
+
 	public static byte[] expand(byte[] array, int next) {
 		int newlength = array.length;
 		while (newlength < next + 1) {
@@ -110,6 +127,32 @@ public final class Arrays {
 		}
 	}
 
+	public static byte[] without(byte[] bytes, byte b) {
+		int pos = binarySearch(bytes, b);
+		if (pos < 0) {
+			return bytes;
+		} else if (bytes.length == 1) {
+			return null;
+		}
+		byte[] newAlts = new byte[bytes.length - 1];
+		System.arraycopy(bytes, 0, newAlts, 0, pos);
+		System.arraycopy(bytes, pos + 1, newAlts, pos, bytes.length - pos - 1);
+		return newAlts;
+	}
+
+	public static char[] without(char[] chars, char c) {
+		int pos = binarySearch(chars, c);
+		if (pos < 0) {
+			return chars;
+		} else if (chars.length == 1) {
+			return null;
+		}
+		char[] newAlts = new char[chars.length - 1];
+		System.arraycopy(chars, 0, newAlts, 0, pos);
+		System.arraycopy(chars, pos + 1, newAlts, pos, chars.length - pos - 1);
+		return newAlts;
+	}
+
 	public static byte[] sorted(byte[] bytes) {
 		byte[] sortedBytes = java.util.Arrays.copyOf(bytes, bytes.length);
 		java.util.Arrays.sort(sortedBytes);
@@ -122,8 +165,20 @@ public final class Arrays {
 		return sortedChars;
 	}
 
+	public static boolean verify(byte[] bytes, int i, int end, byte[] tail) {
+		if (tail == null || end - i != tail.length) {
+			return false;
+		}
+		for (int j = 0; j < tail.length; j++) {
+			if (bytes[i + j] != tail[j]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	public static boolean verify(byte[] bytes, int i, byte[] tail) {
-		if (bytes.length - i != tail.length) {
+		if (tail == null || bytes.length - i != tail.length) {
 			return false;
 		}
 		for (int j = 0; j < tail.length; j++) {
@@ -134,8 +189,20 @@ public final class Arrays {
 		return true;
 	}
 
+	public static boolean verify(char[] chars, int i, int end, char[] tail) {
+		if (tail == null || end - i != tail.length) {
+			return false;
+		}
+		for (int j = 0; j < tail.length; j++) {
+			if (chars[i + j] != tail[j]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	public static boolean verify(char[] chars, int i, char[] tail) {
-		if (chars.length - i != tail.length) {
+		if (tail == null || chars.length - i != tail.length) {
 			return false;
 		}
 		for (int j = 0; j < tail.length; j++) {
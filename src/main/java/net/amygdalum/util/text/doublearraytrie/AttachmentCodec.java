@@ -0,0 +1,27 @@
+package net.amygdalum.util.text.doublearraytrie;
+
+import java.nio.ByteBuffer;
+
+/**
+ * An AttachmentCodec converts the attachments of a trie to bytes (when writing the trie) and back (when reading the trie).
+ * 
+ * Decoding is done on each access to an attachment, so decoding should be cheap. For expensive attachments
+ * consider storing an int id (IntegerAttachmentCodec) referencing the attachment in an external table.
+ * 
+ * @param <T> the type of attachment
+ */
+public interface AttachmentCodec<T> {
+
+	byte[] encode(T attachment);
+
+	/**
+	 * decodes an attachment from the given buffer
+	 * 
+	 * @param buffer the buffer containing the attachment (must not be modified)
+	 * @param offset the absolute offset of the attachment in the buffer
+	 * @param length the number of bytes of the attachment
+	 * @return the decoded attachment
+	 */
+	T decode(ByteBuffer buffer, int offset, int length);
+
+}
@@ -0,0 +1,271 @@
+package net.amygdalum.util.text.doublearraytrie;
+
+import static net.amygdalum.util.text.doublearraytrie.Arrays.NO_BYTES;
+import static net.amygdalum.util.text.doublearraytrie.Arrays.expand;
+import static net.amygdalum.util.text.doublearraytrie.Arrays.filled;
+import static net.amygdalum.util.text.doublearraytrie.Arrays.verify;
+
+import java.util.function.IntConsumer;
+
+import net.amygdalum.util.text.IntByteAutomaton;
+import net.amygdalum.util.text.IntByteWordSet;
+
+/**
+ * A DoubleArrayByteCompactIntTrie is a DoubleArrayByteCompactTrie with int attachments:
+ * - acyclic (no back links, no support links)
+ * - each node may be reached by exactly one node (i.e. a tree)
+ * - attachments are stored as primitive ints, absent attachments are represented by the default value
+ */
+public class DoubleArrayByteCompactIntTrie implements IntByteWordSet {
+
+	private static final int INITIAL_SIZE = 1024;
+
+	private static final int STOP = -1;
+
+	private int[] base;
+	private int[] check;
+	private byte[][] tail;
+	private byte[][] alts;
+	private int[] attachments;
+	private int defaultValue;
+
+	private FreeSlots slots;
+
+	public DoubleArrayByteCompactIntTrie(int defaultValue) {
+		this.base = new int[INITIAL_SIZE];
+		this.check = new int[INITIAL_SIZE];
+		this.tail = new byte[INITIAL_SIZE][];
+		this.alts = new byte[INITIAL_SIZE][];
+		this.attachments = filled(INITIAL_SIZE, defaultValue);
+		this.defaultValue = defaultValue;
+		this.slots = new FreeSlots();
+	}
+
+	private static int key(byte b) {
+		return ((int) b) + 129;
+	}
+
+	private static int minKey(byte... input) {
+		byte min = Byte.MAX_VALUE;
+		for (byte b : input) {
+			if (b < min) {
+				min = b;
+			}
+		}
+		return key(min);
+	}
+
+	private int freebase(byte... input) {
+		if (input.length == 0) {
+			return -1;
+		}
+		int[] keys = new int[input.length];
+		int maxKey = 0;
+		for (int i = 0; i < input.length; i++) {
+			keys[i] = key(input[i]);
+			maxKey = Math.max(maxKey, keys[i]);
+		}
+		int nextbase = slots.base(keys, minKey(input));
+		ensureSufficientLength(nextbase + maxKey);
+		return nextbase;
+	}
+
+	private void ensureSufficientLength(int next) {
+		if (next >= check.length) {
+			check = expand(check, next);
+			base = expand(base, next);
+			tail = expand(tail, next);
+			alts = expand(alts, next);
+			attachments = expand(attachments, next, defaultValue);
+		}
+	}
+
+	public int getDefaultValue() {
+		return defaultValue;
+	}
+
+	@Override
+	public IntByteAutomaton cursor() {
+		return new Cursor();
+	}
+
+	@Override
+	public boolean contains(byte[] bytes) {
+		int state = 1;
+		for (int i = 0; i < bytes.length; i++) {
+			int statebase = base[state];
+			if (statebase < 0) {
+				return tail[state] != null && verify(bytes, i, tail[state]);
+			}
+			byte b = bytes[i];
+			int next = statebase + key(b);
+			if (next >= check.length || check[next] != state) {
+				return false;
+			}
+			state = next;
+		}
+		if (tail[state] != null && tail[state].length == 0) {
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public int find(byte[] bytes) {
+		int state = 1;
+		for (int i = 0; i < bytes.length; i++) {
+			int statebase = base[state];
+			if (statebase < 0) {
+				if (tail[state] != null && verify(bytes, i, tail[state])) {
+					return attachments[state];
+				}
+				return defaultValue;
+			}
+			byte b = bytes[i];
+			int next = statebase + key(b);
+			if (next >= check.length || check[next] != state) {
+				return defaultValue;
+			}
+			state = next;
+		}
+		if (tail[state] != null && tail[state].length == 0) {
+			return attachments[state];
+		}
+		return defaultValue;
+	}
+
+	public static class Builder {
+
+		private DoubleArrayByteCompactIntTrie trie;
+
+		public Builder(int defaultValue) {
+			this.trie = new DoubleArrayByteCompactIntTrie(defaultValue);
+		}
+
+		public int root() {
+			return 1;
+		}
+
+		public int[] insert(int state, byte... alternatives) {
+			assert trie.base[state] == 0 && trie.alts[state] == null;
+			int[] nexts = new int[alternatives.length];
+
+			int newbase = trie.freebase(alternatives);
+			trie.base[state] = newbase;
+			trie.alts[state] = Arrays.sorted(alternatives);
+			for (int i = 0; i < alternatives.length; i++) {
+				byte b = alternatives[i];
+				int next = newbase + key(b);
+				trie.check[next] = state;
+				nexts[i] = next;
+			}
+			return nexts;
+		}
+
+		public void attach(int state, byte[] tail, int out) {
+			assert trie.base[state] == 0 || tail.length == 0;
+			trie.attachments[state] = out;
+			if (trie.base[state] == 0 && tail.length > 0) {
+				trie.tail[state] = tail;
+			} else {
+				trie.tail[state] = NO_BYTES;
+			}
+		}
+
+		public void terminate(int state) {
+			trie.base[state] = STOP;
+		}
+
+		public DoubleArrayByteCompactIntTrie build() {
+			return trie;
+		}
+
+	}
+
+	private class Cursor implements IntByteAutomaton {
+
+		private int state;
+		private byte[] activetail;
+		private int tailposition;
+
+		public Cursor() {
+			reset();
+		}
+
+		@Override
+		public void reset() {
+			this.state = 1;
+			this.activetail = base[state] == STOP ? tail[state] : null;
+			this.tailposition = 0;
+		}
+
+		@Override
+		public boolean lookahead(byte b) {
+			if (activetail != null) {
+				return tailposition < activetail.length
+					&& activetail[tailposition] == b;
+			} else {
+				int statebase = base[state];
+				int next = statebase + key(b);
+				return next < check.length
+					&& check[next] == state;
+			}
+		}
+
+		@Override
+		public boolean accept(byte b) {
+			if (activetail != null) {
+				if (tailposition >= activetail.length) {
+					reset();
+					return false;
+				}
+				byte expectedb = activetail[tailposition];
+				if (expectedb != b) {
+					reset();
+					return false;
+				}
+				tailposition++;
+				return true;
+			} else {
+				int statebase = base[state];
+				int next = statebase + key(b);
+				if (next >= check.length || check[next] != state) {
+					reset();
+					return false;
+				}
+				state = next;
+				if (tail[state] != null && tail[state].length > 0) {
+					activetail = tail[state];
+					tailposition = 0;
+				}
+				return true;
+			}
+		}
+
+		private boolean isAccepting() {
+			return tail[state] == NO_BYTES || activetail != null && tailposition == activetail.length;
+		}
+
+		@Override
+		public boolean hasAttachments() {
+			return isAccepting() && attachments[state] != defaultValue;
+		}
+
+		@Override
+		public int getAttached() {
+			if (isAccepting()) {
+				return attachments[state];
+			}
+			return defaultValue;
+		}
+
+		@Override
+		public void forEachAttachment(IntConsumer consumer) {
+			if (hasAttachments()) {
+				consumer.accept(attachments[state]);
+			}
+		}
+
+	}
+
+}
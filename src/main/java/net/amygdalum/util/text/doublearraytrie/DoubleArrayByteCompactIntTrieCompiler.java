@@ -0,0 +1,149 @@
+package net.amygdalum.util.text.doublearraytrie;
+
+import static net.amygdalum.util.text.doublearraytrie.Arrays.NO_BYTES;
+import static net.amygdalum.util.text.doublearraytrie.Arrays.expand;
+import static net.amygdalum.util.text.doublearraytrie.Arrays.prefix;
+
+import java.util.LinkedList;
+import java.util.Queue;
+
+import net.amygdalum.util.text.ByteNode;
+import net.amygdalum.util.text.ByteWordGraphCompiler;
+import net.amygdalum.util.text.IntByteWordSet;
+import net.amygdalum.util.text.NodeResolver;
+import net.amygdalum.util.text.linkeddawg.ByteGenericNode;
+
+public class DoubleArrayByteCompactIntTrieCompiler implements ByteWordGraphCompiler<Integer, IntByteWordSet> {
+
+	private int defaultValue;
+
+	public DoubleArrayByteCompactIntTrieCompiler(int defaultValue) {
+		this.defaultValue = defaultValue;
+	}
+
+	@Override
+	public ByteNode<Integer> create() {
+		return new ByteGenericNode<>();
+	}
+
+	@Override
+	public IntByteWordSet build(ByteNode<Integer> node) {
+		DoubleArrayByteCompactIntTrie.Builder builder = new DoubleArrayByteCompactIntTrie.Builder(defaultValue);
+		boolean[] visited = new boolean[1024];
+		Queue<Assignment<Integer>> todo = new LinkedList<>();
+		todo.add(new Assignment<>(builder.root(), node));
+		while (!todo.isEmpty()) {
+			Assignment<Integer> current = todo.remove();
+			int currentState = current.state;
+			ByteNode<Integer> currentNode = current.node;
+			if (currentState >= visited.length) {
+				visited = expand(visited, currentState);
+			}
+			if (visited[currentState]) {
+				continue;
+			}
+			visited[currentState] = true;
+			
+			int alternatives = currentNode.getAlternativesSize();
+			if (alternatives > 1) {
+				branch(builder, currentState, currentNode, todo);
+			} else if (alternatives == 1) {
+				sprout(builder, currentState, currentNode, todo);
+			} else {
+				terminate(builder, currentState, currentNode);
+			}
+			
+		}
+
+		return builder.build();
+	}
+
+	private void branch(DoubleArrayByteCompactIntTrie.Builder builder, int currentState, ByteNode<Integer> currentNode, Queue<Assignment<Integer>> todo) {
+		byte[] alternatives = currentNode.getAlternatives();
+		int[] nextStates = builder.insert(currentState, alternatives);
+		for (int i = 0; i < nextStates.length; i++) {
+			todo.add(new Assignment<>(nextStates[i], currentNode.nextNode(alternatives[i])));
+		}
+		Integer currentAttached = currentNode.getAttached();
+		if (currentAttached != null) {
+			builder.attach(currentState, NO_BYTES, currentAttached);
+		}
+	}
+
+	private void sprout(DoubleArrayByteCompactIntTrie.Builder builder, int currentState, ByteNode<Integer> currentNode, Queue<Assignment<Integer>> todo) {
+		byte[] seq = new byte[16];
+		int seqpos = 0;
+		while (currentNode.getAttached() == null && currentNode.getAlternativesSize() == 1) {
+			byte b = currentNode.getAlternatives()[0];
+			if (seqpos >= seq.length) {
+				seq = expand(seq, seqpos);
+			}
+			seq[seqpos] = b;
+			currentNode = currentNode.nextNode(b);
+			seqpos++;
+		}
+		seq = prefix(seq, seqpos);
+		if (currentNode.getAlternativesSize() == 0) {
+			Integer currentAttached = currentNode.getAttached();
+			builder.attach(currentState, seq, currentAttached == null ? defaultValue : currentAttached);
+			builder.terminate(currentState);
+		} else {
+			for (byte b : seq) {
+				currentState = builder.insert(currentState, b)[0];
+			}
+			byte[] alternatives = currentNode.getAlternatives();
+			int[] nextStates = builder.insert(currentState, alternatives);
+			for (int i = 0; i < nextStates.length; i++) {
+				todo.add(new Assignment<>(nextStates[i], currentNode.nextNode(alternatives[i])));
+			}
+			Integer currentAttached = currentNode.getAttached();
+			if (currentAttached != null) {
+				builder.attach(currentState, NO_BYTES, currentAttached);
+			}
+		}
+	}
+
+	private void terminate(DoubleArrayByteCompactIntTrie.Builder builder, int currentState, ByteNode<Integer> currentNode) {
+		builder.terminate(currentState);
+		Integer currentAttached = currentNode.getAttached();
+		if (currentAttached != null) {
+			builder.attach(currentState, NO_BYTES, currentAttached);
+		}
+	}
+
+	@Override
+	public NodeResolver<ByteNode<Integer>> resolver() {
+		return new Resolver();
+	}
+	
+	private static class Assignment<T> {
+
+		public int state;
+		public ByteNode<T> node;
+		
+		public Assignment(int state, ByteNode<T> node) {
+			this.state = state;
+			this.node = node;
+		}
+		
+		
+	}
+
+	private class Resolver implements NodeResolver<ByteNode<Integer>> {
+
+		@Override
+		public void compile(ByteNode<Integer> node) {
+		}
+
+		@Override
+		public void link(ByteNode<Integer> node) {
+		}
+
+		@Override
+		public ByteNode<Integer> resolve(ByteNode<Integer> node) {
+			return node;
+		}
+
+	}
+
+}
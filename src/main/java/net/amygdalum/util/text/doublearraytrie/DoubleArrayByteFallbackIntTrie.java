@@ -0,0 +1,259 @@
+package net.amygdalum.util.text.doublearraytrie;
+
+import static net.amygdalum.util.text.doublearraytrie.Arrays.expand;
+import static net.amygdalum.util.text.doublearraytrie.Arrays.filled;
+
+import java.util.function.IntConsumer;
+
+import net.amygdalum.util.text.IntByteAutomaton;
+import net.amygdalum.util.text.IntByteWordSet;
+
+/**
+ * A DoubleArrayByteFallbackIntTrie is a DoubleArrayByteFallbackTrie with int attachments. Absent attachments
+ * are represented by the default value.
+ */
+public class DoubleArrayByteFallbackIntTrie implements IntByteWordSet {
+
+	private static final int INITIAL_SIZE = 1024;
+
+	private static final int STOP = -1;
+
+	private int[] base;
+	private int[] check;
+	private int[] fallback;
+	private int[] output;
+	private byte[][] alts;
+	private int[] attachments;
+	private int defaultValue;
+
+	private FreeSlots slots;
+
+	public DoubleArrayByteFallbackIntTrie(int defaultValue) {
+		this.base = new int[INITIAL_SIZE];
+		this.check = new int[INITIAL_SIZE];
+		this.fallback = new int[INITIAL_SIZE];
+		this.alts = new byte[INITIAL_SIZE][];
+		this.attachments = filled(INITIAL_SIZE, defaultValue);
+		this.defaultValue = defaultValue;
+		this.slots = new FreeSlots();
+	}
+
+	private static int key(byte b) {
+		return ((int) b) + 129;
+	}
+
+	private static int minKey(byte... input) {
+		byte min = Byte.MAX_VALUE;
+		for (byte b : input) {
+			if (b < min) {
+				min = b;
+			}
+		}
+		return key(min);
+	}
+
+	private int freebase(byte... input) {
+		if (input.length == 0) {
+			return -1;
+		}
+		int[] keys = new int[input.length];
+		int maxKey = 0;
+		for (int i = 0; i < input.length; i++) {
+			keys[i] = key(input[i]);
+			maxKey = Math.max(maxKey, keys[i]);
+		}
+		int nextbase = slots.base(keys, minKey(input));
+		ensureSufficientLength(nextbase + maxKey);
+		return nextbase;
+	}
+
+	private void ensureSufficientLength(int next) {
+		if (next >= check.length) {
+			check = expand(check, next);
+			base = expand(base, next);
+			fallback = expand(fallback, next);
+			alts = expand(alts, next);
+			attachments = expand(attachments, next, defaultValue);
+		}
+	}
+
+	/**
+	 * computes for each state the next state in the fallback chain with a (different) attachment
+	 */
+	private int[] computeOutputs() {
+		int[] output = new int[attachments.length];
+		for (int state = 1; state < output.length; state++) {
+			int last = attachments[state];
+			int current = fallback[state];
+			while (current > 0) {
+				int a = attachments[current];
+				if (a != defaultValue && a != last) {
+					break;
+				}
+				current = fallback[current];
+			}
+			output[state] = current;
+		}
+		return output;
+	}
+
+	public int getDefaultValue() {
+		return defaultValue;
+	}
+
+	@Override
+	public IntByteAutomaton cursor() {
+		return new Cursor();
+	}
+
+	@Override
+	public boolean contains(byte[] bytes) {
+		int state = 1;
+		for (int i = 0; i < bytes.length; i++) {
+			int statebase = base[state];
+			if (statebase < 0) {
+				return false;
+			}
+			byte b = bytes[i];
+			int next = statebase + key(b);
+			if (next >= check.length || check[next] != state) {
+				return false;
+			}
+			state = next;
+		}
+		return attachments[state] != defaultValue;
+	}
+
+	@Override
+	public int find(byte[] bytes) {
+		int state = 1;
+		for (int i = 0; i < bytes.length; i++) {
+			int statebase = base[state];
+			if (statebase < 0) {
+				return defaultValue;
+			}
+			byte b = bytes[i];
+			int next = statebase + key(b);
+			if (next >= check.length || check[next] != state) {
+				return defaultValue;
+			}
+			state = next;
+		}
+		return attachments[state];
+	}
+
+	public static class Builder {
+
+		private DoubleArrayByteFallbackIntTrie trie;
+
+		public Builder(int defaultValue) {
+			this.trie = new DoubleArrayByteFallbackIntTrie(defaultValue);
+		}
+
+		public int root() {
+			return 1;
+		}
+
+		public int[] insert(int state, byte... alternatives) {
+			assert trie.base[state] == 0 && trie.alts[state] == null;
+			int[] nexts = new int[alternatives.length];
+
+			int newbase = trie.freebase(alternatives);
+			trie.base[state] = newbase;
+			trie.alts[state] = Arrays.sorted(alternatives);
+			for (int i = 0; i < alternatives.length; i++) {
+				byte b = alternatives[i];
+				int next = newbase + key(b);
+				trie.check[next] = state;
+				nexts[i] = next;
+			}
+			return nexts;
+		}
+
+		public void fallback(int state, int fallbackState) {
+			trie.fallback[state] = fallbackState;
+		}
+
+		public void attach(int state, int out) {
+			trie.attachments[state] = out;
+		}
+
+		public void terminate(int state) {
+			trie.base[state] = STOP;
+		}
+
+		public DoubleArrayByteFallbackIntTrie build() {
+			trie.output = trie.computeOutputs();
+			return trie;
+		}
+
+	}
+
+	private class Cursor implements IntByteAutomaton {
+
+		private int state;
+
+		public Cursor() {
+			this.state = 1;
+		}
+
+		@Override
+		public void reset() {
+			this.state = 1;
+		}
+
+		@Override
+		public boolean lookahead(byte b) {
+			int statebase = base[state];
+			int next = statebase + key(b);
+			return next < check.length
+				&& check[next] == state;
+		}
+
+		@Override
+		public boolean accept(byte b) {
+			int statebase = base[state];
+			while (statebase < 0) {
+				state = fallback[state];
+				if (state == 0) {
+					reset();
+					return false;
+				}
+				statebase = base[state];
+			}
+			int next = statebase + key(b);
+			while (state > 1 && (next >= check.length || check[next] != state)) {
+				state = fallback[state];
+				statebase = base[state];
+				next = statebase + key(b);
+			}
+			if (next >= check.length || check[next] != state) {
+				reset();
+				return false;
+			}
+			state = next;
+			return true;
+		}
+
+		@Override
+		public boolean hasAttachments() {
+			return attachments[state] != defaultValue;
+		}
+
+		@Override
+		public int getAttached() {
+			return attachments[state];
+		}
+
+		@Override
+		public void forEachAttachment(IntConsumer consumer) {
+			int current = attachments[state] != defaultValue ? state : output[state];
+			while (current > 0) {
+				consumer.accept(attachments[current]);
+				current = output[current];
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,126 @@
+package net.amygdalum.util.text.doublearraytrie;
+
+import static net.amygdalum.util.text.doublearraytrie.Arrays.expand;
+
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Queue;
+
+import net.amygdalum.util.text.ByteFallbackAdaptor;
+import net.amygdalum.util.text.ByteNode;
+import net.amygdalum.util.text.ByteWordGraphCompiler;
+import net.amygdalum.util.text.IntByteWordSet;
+import net.amygdalum.util.text.NodeResolver;
+import net.amygdalum.util.text.linkeddawg.ByteGenericFallbackNode;
+
+public class DoubleArrayByteFallbackIntTrieCompiler implements ByteWordGraphCompiler<Integer, IntByteWordSet> {
+
+	private int defaultValue;
+
+	public DoubleArrayByteFallbackIntTrieCompiler(int defaultValue) {
+		this.defaultValue = defaultValue;
+	}
+
+	@Override
+	public ByteNode<Integer> create() {
+		return new ByteGenericFallbackNode<>();
+	}
+
+	@Override
+	public IntByteWordSet build(ByteNode<Integer> node) {
+		DoubleArrayByteFallbackIntTrie.Builder builder = new DoubleArrayByteFallbackIntTrie.Builder(defaultValue);
+		boolean[] visited = new boolean[1024];
+		Map<ByteNode<Integer>, Integer> assignments = new IdentityHashMap<>();
+		Queue<Assignment<Integer>> todo = new LinkedList<>();
+		todo.add(new Assignment<>(builder.root(), node));
+		while (!todo.isEmpty()) {
+			Assignment<Integer> current = todo.remove();
+			int currentState = current.state;
+			ByteNode<Integer> currentNode = current.node;
+			if (currentState >= visited.length) {
+				visited = expand(visited, currentState);
+			}
+			if (visited[currentState]) {
+				continue;
+			}
+			visited[currentState] = true;
+			assignments.put(currentNode, currentState);
+			
+			int alternatives = currentNode.getAlternativesSize();
+			if (alternatives >= 1) {
+				branch(builder, currentState, currentNode, todo);
+			} else {
+				terminate(builder, currentState, currentNode);
+			}
+		}
+		for (Map.Entry<ByteNode<Integer>, Integer> current : assignments.entrySet()) {
+			ByteNode<Integer> currentNode = current.getKey();
+			int currentState = current.getValue();
+			
+			ByteNode<Object> fallbackNode = ByteFallbackAdaptor.getFallback(currentNode);
+			if (fallbackNode != null) {
+				int fallbackState = assignments.getOrDefault(fallbackNode, 0);
+				builder.fallback(currentState, fallbackState);
+			}
+		}
+
+		return builder.build();
+	}
+
+	private void branch(DoubleArrayByteFallbackIntTrie.Builder builder, int currentState, ByteNode<Integer> currentNode, Queue<Assignment<Integer>> todo) {
+		byte[] alternatives = currentNode.getAlternatives();
+		int[] nextStates = builder.insert(currentState, alternatives);
+		for (int i = 0; i < nextStates.length; i++) {
+			todo.add(new Assignment<>(nextStates[i], currentNode.nextNode(alternatives[i])));
+		}
+		Integer currentAttached = currentNode.getAttached();
+		if (currentAttached != null) {
+			builder.attach(currentState, currentAttached);
+		}
+	}
+	
+	private void terminate(DoubleArrayByteFallbackIntTrie.Builder builder, int currentState, ByteNode<Integer> currentNode) {
+		builder.terminate(currentState);
+		Integer currentAttached = currentNode.getAttached();
+		if (currentAttached != null) {
+			builder.attach(currentState, currentAttached);
+		}
+	}
+
+	@Override
+	public NodeResolver<ByteNode<Integer>> resolver() {
+		return new Resolver();
+	}
+	
+	private static class Assignment<T> {
+
+		public int state;
+		public ByteNode<T> node;
+		
+		public Assignment(int state, ByteNode<T> node) {
+			this.state = state;
+			this.node = node;
+		}
+		
+		
+	}
+
+	private class Resolver implements NodeResolver<ByteNode<Integer>> {
+
+		@Override
+		public void compile(ByteNode<Integer> node) {
+		}
+
+		@Override
+		public void link(ByteNode<Integer> node) {
+		}
+
+		@Override
+		public ByteNode<Integer> resolve(ByteNode<Integer> node) {
+			return node;
+		}
+
+	}
+
+}
@@ -1,30 +1,36 @@
 package net.amygdalum.util.text.doublearraytrie;
 
+import static net.amygdalum.util.text.doublearraytrie.Arrays.NO_BYTES;
 import static net.amygdalum.util.text.doublearraytrie.Arrays.expand;
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 
 import net.amygdalum.util.text.AttachmentAdaptor;
+import net.amygdalum.util.text.AutomatonState;
 import net.amygdalum.util.text.ByteAutomaton;
 import net.amygdalum.util.text.ByteFallbackNavigator;
 import net.amygdalum.util.text.ByteTrie;
+import net.amygdalum.util.text.ByteWalker;
 import net.amygdalum.util.text.WordSetNavigationException;
 
 public class DoubleArrayByteFallbackTrie<T> implements ByteTrie<T> {
 
 	private static final int INITIAL_SIZE = 1024;
-	private static final int MAX_SPACE = Byte.MAX_VALUE + 128;
 
 	private static final int STOP = -1;
+	private static final int GROUP = 8;
 
 	private int[] base;
 	private int[] check;
 	private int[] fallback;
+	private int[] output;
 	private byte[][] alts;
 	private T[] attachments;
 
-	private int nextCheck;
+	private FreeSlots slots;
+	private boolean frozen;
 
 	@SuppressWarnings("unchecked")
 	public DoubleArrayByteFallbackTrie() {
@@ -33,7 +39,7 @@ public class DoubleArrayByteFallbackTrie<T> implements ByteTrie<T> {
 		this.fallback = new int[INITIAL_SIZE];
 		this.alts = new byte[INITIAL_SIZE][];
 		this.attachments = (T[]) new Object[INITIAL_SIZE];
-		this.nextCheck = 1;
+		this.slots = new FreeSlots();
 	}
 
 	private static int key(byte b) {
@@ -54,45 +60,14 @@ public class DoubleArrayByteFallbackTrie<T> implements ByteTrie<T> {
 		if (input.length == 0) {
 			return -1;
 		}
-		int pivotKey = minKey(input);
-		int predictedNext = Math.max(pivotKey + 1, nextCheck);
-
-		ensureSufficientLength(predictedNext);
-		while (check[predictedNext] != 0) {
-			predictedNext++;
-			ensureSufficientLength(predictedNext);
-		}
-		nextCheck = predictedNext;
-
-		int nextbase = -1;
-		int blocked = 0;
-		while (predictedNext < Integer.MAX_VALUE) {
-			ensureSufficientLength(predictedNext + MAX_SPACE);
-			if (check[predictedNext] != 0) {
-				blocked++;
-				predictedNext++;
-				continue;
-			}
-			nextbase = predictedNext - pivotKey;
-			boolean found = true;
-			for (byte b : input) {
-				int next = nextbase + key(b);
-				if (check[next] != 0) {
-					found = false;
-					break;
-				}
-			}
-			if (found) {
-				break;
-			} else {
-				predictedNext++;
-			}
-		}
-		int checked = predictedNext - nextCheck;
-		int free = checked - blocked;
-		if ((checked >> 5) > free) {
-			nextCheck = predictedNext;
+		int[] keys = new int[input.length];
+		int maxKey = 0;
+		for (int i = 0; i < input.length; i++) {
+			keys[i] = key(input[i]);
+			maxKey = Math.max(maxKey, keys[i]);
 		}
+		int nextbase = slots.base(keys, minKey(input));
+		ensureSufficientLength(nextbase + maxKey);
 		return nextbase;
 	}
 
@@ -106,6 +81,35 @@ public class DoubleArrayByteFallbackTrie<T> implements ByteTrie<T> {
 		}
 	}
 
+	private int[] outputs() {
+		int[] output = this.output;
+		if (output == null) {
+			output = computeOutputs();
+			this.output = output;
+		}
+		return output;
+	}
+
+	/**
+	 * computes for each state the next state in the fallback chain with a (different) attachment
+	 */
+	private int[] computeOutputs() {
+		int[] output = new int[attachments.length];
+		for (int state = 1; state < output.length; state++) {
+			T last = attachments[state];
+			int current = fallback[state];
+			while (current > 0) {
+				T a = attachments[current];
+				if (a != null && a != last) {
+					break;
+				}
+				current = fallback[current];
+			}
+			output[state] = current;
+		}
+		return output;
+	}
+
 	@Override
 	public ByteAutomaton<T> cursor() {
 		return new Cursor();
@@ -147,11 +151,91 @@ public class DoubleArrayByteFallbackTrie<T> implements ByteTrie<T> {
 		return attachments[state];
 	}
 
+	@Override
+	public void containsAll(byte[][] keys, boolean[] out) {
+		int[] states = lookupAll(keys);
+		for (int i = 0; i < states.length; i++) {
+			out[i] = states[i] > 0;
+		}
+	}
+
+	@Override
+	public void containsAll(byte[] data, int[] offsets, boolean[] out) {
+		int[] states = lookupAll(data, offsets);
+		for (int i = 0; i < states.length; i++) {
+			out[i] = states[i] > 0;
+		}
+	}
+
+	@Override
+	public void findAll(byte[][] keys, T[] out) {
+		int[] states = lookupAll(keys);
+		for (int i = 0; i < states.length; i++) {
+			out[i] = states[i] > 0 ? attachments[states[i]] : null;
+		}
+	}
+
+	@Override
+	public void findAll(byte[] data, int[] offsets, T[] out) {
+		int[] states = lookupAll(data, offsets);
+		for (int i = 0; i < states.length; i++) {
+			out[i] = states[i] > 0 ? attachments[states[i]] : null;
+		}
+	}
+
+	private int[] lookupAll(byte[][] keys) {
+		int[] states = new int[keys.length];
+		Lookup lookup = new Lookup();
+		for (int i = 0; i < keys.length; i++) {
+			lookup.add(keys[i], 0, keys[i].length);
+			if (lookup.size == GROUP) {
+				lookup.run(states, i + 1 - GROUP);
+			}
+		}
+		lookup.run(states, keys.length - lookup.size);
+		return states;
+	}
+
+	private int[] lookupAll(byte[] data, int[] offsets) {
+		int[] states = new int[offsets.length - 1];
+		Lookup lookup = new Lookup();
+		for (int i = 0; i < states.length; i++) {
+			lookup.add(data, offsets[i], offsets[i + 1]);
+			if (lookup.size == GROUP) {
+				lookup.run(states, i + 1 - GROUP);
+			}
+		}
+		lookup.run(states, states.length - lookup.size);
+		return states;
+	}
+
+	/**
+	 * freezes this trie. A frozen trie cannot be modified any more (attaching with a navigator throws an
+	 * UnsupportedOperationException), so it may be shared by multiple threads, each thread using its own cursors
+	 * (the state of a cursor is not shared). The frozen trie has to be published safely (e.g. as final or volatile field).
+	 *
+	 * @return this trie
+	 */
+	public DoubleArrayByteFallbackTrie<T> freeze() {
+		output = outputs();
+		frozen = true;
+		return this;
+	}
+
+	public boolean isFrozen() {
+		return frozen;
+	}
+
 	@Override
 	public ByteFallbackNavigator<T, ?> navigator() {
 		return new Navigator(1);
 	}
 
+	@Override
+	public ByteWalker<T> walker() {
+		return new Walker();
+	}
+
 	public static class Builder<T> {
 
 		private DoubleArrayByteFallbackTrie<T> trie;
@@ -230,10 +314,132 @@ public class DoubleArrayByteFallbackTrie<T> implements ByteTrie<T> {
 
 		@Override
 		public void attach(T attached) {
+			if (frozen) {
+				throw new UnsupportedOperationException("trie is frozen");
+			}
 			attachments[state] = attached;
+			output = null;
 		}
 	}
 
+	/**
+	 * looks up a group of keys in lockstep, so that the memory accesses for different keys may overlap.
+	 */
+	private class Lookup {
+
+		private byte[][] keys;
+		private int[] pos;
+		private int[] end;
+		private int[] state;
+		private int size;
+
+		public Lookup() {
+			this.keys = new byte[GROUP][];
+			this.pos = new int[GROUP];
+			this.end = new int[GROUP];
+			this.state = new int[GROUP];
+		}
+
+		public void add(byte[] bytes, int start, int end) {
+			this.keys[size] = bytes;
+			this.pos[size] = start;
+			this.end[size] = end;
+			this.state[size] = 1;
+			size++;
+		}
+
+		/**
+		 * stores the accepting state of each key (or 0 if the key is not contained) into states (starting at offset)
+		 */
+		public void run(int[] states, int offset) {
+			int active = size;
+			while (active > 0) {
+				for (int i = 0; i < size; i++) {
+					int current = state[i];
+					if (current <= 0) {
+						continue;
+					}
+					int statebase = base[current];
+					if (pos[i] == end[i]) {
+						state[i] = attachments[current] != null ? -current : 0;
+						active--;
+					} else if (statebase < 0) {
+						state[i] = 0;
+						active--;
+					} else {
+						int next = statebase + key(keys[i][pos[i]]);
+						if (next >= check.length || check[next] != current) {
+							state[i] = 0;
+							active--;
+						} else {
+							state[i] = next;
+							pos[i]++;
+						}
+					}
+				}
+			}
+			for (int i = 0; i < size; i++) {
+				states[offset + i] = -state[i];
+				keys[i] = null;
+			}
+			size = 0;
+		}
+
+	}
+
+	private class Walker implements ByteWalker<T> {
+
+		private int[] path;
+		private int depth;
+
+		Walker() {
+			this.path = new int[16];
+			this.path[0] = 1;
+		}
+
+		@Override
+		public void reset() {
+			depth = 0;
+		}
+
+		@Override
+		public boolean step(byte b) {
+			int state = path[depth];
+			int statebase = base[state];
+			if (statebase < 0) {
+				return false;
+			}
+			int next = statebase + key(b);
+			if (next >= check.length || check[next] != state) {
+				return false;
+			}
+			depth++;
+			path = expand(path, depth);
+			path[depth] = next;
+			return true;
+		}
+
+		@Override
+		public void back() {
+			depth--;
+		}
+
+		@Override
+		public T getAttached() {
+			return attachments[path[depth]];
+		}
+
+		@Override
+		public byte[] getAlternatives() {
+			byte[] bytes = alts[path[depth]];
+			if (bytes == null) {
+				return NO_BYTES;
+			}
+			return bytes;
+		}
+
+	}
+
 	private class Cursor implements ByteAutomaton<T> {
 
 		private int state;
@@ -255,6 +461,16 @@ public class DoubleArrayByteFallbackTrie<T> implements ByteTrie<T> {
 			this.state = 1;
 		}
 
+		@Override
+		public void snapshot(AutomatonState state) {
+			state.state = this.state;
+		}
+
+		@Override
+		public void restore(AutomatonState state) {
+			this.state = state.state;
+		}
+
 		@Override
 		public boolean lookahead(byte b) {
 			int statebase = base[state];
@@ -293,40 +509,48 @@ public class DoubleArrayByteFallbackTrie<T> implements ByteTrie<T> {
 			return attachments[state] != null;
 		}
 
+		@Override
+		public T getAttached() {
+			T attached = attachments[state];
+			if (attached == null) {
+				attached = attachments[outputs()[state]];
+			}
+			return attached;
+		}
+
+		@Override
+		public void forEachAttachment(Consumer<? super T> consumer) {
+			int[] output = outputs();
+			int current = attachments[state] != null ? state : output[state];
+			while (current > 0) {
+				consumer.accept(attachments[current]);
+				current = output[current];
+			}
+		}
+
 		private class AttachmentIterator implements Iterator<T> {
 
 			private int state;
-			private T last;
+			private int[] output;
 
 			public void init(int state) {
-				this.state = state;
-				this.last = null;
+				this.output = outputs();
+				this.state = attachments[state] != null ? state : output[state];
 			}
 
 			@Override
 			public boolean hasNext() {
-				while (state > 0) {
-					T a = attachments[state];
-					if (a != null && a != last) {
-						return true;
-					}
-					state = fallback[state];
-				}
-				return false;
+				return state > 0;
 			}
 
 			@Override
 			public T next() {
-				while (state > 0) {
-					T a = attachments[state];
-					if (a != null && a != last) {
-						last = a;
-						state = fallback[state];
-						return a;
-					}
-					state = fallback[state];
+				if (state == 0) {
+					throw new NoSuchElementException();
 				}
-				throw new NoSuchElementException();
+				T a = attachments[state];
+				state = output[state];
+				return a;
 			}
 		}
 
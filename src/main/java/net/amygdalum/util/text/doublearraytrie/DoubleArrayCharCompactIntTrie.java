@@ -0,0 +1,271 @@
+package net.amygdalum.util.text.doublearraytrie;
+
+import static net.amygdalum.util.text.doublearraytrie.Arrays.NO_CHARS;
+import static net.amygdalum.util.text.doublearraytrie.Arrays.expand;
+import static net.amygdalum.util.text.doublearraytrie.Arrays.filled;
+import static net.amygdalum.util.text.doublearraytrie.Arrays.verify;
+
+import java.util.function.IntConsumer;
+
+import net.amygdalum.util.text.IntCharAutomaton;
+import net.amygdalum.util.text.IntCharWordSet;
+
+/**
+ * A DoubleArrayCharCompactIntTrie is a DoubleArrayCharCompactTrie with int attachments:
+ * - acyclic (no back links, no support links)
+ * - each node may be reached by exactly one node (i.e. a tree)
+ * - attachments are stored as primitive ints, absent attachments are represented by the default value
+ */
+public class DoubleArrayCharCompactIntTrie implements IntCharWordSet {
+
+	private static final int INITIAL_SIZE = 1024;
+
+	private static final int STOP = -1;
+
+	private int[] base;
+	private int[] check;
+	private char[][] tail;
+	private char[][] alts;
+	private int[] attachments;
+	private int defaultValue;
+
+	private FreeSlots slots;
+
+	public DoubleArrayCharCompactIntTrie(int defaultValue) {
+		this.base = new int[INITIAL_SIZE];
+		this.check = new int[INITIAL_SIZE];
+		this.tail = new char[INITIAL_SIZE][];
+		this.alts = new char[INITIAL_SIZE][];
+		this.attachments = filled(INITIAL_SIZE, defaultValue);
+		this.defaultValue = defaultValue;
+		this.slots = new FreeSlots();
+	}
+
+	private static int key(char c) {
+		return (int) c + 1;
+	}
+
+	private static int minKey(char... input) {
+		char min = Character.MAX_VALUE;
+		for (char c : input) {
+			if (c < min) {
+				min = c;
+			}
+		}
+		return key(min);
+	}
+
+	private int freebase(char... input) {
+		if (input.length == 0) {
+			return -1;
+		}
+		int[] keys = new int[input.length];
+		int maxKey = 0;
+		for (int i = 0; i < input.length; i++) {
+			keys[i] = key(input[i]);
+			maxKey = Math.max(maxKey, keys[i]);
+		}
+		int nextbase = slots.base(keys, minKey(input));
+		ensureSufficientLength(nextbase + maxKey);
+		return nextbase;
+	}
+
+	private void ensureSufficientLength(int next) {
+		if (next >= check.length) {
+			check = expand(check, next);
+			base = expand(base, next);
+			tail = expand(tail, next);
+			alts = expand(alts, next);
+			attachments = expand(attachments, next, defaultValue);
+		}
+	}
+
+	public int getDefaultValue() {
+		return defaultValue;
+	}
+
+	@Override
+	public IntCharAutomaton cursor() {
+		return new Cursor();
+	}
+
+	@Override
+	public boolean contains(char[] chars) {
+		int state = 1;
+		for (int i = 0; i < chars.length; i++) {
+			int statebase = base[state];
+			if (statebase < 0) {
+				return tail[state] != null && verify(chars, i, tail[state]);
+			}
+			char c = chars[i];
+			int next = statebase + key(c);
+			if (next >= check.length || check[next] != state) {
+				return false;
+			}
+			state = next;
+		}
+		if (tail[state] != null && tail[state].length == 0) {
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public int find(char[] chars) {
+		int state = 1;
+		for (int i = 0; i < chars.length; i++) {
+			int statebase = base[state];
+			if (statebase < 0) {
+				if (tail[state] != null && verify(chars, i, tail[state])) {
+					return attachments[state];
+				}
+				return defaultValue;
+			}
+			char c = chars[i];
+			int next = statebase + key(c);
+			if (next >= check.length || check[next] != state) {
+				return defaultValue;
+			}
+			state = next;
+		}
+		if (tail[state] != null && tail[state].length == 0) {
+			return attachments[state];
+		}
+		return defaultValue;
+	}
+
+	public static class Builder {
+
+		private DoubleArrayCharCompactIntTrie trie;
+
+		public Builder(int defaultValue) {
+			this.trie = new DoubleArrayCharCompactIntTrie(defaultValue);
+		}
+
+		public int root() {
+			return 1;
+		}
+
+		public int[] insert(int state, char... alternatives) {
+			assert trie.base[state] == 0 && trie.alts[state] == null;
+			int[] nexts = new int[alternatives.length];
+
+			int newbase = trie.freebase(alternatives);
+			trie.base[state] = newbase;
+			trie.alts[state] = Arrays.sorted(alternatives);
+			for (int i = 0; i < alternatives.length; i++) {
+				char c = alternatives[i];
+				int next = newbase + key(c);
+				trie.check[next] = state;
+				nexts[i] = next;
+			}
+			return nexts;
+		}
+
+		public void attach(int state, char[] tail, int out) {
+			assert trie.base[state] == 0 || tail.length == 0;
+			trie.attachments[state] = out;
+			if (trie.base[state] == 0 && tail.length > 0) {
+				trie.tail[state] = tail;
+			} else {
+				trie.tail[state] = NO_CHARS;
+			}
+		}
+
+		public void terminate(int state) {
+			trie.base[state] = STOP;
+		}
+
+		public DoubleArrayCharCompactIntTrie build() {
+			return trie;
+		}
+
+	}
+
+	private class Cursor implements IntCharAutomaton {
+
+		private int state;
+		private char[] activetail;
+		private int tailposition;
+
+		public Cursor() {
+			reset();
+		}
+
+		@Override
+		public void reset() {
+			this.state = 1;
+			this.activetail = base[state] == STOP ? tail[state] : null;
+			this.tailposition = 0;
+		}
+
+		@Override
+		public boolean lookahead(char c) {
+			if (activetail != null) {
+				return tailposition < activetail.length
+					&& activetail[tailposition] == c;
+			} else {
+				int statebase = base[state];
+				int next = statebase + key(c);
+				return next < check.length
+					&& check[next] == state;
+			}
+		}
+
+		@Override
+		public boolean accept(char c) {
+			if (activetail != null) {
+				if (tailposition >= activetail.length) {
+					reset();
+					return false;
+				}
+				char expectedc = activetail[tailposition];
+				if (expectedc != c) {
+					reset();
+					return false;
+				}
+				tailposition++;
+				return true;
+			} else {
+				int statebase = base[state];
+				int next = statebase + key(c);
+				if (next >= check.length || check[next] != state) {
+					reset();
+					return false;
+				}
+				state = next;
+				if (tail[state] != null && tail[state].length > 0) {
+					activetail = tail[state];
+					tailposition = 0;
+				}
+				return true;
+			}
+		}
+
+		private boolean isAccepting() {
+			return tail[state] == NO_CHARS || activetail != null && tailposition == activetail.length;
+		}
+
+		@Override
+		public boolean hasAttachments() {
+			return isAccepting() && attachments[state] != defaultValue;
+		}
+
+		@Override
+		public int getAttached() {
+			if (isAccepting()) {
+				return attachments[state];
+			}
+			return defaultValue;
+		}
+
+		@Override
+		public void forEachAttachment(IntConsumer consumer) {
+			if (hasAttachments()) {
+				consumer.accept(attachments[state]);
+			}
+		}
+
+	}
+
+}
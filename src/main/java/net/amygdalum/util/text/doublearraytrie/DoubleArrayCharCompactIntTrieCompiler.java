@@ -0,0 +1,149 @@
+package net.amygdalum.util.text.doublearraytrie;
+
+import static net.amygdalum.util.text.doublearraytrie.Arrays.NO_CHARS;
+import static net.amygdalum.util.text.doublearraytrie.Arrays.expand;
+import static net.amygdalum.util.text.doublearraytrie.Arrays.prefix;
+
+import java.util.LinkedList;
+import java.util.Queue;
+
+import net.amygdalum.util.text.CharNode;
+import net.amygdalum.util.text.CharWordGraphCompiler;
+import net.amygdalum.util.text.IntCharWordSet;
+import net.amygdalum.util.text.NodeResolver;
+import net.amygdalum.util.text.linkeddawg.CharGenericNode;
+
+public class DoubleArrayCharCompactIntTrieCompiler implements CharWordGraphCompiler<Integer, IntCharWordSet> {
+
+	private int defaultValue;
+
+	public DoubleArrayCharCompactIntTrieCompiler(int defaultValue) {
+		this.defaultValue = defaultValue;
+	}
+
+	@Override
+	public CharNode<Integer> create() {
+		return new CharGenericNode<>();
+	}
+
+	@Override
+	public IntCharWordSet build(CharNode<Integer> node) {
+		DoubleArrayCharCompactIntTrie.Builder builder = new DoubleArrayCharCompactIntTrie.Builder(defaultValue);
+		boolean[] visited = new boolean[1024];
+		Queue<Assignment<Integer>> todo = new LinkedList<>();
+		todo.add(new Assignment<>(builder.root(), node));
+		while (!todo.isEmpty()) {
+			Assignment<Integer> current = todo.remove();
+			int currentState = current.state;
+			CharNode<Integer> currentNode = current.node;
+			if (currentState >= visited.length) {
+				visited = expand(visited, currentState);
+			}
+			if (visited[currentState]) {
+				continue;
+			}
+			visited[currentState] = true;
+			
+			int alternatives = currentNode.getAlternativesSize();
+			if (alternatives > 1) {
+				branch(builder, currentState, currentNode, todo);
+			} else if (alternatives == 1) {
+				sprout(builder, currentState, currentNode, todo);
+			} else {
+				terminate(builder, currentState, currentNode);
+			}
+			
+		}
+
+		return builder.build();
+	}
+
+	private void branch(DoubleArrayCharCompactIntTrie.Builder builder, int currentState, CharNode<Integer> currentNode, Queue<Assignment<Integer>> todo) {
+		char[] alternatives = currentNode.getAlternatives();
+		int[] nextStates = builder.insert(currentState, alternatives);
+		for (int i = 0; i < nextStates.length; i++) {
+			todo.add(new Assignment<>(nextStates[i], currentNode.nextNode(alternatives[i])));
+		}
+		Integer currentAttached = currentNode.getAttached();
+		if (currentAttached != null) {
+			builder.attach(currentState, NO_CHARS, currentAttached);
+		}
+	}
+
+	private void sprout(DoubleArrayCharCompactIntTrie.Builder builder, int currentState, CharNode<Integer> currentNode, Queue<Assignment<Integer>> todo) {
+		char[] seq = new char[16];
+		int seqpos = 0;
+		while (currentNode.getAttached() == null && currentNode.getAlternativesSize() == 1) {
+			char c = currentNode.getAlternatives()[0];
+			if (seqpos >= seq.length) {
+				seq = expand(seq, seqpos);
+			}
+			seq[seqpos] = c;
+			currentNode = currentNode.nextNode(c);
+			seqpos++;
+		}
+		seq = prefix(seq, seqpos);
+		if (currentNode.getAlternativesSize() == 0) {
+			Integer currentAttached = currentNode.getAttached();
+			builder.attach(currentState, seq, currentAttached == null ? defaultValue : currentAttached);
+			builder.terminate(currentState);
+		} else {
+			for (char c : seq) {
+				currentState = builder.insert(currentState, c)[0];
+			}
+			char[] alternatives = currentNode.getAlternatives();
+			int[] nextStates = builder.insert(currentState, alternatives);
+			for (int i = 0; i < nextStates.length; i++) {
+				todo.add(new Assignment<>(nextStates[i], currentNode.nextNode(alternatives[i])));
+			}
+			Integer currentAttached = currentNode.getAttached();
+			if (currentAttached != null) {
+				builder.attach(currentState, NO_CHARS, currentAttached);
+			}
+		}
+	}
+
+	private void terminate(DoubleArrayCharCompactIntTrie.Builder builder, int currentState, CharNode<Integer> currentNode) {
+		builder.terminate(currentState);
+		Integer currentAttached = currentNode.getAttached();
+		if (currentAttached != null) {
+			builder.attach(currentState, NO_CHARS, currentAttached);
+		}
+	}
+
+	@Override
+	public NodeResolver<CharNode<Integer>> resolver() {
+		return new Resolver();
+	}
+	
+	private static class Assignment<T> {
+
+		public int state;
+		public CharNode<T> node;
+		
+		public Assignment(int state, CharNode<T> node) {
+			this.state = state;
+			this.node = node;
+		}
+		
+		
+	}
+
+	private class Resolver implements NodeResolver<CharNode<Integer>> {
+
+		@Override
+		public void compile(CharNode<Integer> node) {
+		}
+
+		@Override
+		public void link(CharNode<Integer> node) {
+		}
+
+		@Override
+		public CharNode<Integer> resolve(CharNode<Integer> node) {
+			return node;
+		}
+
+	}
+
+}
@@ -6,14 +6,19 @@ import static net.amygdalum.util.text.doublearraytrie.Arrays.expand;
 import static net.amygdalum.util.text.doublearraytrie.Arrays.join;
 import static net.amygdalum.util.text.doublearraytrie.Arrays.suffix;
 import static net.amygdalum.util.text.doublearraytrie.Arrays.verify;
+import static net.amygdalum.util.text.doublearraytrie.Arrays.without;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 
 import net.amygdalum.util.text.AttachmentAdaptor;
 import net.amygdalum.util.text.CharAutomaton;
 import net.amygdalum.util.text.CharNavigator;
 import net.amygdalum.util.text.CharTrie;
+import net.amygdalum.util.text.CharWalker;
 import net.amygdalum.util.text.WordSetNavigationException;
 
 /**
@@ -26,9 +31,9 @@ import net.amygdalum.util.text.WordSetNavigationException;
 public class DoubleArrayCharCompactTrie<T> implements CharTrie<T> {
 
 	private static final int INITIAL_SIZE = 1024;
-	private static final int MAX_SPACE = Character.MAX_VALUE;
 
 	private static final int STOP = -1;
+	private static final int GROUP = 8;
 
 	private int[] base;
 	private int[] check;
@@ -36,7 +41,8 @@ public class DoubleArrayCharCompactTrie<T> implements CharTrie<T> {
 	private char[][] alts;
 	private T[] attachments;
 
-	private int nextCheck;
+	private FreeSlots slots;
+	private boolean frozen;
 
 	@SuppressWarnings("unchecked")
 	public DoubleArrayCharCompactTrie() {
@@ -45,7 +51,7 @@ public class DoubleArrayCharCompactTrie<T> implements CharTrie<T> {
 		this.tail = new char[INITIAL_SIZE][];
 		this.alts = new char[INITIAL_SIZE][];
 		this.attachments = (T[]) new Object[INITIAL_SIZE];
-		this.nextCheck = 1;
+		this.slots = new FreeSlots();
 	}
 
 	private static int key(char c) {
@@ -66,45 +72,14 @@ public class DoubleArrayCharCompactTrie<T> implements CharTrie<T> {
 		if (input.length == 0) {
 			return -1;
 		}
-		int pivotKey = minKey(input);
-		int predictedNext = Math.max(pivotKey + 1, nextCheck);
-
-		ensureSufficientLength(predictedNext);
-		while (check[predictedNext] != 0) {
-			predictedNext++;
-			ensureSufficientLength(predictedNext);
-		}
-		nextCheck = predictedNext;
-
-		int nextbase = -1;
-		int blocked = 0;
-		while (predictedNext < Integer.MAX_VALUE) {
-			ensureSufficientLength(predictedNext + MAX_SPACE);
-			if (check[predictedNext] != 0) {
-				blocked++;
-				predictedNext++;
-				continue;
-			}
-			nextbase = predictedNext - pivotKey;
-			boolean found = true;
-			for (char c : input) {
-				int next = nextbase + key(c);
-				if (check[next] != 0) {
-					found = false;
-					break;
-				}
-			}
-			if (found) {
-				break;
-			} else {
-				predictedNext++;
-			}
-		}
-		int checked = predictedNext - nextCheck;
-		int free = checked - blocked;
-		if ((checked >> 5) > free) {
-			nextCheck = predictedNext;
+		int[] keys = new int[input.length];
+		int maxKey = 0;
+		for (int i = 0; i < input.length; i++) {
+			keys[i] = key(input[i]);
+			maxKey = Math.max(maxKey, keys[i]);
 		}
+		int nextbase = slots.base(keys, minKey(input));
+		ensureSufficientLength(nextbase + maxKey);
 		return nextbase;
 	}
 
@@ -165,11 +140,229 @@ public class DoubleArrayCharCompactTrie<T> implements CharTrie<T> {
 		return null;
 	}
 
+	@Override
+	public void containsAll(char[][] keys, boolean[] out) {
+		int[] states = lookupAll(keys);
+		for (int i = 0; i < states.length; i++) {
+			out[i] = states[i] > 0;
+		}
+	}
+
+	@Override
+	public void containsAll(char[] data, int[] offsets, boolean[] out) {
+		int[] states = lookupAll(data, offsets);
+		for (int i = 0; i < states.length; i++) {
+			out[i] = states[i] > 0;
+		}
+	}
+
+	@Override
+	public void findAll(char[][] keys, T[] out) {
+		int[] states = lookupAll(keys);
+		for (int i = 0; i < states.length; i++) {
+			out[i] = states[i] > 0 ? attachments[states[i]] : null;
+		}
+	}
+
+	@Override
+	public void findAll(char[] data, int[] offsets, T[] out) {
+		int[] states = lookupAll(data, offsets);
+		for (int i = 0; i < states.length; i++) {
+			out[i] = states[i] > 0 ? attachments[states[i]] : null;
+		}
+	}
+
+	private int[] lookupAll(char[][] keys) {
+		int[] states = new int[keys.length];
+		Lookup lookup = new Lookup();
+		for (int i = 0; i < keys.length; i++) {
+			lookup.add(keys[i], 0, keys[i].length);
+			if (lookup.size == GROUP) {
+				lookup.run(states, i + 1 - GROUP);
+			}
+		}
+		lookup.run(states, keys.length - lookup.size);
+		return states;
+	}
+
+	private int[] lookupAll(char[] data, int[] offsets) {
+		int[] states = new int[offsets.length - 1];
+		Lookup lookup = new Lookup();
+		for (int i = 0; i < states.length; i++) {
+			lookup.add(data, offsets[i], offsets[i + 1]);
+			if (lookup.size == GROUP) {
+				lookup.run(states, i + 1 - GROUP);
+			}
+		}
+		lookup.run(states, states.length - lookup.size);
+		return states;
+	}
+
+	private int state(char[] chars) {
+		int state = 1;
+		for (int i = 0; i < chars.length; i++) {
+			int statebase = base[state];
+			if (statebase < 0) {
+				return tail[state] != null && verify(chars, i, tail[state]) ? state : 0;
+			}
+			int next = statebase + key(chars[i]);
+			if (next >= check.length || check[next] != state) {
+				return 0;
+			}
+			state = next;
+		}
+		if (tail[state] != null && tail[state].length == 0) {
+			return state;
+		}
+		return 0;
+	}
+
+	/**
+	 * removes a word from this trie. The states that are not needed any more are released, so they can be reused by later
+	 * modifications (or be dropped by {@link #compact()}).
+	 *
+	 * @param chars the word to remove
+	 * @return the attachment of the removed word or null if the word was not contained
+	 */
+	public T remove(char[] chars) {
+		if (frozen) {
+			throw new UnsupportedOperationException("trie is frozen");
+		}
+		int state = state(chars);
+		if (state == 0) {
+			return null;
+		}
+		T removed = attachments[state];
+		attachments[state] = null;
+		tail[state] = null;
+		while (state > 1 && tail[state] == null && alts[state] == null) {
+			int parent = check[state];
+			char c = (char) (state - base[parent] - 1);
+			alts[parent] = without(alts[parent], c);
+			base[state] = 0;
+			check[state] = 0;
+			slots.free(state);
+			state = parent;
+		}
+		if (alts[state] == null) {
+			base[state] = tail[state] == null ? 0 : STOP;
+		}
+		return removed;
+	}
+
+	/**
+	 * replaces the attachment of a word of this trie. Words that are not contained are not added.
+	 *
+	 * @param chars the word to replace the attachment for
+	 * @param out the new attachment
+	 * @return the old attachment of the word or null if the word was not contained
+	 */
+	public T replace(char[] chars, T out) {
+		if (frozen) {
+			throw new UnsupportedOperationException("trie is frozen");
+		}
+		int state = state(chars);
+		if (state == 0) {
+			return null;
+		}
+		T replaced = attachments[state];
+		attachments[state] = out;
+		return replaced;
+	}
+
+	/**
+	 * relocates all states of this trie into a new double array, so that the space of removed words is reused and the arrays
+	 * are shrunk to the used size. Cursors, navigators and walkers created before are invalid after compaction.
+	 */
+	public void compact() {
+		if (frozen) {
+			throw new UnsupportedOperationException("trie is frozen");
+		}
+		Builder<T> builder = new Builder<>();
+		int[] todo = new int[32];
+		todo[0] = 1;
+		todo[1] = builder.root();
+		int size = 2;
+		for (int i = 0; i < size; i += 2) {
+			int state = todo[i];
+			int newstate = todo[i + 1];
+			char[] alternatives = alts[state];
+			if (alternatives != null) {
+				int[] nexts = builder.insert(newstate, alternatives);
+				todo = expand(todo, size + 2 * nexts.length);
+				for (int j = 0; j < nexts.length; j++) {
+					todo[size] = base[state] + key(alternatives[j]);
+					todo[size + 1] = nexts[j];
+					size += 2;
+				}
+				if (tail[state] != null) {
+					builder.attach(newstate, NO_CHARS, attachments[state]);
+				}
+			} else if (tail[state] != null) {
+				builder.attach(newstate, tail[state], attachments[state]);
+				builder.terminate(newstate);
+			}
+		}
+		DoubleArrayCharCompactTrie<T> trie = builder.build();
+		int length = trie.check.length;
+		while (length > 2 && trie.check[length - 1] == 0) {
+			length--;
+		}
+		this.base = java.util.Arrays.copyOf(trie.base, length);
+		this.check = java.util.Arrays.copyOf(trie.check, length);
+		this.tail = java.util.Arrays.copyOf(trie.tail, length);
+		this.alts = java.util.Arrays.copyOf(trie.alts, length);
+		this.attachments = java.util.Arrays.copyOf(trie.attachments, length);
+		this.slots = trie.slots;
+	}
+
+	/**
+	 * freezes this trie. A frozen trie cannot be modified any more (attaching with a navigator, removing, replacing or compacting
+	 * throws an UnsupportedOperationException), so it may be shared by multiple threads, each thread using its own cursors
+	 * (the state of a cursor is not shared). The frozen trie has to be published safely (e.g. as final or volatile field).
+	 *
+	 * @return this trie
+	 */
+	public DoubleArrayCharCompactTrie<T> freeze() {
+		frozen = true;
+		return this;
+	}
+
+	public boolean isFrozen() {
+		return frozen;
+	}
+
+	/**
+	 * packs this trie into a read-only trie storing all tails and alternatives in one pool (instead of one array per state).
+	 * This trie is not changed.
+	 *
+	 * @return the packed trie
+	 */
+	public PackedDoubleArrayCharCompactTrie<T> pack() {
+		return new PackedDoubleArrayCharCompactTrie<>(base, check, tail, alts, attachments);
+	}
+
 	@Override
 	public CharNavigator<T, ?> navigator() {
 		return new Navigator(1);
 	}
 
+	@Override
+	public CharWalker<T> walker() {
+		return new Walker();
+	}
+
+	/**
+	 * writes this trie in a binary format that can be loaded with {@link MappedDoubleArrayCharCompactTrie}.
+	 * 
+	 * @param out the stream to write to (will be flushed but not closed)
+	 * @param codec the codec to write the attachments
+	 * @throws IOException if writing to the stream fails
+	 */
+	public void write(OutputStream out, AttachmentCodec<? super T> codec) throws IOException {
+		DoubleArrayTrieFormat.write(out, base, check, tail, alts, attachments, codec);
+	}
+
 	public static class Builder<T> {
 
 		private DoubleArrayCharCompactTrie<T> trie;
@@ -273,6 +466,9 @@ public class DoubleArrayCharCompactTrie<T> implements CharTrie<T> {
 
 		@Override
 		public void attach(T out) {
+			if (frozen) {
+				throw new UnsupportedOperationException("trie is frozen");
+			}
 			if (activeTail != null) {
 				int oldpointer = state;
 				int taili = 0;
@@ -338,6 +534,151 @@ public class DoubleArrayCharCompactTrie<T> implements CharTrie<T> {
 
 	}
 
+	/**
+	 * looks up a group of keys in lockstep, so that the memory accesses for different keys may overlap.
+	 */
+	private class Lookup {
+
+		private char[][] keys;
+		private int[] pos;
+		private int[] end;
+		private int[] state;
+		private int size;
+
+		public Lookup() {
+			this.keys = new char[GROUP][];
+			this.pos = new int[GROUP];
+			this.end = new int[GROUP];
+			this.state = new int[GROUP];
+		}
+
+		public void add(char[] chars, int start, int end) {
+			this.keys[size] = chars;
+			this.pos[size] = start;
+			this.end[size] = end;
+			this.state[size] = 1;
+			size++;
+		}
+
+		/**
+		 * stores the accepting state of each key (or 0 if the key is not contained) into states (starting at offset)
+		 */
+		public void run(int[] states, int offset) {
+			int active = size;
+			while (active > 0) {
+				for (int i = 0; i < size; i++) {
+					int current = state[i];
+					if (current <= 0) {
+						continue;
+					}
+					int statebase = base[current];
+					if (pos[i] == end[i]) {
+						state[i] = tail[current] != null && tail[current].length == 0 ? -current : 0;
+						active--;
+					} else if (statebase < 0) {
+						state[i] = tail[current] != null && verify(keys[i], pos[i], end[i], tail[current]) ? -current : 0;
+						active--;
+					} else {
+						int next = statebase + key(keys[i][pos[i]]);
+						if (next >= check.length || check[next] != current) {
+							state[i] = 0;
+							active--;
+						} else {
+							state[i] = next;
+							pos[i]++;
+						}
+					}
+				}
+			}
+			for (int i = 0; i < size; i++) {
+				states[offset + i] = -state[i];
+				keys[i] = null;
+			}
+			size = 0;
+		}
+
+	}
+
+	private class Walker implements CharWalker<T> {
+
+		private int[] path;
+		private int depth;
+		private char[] activetail;
+		private int tailposition;
+
+		Walker() {
+			this.path = new int[16];
+			reset();
+		}
+
+		@Override
+		public void reset() {
+			this.depth = 0;
+			this.path[0] = 1;
+			this.activetail = base[1] == STOP ? tail[1] : null;
+			this.tailposition = 0;
+		}
+
+		@Override
+		public boolean step(char c) {
+			if (activetail != null) {
+				if (tailposition >= activetail.length || activetail[tailposition] != c) {
+					return false;
+				}
+				tailposition++;
+				return true;
+			}
+			int state = path[depth];
+			int statebase = base[state];
+			int next = statebase + key(c);
+			if (statebase < 0 || next >= check.length || check[next] != state) {
+				return false;
+			}
+			depth++;
+			path = expand(path, depth);
+			path[depth] = next;
+			if (tail[next] != null && tail[next].length > 0) {
+				activetail = tail[next];
+			}
+			return true;
+		}
+
+		@Override
+		public void back() {
+			if (tailposition > 0) {
+				tailposition--;
+				return;
+			}
+			activetail = null;
+			depth--;
+		}
+
+		@Override
+		public T getAttached() {
+			int state = path[depth];
+			if (activetail != null ? tailposition == activetail.length : tail[state] == NO_CHARS) {
+				return attachments[state];
+			}
+			return null;
+		}
+
+		@Override
+		public char[] getAlternatives() {
+			if (activetail != null) {
+				if (tailposition < activetail.length) {
+					return new char[] {activetail[tailposition]};
+				}
+				return NO_CHARS;
+			}
+			char[] chars = alts[path[depth]];
+			if (chars == null) {
+				return NO_CHARS;
+			}
+			return chars;
+		}
+
+	}
+
 	private class Cursor implements CharAutomaton<T> {
 
 		private int state;
@@ -419,6 +760,22 @@ public class DoubleArrayCharCompactTrie<T> implements CharTrie<T> {
 			return false;
 		}
 
+		@Override
+		public T getAttached() {
+			if (tail[state] == NO_CHARS || activetail != null && tailposition == activetail.length) {
+				return attachments[state];
+			}
+			return null;
+		}
+
+		@Override
+		public void forEachAttachment(Consumer<? super T> consumer) {
+			T attached = getAttached();
+			if (attached != null) {
+				consumer.accept(attached);
+			}
+		}
+
 		private class AttachmentIterator implements Iterator<T> {
 
 			private int state;
@@ -0,0 +1,126 @@
+package net.amygdalum.util.text.doublearraytrie;
+
+import static net.amygdalum.util.text.doublearraytrie.Arrays.expand;
+
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Queue;
+
+import net.amygdalum.util.text.CharFallbackAdaptor;
+import net.amygdalum.util.text.CharNode;
+import net.amygdalum.util.text.CharWordGraphCompiler;
+import net.amygdalum.util.text.IntCharWordSet;
+import net.amygdalum.util.text.NodeResolver;
+import net.amygdalum.util.text.linkeddawg.CharGenericFallbackNode;
+
+public class DoubleArrayCharFallbackIntTrieCompiler implements CharWordGraphCompiler<Integer, IntCharWordSet> {
+
+	private int defaultValue;
+
+	public DoubleArrayCharFallbackIntTrieCompiler(int defaultValue) {
+		this.defaultValue = defaultValue;
+	}
+
+	@Override
+	public CharNode<Integer> create() {
+		return new CharGenericFallbackNode<>();
+	}
+
+	@Override
+	public IntCharWordSet build(CharNode<Integer> node) {
+		DoubleArrayCharFallbackIntTrie.Builder builder = new DoubleArrayCharFallbackIntTrie.Builder(defaultValue);
+		boolean[] visited = new boolean[1024];
+		Map<CharNode<Integer>, Integer> assignments = new IdentityHashMap<>();
+		Queue<Assignment<Integer>> todo = new LinkedList<>();
+		todo.add(new Assignment<>(builder.root(), node));
+		while (!todo.isEmpty()) {
+			Assignment<Integer> current = todo.remove();
+			int currentState = current.state;
+			CharNode<Integer> currentNode = current.node;
+			if (currentState >= visited.length) {
+				visited = expand(visited, currentState);
+			}
+			if (visited[currentState]) {
+				continue;
+			}
+			visited[currentState] = true;
+			assignments.put(currentNode, currentState);
+			
+			int alternatives = currentNode.getAlternativesSize();
+			if (alternatives >= 1) {
+				branch(builder, currentState, currentNode, todo);
+			} else {
+				terminate(builder, currentState, currentNode);
+			}
+		}
+		for (Map.Entry<CharNode<Integer>, Integer> current : assignments.entrySet()) {
+			CharNode<Integer> currentNode = current.getKey();
+			int currentState = current.getValue();
+			
+			CharNode<Object> fallbackNode = CharFallbackAdaptor.getFallback(currentNode);
+			if (fallbackNode != null) {
+				int fallbackState = assignments.getOrDefault(fallbackNode, 0);
+				builder.fallback(currentState, fallbackState);
+			}
+		}
+
+		return builder.build();
+	}
+
+	private void branch(DoubleArrayCharFallbackIntTrie.Builder builder, int currentState, CharNode<Integer> currentNode, Queue<Assignment<Integer>> todo) {
+		char[] alternatives = currentNode.getAlternatives();
+		int[] nextStates = builder.insert(currentState, alternatives);
+		for (int i = 0; i < nextStates.length; i++) {
+			todo.add(new Assignment<>(nextStates[i], currentNode.nextNode(alternatives[i])));
+		}
+		Integer currentAttached = currentNode.getAttached();
+		if (currentAttached != null) {
+			builder.attach(currentState, currentAttached);
+		}
+	}
+	
+	private void terminate(DoubleArrayCharFallbackIntTrie.Builder builder, int currentState, CharNode<Integer> currentNode) {
+		builder.terminate(currentState);
+		Integer currentAttached = currentNode.getAttached();
+		if (currentAttached != null) {
+			builder.attach(currentState, currentAttached);
+		}
+	}
+
+	@Override
+	public NodeResolver<CharNode<Integer>> resolver() {
+		return new Resolver();
+	}
+	
+	private static class Assignment<T> {
+
+		public int state;
+		public CharNode<T> node;
+		
+		public Assignment(int state, CharNode<T> node) {
+			this.state = state;
+			this.node = node;
+		}
+		
+		
+	}
+
+	private class Resolver implements NodeResolver<CharNode<Integer>> {
+
+		@Override
+		public void compile(CharNode<Integer> node) {
+		}
+
+		@Override
+		public void link(CharNode<Integer> node) {
+		}
+
+		@Override
+		public CharNode<Integer> resolve(CharNode<Integer> node) {
+			return node;
+		}
+
+	}
+
+}
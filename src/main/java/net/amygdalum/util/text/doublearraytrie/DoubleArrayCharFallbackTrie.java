@@ -1,30 +1,36 @@
 package net.amygdalum.util.text.doublearraytrie;
 
+import static net.amygdalum.util.text.doublearraytrie.Arrays.NO_CHARS;
 import static net.amygdalum.util.text.doublearraytrie.Arrays.expand;
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 
 import net.amygdalum.util.text.AttachmentAdaptor;
+import net.amygdalum.util.text.AutomatonState;
 import net.amygdalum.util.text.CharAutomaton;
 import net.amygdalum.util.text.CharFallbackNavigator;
 import net.amygdalum.util.text.CharTrie;
+import net.amygdalum.util.text.CharWalker;
 import net.amygdalum.util.text.WordSetNavigationException;
 
 public class DoubleArrayCharFallbackTrie<T> implements CharTrie<T> {
 
 	private static final int INITIAL_SIZE = 1024;
-	private static final int MAX_SPACE = Character.MAX_VALUE;
 
 	private static final int STOP = -1;
+	private static final int GROUP = 8;
 
 	private int[] base;
 	private int[] check;
 	private int[] fallback;
+	private int[] output;
 	private char[][] alts;
 	private T[] attachments;
 
-	private int nextCheck;
+	private FreeSlots slots;
+	private boolean frozen;
 
 	@SuppressWarnings("unchecked")
 	public DoubleArrayCharFallbackTrie() {
@@ -33,7 +39,7 @@ public class DoubleArrayCharFallbackTrie<T> implements CharTrie<T> {
 		this.fallback = new int[INITIAL_SIZE];
 		this.alts = new char[INITIAL_SIZE][];
 		this.attachments = (T[]) new Object[INITIAL_SIZE];
-		this.nextCheck = 1;
+		this.slots = new FreeSlots();
 	}
 
 	private static int key(char c) {
@@ -54,45 +60,14 @@ public class DoubleArrayCharFallbackTrie<T> implements CharTrie<T> {
 		if (input.length == 0) {
 			return -1;
 		}
-		int pivotKey = minKey(input);
-		int predictedNext = Math.max(pivotKey + 1, nextCheck);
-
-		ensureSufficientLength(predictedNext);
-		while (check[predictedNext] != 0) {
-			predictedNext++;
-			ensureSufficientLength(predictedNext);
-		}
-		nextCheck = predictedNext;
-
-		int nextbase = -1;
-		int blocked = 0;
-		while (predictedNext < Integer.MAX_VALUE) {
-			ensureSufficientLength(predictedNext + MAX_SPACE);
-			if (check[predictedNext] != 0) {
-				blocked++;
-				predictedNext++;
-				continue;
-			}
-			nextbase = predictedNext - pivotKey;
-			boolean found = true;
-			for (char c : input) {
-				int next = nextbase + key(c);
-				if (check[next] != 0) {
-					found = false;
-					break;
-				}
-			}
-			if (found) {
-				break;
-			} else {
-				predictedNext++;
-			}
-		}
-		int checked = predictedNext - nextCheck;
-		int free = checked - blocked;
-		if ((checked >> 5) > free) {
-			nextCheck = predictedNext;
+		int[] keys = new int[input.length];
+		int maxKey = 0;
+		for (int i = 0; i < input.length; i++) {
+			keys[i] = key(input[i]);
+			maxKey = Math.max(maxKey, keys[i]);
 		}
+		int nextbase = slots.base(keys, minKey(input));
+		ensureSufficientLength(nextbase + maxKey);
 		return nextbase;
 	}
 
@@ -106,6 +81,35 @@ public class DoubleArrayCharFallbackTrie<T> implements CharTrie<T> {
 		}
 	}
 
+	private int[] outputs() {
+		int[] output = this.output;
+		if (output == null) {
+			output = computeOutputs();
+			this.output = output;
+		}
+		return output;
+	}
+
+	/**
+	 * computes for each state the next state in the fallback chain with a (different) attachment
+	 */
+	private int[] computeOutputs() {
+		int[] output = new int[attachments.length];
+		for (int state = 1; state < output.length; state++) {
+			T last = attachments[state];
+			int current = fallback[state];
+			while (current > 0) {
+				T a = attachments[current];
+				if (a != null && a != last) {
+					break;
+				}
+				current = fallback[current];
+			}
+			output[state] = current;
+		}
+		return output;
+	}
+
 	@Override
 	public CharAutomaton<T> cursor() {
 		return new Cursor();
@@ -147,11 +151,91 @@ public class DoubleArrayCharFallbackTrie<T> implements CharTrie<T> {
 		return attachments[state];
 	}
 
+	@Override
+	public void containsAll(char[][] keys, boolean[] out) {
+		int[] states = lookupAll(keys);
+		for (int i = 0; i < states.length; i++) {
+			out[i] = states[i] > 0;
+		}
+	}
+
+	@Override
+	public void containsAll(char[] data, int[] offsets, boolean[] out) {
+		int[] states = lookupAll(data, offsets);
+		for (int i = 0; i < states.length; i++) {
+			out[i] = states[i] > 0;
+		}
+	}
+
+	@Override
+	public void findAll(char[][] keys, T[] out) {
+		int[] states = lookupAll(keys);
+		for (int i = 0; i < states.length; i++) {
+			out[i] = states[i] > 0 ? attachments[states[i]] : null;
+		}
+	}
+
+	@Override
+	public void findAll(char[] data, int[] offsets, T[] out) {
+		int[] states = lookupAll(data, offsets);
+		for (int i = 0; i < states.length; i++) {
+			out[i] = states[i] > 0 ? attachments[states[i]] : null;
+		}
+	}
+
+	private int[] lookupAll(char[][] keys) {
+		int[] states = new int[keys.length];
+		Lookup lookup = new Lookup();
+		for (int i = 0; i < keys.length; i++) {
+			lookup.add(keys[i], 0, keys[i].length);
+			if (lookup.size == GROUP) {
+				lookup.run(states, i + 1 - GROUP);
+			}
+		}
+		lookup.run(states, keys.length - lookup.size);
+		return states;
+	}
+
+	private int[] lookupAll(char[] data, int[] offsets) {
+		int[] states = new int[offsets.length - 1];
+		Lookup lookup = new Lookup();
+		for (int i = 0; i < states.length; i++) {
+			lookup.add(data, offsets[i], offsets[i + 1]);
+			if (lookup.size == GROUP) {
+				lookup.run(states, i + 1 - GROUP);
+			}
+		}
+		lookup.run(states, states.length - lookup.size);
+		return states;
+	}
+
+	/**
+	 * freezes this trie. A frozen trie cannot be modified any more (attaching with a navigator throws an
+	 * UnsupportedOperationException), so it may be shared by multiple threads, each thread using its own cursors
+	 * (the state of a cursor is not shared). The frozen trie has to be published safely (e.g. as final or volatile field).
+	 *
+	 * @return this trie
+	 */
+	public DoubleArrayCharFallbackTrie<T> freeze() {
+		output = outputs();
+		frozen = true;
+		return this;
+	}
+
+	public boolean isFrozen() {
+		return frozen;
+	}
+
 	@Override
 	public CharFallbackNavigator<T, ?> navigator() {
 		return new Navigator(1);
 	}
 
+	@Override
+	public CharWalker<T> walker() {
+		return new Walker();
+	}
+
 	public static class Builder<T> {
 
 		private DoubleArrayCharFallbackTrie<T> trie;
@@ -230,10 +314,132 @@ public class DoubleArrayCharFallbackTrie<T> implements CharTrie<T> {
 
 		@Override
 		public void attach(T attached) {
+			if (frozen) {
+				throw new UnsupportedOperationException("trie is frozen");
+			}
 			attachments[state] = attached;
+			output = null;
 		}
 	}
 
+	/**
+	 * looks up a group of keys in lockstep, so that the memory accesses for different keys may overlap.
+	 */
+	private class Lookup {
+
+		private char[][] keys;
+		private int[] pos;
+		private int[] end;
+		private int[] state;
+		private int size;
+
+		public Lookup() {
+			this.keys = new char[GROUP][];
+			this.pos = new int[GROUP];
+			this.end = new int[GROUP];
+			this.state = new int[GROUP];
+		}
+
+		public void add(char[] chars, int start, int end) {
+			this.keys[size] = chars;
+			this.pos[size] = start;
+			this.end[size] = end;
+			this.state[size] = 1;
+			size++;
+		}
+
+		/**
+		 * stores the accepting state of each key (or 0 if the key is not contained) into states (starting at offset)
+		 */
+		public void run(int[] states, int offset) {
+			int active = size;
+			while (active > 0) {
+				for (int i = 0; i < size; i++) {
+					int current = state[i];
+					if (current <= 0) {
+						continue;
+					}
+					int statebase = base[current];
+					if (pos[i] == end[i]) {
+						state[i] = attachments[current] != null ? -current : 0;
+						active--;
+					} else if (statebase < 0) {
+						state[i] = 0;
+						active--;
+					} else {
+						int next = statebase + key(keys[i][pos[i]]);
+						if (next >= check.length || check[next] != current) {
+							state[i] = 0;
+							active--;
+						} else {
+							state[i] = next;
+							pos[i]++;
+						}
+					}
+				}
+			}
+			for (int i = 0; i < size; i++) {
+				states[offset + i] = -state[i];
+				keys[i] = null;
+			}
+			size = 0;
+		}
+
+	}
+
+	private class Walker implements CharWalker<T> {
+
+		private int[] path;
+		private int depth;
+
+		Walker() {
+			this.path = new int[16];
+			this.path[0] = 1;
+		}
+
+		@Override
+		public void reset() {
+			depth = 0;
+		}
+
+		@Override
+		public boolean step(char c) {
+			int state = path[depth];
+			int statebase = base[state];
+			if (statebase < 0) {
+				return false;
+			}
+			int next = statebase + key(c);
+			if (next >= check.length || check[next] != state) {
+				return false;
+			}
+			depth++;
+			path = expand(path, depth);
+			path[depth] = next;
+			return true;
+		}
+
+		@Override
+		public void back() {
+			depth--;
+		}
+
+		@Override
+		public T getAttached() {
+			return attachments[path[depth]];
+		}
+
+		@Override
+		public char[] getAlternatives() {
+			char[] chars = alts[path[depth]];
+			if (chars == null) {
+				return NO_CHARS;
+			}
+			return chars;
+		}
+
+	}
+
 	private class Cursor implements CharAutomaton<T> {
 
 		private int state;
@@ -255,6 +461,16 @@ public class DoubleArrayCharFallbackTrie<T> implements CharTrie<T> {
 			this.state = 1;
 		}
 
+		@Override
+		public void snapshot(AutomatonState state) {
+			state.state = this.state;
+		}
+
+		@Override
+		public void restore(AutomatonState state) {
+			this.state = state.state;
+		}
+
 		@Override
 		public boolean lookahead(char c) {
 			int statebase = base[state];
@@ -293,40 +509,48 @@ public class DoubleArrayCharFallbackTrie<T> implements CharTrie<T> {
 			return attachments[state] != null;
 		}
 
+		@Override
+		public T getAttached() {
+			T attached = attachments[state];
+			if (attached == null) {
+				attached = attachments[outputs()[state]];
+			}
+			return attached;
+		}
+
+		@Override
+		public void forEachAttachment(Consumer<? super T> consumer) {
+			int[] output = outputs();
+			int current = attachments[state] != null ? state : output[state];
+			while (current > 0) {
+				consumer.accept(attachments[current]);
+				current = output[current];
+			}
+		}
+
 		private class AttachmentIterator implements Iterator<T> {
 
 			private int state;
-			private T last;
+			private int[] output;
 
 			public void init(int state) {
-				this.state = state;
-				this.last = null;
+				this.output = outputs();
+				this.state = attachments[state] != null ? state : output[state];
 			}
 
 			@Override
 			public boolean hasNext() {
-				while (state > 0) {
-					T a = attachments[state];
-					if (a != null && a != last) {
-						return true;
-					}
-					state = fallback[state];
-				}
-				return false;
+				return state > 0;
 			}
 
 			@Override
 			public T next() {
-				while (state > 0) {
-					T a = attachments[state];
-					if (a != null && a != last) {
-						last = a;
-						state = fallback[state];
-						return a;
-					}
-					state = fallback[state];
+				if (state == 0) {
+					throw new NoSuchElementException();
 				}
-				throw new NoSuchElementException();
+				T a = attachments[state];
+				state = output[state];
+				return a;
 			}
 		}
 
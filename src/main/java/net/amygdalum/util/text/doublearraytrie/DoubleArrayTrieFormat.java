@@ -0,0 +1,333 @@
+package net.amygdalum.util.text.doublearraytrie;
+
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The binary format of compact double array tries. All numbers are little endian:
+ *
+ * - header: magic, version, kind (chars or bytes), size (number of states), then count and pool length of tails, alts and attachments
+ * - state arrays (each of size): base, check, tail reference, alts reference, attachment reference (-1 if none)
+ * - pool offsets (each of count + 1): tail starts, alts starts, attachment starts
+ * - pools (each padded to 4 bytes): tails, alts (chars or bytes), attachments (bytes encoded by an AttachmentCodec)
+ *
+ * Equal tails, alts and encoded attachments are stored only once.
+ */
+final class DoubleArrayTrieFormat {
+
+	static final int MAGIC = 0x44415431;
+	static final int VERSION = 1;
+	static final int CHARS = 1;
+	static final int BYTES = 2;
+	static final int NONE = -1;
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private DoubleArrayTrieFormat() {
+	}
+
+	static <T> void write(OutputStream out, int[] base, int[] check, char[][] tail, char[][] alts, T[] attachments, AttachmentCodec<? super T> codec) throws IOException {
+		int size = size(base, check, tail, attachments);
+
+		CharPool tailPool = new CharPool();
+		CharPool altPool = new CharPool();
+		BytePool attachmentPool = new BytePool();
+		int[] tailRefs = new int[size];
+		int[] altRefs = new int[size];
+		int[] attachmentRefs = new int[size];
+		for (int i = 0; i < size; i++) {
+			tailRefs[i] = tail[i] == null ? NONE : tailPool.add(tail[i]);
+			altRefs[i] = alts[i] == null ? NONE : altPool.add(alts[i]);
+			attachmentRefs[i] = attachments[i] == null ? NONE : attachmentPool.add(codec.encode(attachments[i]));
+		}
+
+		Output output = new Output(out);
+		output.writeHeader(CHARS, size, tailPool, altPool, attachmentPool);
+		output.writeInts(base, size);
+		output.writeInts(check, size);
+		output.writeInts(tailRefs, size);
+		output.writeInts(altRefs, size);
+		output.writeInts(attachmentRefs, size);
+		output.writeInts(tailPool.starts, tailPool.count + 1);
+		output.writeInts(altPool.starts, altPool.count + 1);
+		output.writeInts(attachmentPool.starts, attachmentPool.count + 1);
+		tailPool.writeTo(output);
+		altPool.writeTo(output);
+		attachmentPool.writeTo(output);
+		output.flush();
+	}
+
+	static <T> void write(OutputStream out, int[] base, int[] check, byte[][] tail, byte[][] alts, T[] attachments, AttachmentCodec<? super T> codec) throws IOException {
+		int size = size(base, check, tail, attachments);
+
+		BytePool tailPool = new BytePool();
+		BytePool altPool = new BytePool();
+		BytePool attachmentPool = new BytePool();
+		int[] tailRefs = new int[size];
+		int[] altRefs = new int[size];
+		int[] attachmentRefs = new int[size];
+		for (int i = 0; i < size; i++) {
+			tailRefs[i] = tail[i] == null ? NONE : tailPool.add(tail[i]);
+			altRefs[i] = alts[i] == null ? NONE : altPool.add(alts[i]);
+			attachmentRefs[i] = attachments[i] == null ? NONE : attachmentPool.add(codec.encode(attachments[i]));
+		}
+
+		Output output = new Output(out);
+		output.writeHeader(BYTES, size, tailPool, altPool, attachmentPool);
+		output.writeInts(base, size);
+		output.writeInts(check, size);
+		output.writeInts(tailRefs, size);
+		output.writeInts(altRefs, size);
+		output.writeInts(attachmentRefs, size);
+		output.writeInts(tailPool.starts, tailPool.count + 1);
+		output.writeInts(altPool.starts, altPool.count + 1);
+		output.writeInts(attachmentPool.starts, attachmentPool.count + 1);
+		tailPool.writeTo(output);
+		altPool.writeTo(output);
+		attachmentPool.writeTo(output);
+		output.flush();
+	}
+
+	private static int size(int[] base, int[] check, Object[] tail, Object[] attachments) {
+		int size = base.length;
+		while (size > 2) {
+			int i = size - 1;
+			if (base[i] != 0 || check[i] != 0 || tail[i] != null || attachments[i] != null) {
+				break;
+			}
+			size--;
+		}
+		return size;
+	}
+
+	static Sections read(ByteBuffer buffer, int kind) {
+		return new Sections(buffer, kind);
+	}
+
+	static class Sections {
+
+		private ByteBuffer buffer;
+		private int pos;
+
+		int size;
+		IntBuffer base;
+		IntBuffer check;
+		IntBuffer tails;
+		IntBuffer alts;
+		IntBuffer attachments;
+		IntBuffer tailStarts;
+		IntBuffer altStarts;
+		IntBuffer attachmentStarts;
+		ByteBuffer tailPool;
+		ByteBuffer altPool;
+		ByteBuffer attachmentPool;
+
+		Sections(ByteBuffer buffer, int kind) {
+			this.buffer = buffer.duplicate().order(LITTLE_ENDIAN);
+			this.pos = this.buffer.position();
+			IntBuffer header = ints(10);
+			if (header.get(0) != MAGIC || header.get(1) != VERSION || header.get(2) != kind) {
+				throw new IllegalArgumentException("buffer does not contain a compatible double array trie");
+			}
+			this.size = header.get(3);
+			int tailCount = header.get(4);
+			int tailLength = header.get(5);
+			int altCount = header.get(6);
+			int altLength = header.get(7);
+			int attachmentCount = header.get(8);
+			int attachmentLength = header.get(9);
+			int unit = kind == CHARS ? Character.BYTES : Byte.BYTES;
+
+			this.base = ints(size);
+			this.check = ints(size);
+			this.tails = ints(size);
+			this.alts = ints(size);
+			this.attachments = ints(size);
+			this.tailStarts = ints(tailCount + 1);
+			this.altStarts = ints(altCount + 1);
+			this.attachmentStarts = ints(attachmentCount + 1);
+			this.tailPool = bytes(tailLength * unit);
+			this.altPool = bytes(altLength * unit);
+			this.attachmentPool = bytes(attachmentLength);
+		}
+
+		private IntBuffer ints(int count) {
+			return bytes(count * Integer.BYTES).asIntBuffer();
+		}
+
+		private ByteBuffer bytes(int count) {
+			ByteBuffer section = buffer.duplicate();
+			section.position(pos);
+			section.limit(pos + count);
+			pos += padded(count);
+			return section.slice().order(LITTLE_ENDIAN);
+		}
+
+	}
+
+	private static int padded(int length) {
+		return (length + 3) & ~3;
+	}
+
+	private abstract static class Pool {
+
+		int count;
+		int length;
+		int[] starts;
+
+		Pool() {
+			this.starts = new int[16];
+		}
+
+		int next(int entryLength) {
+			int ref = count;
+			count++;
+			length += entryLength;
+			if (count >= starts.length) {
+				starts = Arrays.expand(starts, count);
+			}
+			starts[count] = length;
+			return ref;
+		}
+
+		abstract void writeTo(Output output) throws IOException;
+
+	}
+
+	private static class CharPool extends Pool {
+
+		private Map<CharBuffer, Integer> refs = new HashMap<>();
+		private List<char[]> entries = new ArrayList<>();
+
+		int add(char[] chars) {
+			CharBuffer key = CharBuffer.wrap(chars);
+			Integer ref = refs.get(key);
+			if (ref == null) {
+				ref = next(chars.length);
+				refs.put(key, ref);
+				entries.add(chars);
+			}
+			return ref;
+		}
+
+		@Override
+		void writeTo(Output output) throws IOException {
+			for (char[] entry : entries) {
+				output.writeChars(entry);
+			}
+			output.pad(length * Character.BYTES);
+		}
+
+	}
+
+	private static class BytePool extends Pool {
+
+		private Map<ByteBuffer, Integer> refs = new HashMap<>();
+		private List<byte[]> entries = new ArrayList<>();
+
+		int add(byte[] bytes) {
+			ByteBuffer key = ByteBuffer.wrap(bytes);
+			Integer ref = refs.get(key);
+			if (ref == null) {
+				ref = next(bytes.length);
+				refs.put(key, ref);
+				entries.add(bytes);
+			}
+			return ref;
+		}
+
+		@Override
+		void writeTo(Output output) throws IOException {
+			for (byte[] entry : entries) {
+				output.writeBytes(entry);
+			}
+			output.pad(length);
+		}
+
+	}
+
+	private static class Output {
+
+		private OutputStream out;
+		private ByteBuffer buffer;
+
+		Output(OutputStream out) {
+			this.out = out;
+			this.buffer = ByteBuffer.allocate(BUFFER_SIZE).order(LITTLE_ENDIAN);
+		}
+
+		void writeHeader(int kind, int size, Pool tails, Pool alts, Pool attachments) throws IOException {
+			writeInt(MAGIC);
+			writeInt(VERSION);
+			writeInt(kind);
+			writeInt(size);
+			writeInt(tails.count);
+			writeInt(tails.length);
+			writeInt(alts.count);
+			writeInt(alts.length);
+			writeInt(attachments.count);
+			writeInt(attachments.length);
+		}
+
+		void writeInt(int value) throws IOException {
+			if (buffer.remaining() < Integer.BYTES) {
+				flushBuffer();
+			}
+			buffer.putInt(value);
+		}
+
+		void writeInts(int[] values, int length) throws IOException {
+			for (int i = 0; i < length; i++) {
+				writeInt(values[i]);
+			}
+		}
+
+		void writeChars(char[] chars) throws IOException {
+			for (char c : chars) {
+				if (buffer.remaining() < Character.BYTES) {
+					flushBuffer();
+				}
+				buffer.putChar(c);
+			}
+		}
+
+		void writeBytes(byte[] bytes) throws IOException {
+			for (byte b : bytes) {
+				if (!buffer.hasRemaining()) {
+					flushBuffer();
+				}
+				buffer.put(b);
+			}
+		}
+
+		void pad(int length) throws IOException {
+			for (int i = length; i < padded(length); i++) {
+				if (!buffer.hasRemaining()) {
+					flushBuffer();
+				}
+				buffer.put((byte) 0);
+			}
+		}
+
+		void flush() throws IOException {
+			flushBuffer();
+			out.flush();
+		}
+
+		private void flushBuffer() throws IOException {
+			out.write(buffer.array(), 0, buffer.position());
+			buffer.clear();
+		}
+
+	}
+
+}
@@ -0,0 +1,151 @@
+package net.amygdalum.util.text.doublearraytrie;
+
+/**
+ * FreeSlots tracks the used slots of a double array (the slots with check != 0) in a bitmap and finds bases for new states:
+ * 
+ * - free slots are found by scanning the bitmap a long (64 slots) at a time, not probing check[] slot by slot
+ * - each block of 64 slots remembers the smallest number of children that did not fit into it, so larger sets of children
+ *   skip this block in later searches
+ * - for each number of children (more than one) the search starts at the first block that was not yet rejected for this number
+ * - slots below the first free slot are never scanned again
+ * 
+ * Slot 0 and slot 1 (the root) are reserved.
+ */
+final class FreeSlots {
+
+	private static final int INITIAL_SIZE = 1024;
+	private static final int GROUPS = 256;
+
+	private long[] used;
+	private int[] rejected;
+	private int[] starts;
+	private int firstFree;
+
+	FreeSlots() {
+		this.used = new long[INITIAL_SIZE >> 6];
+		this.rejected = new int[INITIAL_SIZE >> 6];
+		this.starts = new int[GROUPS];
+		use(0);
+		use(1);
+	}
+
+	/**
+	 * finds a base such that all slots base + key are free (and base &gt; 0) and marks these slots as used.
+	 * 
+	 * @param keys the keys of the children
+	 * @param pivotKey the minimum of the keys
+	 * @return the base
+	 */
+	int base(int[] keys, int pivotKey) {
+		int children = keys.length;
+		if (children == 1) {
+			int slot = nextFree(Math.max(firstFree, pivotKey + 1));
+			use(slot);
+			return slot - pivotKey;
+		}
+		int group = Math.min(children, GROUPS - 1);
+		boolean advance = true;
+		int slot = nextFree(Math.max(Math.max(firstFree, starts[group] << 6), pivotKey + 1));
+		while (true) {
+			int block = slot >>> 6;
+			int rejectedChildren = block < rejected.length ? rejected[block] : 0;
+			if (rejectedChildren != 0 && children >= rejectedChildren) {
+				advance &= rejectedChildren <= group;
+				slot = nextFree((block + 1) << 6);
+				continue;
+			}
+			if (advance) {
+				starts[group] = block;
+			}
+			while (slot >>> 6 == block) {
+				int base = slot - pivotKey;
+				if (fits(base, keys)) {
+					for (int key : keys) {
+						use(base + key);
+					}
+					return base;
+				}
+				slot = nextFree(slot + 1);
+			}
+			ensureBlocks(block);
+			if (rejected[block] == 0 || children < rejected[block]) {
+				rejected[block] = children;
+			}
+			advance &= rejected[block] <= group;
+		}
+	}
+
+	private boolean fits(int base, int[] keys) {
+		for (int key : keys) {
+			if (!isFree(base + key)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	boolean isFree(int slot) {
+		int word = slot >>> 6;
+		return word >= used.length || (used[word] & (1l << slot)) == 0;
+	}
+
+	/**
+	 * @param from the first slot to check
+	 * @return the first free slot at or after from
+	 */
+	int nextFree(int from) {
+		int word = from >>> 6;
+		if (word >= used.length) {
+			return from;
+		}
+		long free = ~used[word] & (-1l << from);
+		while (free == 0) {
+			word++;
+			if (word >= used.length) {
+				return word << 6;
+			}
+			free = ~used[word];
+		}
+		return (word << 6) + Long.numberOfTrailingZeros(free);
+	}
+
+	void use(int slot) {
+		int word = slot >>> 6;
+		ensureBlocks(word);
+		used[word] |= 1l << slot;
+		if (slot == firstFree) {
+			firstFree = nextFree(slot + 1);
+		}
+	}
+
+	/**
+	 * releases a slot, so that it may be used by later searches.
+	 * 
+	 * @param slot the slot to release
+	 */
+	void free(int slot) {
+		int word = slot >>> 6;
+		used[word] &= ~(1l << slot);
+		rejected[word] = 0;
+		for (int i = 0; i < GROUPS; i++) {
+			if (starts[i] > word) {
+				starts[i] = word;
+			}
+		}
+		if (slot < firstFree) {
+			firstFree = slot;
+		}
+	}
+
+	private void ensureBlocks(int word) {
+		if (word >= used.length) {
+			int length = used.length;
+			while (length <= word) {
+				length *= 2;
+			}
+			used = java.util.Arrays.copyOf(used, length);
+			rejected = java.util.Arrays.copyOf(rejected, length);
+		}
+	}
+
+}
@@ -0,0 +1,26 @@
+package net.amygdalum.util.text.doublearraytrie;
+
+import java.nio.ByteBuffer;
+
+public class IntegerAttachmentCodec implements AttachmentCodec<Integer> {
+
+	@Override
+	public byte[] encode(Integer attachment) {
+		int value = attachment.intValue();
+		return new byte[] {
+			(byte) value,
+			(byte) (value >>> 8),
+			(byte) (value >>> 16),
+			(byte) (value >>> 24)
+		};
+	}
+
+	@Override
+	public Integer decode(ByteBuffer buffer, int offset, int length) {
+		return (buffer.get(offset) & 0xff)
+			| (buffer.get(offset + 1) & 0xff) << 8
+			| (buffer.get(offset + 2) & 0xff) << 16
+			| (buffer.get(offset + 3) & 0xff) << 24;
+	}
+
+}
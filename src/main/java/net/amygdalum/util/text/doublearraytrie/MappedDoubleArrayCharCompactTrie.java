@@ -0,0 +1,289 @@
+package net.amygdalum.util.text.doublearraytrie;
+
+import static net.amygdalum.util.text.doublearraytrie.DoubleArrayTrieFormat.CHARS;
+import static net.amygdalum.util.text.doublearraytrie.DoubleArrayTrieFormat.NONE;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+import net.amygdalum.util.text.CharAutomaton;
+import net.amygdalum.util.text.CharWordSet;
+
+/**
+ * A MappedDoubleArrayCharCompactTrie is a read-only view on a DoubleArrayCharCompactTrie written with
+ * {@link DoubleArrayCharCompactTrie#write(java.io.OutputStream, AttachmentCodec)}.
+ *
+ * The trie is served directly from the given buffer (no copy into the heap), so loading is fast and
+ * a memory mapped file may be shared by multiple processes. Attachments are decoded on access.
+ *
+ * @param <T> the type of attachment storable in each graph node
+ */
+public class MappedDoubleArrayCharCompactTrie<T> implements CharWordSet<T> {
+
+	private static final int STOP = -1;
+
+	private int size;
+	private IntBuffer base;
+	private IntBuffer check;
+	private IntBuffer tails;
+	private IntBuffer tailStarts;
+	private CharBuffer tailPool;
+	private IntBuffer attachments;
+	private IntBuffer attachmentStarts;
+	private ByteBuffer attachmentPool;
+	private AttachmentCodec<T> codec;
+
+	public MappedDoubleArrayCharCompactTrie(ByteBuffer buffer, AttachmentCodec<T> codec) {
+		DoubleArrayTrieFormat.Sections sections = DoubleArrayTrieFormat.read(buffer, CHARS);
+		this.size = sections.size;
+		this.base = sections.base;
+		this.check = sections.check;
+		this.tails = sections.tails;
+		this.tailStarts = sections.tailStarts;
+		this.tailPool = sections.tailPool.asCharBuffer();
+		this.attachments = sections.attachments;
+		this.attachmentStarts = sections.attachmentStarts;
+		this.attachmentPool = sections.attachmentPool;
+		this.codec = codec;
+	}
+
+	/**
+	 * maps the given file (read-only) and serves the trie from this mapped file
+	 *
+	 * @param file the file containing the trie
+	 * @param codec the codec to read the attachments
+	 * @param <T> the type of attachment
+	 * @return the trie stored in the file
+	 * @throws IOException if the file cannot be mapped
+	 */
+	public static <T> MappedDoubleArrayCharCompactTrie<T> load(Path file, AttachmentCodec<T> codec) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+			return new MappedDoubleArrayCharCompactTrie<>(buffer, codec);
+		}
+	}
+
+	private static int key(char c) {
+		return (int) c + 1;
+	}
+
+	private boolean isTransition(int state, int next) {
+		return next >= 0 && next < size && check.get(next) == state;
+	}
+
+	private int tailStart(int state) {
+		int tail = tails.get(state);
+		if (tail == NONE) {
+			return NONE;
+		}
+		return tailStarts.get(tail);
+	}
+
+	private int tailEnd(int state) {
+		return tailStarts.get(tails.get(state) + 1);
+	}
+
+	private boolean isFinal(int state) {
+		int tail = tails.get(state);
+		return tail != NONE && tailStarts.get(tail) == tailStarts.get(tail + 1);
+	}
+
+	private boolean verify(char[] chars, int i, int state) {
+		int start = tailStart(state);
+		if (start == NONE) {
+			return false;
+		}
+		int end = tailEnd(state);
+		if (chars.length - i != end - start) {
+			return false;
+		}
+		for (int j = start; j < end; j++) {
+			if (chars[i] != tailPool.get(j)) {
+				return false;
+			}
+			i++;
+		}
+		return true;
+	}
+
+	private T attachment(int state) {
+		int attachment = attachments.get(state);
+		if (attachment == NONE) {
+			return null;
+		}
+		int start = attachmentStarts.get(attachment);
+		int end = attachmentStarts.get(attachment + 1);
+		return codec.decode(attachmentPool, start, end - start);
+	}
+
+	@Override
+	public CharAutomaton<T> cursor() {
+		return new Cursor();
+	}
+
+	@Override
+	public boolean contains(char[] chars) {
+		int state = 1;
+		for (int i = 0; i < chars.length; i++) {
+			int statebase = base.get(state);
+			if (statebase < 0) {
+				return verify(chars, i, state);
+			}
+			int next = statebase + key(chars[i]);
+			if (!isTransition(state, next)) {
+				return false;
+			}
+			state = next;
+		}
+		return isFinal(state);
+	}
+
+	@Override
+	public T find(char[] chars) {
+		int state = 1;
+		for (int i = 0; i < chars.length; i++) {
+			int statebase = base.get(state);
+			if (statebase < 0 && verify(chars, i, state)) {
+				return attachment(state);
+			}
+			int next = statebase + key(chars[i]);
+			if (!isTransition(state, next)) {
+				return null;
+			}
+			state = next;
+		}
+		if (isFinal(state)) {
+			return attachment(state);
+		}
+		return null;
+	}
+
+	private class Cursor implements CharAutomaton<T> {
+
+		private int state;
+		private int tailposition;
+		private int tailend;
+		private AttachmentIterator iterator;
+
+		public Cursor() {
+			this.iterator = new AttachmentIterator();
+			reset();
+		}
+
+		@Override
+		public Iterator<T> iterator() {
+			iterator.init();
+			return iterator;
+		}
+
+		@Override
+		public void reset() {
+			this.state = 1;
+			if (base.get(state) == STOP) {
+				activate(state);
+			} else {
+				this.tailposition = NONE;
+			}
+		}
+
+		private void activate(int state) {
+			this.tailposition = tailStart(state);
+			if (tailposition != NONE) {
+				this.tailend = tailEnd(state);
+			}
+		}
+
+		private boolean isAccepting() {
+			return isFinal(state) || tailposition != NONE && tailposition == tailend;
+		}
+
+		@Override
+		public boolean lookahead(char c) {
+			if (tailposition != NONE) {
+				return tailposition < tailend
+					&& tailPool.get(tailposition) == c;
+			} else {
+				int next = base.get(state) + key(c);
+				return isTransition(state, next);
+			}
+		}
+
+		@Override
+		public boolean accept(char c) {
+			if (tailposition != NONE) {
+				if (tailposition >= tailend || tailPool.get(tailposition) != c) {
+					reset();
+					return false;
+				}
+				tailposition++;
+				return true;
+			} else {
+				int next = base.get(state) + key(c);
+				if (!isTransition(state, next)) {
+					reset();
+					return false;
+				}
+				state = next;
+				if (!isFinal(state)) {
+					activate(state);
+				}
+				return true;
+			}
+		}
+
+		@Override
+		public boolean hasAttachments() {
+			return isAccepting() && attachments.get(state) != NONE;
+		}
+
+		@Override
+		public T getAttached() {
+			if (isAccepting()) {
+				return attachment(state);
+			}
+			return null;
+		}
+
+		@Override
+		public void forEachAttachment(Consumer<? super T> consumer) {
+			T attached = getAttached();
+			if (attached != null) {
+				consumer.accept(attached);
+			}
+		}
+
+		private class AttachmentIterator implements Iterator<T> {
+
+			private boolean consumed;
+
+			public void init() {
+				this.consumed = false;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return !consumed && hasAttachments();
+			}
+
+			@Override
+			public T next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				consumed = true;
+				return attachment(state);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,423 @@
+package net.amygdalum.util.text.doublearraytrie;
+
+import static net.amygdalum.util.text.doublearraytrie.Arrays.NO_BYTES;
+import static net.amygdalum.util.text.doublearraytrie.Arrays.expand;
+import static net.amygdalum.util.text.doublearraytrie.DoubleArrayTrieFormat.NONE;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+import net.amygdalum.util.text.ByteAutomaton;
+import net.amygdalum.util.text.ByteWalker;
+import net.amygdalum.util.text.ByteWordSet;
+
+/**
+ * A PackedDoubleArrayByteCompactTrie is a read-only copy of a DoubleArrayByteCompactTrie (created with
+ * {@link DoubleArrayByteCompactTrie#pack()}) that stores all tails and alternatives in one byte pool:
+ *
+ * - each state refers to its tail and its alternatives by an offset into the pool (or -1 if there is none)
+ * - each entry of the pool is prefixed with its length (four bytes, high byte first)
+ * - equal tails and equal alternatives are stored only once
+ *
+ * So there is no array object per state, which saves heap and garbage collection time for large tries. The
+ * packed trie may be shared by multiple threads, each thread using its own cursors.
+ *
+ * @param <T> the type of attachment storable in each graph node
+ */
+public class PackedDoubleArrayByteCompactTrie<T> implements ByteWordSet<T> {
+
+	private static final int STOP = -1;
+
+	private int size;
+	private int[] base;
+	private int[] check;
+	private int[] tails;
+	private int[] alts;
+	private byte[] pool;
+	private T[] attachments;
+
+	PackedDoubleArrayByteCompactTrie(int[] base, int[] check, byte[][] tail, byte[][] alts, T[] attachments) {
+		this.size = size(base, check, tail, attachments);
+		this.base = java.util.Arrays.copyOf(base, size);
+		this.check = java.util.Arrays.copyOf(check, size);
+		this.attachments = java.util.Arrays.copyOf(attachments, size);
+		this.tails = new int[size];
+		this.alts = new int[size];
+		Pool pool = new Pool();
+		for (int i = 0; i < size; i++) {
+			this.tails[i] = tail[i] == null ? NONE : pool.add(tail[i]);
+			this.alts[i] = alts[i] == null ? NONE : pool.add(alts[i]);
+		}
+		this.pool = pool.toArray();
+	}
+
+	private static int size(int[] base, int[] check, byte[][] tail, Object[] attachments) {
+		int size = base.length;
+		while (size > 2) {
+			int i = size - 1;
+			if (base[i] != 0 || check[i] != 0 || tail[i] != null || attachments[i] != null) {
+				break;
+			}
+			size--;
+		}
+		return size;
+	}
+
+	private static int key(byte b) {
+		return ((int) b) + 129;
+	}
+
+	private boolean isTransition(int state, int next) {
+		return next >= 0 && next < size && check[next] == state;
+	}
+
+	private int length(int entry) {
+		return (pool[entry] & 0xff) << 24 | (pool[entry + 1] & 0xff) << 16 | (pool[entry + 2] & 0xff) << 8 | pool[entry + 3] & 0xff;
+	}
+
+	private int start(int entry) {
+		return entry + 4;
+	}
+
+	private byte[] bytes(int entry) {
+		if (entry == NONE) {
+			return null;
+		}
+		int start = start(entry);
+		return java.util.Arrays.copyOfRange(pool, start, start + length(entry));
+	}
+
+	private boolean isFinal(int state) {
+		int tail = tails[state];
+		return tail != NONE && length(tail) == 0;
+	}
+
+	private boolean verify(byte[] bytes, int i, int state) {
+		int tail = tails[state];
+		if (tail == NONE) {
+			return false;
+		}
+		int length = length(tail);
+		if (bytes.length - i != length) {
+			return false;
+		}
+		int start = start(tail);
+		for (int j = start; j < start + length; j++) {
+			if (bytes[i] != pool[j]) {
+				return false;
+			}
+			i++;
+		}
+		return true;
+	}
+
+	@Override
+	public ByteAutomaton<T> cursor() {
+		return new Cursor();
+	}
+
+	@Override
+	public boolean contains(byte[] bytes) {
+		int state = 1;
+		for (int i = 0; i < bytes.length; i++) {
+			int statebase = base[state];
+			if (statebase < 0) {
+				return verify(bytes, i, state);
+			}
+			int next = statebase + key(bytes[i]);
+			if (!isTransition(state, next)) {
+				return false;
+			}
+			state = next;
+		}
+		return isFinal(state);
+	}
+
+	@Override
+	public T find(byte[] bytes) {
+		int state = 1;
+		for (int i = 0; i < bytes.length; i++) {
+			int statebase = base[state];
+			if (statebase < 0 && verify(bytes, i, state)) {
+				return attachments[state];
+			}
+			int next = statebase + key(bytes[i]);
+			if (!isTransition(state, next)) {
+				return null;
+			}
+			state = next;
+		}
+		if (isFinal(state)) {
+			return attachments[state];
+		}
+		return null;
+	}
+
+	@Override
+	public ByteWalker<T> walker() {
+		return new Walker();
+	}
+
+	/**
+	 * writes this trie in the same binary format as {@link DoubleArrayByteCompactTrie#write(OutputStream, AttachmentCodec)}.
+	 *
+	 * @param out the stream to write to (will be flushed but not closed)
+	 * @param codec the codec to write the attachments
+	 * @throws IOException if writing to the stream fails
+	 */
+	public void write(OutputStream out, AttachmentCodec<? super T> codec) throws IOException {
+		byte[][] tail = new byte[size][];
+		byte[][] alts = new byte[size][];
+		for (int i = 0; i < size; i++) {
+			tail[i] = isFinal(i) ? NO_BYTES : bytes(tails[i]);
+			alts[i] = bytes(this.alts[i]);
+		}
+		DoubleArrayTrieFormat.write(out, base, check, tail, alts, attachments, codec);
+	}
+
+	private static class Pool {
+
+		private Map<ByteBuffer, Integer> refs = new HashMap<>();
+		private byte[] bytes = new byte[1024];
+		private int length;
+
+		int add(byte[] entry) {
+			ByteBuffer key = ByteBuffer.wrap(entry);
+			Integer ref = refs.get(key);
+			if (ref == null) {
+				ref = length;
+				refs.put(key, ref);
+				bytes = expand(bytes, length + entry.length + 4);
+				bytes[length] = (byte) (entry.length >>> 24);
+				bytes[length + 1] = (byte) (entry.length >>> 16);
+				bytes[length + 2] = (byte) (entry.length >>> 8);
+				bytes[length + 3] = (byte) entry.length;
+				System.arraycopy(entry, 0, bytes, length + 4, entry.length);
+				length += entry.length + 4;
+			}
+			return ref;
+		}
+
+		byte[] toArray() {
+			return java.util.Arrays.copyOf(bytes, length);
+		}
+
+	}
+
+	private class Walker implements ByteWalker<T> {
+
+		private int[] path;
+		private int depth;
+		private int tailposition;
+		private int tailend;
+
+		Walker() {
+			this.path = new int[16];
+			reset();
+		}
+
+		@Override
+		public void reset() {
+			this.depth = 0;
+			this.path[0] = 1;
+			this.tailposition = NONE;
+			if (base[1] == STOP) {
+				activate(1);
+			}
+		}
+
+		private void activate(int state) {
+			int tail = tails[state];
+			if (tail != NONE && length(tail) > 0) {
+				this.tailposition = start(tail);
+				this.tailend = tailposition + length(tail);
+			}
+		}
+
+		@Override
+		public boolean step(byte b) {
+			if (tailposition != NONE) {
+				if (tailposition >= tailend || pool[tailposition] != b) {
+					return false;
+				}
+				tailposition++;
+				return true;
+			}
+			int state = path[depth];
+			int statebase = base[state];
+			int next = statebase + key(b);
+			if (statebase < 0 || !isTransition(state, next)) {
+				return false;
+			}
+			depth++;
+			path = expand(path, depth);
+			path[depth] = next;
+			activate(next);
+			return true;
+		}
+
+		@Override
+		public void back() {
+			if (tailposition != NONE && tailposition > start(tails[path[depth]])) {
+				tailposition--;
+				return;
+			}
+			tailposition = NONE;
+			depth--;
+		}
+
+		@Override
+		public T getAttached() {
+			int state = path[depth];
+			if (tailposition != NONE ? tailposition == tailend : isFinal(state)) {
+				return attachments[state];
+			}
+			return null;
+		}
+
+		@Override
+		public byte[] getAlternatives() {
+			if (tailposition != NONE) {
+				if (tailposition < tailend) {
+					return new byte[] {pool[tailposition]};
+				}
+				return NO_BYTES;
+			}
+			byte[] bytes = bytes(alts[path[depth]]);
+			if (bytes == null) {
+				return NO_BYTES;
+			}
+			return bytes;
+		}
+
+	}
+
+	private class Cursor implements ByteAutomaton<T> {
+
+		private int state;
+		private int tailposition;
+		private int tailend;
+		private AttachmentIterator iterator;
+
+		public Cursor() {
+			this.iterator = new AttachmentIterator();
+			reset();
+		}
+
+		@Override
+		public Iterator<T> iterator() {
+			iterator.init();
+			return iterator;
+		}
+
+		@Override
+		public void reset() {
+			this.state = 1;
+			if (base[state] == STOP) {
+				activate(state);
+			} else {
+				this.tailposition = NONE;
+			}
+		}
+
+		private void activate(int state) {
+			int tail = tails[state];
+			if (tail == NONE) {
+				this.tailposition = NONE;
+			} else {
+				this.tailposition = start(tail);
+				this.tailend = tailposition + length(tail);
+			}
+		}
+
+		private boolean isAccepting() {
+			return isFinal(state) || tailposition != NONE && tailposition == tailend;
+		}
+
+		@Override
+		public boolean lookahead(byte b) {
+			if (tailposition != NONE) {
+				return tailposition < tailend
+					&& pool[tailposition] == b;
+			} else {
+				int next = base[state] + key(b);
+				return isTransition(state, next);
+			}
+		}
+
+		@Override
+		public boolean accept(byte b) {
+			if (tailposition != NONE) {
+				if (tailposition >= tailend || pool[tailposition] != b) {
+					reset();
+					return false;
+				}
+				tailposition++;
+				return true;
+			} else {
+				int next = base[state] + key(b);
+				if (!isTransition(state, next)) {
+					reset();
+					return false;
+				}
+				state = next;
+				if (!isFinal(state)) {
+					activate(state);
+				}
+				return true;
+			}
+		}
+
+		@Override
+		public boolean hasAttachments() {
+			return isAccepting() && attachments[state] != null;
+		}
+
+		@Override
+		public T getAttached() {
+			if (isAccepting()) {
+				return attachments[state];
+			}
+			return null;
+		}
+
+		@Override
+		public void forEachAttachment(Consumer<? super T> consumer) {
+			T attached = getAttached();
+			if (attached != null) {
+				consumer.accept(attached);
+			}
+		}
+
+		private class AttachmentIterator implements Iterator<T> {
+
+			private boolean consumed;
+
+			public void init() {
+				this.consumed = false;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return !consumed && hasAttachments();
+			}
+
+			@Override
+			public T next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				consumed = true;
+				return attachments[state];
+			}
+		}
+
+	}
+
+}
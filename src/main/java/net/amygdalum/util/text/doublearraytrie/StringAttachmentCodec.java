@@ -0,0 +1,34 @@
+package net.amygdalum.util.text.doublearraytrie;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+public class StringAttachmentCodec implements AttachmentCodec<String> {
+
+	private Charset charset;
+
+	public StringAttachmentCodec() {
+		this(UTF_8);
+	}
+
+	public StringAttachmentCodec(Charset charset) {
+		this.charset = charset;
+	}
+
+	@Override
+	public byte[] encode(String attachment) {
+		return attachment.getBytes(charset);
+	}
+
+	@Override
+	public String decode(ByteBuffer buffer, int offset, int length) {
+		byte[] bytes = new byte[length];
+		for (int i = 0; i < length; i++) {
+			bytes[i] = buffer.get(offset + i);
+		}
+		return new String(bytes, charset);
+	}
+
+}
@@ -4,9 +4,10 @@ import net.amygdalum.util.map.ByteObjectMap;
 import net.amygdalum.util.map.ByteObjectMap.Entry;
 import net.amygdalum.util.text.ByteFallbackAdaptor;
 import net.amygdalum.util.text.ByteNode;
+import net.amygdalum.util.text.ByteOutputAdaptor;
 import net.amygdalum.util.text.NodeResolver;
 
-public class ByteArrayFallbackNode<T> implements ByteNode<T>, ByteFallbackAdaptor<T> {
+public class ByteArrayFallbackNode<T> implements ByteNode<T>, ByteFallbackAdaptor<T>, ByteOutputAdaptor<T> {
 
 	private static final int MAX_SIZE = 256;
 
@@ -15,6 +16,7 @@ public class ByteArrayFallbackNode<T> implements ByteNode<T>, ByteFallbackAdapto
 	private ByteNode<T>[] nodes;
 	private byte[] alts;
 	private ByteNode<T> fallbackNode;
+	private ByteNode<T> outputNode;
 	private T attached;
 
 
@@ -140,4 +142,15 @@ public class ByteArrayFallbackNode<T> implements ByteNode<T>, ByteFallbackAdapto
 	public ByteNode<T> getFallback() {
 		return fallbackNode;
 	}
+
+	@Override
+	public void setOutput(ByteNode<T> outputNode) {
+		this.outputNode = outputNode;
+	}
+
+	@Override
+	public ByteNode<T> getOutput() {
+		return outputNode;
+	}
+
 }
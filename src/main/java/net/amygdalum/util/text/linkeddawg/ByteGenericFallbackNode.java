@@ -5,11 +5,13 @@ import net.amygdalum.util.text.AttachmentAdaptor;
 import net.amygdalum.util.text.ByteConnectionAdaptor;
 import net.amygdalum.util.text.ByteFallbackAdaptor;
 import net.amygdalum.util.text.ByteNode;
+import net.amygdalum.util.text.ByteOutputAdaptor;
 
-public class ByteGenericFallbackNode<T> implements ByteNode<T>, ByteConnectionAdaptor<T>, AttachmentAdaptor<T>, ByteFallbackAdaptor<T> {
+public class ByteGenericFallbackNode<T> implements ByteNode<T>, ByteConnectionAdaptor<T>, AttachmentAdaptor<T>, ByteFallbackAdaptor<T>, ByteOutputAdaptor<T> {
 
 	private ByteObjectMap<ByteNode<T>> nexts;
 	private ByteNode<T> fallback;
+	private ByteNode<T> output;
 	private T attached;
 
 	public ByteGenericFallbackNode() {
@@ -56,4 +58,14 @@ public class ByteGenericFallbackNode<T> implements ByteNode<T>, ByteConnectionAd
 		this.fallback = fallbackNode;
 	}
 
+	@Override
+	public void setOutput(ByteNode<T> outputNode) {
+		this.output = outputNode;
+	}
+
+	@Override
+	public ByteNode<T> getOutput() {
+		return output;
+	}
+
 }
@@ -2,13 +2,15 @@ package net.amygdalum.util.text.linkeddawg;
 
 import net.amygdalum.util.text.ByteFallbackAdaptor;
 import net.amygdalum.util.text.ByteNode;
+import net.amygdalum.util.text.ByteOutputAdaptor;
 import net.amygdalum.util.text.NodeResolver;
 
-public class ByteTerminalFallbackNode<T> implements ByteNode<T>, ByteFallbackAdaptor<T> {
+public class ByteTerminalFallbackNode<T> implements ByteNode<T>, ByteFallbackAdaptor<T>, ByteOutputAdaptor<T> {
 
 	private static final byte[] NONE = new byte[0];
 
 	private ByteNode<T> fallbackNode;
+	private ByteNode<T> outputNode;
 	private T attached;
 
 	public ByteTerminalFallbackNode(T attached) {
@@ -56,4 +58,15 @@ public class ByteTerminalFallbackNode<T> implements ByteNode<T>, ByteFallbackAda
 	public ByteNode<T> getFallback() {
 		return fallbackNode;
 	}
+
+	@Override
+	public void setOutput(ByteNode<T> outputNode) {
+		this.outputNode = outputNode;
+	}
+
+	@Override
+	public ByteNode<T> getOutput() {
+		return outputNode;
+	}
+
 }
@@ -2,9 +2,10 @@ package net.amygdalum.util.text.linkeddawg;
 
 import net.amygdalum.util.text.CharFallbackAdaptor;
 import net.amygdalum.util.text.CharNode;
+import net.amygdalum.util.text.CharOutputAdaptor;
 import net.amygdalum.util.text.NodeResolver;
 
-public class CharArrayFallbackNode<T> implements CharNode<T>, CharFallbackAdaptor<T> {
+public class CharArrayFallbackNode<T> implements CharNode<T>, CharFallbackAdaptor<T>, CharOutputAdaptor<T> {
 
 	private static final int MAX_SIZE = 128;
 
@@ -13,6 +14,7 @@ public class CharArrayFallbackNode<T> implements CharNode<T>, CharFallbackAdapto
 	private CharNode<T>[] nodes;
 	private char[] alts;
 	private CharNode<T> fallbackNode;
+	private CharNode<T> outputNode;
 	private T attached;
 
 	private CharArrayFallbackNode(int mask, char[] chars, CharNode<T>[] nodes, char[] alts, T attached) {
@@ -116,4 +118,14 @@ public class CharArrayFallbackNode<T> implements CharNode<T>, CharFallbackAdapto
 		return fallbackNode;
 	}
 
+	@Override
+	public void setOutput(CharNode<T> outputNode) {
+		this.outputNode = outputNode;
+	}
+
+	@Override
+	public CharNode<T> getOutput() {
+		return outputNode;
+	}
+
 }
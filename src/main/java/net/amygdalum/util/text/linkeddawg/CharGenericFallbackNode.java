@@ -5,12 +5,14 @@ import net.amygdalum.util.text.AttachmentAdaptor;
 import net.amygdalum.util.text.CharConnectionAdaptor;
 import net.amygdalum.util.text.CharFallbackAdaptor;
 import net.amygdalum.util.text.CharNode;
+import net.amygdalum.util.text.CharOutputAdaptor;
 
-public class CharGenericFallbackNode<T> implements CharNode<T>, CharConnectionAdaptor<T>, AttachmentAdaptor<T>, CharFallbackAdaptor<T> {
+public class CharGenericFallbackNode<T> implements CharNode<T>, CharConnectionAdaptor<T>, AttachmentAdaptor<T>, CharFallbackAdaptor<T>, CharOutputAdaptor<T> {
 
 	private CharObjectMap<CharNode<T>> nexts;
 	private T attached;
 	private CharNode<T> fallback;
+	private CharNode<T> output;
 
 	public CharGenericFallbackNode() {
 		this.nexts = new CharObjectMap<CharNode<T>>(null);
@@ -56,4 +58,14 @@ public class CharGenericFallbackNode<T> implements CharNode<T>, CharConnectionAd
 		this.fallback = fallbackNode;
 	}
 
+	@Override
+	public void setOutput(CharNode<T> outputNode) {
+		this.output = outputNode;
+	}
+
+	@Override
+	public CharNode<T> getOutput() {
+		return output;
+	}
+
 }
@@ -3,13 +3,15 @@ package net.amygdalum.util.text.linkeddawg;
 import net.amygdalum.util.map.CharObjectMap;
 import net.amygdalum.util.text.CharFallbackAdaptor;
 import net.amygdalum.util.text.CharNode;
+import net.amygdalum.util.text.CharOutputAdaptor;
 import net.amygdalum.util.text.NodeResolver;
 
-public class CharMapFallbackNode<T>  implements CharNode<T>, CharFallbackAdaptor<T> {
+public class CharMapFallbackNode<T> implements CharNode<T>, CharFallbackAdaptor<T>, CharOutputAdaptor<T> {
 
 	private CharObjectMap<CharNode<T>> nexts;
 	private char[] alts;
 	private CharNode<T> fallbackNode;
+	private CharNode<T> outputNode;
 	private T attached;
 	
 	private CharMapFallbackNode(CharObjectMap<CharNode<T>> nexts, char[] alts, T attached) {
@@ -63,4 +65,14 @@ public class CharMapFallbackNode<T>  implements CharNode<T>, CharFallbackAdaptor
 		return fallbackNode;
 	}
 
+	@Override
+	public void setOutput(CharNode<T> outputNode) {
+		this.outputNode = outputNode;
+	}
+
+	@Override
+	public CharNode<T> getOutput() {
+		return outputNode;
+	}
+
 }
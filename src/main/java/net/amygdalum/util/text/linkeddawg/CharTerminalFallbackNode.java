@@ -2,13 +2,15 @@ package net.amygdalum.util.text.linkeddawg;
 
 import net.amygdalum.util.text.CharFallbackAdaptor;
 import net.amygdalum.util.text.CharNode;
+import net.amygdalum.util.text.CharOutputAdaptor;
 import net.amygdalum.util.text.NodeResolver;
 
-public class CharTerminalFallbackNode<T> implements CharNode<T>, CharFallbackAdaptor<T> {
+public class CharTerminalFallbackNode<T> implements CharNode<T>, CharFallbackAdaptor<T>, CharOutputAdaptor<T> {
 
 	private static final char[] NONE = new char[0];
 
 	private CharNode<T> fallbackNode;
+	private CharNode<T> outputNode;
 	private T attached;
 
 	private CharTerminalFallbackNode(T attached) {
@@ -57,4 +59,14 @@ public class CharTerminalFallbackNode<T> implements CharNode<T>, CharFallbackAda
 		return fallbackNode;
 	}
 
+	@Override
+	public void setOutput(CharNode<T> outputNode) {
+		this.outputNode = outputNode;
+	}
+
+	@Override
+	public CharNode<T> getOutput() {
+		return outputNode;
+	}
+
 }
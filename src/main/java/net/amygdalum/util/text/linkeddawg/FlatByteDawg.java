@@ -0,0 +1,441 @@
+package net.amygdalum.util.text.linkeddawg;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.function.Consumer;
+
+import net.amygdalum.util.text.AutomatonState;
+import net.amygdalum.util.text.ByteAutomaton;
+import net.amygdalum.util.text.ByteDawg;
+import net.amygdalum.util.text.ByteFallbackAdaptor;
+import net.amygdalum.util.text.ByteFallbackNavigator;
+import net.amygdalum.util.text.ByteNode;
+import net.amygdalum.util.text.ByteWalker;
+import net.amygdalum.util.text.WordSetNavigationException;
+
+/**
+ * A FlatByteDawg stores a word graph (optionally with fallback links) in a few primitive arrays instead of node objects:
+ * 
+ * - the edges of state s are stored from offsets[s] to offsets[s + 1] (exclusive) in labels (sorted) and targets
+ * - fallback stores the fallback state of each state (only if the graph has fallback links)
+ * - output stores the next state with a (different) attachment in the fallback chain of each state
+ * - attachment stores the index of the attachment of each state in the pool of attachments
+ * 
+ * The cursors and navigators have the same semantics as the ones of LinkedByteDawg (or LinkedByteFallbackDawg for graphs with fallback links).
+ */
+public class FlatByteDawg<T> implements ByteDawg<T> {
+
+	private static final int ROOT = 0;
+	private static final int NONE = -1;
+	private static final int LINEAR = 8;
+
+	private int[] offsets;
+	private byte[] labels;
+	private int[] targets;
+	private int[] fallback;
+	private int[] output;
+	private int[] attachment;
+	private T[] attachments;
+
+	private FlatByteDawg(int[] offsets, byte[] labels, int[] targets, int[] fallback, int[] output, int[] attachment, T[] attachments) {
+		this.offsets = offsets;
+		this.labels = labels;
+		this.targets = targets;
+		this.fallback = fallback;
+		this.output = output;
+		this.attachment = attachment;
+		this.attachments = attachments;
+	}
+
+	/**
+	 * @return the number of states
+	 */
+	public int getStates() {
+		return offsets.length - 1;
+	}
+
+	@Override
+	public ByteAutomaton<T> cursor() {
+		if (fallback == null) {
+			return new Cursor();
+		} else {
+			return new FallbackCursor();
+		}
+	}
+
+	@Override
+	public boolean contains(byte[] bytes) {
+		int state = ROOT;
+		for (int i = 0; i < bytes.length; i++) {
+			state = next(state, bytes[i]);
+			if (state == NONE) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public T find(byte[] bytes) {
+		int state = ROOT;
+		for (int i = 0; i < bytes.length; i++) {
+			state = next(state, bytes[i]);
+			if (state == NONE) {
+				return null;
+			}
+		}
+		return attached(state);
+	}
+
+	@Override
+	public ByteFallbackNavigator<T, ?> navigator() {
+		return new Navigator(ROOT);
+	}
+
+	@Override
+	public ByteWalker<T> walker() {
+		return new Walker();
+	}
+
+	private int next(int state, byte b) {
+		int from = offsets[state];
+		int to = offsets[state + 1];
+		if (to - from <= LINEAR) {
+			for (int i = from; i < to; i++) {
+				byte label = labels[i];
+				if (label == b) {
+					return targets[i];
+				} else if (label > b) {
+					return NONE;
+				}
+			}
+			return NONE;
+		}
+		int i = Arrays.binarySearch(labels, from, to, b);
+		if (i < 0) {
+			return NONE;
+		}
+		return targets[i];
+	}
+
+	private T attached(int state) {
+		int index = attachment[state];
+		if (index == NONE) {
+			return null;
+		}
+		return attachments[index];
+	}
+
+	private int firstOutput(int state) {
+		if (attachment[state] != NONE) {
+			return state;
+		}
+		return nextOutput(state);
+	}
+
+	private int nextOutput(int state) {
+		if (output == null) {
+			return NONE;
+		}
+		return output[state];
+	}
+
+	public static class Builder<T> {
+
+		private boolean fallback;
+
+		/**
+		 * @param fallback true if the fallback links of the graph should be stored, false otherwise
+		 */
+		public Builder(boolean fallback) {
+			this.fallback = fallback;
+		}
+
+		@SuppressWarnings("unchecked")
+		public FlatByteDawg<T> build(ByteNode<T> root) {
+			List<ByteNode<T>> nodes = new ArrayList<>();
+			Map<ByteNode<T>, Integer> states = new IdentityHashMap<>();
+			Queue<ByteNode<T>> todo = new LinkedList<>();
+			int edges = 0;
+			states.put(root, ROOT);
+			nodes.add(root);
+			todo.add(root);
+			while (!todo.isEmpty()) {
+				ByteNode<T> current = todo.remove();
+				for (byte c : current.getAlternatives()) {
+					ByteNode<T> next = current.nextNode(c);
+					if (!states.containsKey(next)) {
+						states.put(next, nodes.size());
+						nodes.add(next);
+						todo.add(next);
+					}
+					edges++;
+				}
+			}
+
+			int[] offsets = new int[nodes.size() + 1];
+			byte[] labels = new byte[edges];
+			int[] targets = new int[edges];
+			int[] fallback = this.fallback ? new int[nodes.size()] : null;
+			int[] attachment = new int[nodes.size()];
+			Map<T, Integer> pool = new IdentityHashMap<>();
+			List<T> attachments = new ArrayList<>();
+			int edge = 0;
+			for (int state = 0; state < nodes.size(); state++) {
+				ByteNode<T> node = nodes.get(state);
+				offsets[state] = edge;
+				byte[] alternatives = node.getAlternatives();
+				Arrays.sort(alternatives);
+				for (byte c : alternatives) {
+					labels[edge] = c;
+					targets[edge] = states.get(node.nextNode(c));
+					edge++;
+				}
+				if (fallback != null) {
+					fallback[state] = states.getOrDefault(ByteFallbackAdaptor.getFallback(node), NONE);
+				}
+				T attached = node.getAttached();
+				if (attached == null) {
+					attachment[state] = NONE;
+				} else {
+					attachment[state] = pool.computeIfAbsent(attached, a -> {
+						attachments.add(a);
+						return attachments.size() - 1;
+					});
+				}
+			}
+			offsets[nodes.size()] = edge;
+			int[] output = fallback != null ? outputs(fallback, attachment) : null;
+			return new FlatByteDawg<>(offsets, labels, targets, fallback, output, attachment, (T[]) attachments.toArray());
+		}
+
+		/**
+		 * computes for each state the next state in the fallback chain with a (different) attachment
+		 */
+		private static int[] outputs(int[] fallback, int[] attachment) {
+			int[] output = new int[attachment.length];
+			for (int state = 0; state < output.length; state++) {
+				int last = attachment[state];
+				int current = fallback[state];
+				while (current != NONE) {
+					int a = attachment[current];
+					if (a != NONE && a != last) {
+						break;
+					}
+					current = fallback[current];
+				}
+				output[state] = current;
+			}
+			return output;
+		}
+
+	}
+
+	private class Navigator implements ByteFallbackNavigator<T, Navigator> {
+
+		private int state;
+
+		Navigator(int state) {
+			this.state = state;
+		}
+
+		@Override
+		public Navigator nextNode(byte b) {
+			state = next(state, b);
+			if (state == NONE) {
+				throw new WordSetNavigationException("unexpected navigation to " + b);
+			}
+			return this;
+		}
+
+		@Override
+		public Navigator fallback() {
+			if (fallback != null) {
+				state = fallback[state];
+			} else {
+				state = NONE;
+			}
+			return this;
+		}
+
+		@Override
+		public T getAttached() {
+			if (state == NONE) {
+				return null;
+			}
+			return attached(state);
+		}
+
+	}
+
+	private class Walker implements ByteWalker<T> {
+
+		private int[] path;
+		private int depth;
+
+		Walker() {
+			this.path = new int[16];
+			this.path[0] = ROOT;
+		}
+
+		@Override
+		public void reset() {
+			depth = 0;
+		}
+
+		@Override
+		public boolean step(byte b) {
+			int next = next(path[depth], b);
+			if (next == NONE) {
+				return false;
+			}
+			depth++;
+			if (depth >= path.length) {
+				path = Arrays.copyOf(path, path.length * 2);
+			}
+			path[depth] = next;
+			return true;
+		}
+
+		@Override
+		public void back() {
+			depth--;
+		}
+
+		@Override
+		public T getAttached() {
+			return attached(path[depth]);
+		}
+
+		@Override
+		public byte[] getAlternatives() {
+			int state = path[depth];
+			return Arrays.copyOfRange(labels, offsets[state], offsets[state + 1]);
+		}
+
+	}
+
+	private class Cursor implements ByteAutomaton<T> {
+
+		protected int state;
+		private AttachmentIterator iterator;
+
+		public Cursor() {
+			this.state = ROOT;
+			this.iterator = new AttachmentIterator();
+		}
+
+		@Override
+		public Iterator<T> iterator() {
+			iterator.init(state);
+			return iterator;
+		}
+
+		@Override
+		public void reset() {
+			this.state = ROOT;
+		}
+
+		@Override
+		public boolean lookahead(byte b) {
+			return next(state, b) != NONE;
+		}
+
+		@Override
+		public boolean accept(byte b) {
+			int next = next(state, b);
+			if (next == NONE) {
+				return false;
+			}
+			state = next;
+			return true;
+		}
+
+		@Override
+		public boolean hasAttachments() {
+			return firstOutput(state) != NONE;
+		}
+
+		@Override
+		public T getAttached() {
+			int current = firstOutput(state);
+			if (current == NONE) {
+				return null;
+			}
+			return attached(current);
+		}
+
+		@Override
+		public void forEachAttachment(Consumer<? super T> consumer) {
+			int current = firstOutput(state);
+			while (current != NONE) {
+				consumer.accept(attached(current));
+				current = nextOutput(current);
+			}
+		}
+
+	}
+
+	private class FallbackCursor extends Cursor {
+
+		@Override
+		public void snapshot(AutomatonState state) {
+			state.state = this.state;
+		}
+
+		@Override
+		public void restore(AutomatonState state) {
+			this.state = state.state;
+		}
+
+		@Override
+		public boolean accept(byte b) {
+			int current = state;
+			int next = next(current, b);
+			while (next == NONE) {
+				current = fallback[current];
+				if (current == NONE) {
+					reset();
+					return false;
+				}
+				next = next(current, b);
+			}
+			state = next;
+			return true;
+		}
+
+	}
+
+	private class AttachmentIterator implements Iterator<T> {
+
+		private int state;
+
+		public void init(int state) {
+			this.state = firstOutput(state);
+		}
+
+		@Override
+		public boolean hasNext() {
+			return state != NONE;
+		}
+
+		@Override
+		public T next() {
+			if (state == NONE) {
+				throw new NoSuchElementException();
+			}
+			T attached = attached(state);
+			state = nextOutput(state);
+			return attached;
+		}
+
+	}
+
+}
@@ -0,0 +1,43 @@
+package net.amygdalum.util.text.linkeddawg;
+
+import net.amygdalum.util.text.ByteDawg;
+import net.amygdalum.util.text.ByteNode;
+import net.amygdalum.util.text.ByteWordGraphCompiler;
+import net.amygdalum.util.text.NodeResolver;
+
+/**
+ * compiles a word graph with fallback links to a FlatByteDawg.
+ */
+public class FlatByteFallbackDawgCompiler<T> implements ByteWordGraphCompiler<T, ByteDawg<T>> {
+
+	@Override
+	public ByteNode<T> create() {
+		return new ByteGenericFallbackNode<>();
+	}
+
+	@Override
+	public ByteDawg<T> build(ByteNode<T> node) {
+		return new FlatByteDawg.Builder<T>(true).build(node);
+	}
+
+	@Override
+	public NodeResolver<ByteNode<T>> resolver() {
+		return new NodeResolver<ByteNode<T>>() {
+
+			@Override
+			public void compile(ByteNode<T> node) {
+			}
+
+			@Override
+			public void link(ByteNode<T> node) {
+			}
+
+			@Override
+			public ByteNode<T> resolve(ByteNode<T> node) {
+				return node;
+			}
+
+		};
+	}
+
+}
@@ -0,0 +1,43 @@
+package net.amygdalum.util.text.linkeddawg;
+
+import net.amygdalum.util.text.CharDawg;
+import net.amygdalum.util.text.CharNode;
+import net.amygdalum.util.text.CharWordGraphCompiler;
+import net.amygdalum.util.text.NodeResolver;
+
+/**
+ * compiles a word graph with fallback links to a FlatCharDawg.
+ */
+public class FlatCharFallbackDawgCompiler<T> implements CharWordGraphCompiler<T, CharDawg<T>> {
+
+	@Override
+	public CharNode<T> create() {
+		return new CharGenericFallbackNode<>();
+	}
+
+	@Override
+	public CharDawg<T> build(CharNode<T> node) {
+		return new FlatCharDawg.Builder<T>(true).build(node);
+	}
+
+	@Override
+	public NodeResolver<CharNode<T>> resolver() {
+		return new NodeResolver<CharNode<T>>() {
+
+			@Override
+			public void compile(CharNode<T> node) {
+			}
+
+			@Override
+			public void link(CharNode<T> node) {
+			}
+
+			@Override
+			public CharNode<T> resolve(CharNode<T> node) {
+				return node;
+			}
+
+		};
+	}
+
+}
@@ -2,11 +2,13 @@ package net.amygdalum.util.text.linkeddawg;
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 
 import net.amygdalum.util.text.ByteAutomaton;
 import net.amygdalum.util.text.ByteDawg;
 import net.amygdalum.util.text.ByteNavigator;
 import net.amygdalum.util.text.ByteNode;
+import net.amygdalum.util.text.ByteWalker;
 
 /**
  * A LinkedByteWordGraph is a Directed Acyclic Word Graph based on bytes. It has
@@ -59,6 +61,11 @@ public class LinkedByteDawg<T> implements ByteDawg<T> {
 		return new LinkedByteNavigator<>(root);
 	}
 
+	@Override
+	public ByteWalker<T> walker() {
+		return new LinkedByteWalker<>(root);
+	}
+
 	private static class Cursor<S> implements ByteAutomaton<S> {
 
 		private ByteNode<S> current;
@@ -103,6 +110,24 @@ public class LinkedByteDawg<T> implements ByteDawg<T> {
 				&& current.getAttached() != null;
 		}
 
+		@Override
+		public S getAttached() {
+			if (current == null) {
+				return null;
+			}
+			return current.getAttached();
+		}
+
+		@Override
+		public void forEachAttachment(Consumer<? super S> consumer) {
+			if (current != null) {
+				S attached = current.getAttached();
+				if (attached != null) {
+					consumer.accept(attached);
+				}
+			}
+		}
+
 	}
 
 	private static class AttachmentIterator<S> implements Iterator<S> {
@@ -1,14 +1,18 @@
 package net.amygdalum.util.text.linkeddawg;
 
 import static net.amygdalum.util.text.ByteFallbackAdaptor.getFallback;
+import static net.amygdalum.util.text.ByteOutputAdaptor.getOutput;
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 
+import net.amygdalum.util.text.AutomatonState;
 import net.amygdalum.util.text.ByteAutomaton;
 import net.amygdalum.util.text.ByteDawg;
 import net.amygdalum.util.text.ByteFallbackNavigator;
 import net.amygdalum.util.text.ByteNode;
+import net.amygdalum.util.text.ByteWalker;
 
 public class LinkedByteFallbackDawg<T> implements ByteDawg<T> {
 
@@ -54,6 +58,11 @@ public class LinkedByteFallbackDawg<T> implements ByteDawg<T> {
 		return new LinkedByteFallbackNavigator<T>(root);
 	}
 
+	@Override
+	public ByteWalker<T> walker() {
+		return new LinkedByteWalker<>(root);
+	}
+
 	private static class Cursor<S> implements ByteAutomaton<S> {
 
 		private ByteNode<S> current;
@@ -77,6 +86,17 @@ public class LinkedByteFallbackDawg<T> implements ByteDawg<T> {
 			this.current = root;
 		}
 
+		@Override
+		public void snapshot(AutomatonState state) {
+			state.node = current;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public void restore(AutomatonState state) {
+			this.current = (ByteNode<S>) state.node;
+		}
+
 		@Override
 		public boolean lookahead(byte b) {
 			return current.nextNode(b) != null;
@@ -101,14 +121,26 @@ public class LinkedByteFallbackDawg<T> implements ByteDawg<T> {
 
 		@Override
 		public boolean hasAttachments() {
-			ByteNode<S> node = current;
+			return current != null
+				&& (current.getAttached() != null || getOutput(current) != null);
+		}
+
+		@Override
+		public S getAttached() {
+			ByteNode<S> node = firstOutput(current);
+			if (node == null) {
+				return null;
+			}
+			return node.getAttached();
+		}
+
+		@Override
+		public void forEachAttachment(Consumer<? super S> consumer) {
+			ByteNode<S> node = firstOutput(current);
 			while (node != null) {
-				if (node.getAttached() != null) {
-					return true;
-				}
-				node = getFallback(node);
+				consumer.accept(node.getAttached());
+				node = getOutput(node);
 			}
-			return false;
 		}
 
 	}
@@ -118,30 +150,22 @@ public class LinkedByteFallbackDawg<T> implements ByteDawg<T> {
 		private ByteNode<S> current;
 
 		public void init(ByteNode<S> current) {
-			this.current = current;
+			this.current = firstOutput(current);
 		}
 
 		@Override
 		public boolean hasNext() {
-			while (current != null) {
-				if (current.getAttached() != null) {
-					return true;
-				}
-				current = getFallback(current);
-			}
-			return false;
+			return current != null;
 		}
 
 		@Override
 		public S next() {
-			while (current != null) {
-				S attached = current.getAttached();
-				current = getFallback(current);
-				if (attached != null) {
-					return attached;
-				}
+			if (current == null) {
+				throw new NoSuchElementException();
 			}
-			throw new NoSuchElementException();
+			S attached = current.getAttached();
+			current = getOutput(current);
+			return attached;
 		}
 
 		@Override
@@ -150,4 +174,12 @@ public class LinkedByteFallbackDawg<T> implements ByteDawg<T> {
 		}
 
 	}
+
+	private static <S> ByteNode<S> firstOutput(ByteNode<S> node) {
+		if (node == null || node.getAttached() != null) {
+			return node;
+		}
+		return getOutput(node);
+	}
+
 }
@@ -2,6 +2,7 @@ package net.amygdalum.util.text.linkeddawg;
 
 import static net.amygdalum.util.text.ByteFallbackAdaptor.getFallback;
 import static net.amygdalum.util.text.ByteFallbackAdaptor.setFallback;
+import static net.amygdalum.util.text.ByteOutputAdaptor.setOutput;
 
 import net.amygdalum.util.text.ByteDawg;
 import net.amygdalum.util.text.ByteWordGraphCompiler;
@@ -37,10 +38,19 @@ public class LinkedByteFallbackDawgCompiler<T> implements ByteWordGraphCompiler<
 			
 			@Override
 			public void link(ByteNode<T> node) {
+				ByteNode<T> compiledNode = resolve(node);
 				ByteNode<T> fallbackNode = getFallback(node);
 				if (fallbackNode != null) {
 					ByteNode<T> compiledFallbackNode = resolve(fallbackNode);
-					setFallback(node, compiledFallbackNode);
+					setFallback(compiledNode, compiledFallbackNode);
+				}
+				T attached = node.getAttached();
+				ByteNode<T> outputNode = fallbackNode;
+				while (outputNode != null && (outputNode.getAttached() == null || outputNode.getAttached() == attached)) {
+					outputNode = getFallback(outputNode);
+				}
+				if (outputNode != null) {
+					setOutput(compiledNode, resolve(outputNode));
 				}
 			}
 
@@ -0,0 +1,56 @@
+package net.amygdalum.util.text.linkeddawg;
+
+import java.util.Arrays;
+
+import net.amygdalum.util.text.ByteNode;
+import net.amygdalum.util.text.ByteWalker;
+
+public class LinkedByteWalker<T> implements ByteWalker<T> {
+
+	private ByteNode<T>[] path;
+	private int depth;
+
+	@SuppressWarnings("unchecked")
+	public LinkedByteWalker(ByteNode<T> root) {
+		this.path = new ByteNode[16];
+		this.path[0] = root;
+	}
+
+	@Override
+	public void reset() {
+		depth = 0;
+	}
+
+	@Override
+	public boolean step(byte b) {
+		ByteNode<T> next = path[depth].nextNode(b);
+		if (next == null) {
+			return false;
+		}
+		depth++;
+		if (depth >= path.length) {
+			path = Arrays.copyOf(path, path.length * 2);
+		}
+		path[depth] = next;
+		return true;
+	}
+
+	@Override
+	public void back() {
+		path[depth] = null;
+		depth--;
+	}
+
+	@Override
+	public T getAttached() {
+		return path[depth].getAttached();
+	}
+
+	@Override
+	public byte[] getAlternatives() {
+		byte[] alternatives = path[depth].getAlternatives();
+		Arrays.sort(alternatives);
+		return alternatives;
+	}
+
+}
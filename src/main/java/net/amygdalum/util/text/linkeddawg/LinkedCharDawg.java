@@ -2,11 +2,13 @@ package net.amygdalum.util.text.linkeddawg;
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 
 import net.amygdalum.util.text.CharAutomaton;
 import net.amygdalum.util.text.CharDawg;
 import net.amygdalum.util.text.CharNavigator;
 import net.amygdalum.util.text.CharNode;
+import net.amygdalum.util.text.CharWalker;
 
 /**
  * A LinkedCharWordGraph is a Directed Acyclic Word Graph based on characters.
@@ -59,6 +61,11 @@ public class LinkedCharDawg<T> implements CharDawg<T> {
 		return new LinkedCharNavigator<>(root);
 	}
 
+	@Override
+	public CharWalker<T> walker() {
+		return new LinkedCharWalker<>(root);
+	}
+
 	private static class Cursor<S> implements CharAutomaton<S> {
 
 		private CharNode<S> current;
@@ -103,6 +110,24 @@ public class LinkedCharDawg<T> implements CharDawg<T> {
 				&& current.getAttached() != null;
 		}
 
+		@Override
+		public S getAttached() {
+			if (current == null) {
+				return null;
+			}
+			return current.getAttached();
+		}
+
+		@Override
+		public void forEachAttachment(Consumer<? super S> consumer) {
+			if (current != null) {
+				S attached = current.getAttached();
+				if (attached != null) {
+					consumer.accept(attached);
+				}
+			}
+		}
+
 	}
 
 	private static class AttachmentIterator<S> implements Iterator<S> {
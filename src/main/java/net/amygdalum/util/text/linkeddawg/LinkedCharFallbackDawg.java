@@ -1,14 +1,18 @@
 package net.amygdalum.util.text.linkeddawg;
 
 import static net.amygdalum.util.text.CharFallbackAdaptor.getFallback;
+import static net.amygdalum.util.text.CharOutputAdaptor.getOutput;
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 
+import net.amygdalum.util.text.AutomatonState;
 import net.amygdalum.util.text.CharAutomaton;
 import net.amygdalum.util.text.CharDawg;
 import net.amygdalum.util.text.CharFallbackNavigator;
 import net.amygdalum.util.text.CharNode;
+import net.amygdalum.util.text.CharWalker;
 
 public class LinkedCharFallbackDawg<T> implements CharDawg<T> {
 
@@ -54,6 +58,11 @@ public class LinkedCharFallbackDawg<T> implements CharDawg<T> {
 		return new LinkedCharFallbackNavigator<>(root);
 	}
 
+	@Override
+	public CharWalker<T> walker() {
+		return new LinkedCharWalker<>(root);
+	}
+
 	private static class Cursor<S> implements CharAutomaton<S> {
 
 		private CharNode<S> current;
@@ -77,6 +86,17 @@ public class LinkedCharFallbackDawg<T> implements CharDawg<T> {
 			this.current = root;
 		}
 
+		@Override
+		public void snapshot(AutomatonState state) {
+			state.node = current;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public void restore(AutomatonState state) {
+			this.current = (CharNode<S>) state.node;
+		}
+
 		@Override
 		public boolean lookahead(char c) {
 			return current.nextNode(c) != null;
@@ -101,14 +121,26 @@ public class LinkedCharFallbackDawg<T> implements CharDawg<T> {
 
 		@Override
 		public boolean hasAttachments() {
-			CharNode<S> node = current;
+			return current != null
+				&& (current.getAttached() != null || getOutput(current) != null);
+		}
+
+		@Override
+		public S getAttached() {
+			CharNode<S> node = firstOutput(current);
+			if (node == null) {
+				return null;
+			}
+			return node.getAttached();
+		}
+
+		@Override
+		public void forEachAttachment(Consumer<? super S> consumer) {
+			CharNode<S> node = firstOutput(current);
 			while (node != null) {
-				if (node.getAttached() != null) {
-					return true;
-				}
-				node = getFallback(node);
+				consumer.accept(node.getAttached());
+				node = getOutput(node);
 			}
-			return false;
 		}
 
 	}
@@ -118,30 +150,22 @@ public class LinkedCharFallbackDawg<T> implements CharDawg<T> {
 		private CharNode<S> current;
 
 		public void init(CharNode<S> current) {
-			this.current = current;
+			this.current = firstOutput(current);
 		}
 
 		@Override
 		public boolean hasNext() {
-			while (current != null) {
-				if (current.getAttached() != null) {
-					return true;
-				}
-				current = getFallback(current);
-			}
-			return false;
+			return current != null;
 		}
 
 		@Override
 		public S next() {
-			while (current != null) {
-				S attached = current.getAttached();
-				current = getFallback(current);
-				if (attached != null) {
-					return attached;
-				}
+			if (current == null) {
+				throw new NoSuchElementException();
 			}
-			throw new NoSuchElementException();
+			S attached = current.getAttached();
+			current = getOutput(current);
+			return attached;
 		}
 
 		@Override
@@ -150,4 +174,12 @@ public class LinkedCharFallbackDawg<T> implements CharDawg<T> {
 		}
 
 	}
+
+	private static <S> CharNode<S> firstOutput(CharNode<S> node) {
+		if (node == null || node.getAttached() != null) {
+			return node;
+		}
+		return getOutput(node);
+	}
+
 }
@@ -2,6 +2,7 @@ package net.amygdalum.util.text.linkeddawg;
 
 import static net.amygdalum.util.text.CharFallbackAdaptor.getFallback;
 import static net.amygdalum.util.text.CharFallbackAdaptor.setFallback;
+import static net.amygdalum.util.text.CharOutputAdaptor.setOutput;
 
 import net.amygdalum.util.text.CharDawg;
 import net.amygdalum.util.text.CharWordGraphCompiler;
@@ -41,10 +42,19 @@ public class LinkedCharFallbackDawgCompiler<T> implements CharWordGraphCompiler<
 			
 			@Override
 			public void link(CharNode<T> node) {
+				CharNode<T> compiledNode = resolve(node);
 				CharNode<T> fallbackNode = getFallback(node);
 				if (fallbackNode != null) {
 					CharNode<T> compiledFallbackNode = resolve(fallbackNode);
-					setFallback(node, compiledFallbackNode);
+					setFallback(compiledNode, compiledFallbackNode);
+				}
+				T attached = node.getAttached();
+				CharNode<T> outputNode = fallbackNode;
+				while (outputNode != null && (outputNode.getAttached() == null || outputNode.getAttached() == attached)) {
+					outputNode = getFallback(outputNode);
+				}
+				if (outputNode != null) {
+					setOutput(compiledNode, resolve(outputNode));
 				}
 			}
 
@@ -0,0 +1,56 @@
+package net.amygdalum.util.text.linkeddawg;
+
+import java.util.Arrays;
+
+import net.amygdalum.util.text.CharNode;
+import net.amygdalum.util.text.CharWalker;
+
+public class LinkedCharWalker<T> implements CharWalker<T> {
+
+	private CharNode<T>[] path;
+	private int depth;
+
+	@SuppressWarnings("unchecked")
+	public LinkedCharWalker(CharNode<T> root) {
+		this.path = new CharNode[16];
+		this.path[0] = root;
+	}
+
+	@Override
+	public void reset() {
+		depth = 0;
+	}
+
+	@Override
+	public boolean step(char c) {
+		CharNode<T> next = path[depth].nextNode(c);
+		if (next == null) {
+			return false;
+		}
+		depth++;
+		if (depth >= path.length) {
+			path = Arrays.copyOf(path, path.length * 2);
+		}
+		path[depth] = next;
+		return true;
+	}
+
+	@Override
+	public void back() {
+		path[depth] = null;
+		depth--;
+	}
+
+	@Override
+	public T getAttached() {
+		return path[depth].getAttached();
+	}
+
+	@Override
+	public char[] getAlternatives() {
+		char[] alternatives = path[depth].getAlternatives();
+		Arrays.sort(alternatives);
+		return alternatives;
+	}
+
+}
@@ -0,0 +1,293 @@
+package net.amygdalum.util.text.louds;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.function.Consumer;
+
+import net.amygdalum.util.bits.BitSet;
+import net.amygdalum.util.bits.RankSelect;
+import net.amygdalum.util.text.ByteAutomaton;
+import net.amygdalum.util.text.ByteNavigator;
+import net.amygdalum.util.text.ByteNode;
+import net.amygdalum.util.text.ByteTrie;
+import net.amygdalum.util.text.ByteWalker;
+import net.amygdalum.util.text.WordSetNavigationException;
+
+/**
+ * A LoudsByteTrie stores a trie in level order unary degree sequence (LOUDS):
+ * 
+ * - the nodes are numbered in level order (the root is 0), each node (preceded by a virtual super root) is encoded by one set bit per child and a terminating clear bit
+ * - the children of node v are the nodes select0(v) - v to select0(v + 1) - v - 1, their labels are sorted
+ * - the nodes that complete a word are marked in a second bit sequence, their attachments are stored in the order of the nodes
+ * 
+ * So the structure of the trie takes about 3 bits per node (plus the labels and attachments), navigation costs two select queries and a binary search
+ * in the labels of the children. The trie cannot be changed after building.
+ */
+public class LoudsByteTrie<T> implements ByteTrie<T> {
+
+	private static final int ROOT = 0;
+	private static final int NONE = -1;
+
+	private RankSelect louds;
+	private byte[] labels;
+	private RankSelect terminal;
+	private T[] attachments;
+
+	private LoudsByteTrie(RankSelect louds, byte[] labels, RankSelect terminal, T[] attachments) {
+		this.louds = louds;
+		this.labels = labels;
+		this.terminal = terminal;
+		this.attachments = attachments;
+	}
+
+	/**
+	 * @return the number of nodes
+	 */
+	public int getStates() {
+		return labels.length;
+	}
+
+	@Override
+	public ByteAutomaton<T> cursor() {
+		return new Cursor();
+	}
+
+	@Override
+	public boolean contains(byte[] bytes) {
+		int node = node(bytes);
+		return node != NONE && terminal.get(node);
+	}
+
+	@Override
+	public T find(byte[] bytes) {
+		int node = node(bytes);
+		if (node == NONE) {
+			return null;
+		}
+		return attached(node);
+	}
+
+	@Override
+	public ByteNavigator<T, ?> navigator() {
+		return new Navigator(ROOT);
+	}
+
+	@Override
+	public ByteWalker<T> walker() {
+		return new Walker();
+	}
+
+	private int node(byte[] bytes) {
+		int node = ROOT;
+		for (int i = 0; i < bytes.length; i++) {
+			node = next(node, bytes[i]);
+			if (node == NONE) {
+				return NONE;
+			}
+		}
+		return node;
+	}
+
+	private int next(int node, byte b) {
+		int start = louds.select0(node);
+		int end = louds.select0(node + 1);
+		int first = start - node;
+		int last = end - node - 1;
+		int i = Arrays.binarySearch(labels, first, last, b);
+		if (i < 0) {
+			return NONE;
+		}
+		return i;
+	}
+
+	private T attached(int node) {
+		if (!terminal.get(node)) {
+			return null;
+		}
+		return attachments[terminal.rank1(node)];
+	}
+
+	public static class Builder<T> {
+
+		@SuppressWarnings("unchecked")
+		public LoudsByteTrie<T> build(ByteNode<T> root) {
+			List<ByteNode<T>> nodes = new ArrayList<>();
+			ByteArrayOutputStream labels = new ByteArrayOutputStream();
+			Queue<ByteNode<T>> todo = new LinkedList<>();
+			nodes.add(root);
+			labels.write(0);
+			todo.add(root);
+			while (!todo.isEmpty()) {
+				ByteNode<T> current = todo.remove();
+				byte[] alternatives = current.getAlternatives();
+				Arrays.sort(alternatives);
+				for (byte b : alternatives) {
+					ByteNode<T> next = current.nextNode(b);
+					nodes.add(next);
+					labels.write(b);
+					todo.add(next);
+				}
+			}
+
+			BitSet louds = BitSet.empty(nodes.size() * 2 + 1);
+			BitSet terminal = BitSet.empty(nodes.size());
+			List<T> attachments = new ArrayList<>();
+			louds.set(0);
+			int pos = 2;
+			for (int node = 0; node < nodes.size(); node++) {
+				ByteNode<T> current = nodes.get(node);
+				for (int i = 0; i < current.getAlternativesSize(); i++) {
+					louds.set(pos);
+					pos++;
+				}
+				pos++;
+				T attached = current.getAttached();
+				if (attached != null || current.getAlternativesSize() == 0) {
+					terminal.set(node);
+					attachments.add(attached);
+				}
+			}
+			byte[] labelArray = labels.toByteArray();
+			return new LoudsByteTrie<>(new RankSelect(louds), labelArray, new RankSelect(terminal), (T[]) attachments.toArray());
+		}
+
+	}
+
+	private class Navigator implements ByteNavigator<T, Navigator> {
+
+		private int node;
+
+		Navigator(int node) {
+			this.node = node;
+		}
+
+		@Override
+		public Navigator nextNode(byte b) {
+			int next = next(node, b);
+			if (next == NONE) {
+				throw new WordSetNavigationException("unexpected navigation to " + b);
+			}
+			node = next;
+			return this;
+		}
+
+		@Override
+		public T getAttached() {
+			return attached(node);
+		}
+
+	}
+
+	private class Walker implements ByteWalker<T> {
+
+		private int[] path;
+		private int depth;
+
+		Walker() {
+			this.path = new int[16];
+			this.path[0] = ROOT;
+		}
+
+		@Override
+		public void reset() {
+			depth = 0;
+		}
+
+		@Override
+		public boolean step(byte b) {
+			int next = next(path[depth], b);
+			if (next == NONE) {
+				return false;
+			}
+			depth++;
+			if (depth >= path.length) {
+				path = Arrays.copyOf(path, path.length * 2);
+			}
+			path[depth] = next;
+			return true;
+		}
+
+		@Override
+		public void back() {
+			depth--;
+		}
+
+		@Override
+		public T getAttached() {
+			return attached(path[depth]);
+		}
+
+		@Override
+		public byte[] getAlternatives() {
+			int node = path[depth];
+			int start = louds.select0(node);
+			int end = louds.select0(node + 1);
+			return Arrays.copyOfRange(labels, start - node, end - node - 1);
+		}
+
+	}
+
+	private class Cursor implements ByteAutomaton<T> {
+
+		private int node;
+
+		public Cursor() {
+			this.node = ROOT;
+		}
+
+		@Override
+		public Iterator<T> iterator() {
+			T attached = attached(node);
+			if (attached == null) {
+				return Collections.emptyIterator();
+			}
+			return Collections.singleton(attached).iterator();
+		}
+
+		@Override
+		public void reset() {
+			this.node = ROOT;
+		}
+
+		@Override
+		public boolean lookahead(byte b) {
+			return next(node, b) != NONE;
+		}
+
+		@Override
+		public boolean accept(byte b) {
+			int next = next(node, b);
+			if (next == NONE) {
+				return false;
+			}
+			node = next;
+			return true;
+		}
+
+		@Override
+		public boolean hasAttachments() {
+			return attached(node) != null;
+		}
+
+		@Override
+		public T getAttached() {
+			return attached(node);
+		}
+
+		@Override
+		public void forEachAttachment(Consumer<? super T> consumer) {
+			T attached = attached(node);
+			if (attached != null) {
+				consumer.accept(attached);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,44 @@
+package net.amygdalum.util.text.louds;
+
+import net.amygdalum.util.text.ByteNode;
+import net.amygdalum.util.text.ByteTrie;
+import net.amygdalum.util.text.ByteWordGraphCompiler;
+import net.amygdalum.util.text.NodeResolver;
+import net.amygdalum.util.text.linkeddawg.ByteGenericNode;
+
+/**
+ * compiles a word graph to a LoudsByteTrie (nodes shared in the graph are stored once per path).
+ */
+public class LoudsByteTrieCompiler<T> implements ByteWordGraphCompiler<T, ByteTrie<T>> {
+
+	@Override
+	public ByteNode<T> create() {
+		return new ByteGenericNode<>();
+	}
+
+	@Override
+	public ByteTrie<T> build(ByteNode<T> node) {
+		return new LoudsByteTrie.Builder<T>().build(node);
+	}
+
+	@Override
+	public NodeResolver<ByteNode<T>> resolver() {
+		return new NodeResolver<ByteNode<T>>() {
+
+			@Override
+			public void compile(ByteNode<T> node) {
+			}
+
+			@Override
+			public void link(ByteNode<T> node) {
+			}
+
+			@Override
+			public ByteNode<T> resolve(ByteNode<T> node) {
+				return node;
+			}
+
+		};
+	}
+
+}
@@ -0,0 +1,295 @@
+package net.amygdalum.util.text.louds;
+
+import static net.amygdalum.util.text.CharUtils.charToString;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.function.Consumer;
+
+import net.amygdalum.util.bits.BitSet;
+import net.amygdalum.util.bits.RankSelect;
+import net.amygdalum.util.text.CharAutomaton;
+import net.amygdalum.util.text.CharNavigator;
+import net.amygdalum.util.text.CharNode;
+import net.amygdalum.util.text.CharTrie;
+import net.amygdalum.util.text.CharWalker;
+import net.amygdalum.util.text.WordSetNavigationException;
+
+/**
+ * A LoudsCharTrie stores a trie in level order unary degree sequence (LOUDS):
+ * 
+ * - the nodes are numbered in level order (the root is 0), each node (preceded by a virtual super root) is encoded by one set bit per child and a terminating clear bit
+ * - the children of node v are the nodes select0(v) - v to select0(v + 1) - v - 1, their labels are sorted
+ * - the nodes that complete a word are marked in a second bit sequence, their attachments are stored in the order of the nodes
+ * 
+ * So the structure of the trie takes about 3 bits per node (plus the labels and attachments), navigation costs two select queries and a binary search
+ * in the labels of the children. The trie cannot be changed after building.
+ */
+public class LoudsCharTrie<T> implements CharTrie<T> {
+
+	private static final int ROOT = 0;
+	private static final int NONE = -1;
+
+	private RankSelect louds;
+	private char[] labels;
+	private RankSelect terminal;
+	private T[] attachments;
+
+	private LoudsCharTrie(RankSelect louds, char[] labels, RankSelect terminal, T[] attachments) {
+		this.louds = louds;
+		this.labels = labels;
+		this.terminal = terminal;
+		this.attachments = attachments;
+	}
+
+	/**
+	 * @return the number of nodes
+	 */
+	public int getStates() {
+		return labels.length;
+	}
+
+	@Override
+	public CharAutomaton<T> cursor() {
+		return new Cursor();
+	}
+
+	@Override
+	public boolean contains(char[] chars) {
+		int node = node(chars);
+		return node != NONE && terminal.get(node);
+	}
+
+	@Override
+	public T find(char[] chars) {
+		int node = node(chars);
+		if (node == NONE) {
+			return null;
+		}
+		return attached(node);
+	}
+
+	@Override
+	public CharNavigator<T, ?> navigator() {
+		return new Navigator(ROOT);
+	}
+
+	@Override
+	public CharWalker<T> walker() {
+		return new Walker();
+	}
+
+	private int node(char[] chars) {
+		int node = ROOT;
+		for (int i = 0; i < chars.length; i++) {
+			node = next(node, chars[i]);
+			if (node == NONE) {
+				return NONE;
+			}
+		}
+		return node;
+	}
+
+	private int next(int node, char c) {
+		int start = louds.select0(node);
+		int end = louds.select0(node + 1);
+		int first = start - node;
+		int last = end - node - 1;
+		int i = Arrays.binarySearch(labels, first, last, c);
+		if (i < 0) {
+			return NONE;
+		}
+		return i;
+	}
+
+	private T attached(int node) {
+		if (!terminal.get(node)) {
+			return null;
+		}
+		return attachments[terminal.rank1(node)];
+	}
+
+	public static class Builder<T> {
+
+		@SuppressWarnings("unchecked")
+		public LoudsCharTrie<T> build(CharNode<T> root) {
+			List<CharNode<T>> nodes = new ArrayList<>();
+			StringBuilder labels = new StringBuilder();
+			Queue<CharNode<T>> todo = new LinkedList<>();
+			nodes.add(root);
+			labels.append('\0');
+			todo.add(root);
+			while (!todo.isEmpty()) {
+				CharNode<T> current = todo.remove();
+				char[] alternatives = current.getAlternatives();
+				Arrays.sort(alternatives);
+				for (char c : alternatives) {
+					CharNode<T> next = current.nextNode(c);
+					nodes.add(next);
+					labels.append(c);
+					todo.add(next);
+				}
+			}
+
+			BitSet louds = BitSet.empty(nodes.size() * 2 + 1);
+			BitSet terminal = BitSet.empty(nodes.size());
+			List<T> attachments = new ArrayList<>();
+			louds.set(0);
+			int pos = 2;
+			for (int node = 0; node < nodes.size(); node++) {
+				CharNode<T> current = nodes.get(node);
+				for (int i = 0; i < current.getAlternativesSize(); i++) {
+					louds.set(pos);
+					pos++;
+				}
+				pos++;
+				T attached = current.getAttached();
+				if (attached != null || current.getAlternativesSize() == 0) {
+					terminal.set(node);
+					attachments.add(attached);
+				}
+			}
+			char[] labelArray = new char[labels.length()];
+			labels.getChars(0, labelArray.length, labelArray, 0);
+			return new LoudsCharTrie<>(new RankSelect(louds), labelArray, new RankSelect(terminal), (T[]) attachments.toArray());
+		}
+
+	}
+
+	private class Navigator implements CharNavigator<T, Navigator> {
+
+		private int node;
+
+		Navigator(int node) {
+			this.node = node;
+		}
+
+		@Override
+		public Navigator nextNode(char c) {
+			int next = next(node, c);
+			if (next == NONE) {
+				throw new WordSetNavigationException("unexpected navigation to " + charToString(c));
+			}
+			node = next;
+			return this;
+		}
+
+		@Override
+		public T getAttached() {
+			return attached(node);
+		}
+
+	}
+
+	private class Walker implements CharWalker<T> {
+
+		private int[] path;
+		private int depth;
+
+		Walker() {
+			this.path = new int[16];
+			this.path[0] = ROOT;
+		}
+
+		@Override
+		public void reset() {
+			depth = 0;
+		}
+
+		@Override
+		public boolean step(char c) {
+			int next = next(path[depth], c);
+			if (next == NONE) {
+				return false;
+			}
+			depth++;
+			if (depth >= path.length) {
+				path = Arrays.copyOf(path, path.length * 2);
+			}
+			path[depth] = next;
+			return true;
+		}
+
+		@Override
+		public void back() {
+			depth--;
+		}
+
+		@Override
+		public T getAttached() {
+			return attached(path[depth]);
+		}
+
+		@Override
+		public char[] getAlternatives() {
+			int node = path[depth];
+			int start = louds.select0(node);
+			int end = louds.select0(node + 1);
+			return Arrays.copyOfRange(labels, start - node, end - node - 1);
+		}
+
+	}
+
+	private class Cursor implements CharAutomaton<T> {
+
+		private int node;
+
+		public Cursor() {
+			this.node = ROOT;
+		}
+
+		@Override
+		public Iterator<T> iterator() {
+			T attached = attached(node);
+			if (attached == null) {
+				return Collections.emptyIterator();
+			}
+			return Collections.singleton(attached).iterator();
+		}
+
+		@Override
+		public void reset() {
+			this.node = ROOT;
+		}
+
+		@Override
+		public boolean lookahead(char c) {
+			return next(node, c) != NONE;
+		}
+
+		@Override
+		public boolean accept(char c) {
+			int next = next(node, c);
+			if (next == NONE) {
+				return false;
+			}
+			node = next;
+			return true;
+		}
+
+		@Override
+		public boolean hasAttachments() {
+			return attached(node) != null;
+		}
+
+		@Override
+		public T getAttached() {
+			return attached(node);
+		}
+
+		@Override
+		public void forEachAttachment(Consumer<? super T> consumer) {
+			T attached = attached(node);
+			if (attached != null) {
+				consumer.accept(attached);
+			}
+		}
+
+	}
+
+}
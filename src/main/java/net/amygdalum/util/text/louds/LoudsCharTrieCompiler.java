@@ -0,0 +1,44 @@
+package net.amygdalum.util.text.louds;
+
+import net.amygdalum.util.text.CharNode;
+import net.amygdalum.util.text.CharTrie;
+import net.amygdalum.util.text.CharWordGraphCompiler;
+import net.amygdalum.util.text.NodeResolver;
+import net.amygdalum.util.text.linkeddawg.CharGenericNode;
+
+/**
+ * compiles a word graph to a LoudsCharTrie (nodes shared in the graph are stored once per path).
+ */
+public class LoudsCharTrieCompiler<T> implements CharWordGraphCompiler<T, CharTrie<T>> {
+
+	@Override
+	public CharNode<T> create() {
+		return new CharGenericNode<>();
+	}
+
+	@Override
+	public CharTrie<T> build(CharNode<T> node) {
+		return new LoudsCharTrie.Builder<T>().build(node);
+	}
+
+	@Override
+	public NodeResolver<CharNode<T>> resolver() {
+		return new NodeResolver<CharNode<T>>() {
+
+			@Override
+			public void compile(CharNode<T> node) {
+			}
+
+			@Override
+			public void link(CharNode<T> node) {
+			}
+
+			@Override
+			public CharNode<T> resolve(CharNode<T> node) {
+				return node;
+			}
+
+		};
+	}
+
+}
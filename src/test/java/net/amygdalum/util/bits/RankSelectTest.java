@@ -0,0 +1,96 @@
+package net.amygdalum.util.bits;
+
+import static net.amygdalum.util.bits.BitSet.all;
+import static net.amygdalum.util.bits.BitSet.bits;
+import static net.amygdalum.util.bits.BitSet.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class RankSelectTest {
+
+    @Test
+    public void testRankSelect64() throws Exception {
+        RankSelect bits = new RankSelect(bits(64, 3, 5, 33, 63));
+        assertThat(bits.size(), equalTo(64));
+        assertThat(bits.get(3), is(true));
+        assertThat(bits.get(4), is(false));
+        assertThat(bits.rank1(0), equalTo(0));
+        assertThat(bits.rank1(4), equalTo(1));
+        assertThat(bits.rank1(6), equalTo(2));
+        assertThat(bits.rank1(64), equalTo(4));
+        assertThat(bits.rank0(6), equalTo(4));
+        assertThat(bits.select1(0), equalTo(3));
+        assertThat(bits.select1(3), equalTo(63));
+        assertThat(bits.select1(4), equalTo(-1));
+        assertThat(bits.select0(0), equalTo(0));
+        assertThat(bits.select0(3), equalTo(4));
+        assertThat(bits.select0(59), equalTo(62));
+        assertThat(bits.select0(60), equalTo(-1));
+    }
+
+    @Test
+    public void testRankSelectEmpty() throws Exception {
+        RankSelect bits = new RankSelect(empty(0));
+        assertThat(bits.size(), equalTo(0));
+        assertThat(bits.rank1(0), equalTo(0));
+        assertThat(bits.select1(0), equalTo(-1));
+        assertThat(bits.select0(0), equalTo(-1));
+    }
+
+    @Test
+    public void testRankSelectAllSet() throws Exception {
+        RankSelect bits = new RankSelect(all(1000));
+        assertThat(bits.rank1(1000), equalTo(1000));
+        assertThat(bits.rank0(1000), equalTo(0));
+        assertThat(bits.select1(999), equalTo(999));
+        assertThat(bits.select1(1000), equalTo(-1));
+        assertThat(bits.select0(0), equalTo(-1));
+    }
+
+    @Test
+    public void testRankSelectAllClear() throws Exception {
+        RankSelect bits = new RankSelect(empty(513));
+        assertThat(bits.rank0(513), equalTo(513));
+        assertThat(bits.select0(512), equalTo(512));
+        assertThat(bits.select0(513), equalTo(-1));
+        assertThat(bits.select1(0), equalTo(-1));
+    }
+
+    @Test
+    public void testRankSelectRandom() throws Exception {
+        Random random = new Random(42);
+        for (int size : new int[] {1, 63, 64, 65, 511, 512, 513, 4097, 20000}) {
+            for (int density : new int[] {1, 10, 50, 90, 99}) {
+                BitSet bitset = empty(size);
+                for (int i = 0; i < size; i++) {
+                    if (random.nextInt(100) < density) {
+                        bitset.set(i);
+                    }
+                }
+                RankSelect bits = new RankSelect(bitset);
+                int ones = 0;
+                int zeros = 0;
+                for (int i = 0; i < size; i++) {
+                    assertThat(bits.rank1(i), equalTo(ones));
+                    assertThat(bits.rank0(i), equalTo(zeros));
+                    if (bitset.get(i)) {
+                        assertThat(bits.select1(ones), equalTo(i));
+                        ones++;
+                    } else {
+                        assertThat(bits.select0(zeros), equalTo(i));
+                        zeros++;
+                    }
+                }
+                assertThat(bits.rank1(size), equalTo(ones));
+                assertThat(bits.select1(ones), equalTo(-1));
+                assertThat(bits.select0(zeros), equalTo(-1));
+            }
+        }
+    }
+
+}
@@ -261,4 +261,23 @@ public class CaseInsensitiveCharProviderTest {
 		assertThat(provider.finished(1), is(false));
 	}
 
+	@Test
+	public void testPeek() throws Exception {
+		CaseInsensitiveCharProvider provider = new CaseInsensitiveCharProvider(new StringCharProvider("aBCd", 1));
+		char[] buffer = new char[4];
+		assertThat(provider.peek(buffer, 1, 2), equalTo(2));
+		assertThat(new String(buffer, 1, 2), equalTo("bc"));
+		assertThat(provider.current(), equalTo(1l));
+	}
+
+	@Test
+	public void testPeekAtEnd() throws Exception {
+		CaseInsensitiveCharProvider provider = new CaseInsensitiveCharProvider(new StringCharProvider("abcD", 3));
+		char[] buffer = new char[4];
+		assertThat(provider.peek(buffer, 0, 4), equalTo(1));
+		assertThat(buffer[0], equalTo('d'));
+		provider.forward(1);
+		assertThat(provider.peek(buffer, 0, 4), equalTo(0));
+	}
+
 }
@@ -0,0 +1,204 @@
+package net.amygdalum.util.io;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+public class MappedByteProviderTest {
+
+	private static final byte a = (byte) 'a';
+	private static final byte b = (byte) 'b';
+	private static final byte c = (byte) 'c';
+	private static final byte d = (byte) 'd';
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testNextAtBeginning() throws Exception {
+		MappedByteProvider provider = new MappedByteProvider(file("abcd"), 0);
+		assertThat(provider.next(), equalTo(a));
+	}
+
+	@Test
+	public void testNextInMiddle() throws Exception {
+		MappedByteProvider provider = new MappedByteProvider(file("abcd"), 1);
+		assertThat(provider.next(), equalTo(b));
+	}
+
+	@Test
+	public void testNextConsumes() throws Exception {
+		MappedByteProvider provider = new MappedByteProvider(file("abcd"), 0);
+		assertThat(provider.next(), equalTo(a));
+		assertThat(provider.next(), equalTo(b));
+	}
+
+	@Test
+	public void testNextCrossesSegments() throws Exception {
+		MappedByteProvider provider = new MappedByteProvider(file("abcd"), UTF_8, 0, 2);
+		assertThat(provider.next(), equalTo(a));
+		assertThat(provider.next(), equalTo(b));
+		assertThat(provider.next(), equalTo(c));
+		assertThat(provider.next(), equalTo(d));
+		assertThat(provider.finished(), is(true));
+	}
+
+	@Test
+	public void testPrevCrossesSegments() throws Exception {
+		MappedByteProvider provider = new MappedByteProvider(file("abcd"), UTF_8, 3, 2);
+		assertThat(provider.prev(), equalTo(c));
+		assertThat(provider.prev(), equalTo(b));
+		assertThat(provider.prev(), equalTo(a));
+	}
+
+	@Test
+	public void testLookahead() throws Exception {
+		MappedByteProvider provider = new MappedByteProvider(file("abcd"), UTF_8, 1, 2);
+		assertThat(provider.lookahead(), equalTo(b));
+		assertThat(provider.lookahead(2), equalTo(d));
+		assertThat(provider.current(), equalTo(1l));
+	}
+
+	@Test
+	public void testLookbehindFarBehind() throws Exception {
+		MappedByteProvider provider = new MappedByteProvider(file("abcdabcdabcd"), UTF_8, 0, 2);
+		provider.move(11);
+		assertThat(provider.lookbehind(), equalTo(c));
+		assertThat(provider.lookbehind(9), equalTo(b));
+		assertThat(provider.lookbehind(10), equalTo(a));
+		assertThat(provider.current(), equalTo(11l));
+	}
+
+	@Test
+	public void testMoveAndAt() throws Exception {
+		MappedByteProvider provider = new MappedByteProvider(file("abcdabcd"), UTF_8, 0, 4);
+		provider.move(6);
+		assertThat(provider.next(), equalTo(c));
+		assertThat(provider.at(1), equalTo(b));
+		assertThat(provider.at(7), equalTo(d));
+		assertThat(provider.current(), equalTo(7l));
+	}
+
+	@Test
+	public void testAtOutOfBounds() throws Exception {
+		MappedByteProvider provider = new MappedByteProvider(file("abcd"), UTF_8, 0, 2);
+		thrown.expect(IndexOutOfBoundsException.class);
+		provider.at(4);
+	}
+
+	@Test
+	public void testForwardAndFinished() throws Exception {
+		MappedByteProvider provider = new MappedByteProvider(file("abcd"), 0);
+		provider.forward(2);
+		assertThat(provider.finished(), is(false));
+		assertThat(provider.finished(1), is(false));
+		assertThat(provider.finished(2), is(true));
+		provider.finish();
+		assertThat(provider.finished(), is(true));
+	}
+
+	@Test
+	public void testBetweenCrossesSegments() throws Exception {
+		MappedByteProvider provider = new MappedByteProvider(file("abcdabcd"), UTF_8, 0, 2);
+		assertThat(provider.between(1, 7), equalTo("bcdabc".getBytes(UTF_8)));
+		assertThat(provider.between(2, 2), equalTo(new byte[0]));
+	}
+
+	@Test
+	public void testSlice() throws Exception {
+		MappedByteProvider provider = new MappedByteProvider(file("abcdabcd"), UTF_8, 0, 2);
+		assertThat(provider.slice(3, 6).getString(), equalTo("dab"));
+	}
+
+	@Test
+	public void testLength() throws Exception {
+		MappedByteProvider provider = new MappedByteProvider(file("abcdabcd"), UTF_8, 0, 4);
+		assertThat(provider.length(), equalTo(8l));
+	}
+
+	@Test
+	public void testEmptyFile() throws Exception {
+		MappedByteProvider provider = new MappedByteProvider(file(""), 0);
+		assertThat(provider.finished(), is(true));
+		assertThat(provider.length(), equalTo(0l));
+	}
+
+	@Test
+	public void testMarkAndChanged() throws Exception {
+		MappedByteProvider provider = new MappedByteProvider(file("abcd"), 0);
+		provider.mark();
+		assertThat(provider.changed(), is(false));
+		provider.mark();
+		provider.next();
+		assertThat(provider.changed(), is(true));
+		assertThat(provider.changed(), is(false));
+	}
+
+	@Test
+	public void testToString() throws Exception {
+		MappedByteProvider provider = new MappedByteProvider(file("abcd"), UTF_8, 2, 2);
+		assertThat(provider.toString(), equalTo("ab|cd"));
+	}
+
+	@Test
+	public void testIllegalSegmentSize() throws Exception {
+		thrown.expect(IllegalArgumentException.class);
+		new MappedByteProvider(file("abcd"), UTF_8, 0, 3);
+	}
+
+	@Test
+	public void testMissingFile() throws Exception {
+		thrown.expect(IORuntimeException.class);
+		new MappedByteProvider(new File(folder.getRoot(), "missing").toPath(), 0);
+	}
+
+	private Path file(String content) throws IOException {
+		File file = folder.newFile();
+		Files.write(file.toPath(), content.getBytes(UTF_8));
+		return file.toPath();
+	}
+
+	@Test
+	public void testPeek() throws Exception {
+		MappedByteProvider provider = new MappedByteProvider(file("abcd"), 1);
+		byte[] buffer = new byte[4];
+		assertThat(provider.peek(buffer, 1, 2), equalTo(2));
+		assertThat(new String(buffer, 1, 2, UTF_8), equalTo("bc"));
+		assertThat(provider.current(), equalTo(1l));
+	}
+
+	@Test
+	public void testPeekAtEnd() throws Exception {
+		MappedByteProvider provider = new MappedByteProvider(file("abcd"), 3);
+		byte[] buffer = new byte[4];
+		assertThat(provider.peek(buffer, 0, 4), equalTo(1));
+		assertThat(buffer[0], equalTo((byte) 'd'));
+		provider.forward(1);
+		assertThat(provider.peek(buffer, 0, 4), equalTo(0));
+	}
+
+	@Test
+	public void testPeekWithSmallBuffer() throws Exception {
+		MappedByteProvider provider = new MappedByteProvider(file("abcd"), UTF_8, 1, 2);
+		byte[] buffer = new byte[4];
+		assertThat(provider.peek(buffer, 0, 3), equalTo(3));
+		assertThat(new String(buffer, 0, 3, UTF_8), equalTo("bcd"));
+		provider.forward(3);
+		assertThat(provider.finished(), is(true));
+	}
+
+}
@@ -0,0 +1,176 @@
+package net.amygdalum.util.io;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.InputStream;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class PrefetchInputStreamTest {
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	@Test
+	public void testReadAll() throws Exception {
+		PrefetchInputStream input = new PrefetchInputStream(new ByteArrayInputStream("abcdefghij".getBytes(UTF_8)), 3, 2);
+
+		assertThat(readAll(input, 4), equalTo("abcdefghij"));
+	}
+
+	@Test
+	public void testReadFillsBuffer() throws Exception {
+		PrefetchInputStream input = new PrefetchInputStream(new TricklingInputStream("abcdefghij".getBytes(UTF_8)), 4, 2);
+
+		byte[] buffer = new byte[6];
+		assertThat(input.read(buffer), equalTo(6));
+		assertThat(new String(buffer, UTF_8), equalTo("abcdef"));
+		assertThat(input.read(buffer), equalTo(4));
+		assertThat(input.read(buffer), equalTo(-1));
+		assertThat(input.read(buffer), equalTo(-1));
+	}
+
+	@Test
+	public void testReadSingleBytes() throws Exception {
+		PrefetchInputStream input = new PrefetchInputStream(new ByteArrayInputStream("ab".getBytes(UTF_8)), 1, 1);
+
+		assertThat(input.read(), equalTo((int) 'a'));
+		assertThat(input.read(), equalTo((int) 'b'));
+		assertThat(input.read(), equalTo(-1));
+	}
+
+	@Test
+	public void testReadEmpty() throws Exception {
+		PrefetchInputStream input = new PrefetchInputStream(new ByteArrayInputStream(new byte[0]), 4, 2);
+
+		assertThat(input.read(new byte[4]), equalTo(-1));
+	}
+
+	@Test
+	public void testReadPropagatesIOException() throws Exception {
+		PrefetchInputStream input = new PrefetchInputStream(new FailingInputStream(), 4, 2);
+
+		thrown.expect(IOException.class);
+		thrown.expectMessage("failed");
+		input.read(new byte[4]);
+	}
+
+	@Test(timeout = 5000)
+	public void testReadPropagatesRuntimeException() throws Exception {
+		PrefetchInputStream input = new PrefetchInputStream(new BrokenInputStream(), 4, 2);
+
+		thrown.expect(IOException.class);
+		thrown.expectCause(instanceOf(IllegalStateException.class));
+		input.read(new byte[4]);
+	}
+
+	@Test(timeout = 5000)
+	public void testCloseWakesBlockedRead() throws Exception {
+		PrefetchInputStream input = new PrefetchInputStream(new BlockingInputStream(), 4, 2);
+		Thread closing = new Thread(() -> {
+			try {
+				Thread.sleep(100);
+				input.close();
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+		});
+		closing.start();
+
+		thrown.expect(IOException.class);
+		thrown.expectMessage("stream closed");
+		input.read(new byte[4]);
+	}
+
+	@Test
+	public void testStreamByteProviderWithPrefetch() throws Exception {
+		StreamByteProvider provider = new StreamByteProvider(new ByteArrayInputStream("abcdefghij".getBytes(UTF_8)), UTF_8, 0, 2, 2, 2);
+
+		StringBuilder read = new StringBuilder();
+		while (!provider.finished()) {
+			read.append((char) provider.next());
+		}
+		assertThat(read.toString(), equalTo("abcdefghij"));
+		assertThat(provider.lookbehind(3), equalTo((byte) 'g'));
+	}
+
+	@Test
+	public void testStreamByteProviderWithPrefetchPropagatesIOException() throws Exception {
+		thrown.expect(IORuntimeException.class);
+		new StreamByteProvider(new FailingInputStream(), UTF_8, 0, 2, 2, 2);
+	}
+
+	private static String readAll(InputStream input, int size) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[size];
+		int read = input.read(buffer);
+		while (read >= 0) {
+			out.write(buffer, 0, read);
+			read = input.read(buffer);
+		}
+		return new String(out.toByteArray(), UTF_8);
+	}
+
+	private static class TricklingInputStream extends ByteArrayInputStream {
+
+		TricklingInputStream(byte[] bytes) {
+			super(bytes);
+		}
+
+		@Override
+		public synchronized int read(byte[] b, int off, int len) {
+			return super.read(b, off, Math.min(len, 1));
+		}
+
+	}
+
+	private static class FailingInputStream extends InputStream {
+
+		@Override
+		public int read() throws IOException {
+			throw new IOException("failed");
+		}
+
+	}
+
+	private static class BrokenInputStream extends InputStream {
+
+		@Override
+		public int read() throws IOException {
+			throw new IllegalStateException("broken");
+		}
+
+	}
+
+	private static class BlockingInputStream extends InputStream {
+
+		private CountDownLatch closed = new CountDownLatch(1);
+
+		@Override
+		public int read() throws IOException {
+			try {
+				closed.await();
+			} catch (InterruptedException e) {
+				throw new InterruptedIOException();
+			}
+			return -1;
+		}
+
+		@Override
+		public void close() throws IOException {
+			closed.countDown();
+		}
+
+	}
+
+}
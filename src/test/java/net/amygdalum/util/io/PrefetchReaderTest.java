@@ -0,0 +1,182 @@
+package net.amygdalum.util.io;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class PrefetchReaderTest {
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	@Test
+	public void testReadAll() throws Exception {
+		PrefetchReader input = new PrefetchReader(new StringReader("abcdefghij"), 3, 2);
+
+		assertThat(readAll(input, 4), equalTo("abcdefghij"));
+	}
+
+	@Test
+	public void testReadFillsBuffer() throws Exception {
+		PrefetchReader input = new PrefetchReader(new TricklingReader("abcdefghij"), 4, 2);
+
+		char[] buffer = new char[6];
+		assertThat(input.read(buffer), equalTo(6));
+		assertThat(new String(buffer), equalTo("abcdef"));
+		assertThat(input.read(buffer), equalTo(4));
+		assertThat(input.read(buffer), equalTo(-1));
+		assertThat(input.read(buffer), equalTo(-1));
+	}
+
+	@Test
+	public void testReadSingleBytes() throws Exception {
+		PrefetchReader input = new PrefetchReader(new StringReader("ab"), 1, 1);
+
+		assertThat(input.read(), equalTo((int) 'a'));
+		assertThat(input.read(), equalTo((int) 'b'));
+		assertThat(input.read(), equalTo(-1));
+	}
+
+	@Test
+	public void testReadEmpty() throws Exception {
+		PrefetchReader input = new PrefetchReader(new StringReader(""), 4, 2);
+
+		assertThat(input.read(new char[4]), equalTo(-1));
+	}
+
+	@Test
+	public void testReadPropagatesIOException() throws Exception {
+		PrefetchReader input = new PrefetchReader(new FailingReader(), 4, 2);
+
+		thrown.expect(IOException.class);
+		thrown.expectMessage("failed");
+		input.read(new char[4]);
+	}
+
+	@Test(timeout = 5000)
+	public void testReadPropagatesRuntimeException() throws Exception {
+		PrefetchReader input = new PrefetchReader(new BrokenReader(), 4, 2);
+
+		thrown.expect(IOException.class);
+		thrown.expectCause(instanceOf(IllegalStateException.class));
+		input.read(new char[4]);
+	}
+
+	@Test(timeout = 5000)
+	public void testCloseWakesBlockedRead() throws Exception {
+		PrefetchReader input = new PrefetchReader(new BlockingReader(), 4, 2);
+		Thread closing = new Thread(() -> {
+			try {
+				Thread.sleep(100);
+				input.close();
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+		});
+		closing.start();
+
+		thrown.expect(IOException.class);
+		thrown.expectMessage("reader closed");
+		input.read(new char[4]);
+	}
+
+	@Test
+	public void testReaderCharProviderWithPrefetch() throws Exception {
+		ReaderCharProvider provider = new ReaderCharProvider(new StringReader("abcdefghij"), 0, 2, 2, 2);
+
+		StringBuilder read = new StringBuilder();
+		while (!provider.finished()) {
+			read.append(provider.next());
+		}
+		assertThat(read.toString(), equalTo("abcdefghij"));
+		assertThat(provider.lookbehind(3), equalTo('g'));
+	}
+
+	@Test
+	public void testReaderCharProviderWithPrefetchPropagatesIOException() throws Exception {
+		thrown.expect(IORuntimeException.class);
+		new ReaderCharProvider(new FailingReader(), 0, 2, 2, 2);
+	}
+
+	private static String readAll(Reader input, int size) throws IOException {
+		StringBuilder out = new StringBuilder();
+		char[] buffer = new char[size];
+		int read = input.read(buffer);
+		while (read >= 0) {
+			out.append(buffer, 0, read);
+			read = input.read(buffer);
+		}
+		return out.toString();
+	}
+
+	private static class TricklingReader extends StringReader {
+
+		TricklingReader(String s) {
+			super(s);
+		}
+
+		@Override
+		public int read(char[] cbuf, int off, int len) throws IOException {
+			return super.read(cbuf, off, Math.min(len, 1));
+		}
+
+	}
+
+	private static class FailingReader extends Reader {
+
+		@Override
+		public int read(char[] cbuf, int off, int len) throws IOException {
+			throw new IOException("failed");
+		}
+
+		@Override
+		public void close() throws IOException {
+		}
+
+	}
+
+	private static class BrokenReader extends Reader {
+
+		@Override
+		public int read(char[] cbuf, int off, int len) throws IOException {
+			throw new IllegalStateException("broken");
+		}
+
+		@Override
+		public void close() throws IOException {
+		}
+
+	}
+
+	private static class BlockingReader extends Reader {
+
+		private CountDownLatch closed = new CountDownLatch(1);
+
+		@Override
+		public int read(char[] cbuf, int off, int len) throws IOException {
+			try {
+				closed.await();
+			} catch (InterruptedException e) {
+				throw new InterruptedIOException();
+			}
+			return -1;
+		}
+
+		@Override
+		public void close() throws IOException {
+			closed.countDown();
+		}
+
+	}
+
+}
@@ -459,4 +459,33 @@ public class ReaderCharProviderTest {
 		assertThat(provider.finished(1), is(true));
 	}
 
+	@Test
+	public void testPeek() throws Exception {
+		ReaderCharProvider provider = new ReaderCharProvider(new StringReader("abcd"), 1, 4, 1);
+		char[] buffer = new char[4];
+		assertThat(provider.peek(buffer, 1, 2), equalTo(2));
+		assertThat(new String(buffer, 1, 2), equalTo("bc"));
+		assertThat(provider.current(), equalTo(1l));
+	}
+
+	@Test
+	public void testPeekAtEnd() throws Exception {
+		ReaderCharProvider provider = new ReaderCharProvider(new StringReader("abcd"), 3, 4, 1);
+		char[] buffer = new char[4];
+		assertThat(provider.peek(buffer, 0, 4), equalTo(1));
+		assertThat(buffer[0], equalTo('d'));
+		provider.forward(1);
+		assertThat(provider.peek(buffer, 0, 4), equalTo(0));
+	}
+
+	@Test
+	public void testPeekWithSmallBuffer() throws Exception {
+		ReaderCharProvider provider = new ReaderCharProvider(new StringReader("abcd"), 1, 1, 3);
+		char[] buffer = new char[4];
+		assertThat(provider.peek(buffer, 0, 3), equalTo(3));
+		assertThat(new String(buffer, 0, 3), equalTo("bcd"));
+		provider.forward(3);
+		assertThat(provider.finished(), is(true));
+	}
+
 }
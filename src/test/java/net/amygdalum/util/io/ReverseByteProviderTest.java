@@ -1,5 +1,6 @@
 package net.amygdalum.util.io;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
@@ -239,4 +240,24 @@ public class ReverseByteProviderTest {
 		assertThat(provider.finished(1), is(false));
 	}
 
+	@Test
+	public void testPeek() throws Exception {
+		ReverseByteProvider provider = new ReverseByteProvider(new StringByteProvider("dcba", 3, UTF_8));
+		byte[] buffer = new byte[4];
+		assertThat(provider.peek(buffer, 1, 2), equalTo(2));
+		assertThat(new String(buffer, 1, 2, UTF_8), equalTo("bc"));
+		assertThat(provider.current(), equalTo(3l));
+		assertThat(provider.next(), equalTo((byte) 'b'));
+	}
+
+	@Test
+	public void testPeekAtEnd() throws Exception {
+		ReverseByteProvider provider = new ReverseByteProvider(new StringByteProvider("dcba", 1, UTF_8));
+		byte[] buffer = new byte[4];
+		assertThat(provider.peek(buffer, 0, 4), equalTo(1));
+		assertThat(buffer[0], equalTo((byte) 'd'));
+		provider.forward(1);
+		assertThat(provider.peek(buffer, 0, 4), equalTo(0));
+	}
+
 }
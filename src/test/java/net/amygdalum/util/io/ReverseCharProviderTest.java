@@ -213,5 +213,25 @@ public class ReverseCharProviderTest {
 		assertThat(provider.finished(2), is(false));
 		assertThat(provider.finished(1), is(false));
 	}
-	
+
+	@Test
+	public void testPeek() throws Exception {
+		ReverseCharProvider provider = new ReverseCharProvider(new StringCharProvider("dcba", 3));
+		char[] buffer = new char[4];
+		assertThat(provider.peek(buffer, 1, 2), equalTo(2));
+		assertThat(new String(buffer, 1, 2), equalTo("bc"));
+		assertThat(provider.current(), equalTo(3l));
+		assertThat(provider.next(), equalTo('b'));
+	}
+
+	@Test
+	public void testPeekAtEnd() throws Exception {
+		ReverseCharProvider provider = new ReverseCharProvider(new StringCharProvider("dcba", 1));
+		char[] buffer = new char[4];
+		assertThat(provider.peek(buffer, 0, 4), equalTo(1));
+		assertThat(buffer[0], equalTo('d'));
+		provider.forward(1);
+		assertThat(provider.peek(buffer, 0, 4), equalTo(0));
+	}
+
 }
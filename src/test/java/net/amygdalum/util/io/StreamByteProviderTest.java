@@ -465,4 +465,33 @@ public class StreamByteProviderTest {
 		assertThat(provider.finished(1), is(true));
 	}
 
+	@Test
+	public void testPeek() throws Exception {
+		StreamByteProvider provider = new StreamByteProvider(new ByteArrayInputStream("abcd".getBytes(UTF_8)), 1, 4, 1);
+		byte[] buffer = new byte[4];
+		assertThat(provider.peek(buffer, 1, 2), equalTo(2));
+		assertThat(new String(buffer, 1, 2, UTF_8), equalTo("bc"));
+		assertThat(provider.current(), equalTo(1l));
+	}
+
+	@Test
+	public void testPeekAtEnd() throws Exception {
+		StreamByteProvider provider = new StreamByteProvider(new ByteArrayInputStream("abcd".getBytes(UTF_8)), 3, 4, 1);
+		byte[] buffer = new byte[4];
+		assertThat(provider.peek(buffer, 0, 4), equalTo(1));
+		assertThat(buffer[0], equalTo((byte) 'd'));
+		provider.forward(1);
+		assertThat(provider.peek(buffer, 0, 4), equalTo(0));
+	}
+
+	@Test
+	public void testPeekWithSmallBuffer() throws Exception {
+		StreamByteProvider provider = new StreamByteProvider(new ByteArrayInputStream("abcd".getBytes(UTF_8)), 1, 1, 3);
+		byte[] buffer = new byte[4];
+		assertThat(provider.peek(buffer, 0, 3), equalTo(3));
+		assertThat(new String(buffer, 0, 3, UTF_8), equalTo("bcd"));
+		provider.forward(3);
+		assertThat(provider.finished(), is(true));
+	}
+
 }
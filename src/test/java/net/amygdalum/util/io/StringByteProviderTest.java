@@ -348,4 +348,23 @@ public class StringByteProviderTest {
 		return encoded.get(i);
 	}
 
+	@Test
+	public void testPeek() throws Exception {
+		StringByteProvider provider = new StringByteProvider("abcd", 1, UTF_8);
+		byte[] buffer = new byte[4];
+		assertThat(provider.peek(buffer, 1, 2), equalTo(2));
+		assertThat(new String(buffer, 1, 2, UTF_8), equalTo("bc"));
+		assertThat(provider.current(), equalTo(1l));
+	}
+
+	@Test
+	public void testPeekAtEnd() throws Exception {
+		StringByteProvider provider = new StringByteProvider("abcd", 3, UTF_8);
+		byte[] buffer = new byte[4];
+		assertThat(provider.peek(buffer, 0, 4), equalTo(1));
+		assertThat(buffer[0], equalTo((byte) 'd'));
+		provider.forward(1);
+		assertThat(provider.peek(buffer, 0, 4), equalTo(0));
+	}
+
 }
@@ -219,4 +219,23 @@ public class StringCharProviderTest {
 		assertThat(provider.finished(1), is(false));
 	}
 
+	@Test
+	public void testPeek() throws Exception {
+		StringCharProvider provider = new StringCharProvider("abcd", 1);
+		char[] buffer = new char[4];
+		assertThat(provider.peek(buffer, 1, 2), equalTo(2));
+		assertThat(new String(buffer, 1, 2), equalTo("bc"));
+		assertThat(provider.current(), equalTo(1l));
+	}
+
+	@Test
+	public void testPeekAtEnd() throws Exception {
+		StringCharProvider provider = new StringCharProvider("abcd", 3);
+		char[] buffer = new char[4];
+		assertThat(provider.peek(buffer, 0, 4), equalTo(1));
+		assertThat(buffer[0], equalTo('d'));
+		provider.forward(1);
+		assertThat(provider.peek(buffer, 0, 4), equalTo(0));
+	}
+
 }
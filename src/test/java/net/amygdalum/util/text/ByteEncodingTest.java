@@ -1,12 +1,17 @@
 package net.amygdalum.util.text;
 
 import static com.almondtools.conmatch.datatypes.PrimitiveArrayMatcher.byteArrayContaining;
+import static java.nio.charset.StandardCharsets.UTF_16BE;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static net.amygdalum.util.text.ByteEncoding.encode;
+import static net.amygdalum.util.text.ByteEncoding.getPartitioningFor;
 import static net.amygdalum.util.text.ByteEncoding.intervals;
+import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.Matchers.contains;
 import static org.junit.Assert.assertThat;
 
+import java.util.List;
+
 import org.junit.Test;
 
 public class ByteEncodingTest {
@@ -56,4 +61,19 @@ public class ByteEncodingTest {
 			));
 	}
 
+	@Test
+	public void testPartitioningForUTF16BE() throws Exception {
+		List<ByteRange> partitioning = getPartitioningFor(UTF_16BE);
+
+		assertThat(partitioning.size(), equalTo(3));
+		assertThat(partitioning.get(0).from, byteArrayContaining((byte) 0x00, (byte) 0x00));
+		assertThat(partitioning.get(0).to, byteArrayContaining((byte) 0xd7, (byte) 0xff));
+		assertThat(partitioning.get(0).size(), equalTo(0xd800));
+		assertThat(partitioning.get(1).length, equalTo(0));
+		assertThat(partitioning.get(1).size(), equalTo(0x800));
+		assertThat(partitioning.get(2).from, byteArrayContaining((byte) 0xe0, (byte) 0x00));
+		assertThat(partitioning.get(2).to, byteArrayContaining((byte) 0xff, (byte) 0xff));
+		assertThat(partitioning.get(2).size(), equalTo(0x2000));
+	}
+
 }
@@ -8,29 +8,29 @@ import static net.amygdalum.util.text.ByteFallbackAdaptor.setFallback;
 import java.util.ArrayList;
 import java.util.List;
 
-public class ByteFallbackLinks implements ByteTask<String> {
+public class ByteFallbackLinks<T> implements ByteTask<T> {
 
-	private ByteNode<String> root;
+	private ByteNode<T> root;
 
 	@Override
-	public List<ByteNode<String>> init(ByteNode<String> root) {
+	public List<ByteNode<T>> init(ByteNode<T> root) {
 		this.root = root;
 		setFallback(root, null);
 		return asList(root);
 	}
 
 	@Override
-	public List<ByteNode<String>> process(ByteNode<String> node) {
-		List<ByteNode<String>> nexts = new ArrayList<>();
+	public List<ByteNode<T>> process(ByteNode<T> node) {
+		List<ByteNode<T>> nexts = new ArrayList<>();
 		for (byte b : node.getAlternatives()) {
-			ByteNode<String> next = node.nextNode(b);
-			ByteNode<String> down = getFallback(node);
+			ByteNode<T> next = node.nextNode(b);
+			ByteNode<T> down = getFallback(node);
 			nextdown: while (down != null) {
-				ByteNode<String> nextNode = down.nextNode(b);
+				ByteNode<T> nextNode = down.nextNode(b);
 				if (nextNode != null) {
 					setFallback(next, nextNode);
 					if (next.getAttached() == null) {
-						String attachment = nextNode.getAttached();
+						T attachment = nextNode.getAttached();
 						if (attachment != null) {
 							attach(next, attachment);
 						}
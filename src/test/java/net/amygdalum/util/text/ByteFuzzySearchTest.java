@@ -0,0 +1,167 @@
+package net.amygdalum.util.text;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import net.amygdalum.util.text.doublearraytrie.DoubleArrayByteCompactTrieCompiler;
+import net.amygdalum.util.text.doublearraytrie.DoubleArrayByteFallbackTrieCompiler;
+import net.amygdalum.util.text.linkeddawg.FlatByteDawgCompiler;
+import net.amygdalum.util.text.linkeddawg.LinkedByteDawgCompiler;
+import net.amygdalum.util.text.linkeddawg.LinkedByteFallbackDawgCompiler;
+import net.amygdalum.util.text.louds.LoudsByteTrieCompiler;
+
+public class ByteFuzzySearchTest {
+
+	@Test
+	public void testExactMatch() throws Exception {
+		for (ByteWordSet<String> words : wordSets("bachelor", "baby", "badge", "jar")) {
+			ByteFuzzySearch<String> search = new ByteFuzzySearch<>(words);
+
+			assertThat(search.search("baby".getBytes(UTF_8), 0), contains(new FuzzyMatch<>("baby", 0)));
+			assertThat(search.search("bab".getBytes(UTF_8), 0), empty());
+		}
+	}
+
+	@Test
+	public void testEditOperations() throws Exception {
+		for (ByteWordSet<String> words : wordSets("bachelor", "baby", "badge", "bad", "jar")) {
+			ByteFuzzySearch<String> search = new ByteFuzzySearch<>(words);
+
+			assertThat(search.search("bady".getBytes(UTF_8), 1), contains(
+				new FuzzyMatch<>("baby", 1),
+				new FuzzyMatch<>("bad", 1)));
+			assertThat(search.search("badges".getBytes(UTF_8), 1), contains(
+				new FuzzyMatch<>("badge", 1)));
+			assertThat(search.search("bachlor".getBytes(UTF_8), 1), contains(
+				new FuzzyMatch<>("bachelor", 1)));
+			assertThat(search.search("jbr".getBytes(UTF_8), 1), contains(
+				new FuzzyMatch<>("jar", 1)));
+			assertThat(search.search("bade".getBytes(UTF_8), 1), contains(
+				new FuzzyMatch<>("bad", 1),
+				new FuzzyMatch<>("badge", 1)));
+			assertThat(search.search("bade".getBytes(UTF_8), 2), contains(
+				new FuzzyMatch<>("baby", 2),
+				new FuzzyMatch<>("bad", 1),
+				new FuzzyMatch<>("badge", 1)));
+		}
+	}
+
+	@Test
+	public void testEmptyWords() throws Exception {
+		for (ByteWordSet<String> words : wordSets("", "a", "abc")) {
+			ByteFuzzySearch<String> search = new ByteFuzzySearch<>(words);
+
+			assertThat(search.search("".getBytes(UTF_8), 1), contains(
+				new FuzzyMatch<>("", 0),
+				new FuzzyMatch<>("a", 1)));
+			assertThat(search.search("b".getBytes(UTF_8), 1), contains(
+				new FuzzyMatch<>("", 1),
+				new FuzzyMatch<>("a", 1)));
+		}
+	}
+
+	@Test
+	public void testSearchIsReusable() throws Exception {
+		ByteFuzzySearch<String> search = new ByteFuzzySearch<>(build(new DoubleArrayByteCompactTrieCompiler<String>(), "abc", "abcdefghijklmnopqrstuvwxyz"));
+
+		assertThat(search.search("abcdefghijklmnopqrstuvwxy".getBytes(UTF_8), 1), contains(new FuzzyMatch<>("abcdefghijklmnopqrstuvwxyz", 1)));
+		assertThat(search.search("ab".getBytes(UTF_8), 1), contains(new FuzzyMatch<>("abc", 1)));
+	}
+
+	@Test
+	public void testEqualToBruteForce() throws Exception {
+		Random random = new Random(42);
+		String[] dictionary = new String[1000];
+		for (int i = 0; i < dictionary.length; i++) {
+			dictionary[i] = randomWord(random);
+		}
+		for (ByteWordSet<String> words : wordSets(dictionary)) {
+			ByteFuzzySearch<String> search = new ByteFuzzySearch<>(words);
+			for (int i = 0; i < 100; i++) {
+				String word = randomWord(random);
+				int maxDistance = random.nextInt(4);
+				List<FuzzyMatch<String>> expected = new ArrayList<>();
+				for (String candidate : distinctSorted(dictionary)) {
+					int distance = distance(word, candidate);
+					if (distance <= maxDistance) {
+						expected.add(new FuzzyMatch<>(candidate, distance));
+					}
+				}
+				assertThat(word + "~" + maxDistance, search.search(word.getBytes(UTF_8), maxDistance), equalTo(expected));
+			}
+		}
+	}
+
+	private static String randomWord(Random random) {
+		char[] word = new char[random.nextInt(9)];
+		for (int j = 0; j < word.length; j++) {
+			word[j] = (char) ('a' + random.nextInt(5));
+		}
+		return new String(word);
+	}
+
+	private static List<String> distinctSorted(String[] words) {
+		List<String> distinct = new ArrayList<>();
+		for (String word : words) {
+			if (!distinct.contains(word)) {
+				distinct.add(word);
+			}
+		}
+		distinct.sort(null);
+		return distinct;
+	}
+
+	private static int distance(String s, String t) {
+		int[] prev = new int[t.length() + 1];
+		int[] next = new int[t.length() + 1];
+		for (int j = 0; j <= t.length(); j++) {
+			prev[j] = j;
+		}
+		for (int i = 1; i <= s.length(); i++) {
+			next[0] = i;
+			for (int j = 1; j <= t.length(); j++) {
+				int cost = s.charAt(i - 1) == t.charAt(j - 1) ? 0 : 1;
+				next[j] = Math.min(Math.min(prev[j] + 1, next[j - 1] + 1), prev[j - 1] + cost);
+			}
+			int[] swap = prev;
+			prev = next;
+			next = swap;
+		}
+		return prev[t.length()];
+	}
+
+	private static List<ByteWordSet<String>> wordSets(String... words) {
+		List<ByteWordSet<String>> wordSets = new ArrayList<>();
+		wordSets.add(build(new DoubleArrayByteCompactTrieCompiler<String>(), words));
+		wordSets.add(build(new DoubleArrayByteFallbackTrieCompiler<String>(), words));
+		wordSets.add(build(new LinkedByteDawgCompiler<String>(), words));
+		wordSets.add(build(new LinkedByteFallbackDawgCompiler<String>(), words));
+		wordSets.add(build(new FlatByteDawgCompiler<String>(), words));
+		wordSets.add(build(new LoudsByteTrieCompiler<String>(), words));
+		String[] sorted = distinctSorted(words).toArray(new String[0]);
+		ByteMinimalDawgBuilder<String, ByteDawg<String>> minimal = new ByteMinimalDawgBuilder<>(new LinkedByteDawgCompiler<String>());
+		for (String word : sorted) {
+			minimal.extend(word.getBytes(UTF_8), word);
+		}
+		wordSets.add(minimal.build());
+		return wordSets;
+	}
+
+	private static <R extends ByteWordSet<String>> R build(ByteWordGraphCompiler<String, R> compiler, String... words) {
+		ByteWordSetBuilder<String, R> builder = new ByteWordSetBuilder<>(compiler);
+		for (String word : words) {
+			builder.extend(word.getBytes(UTF_8), word);
+		}
+		return builder.build();
+	}
+
+}
@@ -0,0 +1,165 @@
+package net.amygdalum.util.text;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import net.amygdalum.util.text.linkeddawg.ByteGenericNode;
+import net.amygdalum.util.text.linkeddawg.LinkedByteDawgCompiler;
+
+public class ByteMinimalDawgBuilderTest {
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	@Test
+	public void testFind() throws Exception {
+		ByteDawg<String> dawg = new ByteMinimalDawgBuilder<>(new LinkedByteDawgCompiler<String>())
+			.extend("baby".getBytes("UTF-8"), "Baby")
+			.extend("bachelor".getBytes("UTF-8"), "Bachelor")
+			.extend("badge".getBytes("UTF-8"), "Badge")
+			.extend("jar".getBytes("UTF-8"), "Jar")
+			.build();
+
+		assertThat(dawg.find("bachelor".getBytes("UTF-8")), equalTo("Bachelor"));
+		assertThat(dawg.find("jar".getBytes("UTF-8")), equalTo("Jar"));
+		assertThat(dawg.find("badge".getBytes("UTF-8")), equalTo("Badge"));
+		assertThat(dawg.find("baby".getBytes("UTF-8")), equalTo("Baby"));
+		assertThat(dawg.find("bab".getBytes("UTF-8")), nullValue());
+	}
+
+	@Test
+	public void testSharesSuffixes() throws Exception {
+		ByteNode<Boolean> root = new ByteMinimalDawgBuilder<>(new GraphCompiler<Boolean>())
+			.extend("tap".getBytes("UTF-8"), true)
+			.extend("taps".getBytes("UTF-8"), true)
+			.extend("top".getBytes("UTF-8"), true)
+			.extend("tops".getBytes("UTF-8"), true)
+			.build();
+
+		ByteNode<Boolean> ta = root.nextNode((byte) 't').nextNode((byte) 'a');
+		ByteNode<Boolean> to = root.nextNode((byte) 't').nextNode((byte) 'o');
+		assertThat(ta, sameInstance(to));
+		assertThat(ta.nextNode((byte) 'p').getAttached(), equalTo(true));
+		assertThat(ta.nextNode((byte) 'p').nextNode((byte) 's').getAttached(), equalTo(true));
+	}
+
+	@Test
+	public void testDoesNotShareSuffixesWithDifferentAttachments() throws Exception {
+		ByteNode<String> root = new ByteMinimalDawgBuilder<>(new GraphCompiler<String>())
+			.extend("ab".getBytes("UTF-8"), "AB")
+			.extend("cb".getBytes("UTF-8"), "CB")
+			.build();
+
+		assertThat(root.nextNode((byte) 'a'), not(sameInstance(root.nextNode((byte) 'c'))));
+		assertThat(root.nextNode((byte) 'a').nextNode((byte) 'b').getAttached(), equalTo("AB"));
+		assertThat(root.nextNode((byte) 'c').nextNode((byte) 'b').getAttached(), equalTo("CB"));
+	}
+
+	@Test
+	public void testEqualWordsAreJoined() throws Exception {
+		ByteDawg<String> dawg = new ByteMinimalDawgBuilder<>(new LinkedByteDawgCompiler<String>(), (existing, next) -> existing == null ? next : existing + next)
+			.extend("".getBytes("UTF-8"), "Empty")
+			.extend("ab".getBytes("UTF-8"), "1")
+			.extend("ab".getBytes("UTF-8"), "2")
+			.extend("abc".getBytes("UTF-8"), "3")
+			.build();
+
+		assertThat(dawg.find("".getBytes("UTF-8")), equalTo("Empty"));
+		assertThat(dawg.find("ab".getBytes("UTF-8")), equalTo("12"));
+		assertThat(dawg.find("abc".getBytes("UTF-8")), equalTo("3"));
+	}
+
+	@Test
+	public void testUnsortedWords() throws Exception {
+		ByteMinimalDawgBuilder<String, ByteDawg<String>> builder = new ByteMinimalDawgBuilder<>(new LinkedByteDawgCompiler<String>())
+			.extend("b".getBytes("UTF-8"), "B");
+
+		thrown.expect(IllegalArgumentException.class);
+		builder.extend("a".getBytes("UTF-8"), "A");
+	}
+
+	@Test
+	public void testPrefixAfterWord() throws Exception {
+		ByteMinimalDawgBuilder<String, ByteDawg<String>> builder = new ByteMinimalDawgBuilder<>(new LinkedByteDawgCompiler<String>())
+			.extend("ab".getBytes("UTF-8"), "AB");
+
+		thrown.expect(IllegalArgumentException.class);
+		builder.extend("a".getBytes("UTF-8"), "A");
+	}
+
+	@Test
+	public void testEqualToSequentialBuilder() throws Exception {
+		Random random = new Random(42);
+		List<String> words = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			byte[] word = new byte[1 + random.nextInt(8)];
+			for (int j = 0; j < word.length; j++) {
+				word[j] = (byte) ('a' + random.nextInt(6));
+			}
+			words.add(new String(word, "UTF-8"));
+		}
+		words.sort(null);
+		ByteMinimalDawgBuilder<String, ByteDawg<String>> minimalBuilder = new ByteMinimalDawgBuilder<>(new LinkedByteDawgCompiler<String>(), (existing, next) -> next);
+		ByteWordSetBuilder<String, ByteDawg<String>> builder = new ByteWordSetBuilder<>(new LinkedByteDawgCompiler<String>());
+		for (String word : words) {
+			minimalBuilder.extend(word.getBytes("UTF-8"), word.substring(word.length() - 1));
+			builder.extend(word.getBytes("UTF-8"), word.substring(word.length() - 1));
+		}
+		ByteDawg<String> minimalDawg = minimalBuilder.build();
+		ByteDawg<String> dawg = builder.build();
+
+		for (int i = 0; i < 2000; i++) {
+			byte[] word = new byte[1 + random.nextInt(8)];
+			for (int j = 0; j < word.length; j++) {
+				word[j] = (byte) ('a' + random.nextInt(6));
+			}
+			assertThat(minimalDawg.find(word), equalTo(dawg.find(word)));
+		}
+	}
+
+	private static class GraphCompiler<T> implements ByteWordGraphCompiler<T, ByteNode<T>> {
+
+		@Override
+		public ByteNode<T> create() {
+			return new ByteGenericNode<>();
+		}
+
+		@Override
+		public ByteNode<T> build(ByteNode<T> node) {
+			return node;
+		}
+
+		@Override
+		public NodeResolver<ByteNode<T>> resolver() {
+			return new NodeResolver<ByteNode<T>>() {
+
+				@Override
+				public void compile(ByteNode<T> node) {
+				}
+
+				@Override
+				public void link(ByteNode<T> node) {
+				}
+
+				@Override
+				public ByteNode<T> resolve(ByteNode<T> node) {
+					return node;
+				}
+
+			};
+		}
+
+	}
+
+}
@@ -0,0 +1,123 @@
+package net.amygdalum.util.text;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import net.amygdalum.util.io.IORuntimeException;
+import net.amygdalum.util.text.doublearraytrie.DoubleArrayByteFallbackTrieCompiler;
+
+public class ByteParallelSearchTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	@Test
+	public void testSearchAcrossSegments() throws Exception {
+		ByteWordSet<String> words = words("he", "she", "his", "hers");
+
+		ByteParallelSearch<String> search = new ByteParallelSearch<>(words, 4, ForkJoinPool.commonPool(), 3, 1);
+
+		assertThat(search.search("ushers".getBytes(UTF_8)), contains(
+			new WordMatch<>(4, "she"),
+			new WordMatch<>(4, "he"),
+			new WordMatch<>(6, "hers")));
+	}
+
+	@Test
+	public void testSearchEmpty() throws Exception {
+		ByteWordSet<String> words = words("he", "she");
+
+		ByteParallelSearch<String> search = new ByteParallelSearch<>(words, 3, ForkJoinPool.commonPool(), 3, 1);
+
+		assertThat(search.search(new byte[0]), empty());
+	}
+
+	@Test
+	public void testSearchFile() throws Exception {
+		ByteWordSet<String> words = words("he", "she", "his", "hers");
+
+		ByteParallelSearch<String> search = new ByteParallelSearch<>(words, 4, ForkJoinPool.commonPool(), 3, 1);
+
+		assertThat(search.search(file("ushers")), contains(
+			new WordMatch<>(4, "she"),
+			new WordMatch<>(4, "he"),
+			new WordMatch<>(6, "hers")));
+	}
+
+	@Test
+	public void testSearchMissingFile() throws Exception {
+		ByteWordSet<String> words = words("he", "she");
+
+		ByteParallelSearch<String> search = new ByteParallelSearch<>(words, 3);
+
+		thrown.expect(IORuntimeException.class);
+		search.search(new File(folder.getRoot(), "missing").toPath());
+	}
+
+	@Test
+	public void testEqualToSingleSegment() throws Exception {
+		Random random = new Random(42);
+		String[] patterns = new String[40];
+		for (int i = 0; i < patterns.length; i++) {
+			patterns[i] = randomString(random, 1 + random.nextInt(6));
+		}
+		ByteWordSet<String> words = words(patterns);
+		String text = randomString(random, 5000);
+
+		List<WordMatch<String>> expected = new ByteParallelSearch<>(words, 6, ForkJoinPool.commonPool(), 1, 1).search(text.getBytes(UTF_8));
+		for (int segments : new int[] { 2, 7, 64, 5000 }) {
+			ByteParallelSearch<String> search = new ByteParallelSearch<>(words, 6, ForkJoinPool.commonPool(), segments, 1);
+
+			assertThat(search.search(text.getBytes(UTF_8)), equalTo(expected));
+			assertThat(search.search(file(text)), equalTo(expected));
+		}
+	}
+
+	private Path file(String content) throws Exception {
+		File file = folder.newFile();
+		Files.write(file.toPath(), content.getBytes(UTF_8));
+		return file.toPath();
+	}
+
+	private static String randomString(Random random, int length) {
+		char[] chars = new char[length];
+		for (int i = 0; i < length; i++) {
+			chars[i] = (char) ('a' + random.nextInt(3));
+		}
+		return new String(chars);
+	}
+
+	private static ByteWordSet<String> words(String... words) {
+		ByteWordSetBuilder<String, ByteTrie<String>> builder = new ByteWordSetBuilder<>(new DoubleArrayByteFallbackTrieCompiler<String>());
+		List<String> added = new ArrayList<>();
+		for (String word : words) {
+			if (!added.contains(word)) {
+				builder.extend(word.getBytes(UTF_8), word);
+				added.add(word);
+			}
+		}
+		return builder
+			.work(new ByteFallbackLinks<>())
+			.build();
+	}
+
+}
@@ -0,0 +1,144 @@
+package net.amygdalum.util.text;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import net.amygdalum.util.text.doublearraytrie.DoubleArrayByteCompactTrieCompiler;
+import net.amygdalum.util.text.doublearraytrie.DoubleArrayByteFallbackTrieCompiler;
+import net.amygdalum.util.text.linkeddawg.FlatByteFallbackDawgCompiler;
+import net.amygdalum.util.text.linkeddawg.LinkedByteFallbackDawgCompiler;
+
+public class ByteWordMatcherTest {
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	@Test
+	public void testFeedAcrossChunks() throws Exception {
+		ByteWordMatcher<String> matcher = new ByteWordMatcher<>(words(new DoubleArrayByteFallbackTrieCompiler<String>()), String::length);
+
+		List<WordMatch<String>> matches = new ArrayList<>();
+		matches.addAll(matcher.feed("us".getBytes(UTF_8), 0, 2));
+		matches.addAll(matcher.feed("he".getBytes(UTF_8), 0, 2));
+		matches.addAll(matcher.feed("rs".getBytes(UTF_8), 0, 2));
+
+		assertThat(matches, contains(
+			new WordMatch<>(1, 4, "she"),
+			new WordMatch<>(2, 4, "he"),
+			new WordMatch<>(2, 6, "hers")));
+		assertThat(matcher.position(), equalTo(6l));
+	}
+
+	@Test
+	public void testFeedPartOfBuffer() throws Exception {
+		ByteWordMatcher<String> matcher = new ByteWordMatcher<>(words(new DoubleArrayByteFallbackTrieCompiler<String>()));
+
+		assertThat(matcher.feed("xxhisxx".getBytes(UTF_8), 2, 3), contains(new WordMatch<>(3, "his")));
+		assertThat(matcher.feed("xxhisxx".getBytes(UTF_8), 2, 2), empty());
+	}
+
+	@Test
+	public void testReset() throws Exception {
+		ByteWordMatcher<String> matcher = new ByteWordMatcher<>(words(new DoubleArrayByteFallbackTrieCompiler<String>()), String::length);
+
+		matcher.feed("xxhi".getBytes(UTF_8), 0, 4);
+		matcher.reset();
+
+		assertThat(matcher.feed("s".getBytes(UTF_8), 0, 1), empty());
+		assertThat(matcher.feed("he".getBytes(UTF_8), 0, 2), contains(new WordMatch<>(0, 3, "she"), new WordMatch<>(1, 3, "he")));
+	}
+
+	@Test
+	public void testSnapshotDoubleArrayTrie() throws Exception {
+		assertMultiplexes(new ByteWordMatcher<>(words(new DoubleArrayByteFallbackTrieCompiler<String>()), String::length));
+	}
+
+	@Test
+	public void testSnapshotLinkedDawg() throws Exception {
+		assertMultiplexes(new ByteWordMatcher<>(words(new LinkedByteFallbackDawgCompiler<String>()), String::length));
+	}
+
+	@Test
+	public void testSnapshotIntoOwnedStates() throws Exception {
+		ByteWordMatcher<String> matcher = new ByteWordMatcher<>(words(new FlatByteFallbackDawgCompiler<String>()), String::length);
+		ByteWordMatcher.State first = new ByteWordMatcher.State();
+		ByteWordMatcher.State second = new ByteWordMatcher.State();
+		List<WordMatch<String>> matches = new ArrayList<>();
+
+		matcher.feed("us".getBytes(UTF_8), 0, 2, matches::add);
+		matcher.snapshot(first);
+		matcher.reset();
+		matcher.feed("h".getBytes(UTF_8), 0, 1, matches::add);
+		matcher.snapshot(second);
+		matcher.restore(first);
+		matcher.feed("h".getBytes(UTF_8), 0, 1, matches::add);
+		matcher.snapshot(first);
+		matcher.restore(second);
+		matcher.feed("is".getBytes(UTF_8), 0, 2, matches::add);
+		matcher.restore(first);
+		matcher.feed("e".getBytes(UTF_8), 0, 1, matches::add);
+
+		assertThat(matches, contains(
+			new WordMatch<>(0, 3, "his"),
+			new WordMatch<>(1, 4, "she"),
+			new WordMatch<>(2, 4, "he")));
+		assertThat(first.getPosition(), equalTo(3l));
+		assertThat(second.getPosition(), equalTo(1l));
+	}
+
+	@Test
+	public void testSnapshotUnsupported() throws Exception {
+		ByteWordMatcher<String> matcher = new ByteWordMatcher<>(new ByteWordSetBuilder<>(new DoubleArrayByteCompactTrieCompiler<String>())
+			.extend("he".getBytes(UTF_8), "he")
+			.build());
+
+		thrown.expect(UnsupportedOperationException.class);
+		matcher.snapshot();
+	}
+
+	private void assertMultiplexes(ByteWordMatcher<String> matcher) {
+		List<WordMatch<String>> first = new ArrayList<>();
+		List<WordMatch<String>> second = new ArrayList<>();
+
+		matcher.feed("ush".getBytes(UTF_8), 0, 3, first::add);
+		ByteWordMatcher.State firstState = matcher.snapshot();
+		matcher.reset();
+		matcher.feed("hi".getBytes(UTF_8), 0, 2, second::add);
+		ByteWordMatcher.State secondState = matcher.snapshot();
+
+		matcher.restore(firstState);
+		matcher.feed("ers".getBytes(UTF_8), 0, 3, first::add);
+		matcher.restore(secondState);
+		matcher.feed("s".getBytes(UTF_8), 0, 1, second::add);
+
+		assertThat(first, contains(
+			new WordMatch<>(1, 4, "she"),
+			new WordMatch<>(2, 4, "he"),
+			new WordMatch<>(2, 6, "hers")));
+		assertThat(second, contains(
+			new WordMatch<>(0, 3, "his")));
+		assertThat(firstState.getPosition(), equalTo(3l));
+		assertThat(secondState.getPosition(), equalTo(2l));
+	}
+
+	private static ByteWordSet<String> words(ByteWordGraphCompiler<String, ? extends ByteWordSet<String>> compiler) {
+		return new ByteWordSetBuilder<>(compiler)
+			.extend("he".getBytes(UTF_8), "he")
+			.extend("she".getBytes(UTF_8), "she")
+			.extend("his".getBytes(UTF_8), "his")
+			.extend("hers".getBytes(UTF_8), "hers")
+			.work(new ByteFallbackLinks<>())
+			.build();
+	}
+
+}
@@ -0,0 +1,170 @@
+package net.amygdalum.util.text;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import net.amygdalum.util.io.MappedByteProvider;
+import net.amygdalum.util.io.StreamByteProvider;
+import net.amygdalum.util.io.StringByteProvider;
+import net.amygdalum.util.text.doublearraytrie.DoubleArrayByteCompactTrieCompiler;
+import net.amygdalum.util.text.doublearraytrie.DoubleArrayByteFallbackTrieCompiler;
+
+public class ByteWordSearchTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testPlain() throws Exception {
+		ByteWordSearch<String> search = ByteWordSearch.plain(plain("he", "she", "his", "hers"));
+
+		assertThat(search.matches(new StringByteProvider("ushers", 0, UTF_8)).collect(toList()), contains(
+			new WordMatch<>(1, 4, "she"),
+			new WordMatch<>(2, 4, "he"),
+			new WordMatch<>(2, 6, "hers")));
+		assertThat(search.matches(new StreamByteProvider(new ByteArrayInputStream("ushers".getBytes(UTF_8)), 0, 4, 1)).collect(toList()), contains(
+			new WordMatch<>(1, 4, "she"),
+			new WordMatch<>(2, 4, "he"),
+			new WordMatch<>(2, 6, "hers")));
+	}
+
+	@Test
+	public void testPlainFromCurrentPosition() throws Exception {
+		ByteWordSearch<String> search = ByteWordSearch.plain(plain("he", "she", "his", "hers"));
+
+		assertThat(search.matches(new StringByteProvider("ushers", 2, UTF_8)).collect(toList()), contains(
+			new WordMatch<>(2, 4, "he"),
+			new WordMatch<>(2, 6, "hers")));
+	}
+
+	@Test
+	public void testFallback() throws Exception {
+		ByteWordSearch<String> search = ByteWordSearch.fallback(fallback("he", "she", "his", "hers"), 4, String::length);
+
+		assertThat(search.matches(new StringByteProvider("ushers", 0, UTF_8)).collect(toList()), contains(
+			new WordMatch<>(1, 4, "she"),
+			new WordMatch<>(2, 4, "he"),
+			new WordMatch<>(2, 6, "hers")));
+		assertThat(search.matches(new StreamByteProvider(new ByteArrayInputStream("ushers".getBytes(UTF_8)), 0, 4, 1)).collect(toList()), contains(
+			new WordMatch<>(1, 4, "she"),
+			new WordMatch<>(2, 4, "he"),
+			new WordMatch<>(2, 6, "hers")));
+	}
+
+	@Test
+	public void testFallbackWithoutLength() throws Exception {
+		ByteWordSearch<String> search = ByteWordSearch.fallback(fallback("he", "she", "his", "hers"), 4);
+
+		assertThat(search.matches(new StringByteProvider("ushers", 0, UTF_8)).collect(toList()), contains(
+			new WordMatch<>(4, "she"),
+			new WordMatch<>(4, "he"),
+			new WordMatch<>(6, "hers")));
+	}
+
+	@Test
+	public void testFallbackFromCurrentPosition() throws Exception {
+		ByteWordSearch<String> search = ByteWordSearch.fallback(fallback("he", "she", "his", "hers"), 4, String::length);
+
+		assertThat(search.matches(new StringByteProvider("ushers", 2, UTF_8)).collect(toList()), contains(
+			new WordMatch<>(2, 4, "he"),
+			new WordMatch<>(2, 6, "hers")));
+	}
+
+	@Test
+	public void testLazy() throws Exception {
+		ByteWordSearch<String> search = ByteWordSearch.fallback(fallback("he", "she"), 3, String::length);
+		StreamByteProvider bytes = new StreamByteProvider(new ByteArrayInputStream(("she" + repeat('x', 10000)).getBytes(UTF_8)), 0, 16, 1);
+
+		assertThat(search.matches(bytes).findFirst().get(), equalTo(new WordMatch<>(0, 3, "she")));
+		assertThat(bytes.current(), lessThan(16l));
+	}
+
+	@Test
+	public void testParallelEqualsSequential() throws Exception {
+		Random random = new Random(42);
+		String[] words = new String[40];
+		for (int i = 0; i < words.length; i++) {
+			words[i] = randomString(random, 1 + random.nextInt(6));
+		}
+		String text = randomString(random, 50000);
+
+		ByteWordSearch<String> plain = ByteWordSearch.plain(plain(words));
+		List<WordMatch<String>> plainMatches = plain.matches(new StreamByteProvider(new ByteArrayInputStream(text.getBytes(UTF_8)), 0, 1024, 1)).collect(toList());
+		assertThat(plain.matches(new StringByteProvider(text, 0, UTF_8)).parallel().collect(toList()), equalTo(plainMatches));
+
+		ByteWordSearch<String> fallback = ByteWordSearch.fallback(fallback(words), 6, String::length);
+		List<WordMatch<String>> fallbackMatches = fallback.matches(new StreamByteProvider(new ByteArrayInputStream(text.getBytes(UTF_8)), 0, 1024, 1)).collect(toList());
+		assertThat(fallback.matches(new StringByteProvider(text, 0, UTF_8)).parallel().collect(toList()), equalTo(fallbackMatches));
+		assertThat(fallback.matches(new MappedByteProvider(file(text), 0)).parallel().collect(toList()), equalTo(fallbackMatches));
+
+		assertThat(new HashSet<>(plainMatches), equalTo(new HashSet<>(fallbackMatches)));
+	}
+
+	private Path file(String content) throws Exception {
+		File file = folder.newFile();
+		Files.write(file.toPath(), content.getBytes(UTF_8));
+		return file.toPath();
+	}
+
+	private static String repeat(char c, int length) {
+		char[] chars = new char[length];
+		for (int i = 0; i < length; i++) {
+			chars[i] = c;
+		}
+		return new String(chars);
+	}
+
+	private static String randomString(Random random, int length) {
+		char[] chars = new char[length];
+		for (int i = 0; i < length; i++) {
+			chars[i] = (char) ('a' + random.nextInt(3));
+		}
+		return new String(chars);
+	}
+
+	private static ByteWordSet<String> plain(String... words) {
+		ByteWordSetBuilder<String, ByteTrie<String>> builder = new ByteWordSetBuilder<>(new DoubleArrayByteCompactTrieCompiler<String>());
+		for (String word : distinct(words)) {
+			builder.extend(word.getBytes(UTF_8), word);
+		}
+		return builder.build();
+	}
+
+	private static ByteWordSet<String> fallback(String... words) {
+		ByteWordSetBuilder<String, ByteTrie<String>> builder = new ByteWordSetBuilder<>(new DoubleArrayByteFallbackTrieCompiler<String>());
+		for (String word : distinct(words)) {
+			builder.extend(word.getBytes(UTF_8), word);
+		}
+		return builder
+			.work(new ByteFallbackLinks<>())
+			.build();
+	}
+
+	private static List<String> distinct(String... words) {
+		List<String> distinct = new ArrayList<>();
+		for (String word : words) {
+			if (!distinct.contains(word)) {
+				distinct.add(word);
+			}
+		}
+		return distinct;
+	}
+
+}
@@ -0,0 +1,143 @@
+package net.amygdalum.util.text;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import net.amygdalum.util.text.doublearraytrie.DoubleArrayByteCompactTrieCompiler;
+import net.amygdalum.util.text.doublearraytrie.DoubleArrayByteFallbackTrieCompiler;
+import net.amygdalum.util.text.linkeddawg.LinkedByteDawgCompiler;
+import net.amygdalum.util.text.linkeddawg.LinkedByteFallbackDawgCompiler;
+
+public class ByteWordSetBulkBuilderTest {
+
+	@Test
+	public void testLinkedDawg() throws Exception {
+		ByteDawg<String> dawg = new ByteWordSetBulkBuilder<>(new LinkedByteDawgCompiler<String>())
+			.extend("bachelor".getBytes("UTF-8"), "Bachelor")
+			.extend("jar".getBytes("UTF-8"), "Jar")
+			.extend("badge".getBytes("UTF-8"), "Badge")
+			.extend("baby".getBytes("UTF-8"), "Baby")
+			.build();
+
+		assertThat(dawg.find("bachelor".getBytes("UTF-8")), equalTo("Bachelor"));
+		assertThat(dawg.find("jar".getBytes("UTF-8")), equalTo("Jar"));
+		assertThat(dawg.find("badge".getBytes("UTF-8")), equalTo("Badge"));
+		assertThat(dawg.find("baby".getBytes("UTF-8")), equalTo("Baby"));
+		assertThat(dawg.find("bab".getBytes("UTF-8")), nullValue());
+	}
+
+	@Test
+	public void testDoubleArrayTrie() throws Exception {
+		ByteWordSet<String> trie = new ByteWordSetBulkBuilder<>(new DoubleArrayByteCompactTrieCompiler<String>())
+			.extend("bachelor".getBytes("UTF-8"), "Bachelor")
+			.extend("jar".getBytes("UTF-8"), "Jar")
+			.extend("badge".getBytes("UTF-8"), "Badge")
+			.extend("baby".getBytes("UTF-8"), "Baby")
+			.build();
+
+		assertThat(trie.find("bachelor".getBytes("UTF-8")), equalTo("Bachelor"));
+		assertThat(trie.find("jar".getBytes("UTF-8")), equalTo("Jar"));
+		assertThat(trie.find("badge".getBytes("UTF-8")), equalTo("Badge"));
+		assertThat(trie.find("baby".getBytes("UTF-8")), equalTo("Baby"));
+		assertThat(trie.contains("bab".getBytes("UTF-8")), is(false));
+	}
+
+	@Test
+	public void testEmptyWord() throws Exception {
+		ByteDawg<String> dawg = new ByteWordSetBulkBuilder<>(new LinkedByteDawgCompiler<String>())
+			.extend("".getBytes("UTF-8"), "Empty")
+			.extend("a".getBytes("UTF-8"), "A")
+			.build();
+
+		assertThat(dawg.find("".getBytes("UTF-8")), equalTo("Empty"));
+		assertThat(dawg.find("a".getBytes("UTF-8")), equalTo("A"));
+	}
+
+	@Test
+	public void testJoinStrategyInInputOrder() throws Exception {
+		ByteDawg<String> dawg = new ByteWordSetBulkBuilder<>(new LinkedByteDawgCompiler<String>(), (existing, next) -> existing == null ? next : existing + next)
+			.extend("ab".getBytes("UTF-8"), "1")
+			.extend("b".getBytes("UTF-8"), "2")
+			.extend("ab".getBytes("UTF-8"), "3")
+			.extend("ab".getBytes("UTF-8"), "4")
+			.build();
+
+		assertThat(dawg.find("ab".getBytes("UTF-8")), equalTo("134"));
+		assertThat(dawg.find("b".getBytes("UTF-8")), equalTo("2"));
+	}
+
+	@Test
+	public void testWork() throws Exception {
+		ByteWordSet<String> trie = new ByteWordSetBulkBuilder<>(new DoubleArrayByteFallbackTrieCompiler<String>())
+			.extend("gat".getBytes("UTF-8"), "GAT")
+			.extend("cgatggg".getBytes("UTF-8"), "CGATGGG")
+			.work(new ByteFallbackLinks<>())
+			.build();
+
+		ByteAutomaton<String> cursor = trie.cursor();
+		cursor.accept((byte) 'c');
+		cursor.accept((byte) 'g');
+		cursor.accept((byte) 'a');
+		cursor.accept((byte) 't');
+		assertThat(cursor.getAttached(), equalTo("GAT"));
+	}
+
+	@Test
+	public void testEqualToSequentialBuilder() throws Exception {
+		Random random = new Random(42);
+		List<String> words = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			byte[] word = new byte[1 + random.nextInt(8)];
+			for (int j = 0; j < word.length; j++) {
+				word[j] = (byte) ('a' + random.nextInt(6));
+			}
+			words.add(new String(word, "UTF-8"));
+		}
+		ByteWordSetBulkBuilder<String, ByteDawg<String>> bulkBuilder = new ByteWordSetBulkBuilder<>(new LinkedByteDawgCompiler<String>(), null, new ForkJoinPool(4));
+		ByteWordSetBuilder<String, ByteDawg<String>> builder = new ByteWordSetBuilder<>(new LinkedByteDawgCompiler<String>());
+		for (String word : words) {
+			bulkBuilder.extend(word.getBytes("UTF-8"), word.toUpperCase());
+			builder.extend(word.getBytes("UTF-8"), word.toUpperCase());
+		}
+		ByteDawg<String> bulkDawg = bulkBuilder.build();
+		ByteDawg<String> dawg = builder.build();
+
+		for (int i = 0; i < 2000; i++) {
+			byte[] word = new byte[1 + random.nextInt(8)];
+			for (int j = 0; j < word.length; j++) {
+				word[j] = (byte) ('a' + random.nextInt(6));
+			}
+			assertThat(bulkDawg.find(word), equalTo(dawg.find(word)));
+		}
+	}
+
+	@Test
+	public void testCompiledSubGraphsInWalker() throws Exception {
+		ByteDawg<String> dawg = new ByteWordSetBulkBuilder<>(new LinkedByteFallbackDawgCompiler<String>(), null, new ForkJoinPool(4))
+			.extend("he".getBytes("UTF-8"), "HE")
+			.extend("hers".getBytes("UTF-8"), "HERS")
+			.extend("she".getBytes("UTF-8"), "SHE")
+			.extend("his".getBytes("UTF-8"), "HIS")
+			.build();
+
+		List<String> found = new ArrayList<>();
+		ByteWordEnumeration<String> words = dawg.withPrefix("h".getBytes("UTF-8"));
+		while (words.next()) {
+			found.add(words.getAttached());
+		}
+		assertThat(found, contains("HE", "HERS", "HIS"));
+		assertThat(dawg.find("she".getBytes("UTF-8")), equalTo("SHE"));
+		assertThat(dawg.find("sh".getBytes("UTF-8")), nullValue());
+	}
+
+}
@@ -0,0 +1,153 @@
+package net.amygdalum.util.text;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import net.amygdalum.util.io.StringByteProvider;
+import net.amygdalum.util.text.doublearraytrie.DoubleArrayByteCompactTrieCompiler;
+import net.amygdalum.util.text.doublearraytrie.DoubleArrayByteFallbackTrieCompiler;
+import net.amygdalum.util.text.linkeddawg.FlatByteDawgCompiler;
+import net.amygdalum.util.text.linkeddawg.FlatByteFallbackDawgCompiler;
+import net.amygdalum.util.text.linkeddawg.LinkedByteDawgCompiler;
+import net.amygdalum.util.text.linkeddawg.LinkedByteFallbackDawgCompiler;
+import net.amygdalum.util.text.louds.LoudsByteTrieCompiler;
+
+public class ByteWordSetTest {
+
+	@Test
+	public void testLongestPrefixOf() throws Exception {
+		for (ByteWordSet<String> words : wordSets("a", "abc", "abcde", "b")) {
+			assertThat(words.longestPrefixOf("abcdx".getBytes(UTF_8)), equalTo(new WordMatch<>(0, 3, "abc")));
+			assertThat(words.longestPrefixOf("abcde".getBytes(UTF_8)), equalTo(new WordMatch<>(0, 5, "abcde")));
+			assertThat(words.longestPrefixOf("ab".getBytes(UTF_8)), equalTo(new WordMatch<>(0, 1, "a")));
+			assertThat(words.longestPrefixOf("bc".getBytes(UTF_8)), equalTo(new WordMatch<>(0, 1, "b")));
+			assertThat(words.longestPrefixOf("c".getBytes(UTF_8)), nullValue());
+			assertThat(words.longestPrefixOf("".getBytes(UTF_8)), nullValue());
+		}
+	}
+
+	@Test
+	public void testLongestPrefixOfEmptyWord() throws Exception {
+		for (ByteWordSet<String> words : wordSets("", "ab")) {
+			assertThat(words.longestPrefixOf("ax".getBytes(UTF_8)), equalTo(new WordMatch<>(0, 0, "")));
+			assertThat(words.longestPrefixOf("abx".getBytes(UTF_8)), equalTo(new WordMatch<>(0, 2, "ab")));
+		}
+	}
+
+	@Test
+	public void testLongestPrefixOfProviderSegments() throws Exception {
+		for (ByteWordSet<String> words : wordSets("a", "ab", "abc", "b", "bca")) {
+			StringByteProvider chars = new StringByteProvider("abcabbcax", 0, UTF_8);
+			List<WordMatch<String>> segments = new ArrayList<>();
+			WordMatch<String> match = words.longestPrefixOf(chars);
+			while (match != null) {
+				segments.add(match);
+				match = words.longestPrefixOf(chars);
+			}
+			assertThat(segments, contains(
+				new WordMatch<>(0, 3, "abc"),
+				new WordMatch<>(3, 5, "ab"),
+				new WordMatch<>(5, 8, "bca")));
+			assertThat(chars.current(), equalTo(8l));
+		}
+	}
+
+	@Test
+	public void testAllPrefixesOf() throws Exception {
+		for (ByteWordSet<String> words : wordSets("a", "abc", "abcde", "abd", "b")) {
+			assertThat(words.allPrefixesOf("abcdx".getBytes(UTF_8)), contains(
+				new WordMatch<>(0, 1, "a"),
+				new WordMatch<>(0, 3, "abc")));
+			assertThat(words.allPrefixesOf("abcde".getBytes(UTF_8)), contains(
+				new WordMatch<>(0, 1, "a"),
+				new WordMatch<>(0, 3, "abc"),
+				new WordMatch<>(0, 5, "abcde")));
+			assertThat(words.allPrefixesOf("c".getBytes(UTF_8)), empty());
+		}
+	}
+
+	@Test
+	public void testWithPrefix() throws Exception {
+		for (ByteWordSet<String> words : wordSets("bachelor", "baby", "badge", "bad", "jar", "b")) {
+			assertThat(enumerate(words.withPrefix("ba".getBytes(UTF_8))), contains("baby", "bachelor", "bad", "badge"));
+			assertThat(enumerate(words.withPrefix("bad".getBytes(UTF_8))), contains("bad", "badge"));
+			assertThat(enumerate(words.withPrefix("".getBytes(UTF_8))), contains("b", "baby", "bachelor", "bad", "badge", "jar"));
+			assertThat(enumerate(words.withPrefix("badges".getBytes(UTF_8))), empty());
+			assertThat(enumerate(words.withPrefix("x".getBytes(UTF_8))), empty());
+		}
+	}
+
+	@Test
+	public void testWithPrefixAttachments() throws Exception {
+		for (ByteWordSet<String> words : wordSets("ab", "abc")) {
+			ByteWordEnumeration<String> enumeration = words.withPrefix("a".getBytes(UTF_8));
+			List<String> attachments = new ArrayList<>();
+			while (enumeration.next()) {
+				attachments.add(enumeration.getAttached());
+			}
+			assertThat(attachments, contains("ab", "abc"));
+			assertThat(enumeration.next(), equalTo(false));
+		}
+	}
+
+	@Test
+	public void testPrefixQueriesIgnoreFallbackLinks() throws Exception {
+		List<ByteWordSet<String>> wordSets = new ArrayList<>();
+		wordSets.add(buildWithFallbackLinks(new DoubleArrayByteFallbackTrieCompiler<String>(), "abc", "bd"));
+		wordSets.add(buildWithFallbackLinks(new LinkedByteFallbackDawgCompiler<String>(), "abc", "bd"));
+		wordSets.add(buildWithFallbackLinks(new FlatByteFallbackDawgCompiler<String>(), "abc", "bd"));
+		for (ByteWordSet<String> words : wordSets) {
+			assertThat(words.longestPrefixOf("abd".getBytes(UTF_8)), nullValue());
+			assertThat(words.allPrefixesOf("abd".getBytes(UTF_8)), empty());
+			assertThat(enumerate(words.withPrefix("ab".getBytes(UTF_8))), contains("abc"));
+		}
+	}
+
+	private static List<String> enumerate(ByteWordEnumeration<String> enumeration) {
+		List<String> words = new ArrayList<>();
+		while (enumeration.next()) {
+			words.add(new String(enumeration.getBuffer(), 0, enumeration.getLength(), UTF_8));
+		}
+		return words;
+	}
+
+	private static List<ByteWordSet<String>> wordSets(String... words) {
+		List<ByteWordSet<String>> wordSets = new ArrayList<>();
+		wordSets.add(build(new DoubleArrayByteCompactTrieCompiler<String>(), words));
+		wordSets.add(build(new DoubleArrayByteFallbackTrieCompiler<String>(), words));
+		wordSets.add(build(new LinkedByteDawgCompiler<String>(), words));
+		wordSets.add(build(new LinkedByteFallbackDawgCompiler<String>(), words));
+		wordSets.add(build(new FlatByteDawgCompiler<String>(), words));
+		wordSets.add(build(new FlatByteFallbackDawgCompiler<String>(), words));
+		wordSets.add(build(new LoudsByteTrieCompiler<String>(), words));
+		return wordSets;
+	}
+
+	private static <R extends ByteWordSet<String>> R build(ByteWordGraphCompiler<String, R> compiler, String... words) {
+		ByteWordSetBuilder<String, R> builder = new ByteWordSetBuilder<>(compiler);
+		for (String word : words) {
+			builder.extend(word.getBytes(UTF_8), word);
+		}
+		return builder.build();
+	}
+
+	private static <R extends ByteWordSet<String>> R buildWithFallbackLinks(ByteWordGraphCompiler<String, R> compiler, String... words) {
+		ByteWordSetBuilder<String, R> builder = new ByteWordSetBuilder<>(compiler);
+		for (String word : words) {
+			builder.extend(word.getBytes(UTF_8), word);
+		}
+		return builder
+			.work(new ByteFallbackLinks<>())
+			.build();
+	}
+
+}
@@ -8,29 +8,29 @@ import static net.amygdalum.util.text.CharFallbackAdaptor.setFallback;
 import java.util.ArrayList;
 import java.util.List;
 
-public class CharFallbackLinks implements CharTask<String> {
+public class CharFallbackLinks<T> implements CharTask<T> {
 
-	private CharNode<String> root;
+	private CharNode<T> root;
 
 	@Override
-	public List<CharNode<String>> init(CharNode<String> root) {
+	public List<CharNode<T>> init(CharNode<T> root) {
 		this.root = root;
 		setFallback(root, null);
 		return asList(root);
 	}
 
 	@Override
-	public List<CharNode<String>> process(CharNode<String> node) {
-		List<CharNode<String>> nexts = new ArrayList<>();
+	public List<CharNode<T>> process(CharNode<T> node) {
+		List<CharNode<T>> nexts = new ArrayList<>();
 		for (char c : node.getAlternatives()) {
-			CharNode<String> next = node.nextNode(c);
-			CharNode<String> down = getFallback(node);
+			CharNode<T> next = node.nextNode(c);
+			CharNode<T> down = getFallback(node);
 			nextdown: while (down != null) {
-				CharNode<String> nextNode = down.nextNode(c);
+				CharNode<T> nextNode = down.nextNode(c);
 				if (nextNode != null) {
 					setFallback(next, nextNode);
 					if (next.getAttached() == null) {
-						String attachment = nextNode.getAttached();
+						T attachment = nextNode.getAttached();
 						if (attachment != null) {
 							attach(next, attachment);
 						}
@@ -0,0 +1,166 @@
+package net.amygdalum.util.text;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import net.amygdalum.util.text.doublearraytrie.DoubleArrayCharCompactTrieCompiler;
+import net.amygdalum.util.text.doublearraytrie.DoubleArrayCharFallbackTrieCompiler;
+import net.amygdalum.util.text.linkeddawg.FlatCharDawgCompiler;
+import net.amygdalum.util.text.linkeddawg.LinkedCharDawgCompiler;
+import net.amygdalum.util.text.linkeddawg.LinkedCharFallbackDawgCompiler;
+import net.amygdalum.util.text.louds.LoudsCharTrieCompiler;
+
+public class CharFuzzySearchTest {
+
+	@Test
+	public void testExactMatch() throws Exception {
+		for (CharWordSet<String> words : wordSets("bachelor", "baby", "badge", "jar")) {
+			CharFuzzySearch<String> search = new CharFuzzySearch<>(words);
+
+			assertThat(search.search("baby".toCharArray(), 0), contains(new FuzzyMatch<>("baby", 0)));
+			assertThat(search.search("bab".toCharArray(), 0), empty());
+		}
+	}
+
+	@Test
+	public void testEditOperations() throws Exception {
+		for (CharWordSet<String> words : wordSets("bachelor", "baby", "badge", "bad", "jar")) {
+			CharFuzzySearch<String> search = new CharFuzzySearch<>(words);
+
+			assertThat(search.search("bady".toCharArray(), 1), contains(
+				new FuzzyMatch<>("baby", 1),
+				new FuzzyMatch<>("bad", 1)));
+			assertThat(search.search("badges".toCharArray(), 1), contains(
+				new FuzzyMatch<>("badge", 1)));
+			assertThat(search.search("bachlor".toCharArray(), 1), contains(
+				new FuzzyMatch<>("bachelor", 1)));
+			assertThat(search.search("jbr".toCharArray(), 1), contains(
+				new FuzzyMatch<>("jar", 1)));
+			assertThat(search.search("bade".toCharArray(), 1), contains(
+				new FuzzyMatch<>("bad", 1),
+				new FuzzyMatch<>("badge", 1)));
+			assertThat(search.search("bade".toCharArray(), 2), contains(
+				new FuzzyMatch<>("baby", 2),
+				new FuzzyMatch<>("bad", 1),
+				new FuzzyMatch<>("badge", 1)));
+		}
+	}
+
+	@Test
+	public void testEmptyWords() throws Exception {
+		for (CharWordSet<String> words : wordSets("", "a", "abc")) {
+			CharFuzzySearch<String> search = new CharFuzzySearch<>(words);
+
+			assertThat(search.search("".toCharArray(), 1), contains(
+				new FuzzyMatch<>("", 0),
+				new FuzzyMatch<>("a", 1)));
+			assertThat(search.search("b".toCharArray(), 1), contains(
+				new FuzzyMatch<>("", 1),
+				new FuzzyMatch<>("a", 1)));
+		}
+	}
+
+	@Test
+	public void testSearchIsReusable() throws Exception {
+		CharFuzzySearch<String> search = new CharFuzzySearch<>(build(new DoubleArrayCharCompactTrieCompiler<String>(), "abc", "abcdefghijklmnopqrstuvwxyz"));
+
+		assertThat(search.search("abcdefghijklmnopqrstuvwxy".toCharArray(), 1), contains(new FuzzyMatch<>("abcdefghijklmnopqrstuvwxyz", 1)));
+		assertThat(search.search("ab".toCharArray(), 1), contains(new FuzzyMatch<>("abc", 1)));
+	}
+
+	@Test
+	public void testEqualToBruteForce() throws Exception {
+		Random random = new Random(42);
+		String[] dictionary = new String[1000];
+		for (int i = 0; i < dictionary.length; i++) {
+			dictionary[i] = randomWord(random);
+		}
+		for (CharWordSet<String> words : wordSets(dictionary)) {
+			CharFuzzySearch<String> search = new CharFuzzySearch<>(words);
+			for (int i = 0; i < 100; i++) {
+				String word = randomWord(random);
+				int maxDistance = random.nextInt(4);
+				List<FuzzyMatch<String>> expected = new ArrayList<>();
+				for (String candidate : distinctSorted(dictionary)) {
+					int distance = distance(word, candidate);
+					if (distance <= maxDistance) {
+						expected.add(new FuzzyMatch<>(candidate, distance));
+					}
+				}
+				assertThat(word + "~" + maxDistance, search.search(word.toCharArray(), maxDistance), equalTo(expected));
+			}
+		}
+	}
+
+	private static String randomWord(Random random) {
+		char[] word = new char[random.nextInt(9)];
+		for (int j = 0; j < word.length; j++) {
+			word[j] = (char) ('a' + random.nextInt(5));
+		}
+		return new String(word);
+	}
+
+	private static List<String> distinctSorted(String[] words) {
+		List<String> distinct = new ArrayList<>();
+		for (String word : words) {
+			if (!distinct.contains(word)) {
+				distinct.add(word);
+			}
+		}
+		distinct.sort(null);
+		return distinct;
+	}
+
+	private static int distance(String s, String t) {
+		int[] prev = new int[t.length() + 1];
+		int[] next = new int[t.length() + 1];
+		for (int j = 0; j <= t.length(); j++) {
+			prev[j] = j;
+		}
+		for (int i = 1; i <= s.length(); i++) {
+			next[0] = i;
+			for (int j = 1; j <= t.length(); j++) {
+				int cost = s.charAt(i - 1) == t.charAt(j - 1) ? 0 : 1;
+				next[j] = Math.min(Math.min(prev[j] + 1, next[j - 1] + 1), prev[j - 1] + cost);
+			}
+			int[] swap = prev;
+			prev = next;
+			next = swap;
+		}
+		return prev[t.length()];
+	}
+
+	private static List<CharWordSet<String>> wordSets(String... words) {
+		List<CharWordSet<String>> wordSets = new ArrayList<>();
+		wordSets.add(build(new DoubleArrayCharCompactTrieCompiler<String>(), words));
+		wordSets.add(build(new DoubleArrayCharFallbackTrieCompiler<String>(), words));
+		wordSets.add(build(new LinkedCharDawgCompiler<String>(), words));
+		wordSets.add(build(new LinkedCharFallbackDawgCompiler<String>(), words));
+		wordSets.add(build(new FlatCharDawgCompiler<String>(), words));
+		wordSets.add(build(new LoudsCharTrieCompiler<String>(), words));
+		String[] sorted = distinctSorted(words).toArray(new String[0]);
+		CharMinimalDawgBuilder<String, CharDawg<String>> minimal = new CharMinimalDawgBuilder<>(new LinkedCharDawgCompiler<String>());
+		for (String word : sorted) {
+			minimal.extend(word.toCharArray(), word);
+		}
+		wordSets.add(minimal.build());
+		return wordSets;
+	}
+
+	private static <R extends CharWordSet<String>> R build(CharWordGraphCompiler<String, R> compiler, String... words) {
+		CharWordSetBuilder<String, R> builder = new CharWordSetBuilder<>(compiler);
+		for (String word : words) {
+			builder.extend(word.toCharArray(), word);
+		}
+		return builder.build();
+	}
+
+}
@@ -0,0 +1,165 @@
+package net.amygdalum.util.text;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import net.amygdalum.util.text.linkeddawg.CharGenericNode;
+import net.amygdalum.util.text.linkeddawg.LinkedCharDawgCompiler;
+
+public class CharMinimalDawgBuilderTest {
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	@Test
+	public void testFind() throws Exception {
+		CharDawg<String> dawg = new CharMinimalDawgBuilder<>(new LinkedCharDawgCompiler<String>())
+			.extend("baby".toCharArray(), "Baby")
+			.extend("bachelor".toCharArray(), "Bachelor")
+			.extend("badge".toCharArray(), "Badge")
+			.extend("jar".toCharArray(), "Jar")
+			.build();
+
+		assertThat(dawg.find("bachelor".toCharArray()), equalTo("Bachelor"));
+		assertThat(dawg.find("jar".toCharArray()), equalTo("Jar"));
+		assertThat(dawg.find("badge".toCharArray()), equalTo("Badge"));
+		assertThat(dawg.find("baby".toCharArray()), equalTo("Baby"));
+		assertThat(dawg.find("bab".toCharArray()), nullValue());
+	}
+
+	@Test
+	public void testSharesSuffixes() throws Exception {
+		CharNode<Boolean> root = new CharMinimalDawgBuilder<>(new GraphCompiler<Boolean>())
+			.extend("tap".toCharArray(), true)
+			.extend("taps".toCharArray(), true)
+			.extend("top".toCharArray(), true)
+			.extend("tops".toCharArray(), true)
+			.build();
+
+		CharNode<Boolean> ta = root.nextNode('t').nextNode('a');
+		CharNode<Boolean> to = root.nextNode('t').nextNode('o');
+		assertThat(ta, sameInstance(to));
+		assertThat(ta.nextNode('p').getAttached(), equalTo(true));
+		assertThat(ta.nextNode('p').nextNode('s').getAttached(), equalTo(true));
+	}
+
+	@Test
+	public void testDoesNotShareSuffixesWithDifferentAttachments() throws Exception {
+		CharNode<String> root = new CharMinimalDawgBuilder<>(new GraphCompiler<String>())
+			.extend("ab".toCharArray(), "AB")
+			.extend("cb".toCharArray(), "CB")
+			.build();
+
+		assertThat(root.nextNode('a'), not(sameInstance(root.nextNode('c'))));
+		assertThat(root.nextNode('a').nextNode('b').getAttached(), equalTo("AB"));
+		assertThat(root.nextNode('c').nextNode('b').getAttached(), equalTo("CB"));
+	}
+
+	@Test
+	public void testEqualWordsAreJoined() throws Exception {
+		CharDawg<String> dawg = new CharMinimalDawgBuilder<>(new LinkedCharDawgCompiler<String>(), (existing, next) -> existing == null ? next : existing + next)
+			.extend("".toCharArray(), "Empty")
+			.extend("ab".toCharArray(), "1")
+			.extend("ab".toCharArray(), "2")
+			.extend("abc".toCharArray(), "3")
+			.build();
+
+		assertThat(dawg.find("".toCharArray()), equalTo("Empty"));
+		assertThat(dawg.find("ab".toCharArray()), equalTo("12"));
+		assertThat(dawg.find("abc".toCharArray()), equalTo("3"));
+	}
+
+	@Test
+	public void testUnsortedWords() throws Exception {
+		CharMinimalDawgBuilder<String, CharDawg<String>> builder = new CharMinimalDawgBuilder<>(new LinkedCharDawgCompiler<String>())
+			.extend("b".toCharArray(), "B");
+
+		thrown.expect(IllegalArgumentException.class);
+		builder.extend("a".toCharArray(), "A");
+	}
+
+	@Test
+	public void testPrefixAfterWord() throws Exception {
+		CharMinimalDawgBuilder<String, CharDawg<String>> builder = new CharMinimalDawgBuilder<>(new LinkedCharDawgCompiler<String>())
+			.extend("ab".toCharArray(), "AB");
+
+		thrown.expect(IllegalArgumentException.class);
+		builder.extend("a".toCharArray(), "A");
+	}
+
+	@Test
+	public void testEqualToSequentialBuilder() throws Exception {
+		Random random = new Random(42);
+		List<String> words = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			char[] word = new char[1 + random.nextInt(8)];
+			for (int j = 0; j < word.length; j++) {
+				word[j] = (char) ('a' + random.nextInt(6));
+			}
+			words.add(new String(word));
+		}
+		words.sort(null);
+		CharMinimalDawgBuilder<String, CharDawg<String>> minimalBuilder = new CharMinimalDawgBuilder<>(new LinkedCharDawgCompiler<String>(), (existing, next) -> next);
+		CharWordSetBuilder<String, CharDawg<String>> builder = new CharWordSetBuilder<>(new LinkedCharDawgCompiler<String>());
+		for (String word : words) {
+			minimalBuilder.extend(word.toCharArray(), word.substring(word.length() - 1));
+			builder.extend(word.toCharArray(), word.substring(word.length() - 1));
+		}
+		CharDawg<String> minimalDawg = minimalBuilder.build();
+		CharDawg<String> dawg = builder.build();
+
+		for (int i = 0; i < 2000; i++) {
+			char[] word = new char[1 + random.nextInt(8)];
+			for (int j = 0; j < word.length; j++) {
+				word[j] = (char) ('a' + random.nextInt(6));
+			}
+			assertThat(minimalDawg.find(word), equalTo(dawg.find(word)));
+		}
+	}
+
+	private static class GraphCompiler<T> implements CharWordGraphCompiler<T, CharNode<T>> {
+
+		@Override
+		public CharNode<T> create() {
+			return new CharGenericNode<>();
+		}
+
+		@Override
+		public CharNode<T> build(CharNode<T> node) {
+			return node;
+		}
+
+		@Override
+		public NodeResolver<CharNode<T>> resolver() {
+			return new NodeResolver<CharNode<T>>() {
+
+				@Override
+				public void compile(CharNode<T> node) {
+				}
+
+				@Override
+				public void link(CharNode<T> node) {
+				}
+
+				@Override
+				public CharNode<T> resolve(CharNode<T> node) {
+					return node;
+				}
+
+			};
+		}
+
+	}
+
+}
@@ -0,0 +1,91 @@
+package net.amygdalum.util.text;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import net.amygdalum.util.text.doublearraytrie.DoubleArrayCharFallbackTrieCompiler;
+
+public class CharParallelSearchTest {
+
+	@Test
+	public void testSearchAcrossSegments() throws Exception {
+		CharWordSet<String> words = words("he", "she", "his", "hers");
+
+		CharParallelSearch<String> search = new CharParallelSearch<>(words, 4, ForkJoinPool.commonPool(), 3, 1);
+
+		assertThat(search.search("ushers".toCharArray()), contains(
+			new WordMatch<>(4, "she"),
+			new WordMatch<>(4, "he"),
+			new WordMatch<>(6, "hers")));
+	}
+
+	@Test
+	public void testSearchEmpty() throws Exception {
+		CharWordSet<String> words = words("he", "she");
+
+		CharParallelSearch<String> search = new CharParallelSearch<>(words, 3, ForkJoinPool.commonPool(), 3, 1);
+
+		assertThat(search.search(new char[0]), empty());
+	}
+
+	@Test
+	public void testSearchWithDefaultSegments() throws Exception {
+		CharWordSet<String> words = words("he", "she");
+
+		CharParallelSearch<String> search = new CharParallelSearch<>(words, 3);
+
+		assertThat(search.search("she".toCharArray()), contains(
+			new WordMatch<>(3, "she"),
+			new WordMatch<>(3, "he")));
+	}
+
+	@Test
+	public void testEqualToSingleSegment() throws Exception {
+		Random random = new Random(42);
+		String[] patterns = new String[40];
+		for (int i = 0; i < patterns.length; i++) {
+			patterns[i] = randomString(random, 1 + random.nextInt(6));
+		}
+		CharWordSet<String> words = words(patterns);
+		char[] text = randomString(random, 5000).toCharArray();
+
+		List<WordMatch<String>> expected = new CharParallelSearch<>(words, 6, ForkJoinPool.commonPool(), 1, 1).search(text);
+		for (int segments : new int[] { 2, 7, 64, 5000 }) {
+			List<WordMatch<String>> matches = new CharParallelSearch<>(words, 6, ForkJoinPool.commonPool(), segments, 1).search(text);
+
+			assertThat(matches, equalTo(expected));
+		}
+	}
+
+	private static String randomString(Random random, int length) {
+		char[] chars = new char[length];
+		for (int i = 0; i < length; i++) {
+			chars[i] = (char) ('a' + random.nextInt(3));
+		}
+		return new String(chars);
+	}
+
+	private static CharWordSet<String> words(String... words) {
+		CharWordSetBuilder<String, CharTrie<String>> builder = new CharWordSetBuilder<>(new DoubleArrayCharFallbackTrieCompiler<String>());
+		List<String> added = new ArrayList<>();
+		for (String word : words) {
+			if (!added.contains(word)) {
+				builder.extend(word.toCharArray(), word);
+				added.add(word);
+			}
+		}
+		return builder
+			.work(new CharFallbackLinks<>())
+			.build();
+	}
+
+}
@@ -0,0 +1,149 @@
+package net.amygdalum.util.text;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import net.amygdalum.util.text.dfa.DenseCharDfaCompiler;
+import net.amygdalum.util.text.doublearraytrie.DoubleArrayCharCompactTrieCompiler;
+import net.amygdalum.util.text.doublearraytrie.DoubleArrayCharFallbackTrieCompiler;
+import net.amygdalum.util.text.linkeddawg.FlatCharFallbackDawgCompiler;
+import net.amygdalum.util.text.linkeddawg.LinkedCharFallbackDawgCompiler;
+
+public class CharWordMatcherTest {
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	@Test
+	public void testFeedAcrossChunks() throws Exception {
+		CharWordMatcher<String> matcher = new CharWordMatcher<>(words(new DoubleArrayCharFallbackTrieCompiler<String>()), String::length);
+
+		List<WordMatch<String>> matches = new ArrayList<>();
+		matches.addAll(matcher.feed("us".toCharArray(), 0, 2));
+		matches.addAll(matcher.feed("he".toCharArray(), 0, 2));
+		matches.addAll(matcher.feed("rs".toCharArray(), 0, 2));
+
+		assertThat(matches, contains(
+			new WordMatch<>(1, 4, "she"),
+			new WordMatch<>(2, 4, "he"),
+			new WordMatch<>(2, 6, "hers")));
+		assertThat(matcher.position(), equalTo(6l));
+	}
+
+	@Test
+	public void testFeedPartOfBuffer() throws Exception {
+		CharWordMatcher<String> matcher = new CharWordMatcher<>(words(new DoubleArrayCharFallbackTrieCompiler<String>()));
+
+		assertThat(matcher.feed("xxhisxx".toCharArray(), 2, 3), contains(new WordMatch<>(3, "his")));
+		assertThat(matcher.feed("xxhisxx".toCharArray(), 2, 2), empty());
+	}
+
+	@Test
+	public void testReset() throws Exception {
+		CharWordMatcher<String> matcher = new CharWordMatcher<>(words(new DoubleArrayCharFallbackTrieCompiler<String>()), String::length);
+
+		matcher.feed("xxhi".toCharArray(), 0, 4);
+		matcher.reset();
+
+		assertThat(matcher.feed("s".toCharArray(), 0, 1), empty());
+		assertThat(matcher.feed("he".toCharArray(), 0, 2), contains(new WordMatch<>(0, 3, "she"), new WordMatch<>(1, 3, "he")));
+	}
+
+	@Test
+	public void testSnapshotDoubleArrayTrie() throws Exception {
+		assertMultiplexes(new CharWordMatcher<>(words(new DoubleArrayCharFallbackTrieCompiler<String>()), String::length));
+	}
+
+	@Test
+	public void testSnapshotLinkedDawg() throws Exception {
+		assertMultiplexes(new CharWordMatcher<>(words(new LinkedCharFallbackDawgCompiler<String>()), String::length));
+	}
+
+	@Test
+	public void testSnapshotDfa() throws Exception {
+		assertMultiplexes(new CharWordMatcher<>(words(new DenseCharDfaCompiler<String>()), String::length));
+	}
+
+	@Test
+	public void testSnapshotIntoOwnedStates() throws Exception {
+		CharWordMatcher<String> matcher = new CharWordMatcher<>(words(new FlatCharFallbackDawgCompiler<String>()), String::length);
+		CharWordMatcher.State first = new CharWordMatcher.State();
+		CharWordMatcher.State second = new CharWordMatcher.State();
+		List<WordMatch<String>> matches = new ArrayList<>();
+
+		matcher.feed("us".toCharArray(), 0, 2, matches::add);
+		matcher.snapshot(first);
+		matcher.reset();
+		matcher.feed("h".toCharArray(), 0, 1, matches::add);
+		matcher.snapshot(second);
+		matcher.restore(first);
+		matcher.feed("h".toCharArray(), 0, 1, matches::add);
+		matcher.snapshot(first);
+		matcher.restore(second);
+		matcher.feed("is".toCharArray(), 0, 2, matches::add);
+		matcher.restore(first);
+		matcher.feed("e".toCharArray(), 0, 1, matches::add);
+
+		assertThat(matches, contains(
+			new WordMatch<>(0, 3, "his"),
+			new WordMatch<>(1, 4, "she"),
+			new WordMatch<>(2, 4, "he")));
+		assertThat(first.getPosition(), equalTo(3l));
+		assertThat(second.getPosition(), equalTo(1l));
+	}
+
+	@Test
+	public void testSnapshotUnsupported() throws Exception {
+		CharWordMatcher<String> matcher = new CharWordMatcher<>(new CharWordSetBuilder<>(new DoubleArrayCharCompactTrieCompiler<String>())
+			.extend("he".toCharArray(), "he")
+			.build());
+
+		thrown.expect(UnsupportedOperationException.class);
+		matcher.snapshot();
+	}
+
+	private void assertMultiplexes(CharWordMatcher<String> matcher) {
+		List<WordMatch<String>> first = new ArrayList<>();
+		List<WordMatch<String>> second = new ArrayList<>();
+
+		matcher.feed("ush".toCharArray(), 0, 3, first::add);
+		CharWordMatcher.State firstState = matcher.snapshot();
+		matcher.reset();
+		matcher.feed("hi".toCharArray(), 0, 2, second::add);
+		CharWordMatcher.State secondState = matcher.snapshot();
+
+		matcher.restore(firstState);
+		matcher.feed("ers".toCharArray(), 0, 3, first::add);
+		matcher.restore(secondState);
+		matcher.feed("s".toCharArray(), 0, 1, second::add);
+
+		assertThat(first, contains(
+			new WordMatch<>(1, 4, "she"),
+			new WordMatch<>(2, 4, "he"),
+			new WordMatch<>(2, 6, "hers")));
+		assertThat(second, contains(
+			new WordMatch<>(0, 3, "his")));
+		assertThat(firstState.getPosition(), equalTo(3l));
+		assertThat(secondState.getPosition(), equalTo(2l));
+	}
+
+	private static CharWordSet<String> words(CharWordGraphCompiler<String, ? extends CharWordSet<String>> compiler) {
+		return new CharWordSetBuilder<>(compiler)
+			.extend("he".toCharArray(), "he")
+			.extend("she".toCharArray(), "she")
+			.extend("his".toCharArray(), "his")
+			.extend("hers".toCharArray(), "hers")
+			.work(new CharFallbackLinks<>())
+			.build();
+	}
+
+}
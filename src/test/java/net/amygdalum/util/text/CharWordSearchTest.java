@@ -0,0 +1,153 @@
+package net.amygdalum.util.text;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import net.amygdalum.util.io.ReaderCharProvider;
+import net.amygdalum.util.io.StringCharProvider;
+import net.amygdalum.util.text.doublearraytrie.DoubleArrayCharCompactTrieCompiler;
+import net.amygdalum.util.text.doublearraytrie.DoubleArrayCharFallbackTrieCompiler;
+
+public class CharWordSearchTest {
+
+	@Test
+	public void testPlain() throws Exception {
+		CharWordSearch<String> search = CharWordSearch.plain(plain("he", "she", "his", "hers"));
+
+		assertThat(search.matches(new StringCharProvider("ushers", 0)).collect(toList()), contains(
+			new WordMatch<>(1, 4, "she"),
+			new WordMatch<>(2, 4, "he"),
+			new WordMatch<>(2, 6, "hers")));
+		assertThat(search.matches(new ReaderCharProvider(new StringReader("ushers"), 0, 4, 1)).collect(toList()), contains(
+			new WordMatch<>(1, 4, "she"),
+			new WordMatch<>(2, 4, "he"),
+			new WordMatch<>(2, 6, "hers")));
+	}
+
+	@Test
+	public void testPlainFromCurrentPosition() throws Exception {
+		CharWordSearch<String> search = CharWordSearch.plain(plain("he", "she", "his", "hers"));
+
+		assertThat(search.matches(new StringCharProvider("ushers", 2)).collect(toList()), contains(
+			new WordMatch<>(2, 4, "he"),
+			new WordMatch<>(2, 6, "hers")));
+	}
+
+	@Test
+	public void testFallback() throws Exception {
+		CharWordSearch<String> search = CharWordSearch.fallback(fallback("he", "she", "his", "hers"), 4, String::length);
+
+		assertThat(search.matches(new StringCharProvider("ushers", 0)).collect(toList()), contains(
+			new WordMatch<>(1, 4, "she"),
+			new WordMatch<>(2, 4, "he"),
+			new WordMatch<>(2, 6, "hers")));
+		assertThat(search.matches(new ReaderCharProvider(new StringReader("ushers"), 0, 4, 1)).collect(toList()), contains(
+			new WordMatch<>(1, 4, "she"),
+			new WordMatch<>(2, 4, "he"),
+			new WordMatch<>(2, 6, "hers")));
+	}
+
+	@Test
+	public void testFallbackWithoutLength() throws Exception {
+		CharWordSearch<String> search = CharWordSearch.fallback(fallback("he", "she", "his", "hers"), 4);
+
+		assertThat(search.matches(new StringCharProvider("ushers", 0)).collect(toList()), contains(
+			new WordMatch<>(4, "she"),
+			new WordMatch<>(4, "he"),
+			new WordMatch<>(6, "hers")));
+	}
+
+	@Test
+	public void testFallbackFromCurrentPosition() throws Exception {
+		CharWordSearch<String> search = CharWordSearch.fallback(fallback("he", "she", "his", "hers"), 4, String::length);
+
+		assertThat(search.matches(new StringCharProvider("ushers", 2)).collect(toList()), contains(
+			new WordMatch<>(2, 4, "he"),
+			new WordMatch<>(2, 6, "hers")));
+	}
+
+	@Test
+	public void testLazy() throws Exception {
+		CharWordSearch<String> search = CharWordSearch.fallback(fallback("he", "she"), 3, String::length);
+		ReaderCharProvider chars = new ReaderCharProvider(new StringReader("she" + repeat('x', 10000)), 0, 16, 1);
+
+		assertThat(search.matches(chars).findFirst().get(), equalTo(new WordMatch<>(0, 3, "she")));
+		assertThat(chars.current(), lessThan(16l));
+	}
+
+	@Test
+	public void testParallelEqualsSequential() throws Exception {
+		Random random = new Random(42);
+		String[] words = new String[40];
+		for (int i = 0; i < words.length; i++) {
+			words[i] = randomString(random, 1 + random.nextInt(6));
+		}
+		String text = randomString(random, 50000);
+
+		CharWordSearch<String> plain = CharWordSearch.plain(plain(words));
+		List<WordMatch<String>> plainMatches = plain.matches(new ReaderCharProvider(new StringReader(text), 0, 1024, 1)).collect(toList());
+		assertThat(plain.matches(new StringCharProvider(text, 0)).parallel().collect(toList()), equalTo(plainMatches));
+
+		CharWordSearch<String> fallback = CharWordSearch.fallback(fallback(words), 6, String::length);
+		List<WordMatch<String>> fallbackMatches = fallback.matches(new ReaderCharProvider(new StringReader(text), 0, 1024, 1)).collect(toList());
+		assertThat(fallback.matches(new StringCharProvider(text, 0)).parallel().collect(toList()), equalTo(fallbackMatches));
+
+		assertThat(new HashSet<>(plainMatches), equalTo(new HashSet<>(fallbackMatches)));
+	}
+
+	private static String repeat(char c, int length) {
+		char[] chars = new char[length];
+		for (int i = 0; i < length; i++) {
+			chars[i] = c;
+		}
+		return new String(chars);
+	}
+
+	private static String randomString(Random random, int length) {
+		char[] chars = new char[length];
+		for (int i = 0; i < length; i++) {
+			chars[i] = (char) ('a' + random.nextInt(3));
+		}
+		return new String(chars);
+	}
+
+	private static CharWordSet<String> plain(String... words) {
+		CharWordSetBuilder<String, CharTrie<String>> builder = new CharWordSetBuilder<>(new DoubleArrayCharCompactTrieCompiler<String>());
+		for (String word : distinct(words)) {
+			builder.extend(word.toCharArray(), word);
+		}
+		return builder.build();
+	}
+
+	private static CharWordSet<String> fallback(String... words) {
+		CharWordSetBuilder<String, CharTrie<String>> builder = new CharWordSetBuilder<>(new DoubleArrayCharFallbackTrieCompiler<String>());
+		for (String word : distinct(words)) {
+			builder.extend(word.toCharArray(), word);
+		}
+		return builder
+			.work(new CharFallbackLinks<>())
+			.build();
+	}
+
+	private static List<String> distinct(String... words) {
+		List<String> distinct = new ArrayList<>();
+		for (String word : words) {
+			if (!distinct.contains(word)) {
+				distinct.add(word);
+			}
+		}
+		return distinct;
+	}
+
+}
@@ -0,0 +1,143 @@
+package net.amygdalum.util.text;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import net.amygdalum.util.text.doublearraytrie.DoubleArrayCharCompactTrieCompiler;
+import net.amygdalum.util.text.doublearraytrie.DoubleArrayCharFallbackTrieCompiler;
+import net.amygdalum.util.text.linkeddawg.LinkedCharDawgCompiler;
+import net.amygdalum.util.text.linkeddawg.LinkedCharFallbackDawgCompiler;
+
+public class CharWordSetBulkBuilderTest {
+
+	@Test
+	public void testLinkedDawg() throws Exception {
+		CharDawg<String> dawg = new CharWordSetBulkBuilder<>(new LinkedCharDawgCompiler<String>())
+			.extend("bachelor".toCharArray(), "Bachelor")
+			.extend("jar".toCharArray(), "Jar")
+			.extend("badge".toCharArray(), "Badge")
+			.extend("baby".toCharArray(), "Baby")
+			.build();
+
+		assertThat(dawg.find("bachelor".toCharArray()), equalTo("Bachelor"));
+		assertThat(dawg.find("jar".toCharArray()), equalTo("Jar"));
+		assertThat(dawg.find("badge".toCharArray()), equalTo("Badge"));
+		assertThat(dawg.find("baby".toCharArray()), equalTo("Baby"));
+		assertThat(dawg.find("bab".toCharArray()), nullValue());
+	}
+
+	@Test
+	public void testDoubleArrayTrie() throws Exception {
+		CharWordSet<String> trie = new CharWordSetBulkBuilder<>(new DoubleArrayCharCompactTrieCompiler<String>())
+			.extend("bachelor".toCharArray(), "Bachelor")
+			.extend("jar".toCharArray(), "Jar")
+			.extend("badge".toCharArray(), "Badge")
+			.extend("baby".toCharArray(), "Baby")
+			.build();
+
+		assertThat(trie.find("bachelor".toCharArray()), equalTo("Bachelor"));
+		assertThat(trie.find("jar".toCharArray()), equalTo("Jar"));
+		assertThat(trie.find("badge".toCharArray()), equalTo("Badge"));
+		assertThat(trie.find("baby".toCharArray()), equalTo("Baby"));
+		assertThat(trie.contains("bab".toCharArray()), is(false));
+	}
+
+	@Test
+	public void testEmptyWord() throws Exception {
+		CharDawg<String> dawg = new CharWordSetBulkBuilder<>(new LinkedCharDawgCompiler<String>())
+			.extend("".toCharArray(), "Empty")
+			.extend("a".toCharArray(), "A")
+			.build();
+
+		assertThat(dawg.find("".toCharArray()), equalTo("Empty"));
+		assertThat(dawg.find("a".toCharArray()), equalTo("A"));
+	}
+
+	@Test
+	public void testJoinStrategyInInputOrder() throws Exception {
+		CharDawg<String> dawg = new CharWordSetBulkBuilder<>(new LinkedCharDawgCompiler<String>(), (existing, next) -> existing == null ? next : existing + next)
+			.extend("ab".toCharArray(), "1")
+			.extend("b".toCharArray(), "2")
+			.extend("ab".toCharArray(), "3")
+			.extend("ab".toCharArray(), "4")
+			.build();
+
+		assertThat(dawg.find("ab".toCharArray()), equalTo("134"));
+		assertThat(dawg.find("b".toCharArray()), equalTo("2"));
+	}
+
+	@Test
+	public void testWork() throws Exception {
+		CharWordSet<String> trie = new CharWordSetBulkBuilder<>(new DoubleArrayCharFallbackTrieCompiler<String>())
+			.extend("gat".toCharArray(), "GAT")
+			.extend("cgatggg".toCharArray(), "CGATGGG")
+			.work(new CharFallbackLinks<>())
+			.build();
+
+		CharAutomaton<String> cursor = trie.cursor();
+		cursor.accept('c');
+		cursor.accept('g');
+		cursor.accept('a');
+		cursor.accept('t');
+		assertThat(cursor.getAttached(), equalTo("GAT"));
+	}
+
+	@Test
+	public void testEqualToSequentialBuilder() throws Exception {
+		Random random = new Random(42);
+		List<String> words = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			char[] word = new char[1 + random.nextInt(8)];
+			for (int j = 0; j < word.length; j++) {
+				word[j] = (char) ('a' + random.nextInt(6));
+			}
+			words.add(new String(word));
+		}
+		CharWordSetBulkBuilder<String, CharDawg<String>> bulkBuilder = new CharWordSetBulkBuilder<>(new LinkedCharDawgCompiler<String>(), null, new ForkJoinPool(4));
+		CharWordSetBuilder<String, CharDawg<String>> builder = new CharWordSetBuilder<>(new LinkedCharDawgCompiler<String>());
+		for (String word : words) {
+			bulkBuilder.extend(word.toCharArray(), word.toUpperCase());
+			builder.extend(word.toCharArray(), word.toUpperCase());
+		}
+		CharDawg<String> bulkDawg = bulkBuilder.build();
+		CharDawg<String> dawg = builder.build();
+
+		for (int i = 0; i < 2000; i++) {
+			char[] word = new char[1 + random.nextInt(8)];
+			for (int j = 0; j < word.length; j++) {
+				word[j] = (char) ('a' + random.nextInt(6));
+			}
+			assertThat(bulkDawg.find(word), equalTo(dawg.find(word)));
+		}
+	}
+
+	@Test
+	public void testCompiledSubGraphsInWalker() throws Exception {
+		CharDawg<String> dawg = new CharWordSetBulkBuilder<>(new LinkedCharFallbackDawgCompiler<String>(), null, new ForkJoinPool(4))
+			.extend("he".toCharArray(), "HE")
+			.extend("hers".toCharArray(), "HERS")
+			.extend("she".toCharArray(), "SHE")
+			.extend("his".toCharArray(), "HIS")
+			.build();
+
+		List<String> found = new ArrayList<>();
+		CharWordEnumeration<String> words = dawg.withPrefix("h".toCharArray());
+		while (words.next()) {
+			found.add(words.getAttached());
+		}
+		assertThat(found, contains("HE", "HERS", "HIS"));
+		assertThat(dawg.find("she".toCharArray()), equalTo("SHE"));
+		assertThat(dawg.find("sh".toCharArray()), nullValue());
+	}
+
+}
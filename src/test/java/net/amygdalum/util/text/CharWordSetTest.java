@@ -0,0 +1,168 @@
+package net.amygdalum.util.text;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import net.amygdalum.util.io.StringCharProvider;
+import net.amygdalum.util.text.dfa.DenseCharDfaCompiler;
+import net.amygdalum.util.text.doublearraytrie.DoubleArrayCharCompactTrieCompiler;
+import net.amygdalum.util.text.doublearraytrie.DoubleArrayCharFallbackTrieCompiler;
+import net.amygdalum.util.text.linkeddawg.FlatCharDawgCompiler;
+import net.amygdalum.util.text.linkeddawg.FlatCharFallbackDawgCompiler;
+import net.amygdalum.util.text.linkeddawg.LinkedCharDawgCompiler;
+import net.amygdalum.util.text.linkeddawg.LinkedCharFallbackDawgCompiler;
+import net.amygdalum.util.text.louds.LoudsCharTrieCompiler;
+
+public class CharWordSetTest {
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	@Test
+	public void testLongestPrefixOf() throws Exception {
+		for (CharWordSet<String> words : wordSets("a", "abc", "abcde", "b")) {
+			assertThat(words.longestPrefixOf("abcdx".toCharArray()), equalTo(new WordMatch<>(0, 3, "abc")));
+			assertThat(words.longestPrefixOf("abcde".toCharArray()), equalTo(new WordMatch<>(0, 5, "abcde")));
+			assertThat(words.longestPrefixOf("ab".toCharArray()), equalTo(new WordMatch<>(0, 1, "a")));
+			assertThat(words.longestPrefixOf("bc".toCharArray()), equalTo(new WordMatch<>(0, 1, "b")));
+			assertThat(words.longestPrefixOf("c".toCharArray()), nullValue());
+			assertThat(words.longestPrefixOf("".toCharArray()), nullValue());
+		}
+	}
+
+	@Test
+	public void testLongestPrefixOfEmptyWord() throws Exception {
+		for (CharWordSet<String> words : wordSets("", "ab")) {
+			assertThat(words.longestPrefixOf("ax".toCharArray()), equalTo(new WordMatch<>(0, 0, "")));
+			assertThat(words.longestPrefixOf("abx".toCharArray()), equalTo(new WordMatch<>(0, 2, "ab")));
+		}
+	}
+
+	@Test
+	public void testLongestPrefixOfProviderSegments() throws Exception {
+		for (CharWordSet<String> words : wordSets("a", "ab", "abc", "b", "bca")) {
+			StringCharProvider chars = new StringCharProvider("abcabbcax", 0);
+			List<WordMatch<String>> segments = new ArrayList<>();
+			WordMatch<String> match = words.longestPrefixOf(chars);
+			while (match != null) {
+				segments.add(match);
+				match = words.longestPrefixOf(chars);
+			}
+			assertThat(segments, contains(
+				new WordMatch<>(0, 3, "abc"),
+				new WordMatch<>(3, 5, "ab"),
+				new WordMatch<>(5, 8, "bca")));
+			assertThat(chars.current(), equalTo(8l));
+		}
+	}
+
+	@Test
+	public void testAllPrefixesOf() throws Exception {
+		for (CharWordSet<String> words : wordSets("a", "abc", "abcde", "abd", "b")) {
+			assertThat(words.allPrefixesOf("abcdx".toCharArray()), contains(
+				new WordMatch<>(0, 1, "a"),
+				new WordMatch<>(0, 3, "abc")));
+			assertThat(words.allPrefixesOf("abcde".toCharArray()), contains(
+				new WordMatch<>(0, 1, "a"),
+				new WordMatch<>(0, 3, "abc"),
+				new WordMatch<>(0, 5, "abcde")));
+			assertThat(words.allPrefixesOf("c".toCharArray()), empty());
+		}
+	}
+
+	@Test
+	public void testWithPrefix() throws Exception {
+		for (CharWordSet<String> words : wordSets("bachelor", "baby", "badge", "bad", "jar", "b")) {
+			assertThat(enumerate(words.withPrefix("ba".toCharArray())), contains("baby", "bachelor", "bad", "badge"));
+			assertThat(enumerate(words.withPrefix("bad".toCharArray())), contains("bad", "badge"));
+			assertThat(enumerate(words.withPrefix("".toCharArray())), contains("b", "baby", "bachelor", "bad", "badge", "jar"));
+			assertThat(enumerate(words.withPrefix("badges".toCharArray())), empty());
+			assertThat(enumerate(words.withPrefix("x".toCharArray())), empty());
+		}
+	}
+
+	@Test
+	public void testWithPrefixAttachments() throws Exception {
+		for (CharWordSet<String> words : wordSets("ab", "abc")) {
+			CharWordEnumeration<String> enumeration = words.withPrefix("a".toCharArray());
+			List<String> attachments = new ArrayList<>();
+			while (enumeration.next()) {
+				attachments.add(enumeration.getAttached());
+			}
+			assertThat(attachments, contains("ab", "abc"));
+			assertThat(enumeration.next(), equalTo(false));
+		}
+	}
+
+	@Test
+	public void testPrefixQueriesIgnoreFallbackLinks() throws Exception {
+		List<CharWordSet<String>> wordSets = new ArrayList<>();
+		wordSets.add(buildWithFallbackLinks(new DoubleArrayCharFallbackTrieCompiler<String>(), "abc", "bd"));
+		wordSets.add(buildWithFallbackLinks(new LinkedCharFallbackDawgCompiler<String>(), "abc", "bd"));
+		wordSets.add(buildWithFallbackLinks(new FlatCharFallbackDawgCompiler<String>(), "abc", "bd"));
+		for (CharWordSet<String> words : wordSets) {
+			assertThat(words.longestPrefixOf("abd".toCharArray()), nullValue());
+			assertThat(words.allPrefixesOf("abd".toCharArray()), empty());
+			assertThat(enumerate(words.withPrefix("ab".toCharArray())), contains("abc"));
+		}
+	}
+
+	@Test
+	public void testWalkerUnsupported() throws Exception {
+		CharWordSet<String> words = new CharWordSetBuilder<>(new DenseCharDfaCompiler<String>())
+			.extend("a".toCharArray(), "a")
+			.build();
+
+		thrown.expect(UnsupportedOperationException.class);
+		words.longestPrefixOf("a".toCharArray());
+	}
+
+	private static List<String> enumerate(CharWordEnumeration<String> enumeration) {
+		List<String> words = new ArrayList<>();
+		while (enumeration.next()) {
+			words.add(new String(enumeration.getBuffer(), 0, enumeration.getLength()));
+		}
+		return words;
+	}
+
+	private static List<CharWordSet<String>> wordSets(String... words) {
+		List<CharWordSet<String>> wordSets = new ArrayList<>();
+		wordSets.add(build(new DoubleArrayCharCompactTrieCompiler<String>(), words));
+		wordSets.add(build(new DoubleArrayCharFallbackTrieCompiler<String>(), words));
+		wordSets.add(build(new LinkedCharDawgCompiler<String>(), words));
+		wordSets.add(build(new LinkedCharFallbackDawgCompiler<String>(), words));
+		wordSets.add(build(new FlatCharDawgCompiler<String>(), words));
+		wordSets.add(build(new FlatCharFallbackDawgCompiler<String>(), words));
+		wordSets.add(build(new LoudsCharTrieCompiler<String>(), words));
+		return wordSets;
+	}
+
+	private static <R extends CharWordSet<String>> R build(CharWordGraphCompiler<String, R> compiler, String... words) {
+		CharWordSetBuilder<String, R> builder = new CharWordSetBuilder<>(compiler);
+		for (String word : words) {
+			builder.extend(word.toCharArray(), word);
+		}
+		return builder.build();
+	}
+
+	private static <R extends CharWordSet<String>> R buildWithFallbackLinks(CharWordGraphCompiler<String, R> compiler, String... words) {
+		CharWordSetBuilder<String, R> builder = new CharWordSetBuilder<>(compiler);
+		for (String word : words) {
+			builder.extend(word.toCharArray(), word);
+		}
+		return builder
+			.work(new CharFallbackLinks<>())
+			.build();
+	}
+
+}
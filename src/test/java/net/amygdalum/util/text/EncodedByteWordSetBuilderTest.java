@@ -0,0 +1,210 @@
+package net.amygdalum.util.text;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_16BE;
+import static java.nio.charset.StandardCharsets.UTF_16LE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import net.amygdalum.util.io.StringByteProvider;
+import net.amygdalum.util.text.linkeddawg.FlatByteDawgCompiler;
+import net.amygdalum.util.text.linkeddawg.LinkedByteDawgCompiler;
+
+public class EncodedByteWordSetBuilderTest {
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	@Test
+	public void testUtf8Words() throws Exception {
+		ByteDawg<String> dawg = new EncodedByteWordSetBuilder<>(new LinkedByteDawgCompiler<String>(), UTF_8)
+			.extend("bachelor".toCharArray(), "Bachelor")
+			.extend("jär".toCharArray(), "Jar")
+			.extend("香港".toCharArray(), "Hongkong")
+			.extend("😀".toCharArray(), "Smiley")
+			.build();
+
+		assertThat(dawg.find("bachelor".getBytes(UTF_8)), equalTo("Bachelor"));
+		assertThat(dawg.find("jär".getBytes(UTF_8)), equalTo("Jar"));
+		assertThat(dawg.find("香港".getBytes(UTF_8)), equalTo("Hongkong"));
+		assertThat(dawg.find("😀".getBytes(UTF_8)), equalTo("Smiley"));
+		assertThat(dawg.find("jar".getBytes(UTF_8)), nullValue());
+		assertThat(dawg.find("jär".getBytes(UTF_16LE)), nullValue());
+	}
+
+	@Test
+	public void testUtf16LEWords() throws Exception {
+		ByteDawg<String> dawg = new EncodedByteWordSetBuilder<>(new LinkedByteDawgCompiler<String>(), UTF_16LE)
+			.extend("bachelor".toCharArray(), "Bachelor")
+			.extend("jär".toCharArray(), "Jar")
+			.extend("😀".toCharArray(), "Smiley")
+			.build();
+
+		assertThat(dawg.find("bachelor".getBytes(UTF_16LE)), equalTo("Bachelor"));
+		assertThat(dawg.find("jär".getBytes(UTF_16LE)), equalTo("Jar"));
+		assertThat(dawg.find("😀".getBytes(UTF_16LE)), equalTo("Smiley"));
+		assertThat(dawg.find("bachelor".getBytes(UTF_8)), nullValue());
+	}
+
+	@Test
+	public void testUnpairedSurrogateWord() throws Exception {
+		EncodedByteWordSetBuilder<String, ByteDawg<String>> builder = new EncodedByteWordSetBuilder<>(new LinkedByteDawgCompiler<String>(), UTF_8);
+
+		thrown.expect(IllegalArgumentException.class);
+		builder.extend("a\ud83d".toCharArray(), "A");
+	}
+
+	@Test
+	public void testCharClasses() throws Exception {
+		List<List<CharRange>> pattern = asList(
+			asList(new CharRange('a', 'c')),
+			asList(new CharRange('ä', 'ä'), new CharRange('香', '香')));
+		ByteDawg<String> dawg = new EncodedByteWordSetBuilder<>(new LinkedByteDawgCompiler<String>(), UTF_8)
+			.extend(pattern, "Class")
+			.extend("bä".toCharArray(), "Word")
+			.build();
+
+		assertThat(dawg.find("aä".getBytes(UTF_8)), equalTo("Class"));
+		assertThat(dawg.find("c香".getBytes(UTF_8)), equalTo("Class"));
+		assertThat(dawg.find("b香".getBytes(UTF_8)), equalTo("Class"));
+		assertThat(dawg.find("bä".getBytes(UTF_8)), equalTo("Word"));
+		assertThat(dawg.find("dä".getBytes(UTF_8)), nullValue());
+		assertThat(dawg.find("a".getBytes(UTF_8)), nullValue());
+		assertThat(dawg.find("ab".getBytes(UTF_8)), nullValue());
+	}
+
+	@Test
+	public void testCharClassesWithJoinStrategy() throws Exception {
+		List<List<CharRange>> pattern = asList(
+			asList(new CharRange('a', 'b')),
+			asList(new CharRange('x', 'x')));
+		ByteDawg<String> dawg = new EncodedByteWordSetBuilder<>(new LinkedByteDawgCompiler<String>(), (existing, data) -> existing == null ? data : existing + data, UTF_8)
+			.extend("ax".toCharArray(), "Word")
+			.extend(pattern, "Class")
+			.build();
+
+		assertThat(dawg.find("ax".getBytes(UTF_8)), equalTo("WordClass"));
+		assertThat(dawg.find("bx".getBytes(UTF_8)), equalTo("Class"));
+	}
+
+	@Test
+	public void testCharClassesSkipSurrogates() throws Exception {
+		List<List<CharRange>> pattern = asList(
+			asList(new CharRange('\ud7ff', '\ue000')));
+		ByteDawg<String> dawg = new EncodedByteWordSetBuilder<>(new LinkedByteDawgCompiler<String>(), UTF_8)
+			.extend(pattern, "Class")
+			.build();
+
+		assertThat(dawg.contains("\ud7ff".getBytes(UTF_8)), is(true));
+		assertThat(dawg.contains("\ue000".getBytes(UTF_8)), is(true));
+		assertThat(dawg.contains(new byte[] {(byte) 0xed, (byte) 0xa0, (byte) 0x80}), is(false));
+	}
+
+	@Test
+	public void testCharClassesFullRange() throws Exception {
+		List<List<CharRange>> pattern = asList(
+			asList(new CharRange(Character.MIN_VALUE, Character.MAX_VALUE)));
+		ByteDawg<String> dawg = new EncodedByteWordSetBuilder<>(new LinkedByteDawgCompiler<String>(), UTF_16LE)
+			.extend(pattern, "Char")
+			.build();
+
+		for (int c = Character.MIN_VALUE; c <= Character.MAX_VALUE; c++) {
+			byte[] encoded = new byte[] {(byte) c, (byte) (c >>> 8)};
+			assertThat(dawg.contains(encoded), is(!Character.isSurrogate((char) c)));
+		}
+	}
+
+	@Test
+	public void testSearchEncodedInput() throws Exception {
+		List<List<CharRange>> pattern = asList(
+			asList(new CharRange('香', '香')),
+			asList(new CharRange('港', '港'), new CharRange('氣', '氣')));
+		ByteDawg<String> dawg = new EncodedByteWordSetBuilder<>(new LinkedByteDawgCompiler<String>(), UTF_8)
+			.extend("händler".toCharArray(), "Haendler")
+			.extend(pattern, "Xiang")
+			.build();
+		ByteWordSearch<String> search = ByteWordSearch.plain(dawg);
+
+		assertThat(search.matches(new StringByteProvider("ein händler in 香港", 0, UTF_8)).collect(toList()), contains(
+			new WordMatch<>(4, 12, "Haendler"),
+			new WordMatch<>(16, 22, "Xiang")));
+	}
+
+	@Test
+	public void testCharClassesUtf8Partitions() throws Exception {
+		List<List<CharRange>> pattern = asList(
+			asList(new CharRange('\u0041', '\u0800'), new CharRange('\u0700', '\u07ff'), new CharRange('\ufff0', '\uffff')));
+		ByteDawg<String> dawg = new EncodedByteWordSetBuilder<>(new FlatByteDawgCompiler<String>(), UTF_8)
+			.extend(pattern, "Char")
+			.build();
+
+		for (int c = Character.MIN_VALUE; c <= Character.MAX_VALUE; c++) {
+			boolean contained = c >= 0x41 && c <= 0x800 || c >= 0xfff0;
+			assertThat(dawg.contains(String.valueOf((char) c).getBytes(UTF_8)), is(contained));
+		}
+	}
+
+	@Test
+	public void testCharClassesUtf16BE() throws Exception {
+		List<List<CharRange>> pattern = asList(
+			asList(new CharRange('\u00fe', '\u0301')));
+		ByteDawg<String> dawg = new EncodedByteWordSetBuilder<>(new LinkedByteDawgCompiler<String>(), UTF_16BE)
+			.extend(pattern, "Char")
+			.build();
+
+		for (int c = 0; c < 0x400; c++) {
+			byte[] encoded = new byte[] {(byte) (c >>> 8), (byte) c};
+			assertThat(dawg.contains(encoded), is(c >= 0xfe && c <= 0x301));
+		}
+	}
+
+	@Test
+	public void testCharClassesShareSuffixes() throws Exception {
+		List<CharRange> any = asList(new CharRange(Character.MIN_VALUE, Character.MAX_VALUE));
+		List<List<CharRange>> pattern = asList(any, any, any, any, any, any, any, any);
+		ByteDawg<String> dawg = new EncodedByteWordSetBuilder<>(new LinkedByteDawgCompiler<String>(), UTF_8)
+			.extend(pattern, "Any")
+			.build();
+
+		assertThat(dawg.find("abcdefgh".getBytes(UTF_8)), equalTo("Any"));
+		assertThat(dawg.find("香港abcä\uffffd".getBytes(UTF_8)), equalTo("Any"));
+		assertThat(dawg.find("abcdefg".getBytes(UTF_8)), nullValue());
+		assertThat(dawg.find("abcdefghi".getBytes(UTF_8)), nullValue());
+	}
+
+	@Test
+	public void testWordsDoNotChangeSharedPatternNodes() throws Exception {
+		List<List<CharRange>> pattern = asList(
+			asList(new CharRange('a', 'b')),
+			asList(new CharRange('c', 'c')));
+		ByteDawg<String> dawg = new EncodedByteWordSetBuilder<>(new LinkedByteDawgCompiler<String>(), UTF_8)
+			.extend(pattern, "Class")
+			.extend("ad".toCharArray(), "Word")
+			.extend("bc".toCharArray(), "Other")
+			.build();
+
+		assertThat(dawg.find("ac".getBytes(UTF_8)), equalTo("Class"));
+		assertThat(dawg.find("bc".getBytes(UTF_8)), equalTo("Other"));
+		assertThat(dawg.find("ad".getBytes(UTF_8)), equalTo("Word"));
+		assertThat(dawg.find("bd".getBytes(UTF_8)), nullValue());
+	}
+
+	@Test
+	public void testUnsupportedCharset() throws Exception {
+		thrown.expect(IllegalArgumentException.class);
+		new EncodedByteWordSetBuilder<>(new LinkedByteDawgCompiler<String>(), ISO_8859_1);
+	}
+
+}
@@ -0,0 +1,250 @@
+package net.amygdalum.util.text;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import net.amygdalum.util.text.doublearraytrie.DoubleArrayByteCompactTrieCompiler;
+import net.amygdalum.util.text.doublearraytrie.DoubleArrayByteFallbackTrieCompiler;
+import net.amygdalum.util.text.linkeddawg.LinkedByteDawgCompiler;
+
+public class VersionedByteWordSetTest {
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	@Test
+	public void testEmpty() throws Exception {
+		VersionedByteWordSet<String> words = new VersionedByteWordSet<>(new DoubleArrayByteCompactTrieCompiler<String>());
+
+		assertThat(words.version(), equalTo(0l));
+		assertThat(words.size(), equalTo(0));
+		assertThat(words.contains("bachelor".getBytes("UTF-8")), is(false));
+		assertThat(words.cursor().accept((byte) 'b'), is(false));
+	}
+
+	@Test
+	public void testApply() throws Exception {
+		VersionedByteWordSet<String> words = new VersionedByteWordSet<>(new DoubleArrayByteCompactTrieCompiler<String>());
+
+		long version = words.batch()
+			.put("bachelor".getBytes("UTF-8"), "Bachelor")
+			.put("jar".getBytes("UTF-8"), "Jar")
+			.apply();
+
+		assertThat(version, equalTo(1l));
+		assertThat(words.version(), equalTo(1l));
+		assertThat(words.size(), equalTo(2));
+		assertThat(words.find("bachelor".getBytes("UTF-8")), equalTo("Bachelor"));
+		assertThat(words.find("jar".getBytes("UTF-8")), equalTo("Jar"));
+
+		version = words.batch()
+			.remove("jar".getBytes("UTF-8"))
+			.put("bachelor".getBytes("UTF-8"), "BACHELOR")
+			.put("baby".getBytes("UTF-8"), "Baby")
+			.remove("unknown".getBytes("UTF-8"))
+			.apply();
+
+		assertThat(version, equalTo(2l));
+		assertThat(words.size(), equalTo(2));
+		assertThat(words.find("bachelor".getBytes("UTF-8")), equalTo("BACHELOR"));
+		assertThat(words.find("baby".getBytes("UTF-8")), equalTo("Baby"));
+		assertThat(words.contains("jar".getBytes("UTF-8")), is(false));
+	}
+
+	@Test
+	public void testApplyInOrder() throws Exception {
+		VersionedByteWordSet<String> words = new VersionedByteWordSet<>(new LinkedByteDawgCompiler<String>());
+
+		words.batch()
+			.put("jar".getBytes("UTF-8"), "Jar")
+			.remove("jar".getBytes("UTF-8"))
+			.put("baby".getBytes("UTF-8"), "Baby")
+			.remove("baby".getBytes("UTF-8"))
+			.put("baby".getBytes("UTF-8"), "BABY")
+			.apply();
+
+		assertThat(words.contains("jar".getBytes("UTF-8")), is(false));
+		assertThat(words.find("baby".getBytes("UTF-8")), equalTo("BABY"));
+	}
+
+	@Test
+	public void testApplyRebuildsFromWordSet() throws Exception {
+		VersionedByteWordSet<String> words = new VersionedByteWordSet<>(new LinkedByteDawgCompiler<String>());
+		words.batch()
+			.put("he".getBytes("UTF-8"), "He")
+			.put("hers".getBytes("UTF-8"), "Hers")
+			.put("his".getBytes("UTF-8"), "His")
+			.apply();
+
+		words.batch()
+			.remove("his".getBytes("UTF-8"))
+			.put("he".getBytes("UTF-8"), "HE")
+			.put("she".getBytes("UTF-8"), "She")
+			.apply();
+
+		assertThat(words.size(), equalTo(3));
+		assertThat(words.find("he".getBytes("UTF-8")), equalTo("HE"));
+		assertThat(words.find("hers".getBytes("UTF-8")), equalTo("Hers"));
+		assertThat(words.find("she".getBytes("UTF-8")), equalTo("She"));
+		assertThat(words.find("his".getBytes("UTF-8")), nullValue());
+		assertThat(words.find("her".getBytes("UTF-8")), nullValue());
+	}
+
+	@Test
+	public void testApplyTasks() throws Exception {
+		VersionedByteWordSet<String> words = new VersionedByteWordSet<>(new DoubleArrayByteFallbackTrieCompiler<String>(), new ByteFallbackLinks<String>());
+		words.batch()
+			.put("he".getBytes("UTF-8"), "he")
+			.put("she".getBytes("UTF-8"), "she")
+			.apply();
+
+		assertThat(new ByteWordMatcher<>(words, String::length).feed("ushe".getBytes("UTF-8"), 0, 4), contains(
+			new WordMatch<>(1, 4, "she"),
+			new WordMatch<>(2, 4, "he")));
+
+		words.batch()
+			.remove("she".getBytes("UTF-8"))
+			.put("hers".getBytes("UTF-8"), "hers")
+			.apply();
+
+		assertThat(words.size(), equalTo(2));
+		assertThat(words.find("she".getBytes("UTF-8")), nullValue());
+		assertThat(new ByteWordMatcher<>(words, String::length).feed("ushers".getBytes("UTF-8"), 0, 6), contains(
+			new WordMatch<>(2, 4, "he"),
+			new WordMatch<>(2, 6, "hers")));
+	}
+
+	@Test
+	public void testBatchKeepsWordsUnchanged() throws Exception {
+		VersionedByteWordSet<String> words = new VersionedByteWordSet<>(new DoubleArrayByteCompactTrieCompiler<String>());
+		byte[] word = "jar".getBytes("UTF-8");
+		VersionedByteWordSet<String>.Batch batch = words.batch()
+			.put(word, "Jar");
+		word[0] = (byte) 'b';
+
+		batch.apply();
+
+		assertThat(words.contains("jar".getBytes("UTF-8")), is(true));
+		assertThat(words.contains("bar".getBytes("UTF-8")), is(false));
+	}
+
+	@Test
+	public void testSnapshotIsNotChanged() throws Exception {
+		VersionedByteWordSet<String> words = new VersionedByteWordSet<>(new DoubleArrayByteCompactTrieCompiler<String>());
+		words.batch()
+			.put("jar".getBytes("UTF-8"), "Jar")
+			.apply();
+		ByteWordSet<String> snapshot = words.snapshot();
+		ByteAutomaton<String> cursor = words.cursor();
+
+		words.batch()
+			.remove("jar".getBytes("UTF-8"))
+			.put("bachelor".getBytes("UTF-8"), "Bachelor")
+			.apply();
+
+		assertThat(snapshot.contains("jar".getBytes("UTF-8")), is(true));
+		assertThat(snapshot.contains("bachelor".getBytes("UTF-8")), is(false));
+		assertThat(cursor.accept((byte) 'j'), is(true));
+		assertThat(cursor.accept((byte) 'a'), is(true));
+		assertThat(cursor.accept((byte) 'r'), is(true));
+		assertThat(cursor.getAttached(), equalTo("Jar"));
+		assertThat(words.contains("jar".getBytes("UTF-8")), is(false));
+		assertThat(words.contains("bachelor".getBytes("UTF-8")), is(true));
+	}
+
+	@Test
+	public void testPutNullData() throws Exception {
+		VersionedByteWordSet<String> words = new VersionedByteWordSet<>(new DoubleArrayByteCompactTrieCompiler<String>());
+
+		thrown.expect(NullPointerException.class);
+		words.batch().put("jar".getBytes("UTF-8"), null);
+	}
+
+	@Test
+	public void testApplyAsync() throws Exception {
+		VersionedByteWordSet<String> words = new VersionedByteWordSet<>(new DoubleArrayByteCompactTrieCompiler<String>());
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			long version = words.batch()
+				.put("jar".getBytes("UTF-8"), "Jar")
+				.applyAsync(executor)
+				.get();
+
+			assertThat(version, equalTo(1l));
+			assertThat(words.find("jar".getBytes("UTF-8")), equalTo("Jar"));
+			assertThat(words.find("bachelor".getBytes("UTF-8")), nullValue());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testReadDuringReloads() throws Exception {
+		VersionedByteWordSet<String> words = new VersionedByteWordSet<>(new DoubleArrayByteCompactTrieCompiler<String>());
+		VersionedByteWordSet<String>.Batch initial = words.batch();
+		for (int i = 0; i < 500; i++) {
+			initial.put(("word" + i).getBytes("UTF-8"), "Word" + i);
+		}
+		initial.put("odd".getBytes("UTF-8"), "Odd");
+		initial.apply();
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Boolean>> results = new ArrayList<>();
+			for (int thread = 0; thread < 3; thread++) {
+				results.add(executor.submit(() -> {
+					for (int r = 0; r < 50; r++) {
+						ByteWordSet<String> snapshot = words.snapshot();
+						boolean odd = snapshot.contains("odd".getBytes("UTF-8"));
+						for (int i = 0; i < 500; i++) {
+							byte[] word = ("word" + i).getBytes("UTF-8");
+							if (i % 2 == 1 && !odd) {
+								if (snapshot.contains(word)) {
+									return false;
+								}
+							} else if (!("Word" + i).equals(snapshot.find(word))) {
+								return false;
+							}
+						}
+					}
+					return true;
+				}));
+			}
+			for (int r = 0; r < 10; r++) {
+				VersionedByteWordSet<String>.Batch batch = words.batch();
+				for (int i = 1; i < 500; i += 2) {
+					batch.remove(("word" + i).getBytes("UTF-8"));
+				}
+				batch.remove("odd".getBytes("UTF-8"));
+				batch.applyAsync(executor).get();
+
+				batch = words.batch();
+				for (int i = 1; i < 500; i += 2) {
+					batch.put(("word" + i).getBytes("UTF-8"), "Word" + i);
+				}
+				batch.put("odd".getBytes("UTF-8"), "Odd");
+				batch.applyAsync(executor).get();
+			}
+			for (Future<Boolean> result : results) {
+				assertThat(result.get(), is(true));
+			}
+			assertThat(words.version(), equalTo(21l));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+}
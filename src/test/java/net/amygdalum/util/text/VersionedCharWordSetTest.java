@@ -0,0 +1,250 @@
+package net.amygdalum.util.text;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import net.amygdalum.util.text.doublearraytrie.DoubleArrayCharCompactTrieCompiler;
+import net.amygdalum.util.text.doublearraytrie.DoubleArrayCharFallbackTrieCompiler;
+import net.amygdalum.util.text.linkeddawg.LinkedCharDawgCompiler;
+
+public class VersionedCharWordSetTest {
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	@Test
+	public void testEmpty() throws Exception {
+		VersionedCharWordSet<String> words = new VersionedCharWordSet<>(new DoubleArrayCharCompactTrieCompiler<String>());
+
+		assertThat(words.version(), equalTo(0l));
+		assertThat(words.size(), equalTo(0));
+		assertThat(words.contains("bachelor".toCharArray()), is(false));
+		assertThat(words.cursor().accept('b'), is(false));
+	}
+
+	@Test
+	public void testApply() throws Exception {
+		VersionedCharWordSet<String> words = new VersionedCharWordSet<>(new DoubleArrayCharCompactTrieCompiler<String>());
+
+		long version = words.batch()
+			.put("bachelor".toCharArray(), "Bachelor")
+			.put("jar".toCharArray(), "Jar")
+			.apply();
+
+		assertThat(version, equalTo(1l));
+		assertThat(words.version(), equalTo(1l));
+		assertThat(words.size(), equalTo(2));
+		assertThat(words.find("bachelor".toCharArray()), equalTo("Bachelor"));
+		assertThat(words.find("jar".toCharArray()), equalTo("Jar"));
+
+		version = words.batch()
+			.remove("jar".toCharArray())
+			.put("bachelor".toCharArray(), "BACHELOR")
+			.put("baby".toCharArray(), "Baby")
+			.remove("unknown".toCharArray())
+			.apply();
+
+		assertThat(version, equalTo(2l));
+		assertThat(words.size(), equalTo(2));
+		assertThat(words.find("bachelor".toCharArray()), equalTo("BACHELOR"));
+		assertThat(words.find("baby".toCharArray()), equalTo("Baby"));
+		assertThat(words.contains("jar".toCharArray()), is(false));
+	}
+
+	@Test
+	public void testApplyInOrder() throws Exception {
+		VersionedCharWordSet<String> words = new VersionedCharWordSet<>(new LinkedCharDawgCompiler<String>());
+
+		words.batch()
+			.put("jar".toCharArray(), "Jar")
+			.remove("jar".toCharArray())
+			.put("baby".toCharArray(), "Baby")
+			.remove("baby".toCharArray())
+			.put("baby".toCharArray(), "BABY")
+			.apply();
+
+		assertThat(words.contains("jar".toCharArray()), is(false));
+		assertThat(words.find("baby".toCharArray()), equalTo("BABY"));
+	}
+
+	@Test
+	public void testApplyRebuildsFromWordSet() throws Exception {
+		VersionedCharWordSet<String> words = new VersionedCharWordSet<>(new LinkedCharDawgCompiler<String>());
+		words.batch()
+			.put("he".toCharArray(), "He")
+			.put("hers".toCharArray(), "Hers")
+			.put("his".toCharArray(), "His")
+			.apply();
+
+		words.batch()
+			.remove("his".toCharArray())
+			.put("he".toCharArray(), "HE")
+			.put("she".toCharArray(), "She")
+			.apply();
+
+		assertThat(words.size(), equalTo(3));
+		assertThat(words.find("he".toCharArray()), equalTo("HE"));
+		assertThat(words.find("hers".toCharArray()), equalTo("Hers"));
+		assertThat(words.find("she".toCharArray()), equalTo("She"));
+		assertThat(words.find("his".toCharArray()), nullValue());
+		assertThat(words.find("her".toCharArray()), nullValue());
+	}
+
+	@Test
+	public void testApplyTasks() throws Exception {
+		VersionedCharWordSet<String> words = new VersionedCharWordSet<>(new DoubleArrayCharFallbackTrieCompiler<String>(), new CharFallbackLinks<String>());
+		words.batch()
+			.put("he".toCharArray(), "he")
+			.put("she".toCharArray(), "she")
+			.apply();
+
+		assertThat(new CharWordMatcher<>(words, String::length).feed("ushe".toCharArray(), 0, 4), contains(
+			new WordMatch<>(1, 4, "she"),
+			new WordMatch<>(2, 4, "he")));
+
+		words.batch()
+			.remove("she".toCharArray())
+			.put("hers".toCharArray(), "hers")
+			.apply();
+
+		assertThat(words.size(), equalTo(2));
+		assertThat(words.find("she".toCharArray()), nullValue());
+		assertThat(new CharWordMatcher<>(words, String::length).feed("ushers".toCharArray(), 0, 6), contains(
+			new WordMatch<>(2, 4, "he"),
+			new WordMatch<>(2, 6, "hers")));
+	}
+
+	@Test
+	public void testBatchKeepsWordsUnchanged() throws Exception {
+		VersionedCharWordSet<String> words = new VersionedCharWordSet<>(new DoubleArrayCharCompactTrieCompiler<String>());
+		char[] word = "jar".toCharArray();
+		VersionedCharWordSet<String>.Batch batch = words.batch()
+			.put(word, "Jar");
+		word[0] = 'b';
+
+		batch.apply();
+
+		assertThat(words.contains("jar".toCharArray()), is(true));
+		assertThat(words.contains("bar".toCharArray()), is(false));
+	}
+
+	@Test
+	public void testSnapshotIsNotChanged() throws Exception {
+		VersionedCharWordSet<String> words = new VersionedCharWordSet<>(new DoubleArrayCharCompactTrieCompiler<String>());
+		words.batch()
+			.put("jar".toCharArray(), "Jar")
+			.apply();
+		CharWordSet<String> snapshot = words.snapshot();
+		CharAutomaton<String> cursor = words.cursor();
+
+		words.batch()
+			.remove("jar".toCharArray())
+			.put("bachelor".toCharArray(), "Bachelor")
+			.apply();
+
+		assertThat(snapshot.contains("jar".toCharArray()), is(true));
+		assertThat(snapshot.contains("bachelor".toCharArray()), is(false));
+		assertThat(cursor.accept('j'), is(true));
+		assertThat(cursor.accept('a'), is(true));
+		assertThat(cursor.accept('r'), is(true));
+		assertThat(cursor.getAttached(), equalTo("Jar"));
+		assertThat(words.contains("jar".toCharArray()), is(false));
+		assertThat(words.contains("bachelor".toCharArray()), is(true));
+	}
+
+	@Test
+	public void testPutNullData() throws Exception {
+		VersionedCharWordSet<String> words = new VersionedCharWordSet<>(new DoubleArrayCharCompactTrieCompiler<String>());
+
+		thrown.expect(NullPointerException.class);
+		words.batch().put("jar".toCharArray(), null);
+	}
+
+	@Test
+	public void testApplyAsync() throws Exception {
+		VersionedCharWordSet<String> words = new VersionedCharWordSet<>(new DoubleArrayCharCompactTrieCompiler<String>());
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			long version = words.batch()
+				.put("jar".toCharArray(), "Jar")
+				.applyAsync(executor)
+				.get();
+
+			assertThat(version, equalTo(1l));
+			assertThat(words.find("jar".toCharArray()), equalTo("Jar"));
+			assertThat(words.find("bachelor".toCharArray()), nullValue());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testReadDuringReloads() throws Exception {
+		VersionedCharWordSet<String> words = new VersionedCharWordSet<>(new DoubleArrayCharCompactTrieCompiler<String>());
+		VersionedCharWordSet<String>.Batch initial = words.batch();
+		for (int i = 0; i < 500; i++) {
+			initial.put(("word" + i).toCharArray(), "Word" + i);
+		}
+		initial.put("odd".toCharArray(), "Odd");
+		initial.apply();
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Boolean>> results = new ArrayList<>();
+			for (int thread = 0; thread < 3; thread++) {
+				results.add(executor.submit(() -> {
+					for (int r = 0; r < 50; r++) {
+						CharWordSet<String> snapshot = words.snapshot();
+						boolean odd = snapshot.contains("odd".toCharArray());
+						for (int i = 0; i < 500; i++) {
+							char[] word = ("word" + i).toCharArray();
+							if (i % 2 == 1 && !odd) {
+								if (snapshot.contains(word)) {
+									return false;
+								}
+							} else if (!("Word" + i).equals(snapshot.find(word))) {
+								return false;
+							}
+						}
+					}
+					return true;
+				}));
+			}
+			for (int r = 0; r < 10; r++) {
+				VersionedCharWordSet<String>.Batch batch = words.batch();
+				for (int i = 1; i < 500; i += 2) {
+					batch.remove(("word" + i).toCharArray());
+				}
+				batch.remove("odd".toCharArray());
+				batch.applyAsync(executor).get();
+
+				batch = words.batch();
+				for (int i = 1; i < 500; i += 2) {
+					batch.put(("word" + i).toCharArray(), "Word" + i);
+				}
+				batch.put("odd".toCharArray(), "Odd");
+				batch.applyAsync(executor).get();
+			}
+			for (Future<Boolean> result : results) {
+				assertThat(result.get(), is(true));
+			}
+			assertThat(words.version(), equalTo(21l));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+}
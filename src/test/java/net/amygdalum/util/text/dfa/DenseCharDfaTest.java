@@ -0,0 +1,230 @@
+package net.amygdalum.util.text.dfa;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import net.amygdalum.util.io.BitMaskCharClassMapper;
+import net.amygdalum.util.io.SmallRangeCharClassMapper;
+import net.amygdalum.util.text.CharAutomaton;
+import net.amygdalum.util.text.CharFallbackLinks;
+import net.amygdalum.util.text.CharWordSet;
+import net.amygdalum.util.text.CharWordSetBuilder;
+
+public class DenseCharDfaTest {
+
+	private CharWordSetBuilder<String, CharWordSet<String>> builder;
+
+	@Before
+	public void before() throws Exception {
+		builder = new CharWordSetBuilder<>(new DenseCharDfaCompiler<String>());
+	}
+
+	@Test
+	public void testSingleNode() throws Exception {
+		CharWordSet<String> dfa = builder
+			.extend("bachelor".toCharArray(), "Bachelor")
+			.build();
+
+		assertThat(dfa.contains("bachelor".toCharArray()), is(true));
+		assertThat(dfa.find("bachelor".toCharArray()), equalTo("Bachelor"));
+		assertThat(dfa.contains("jar".toCharArray()), is(false));
+		assertThat(dfa.contains("bach".toCharArray()), is(false));
+		assertThat(dfa.find("bachelors".toCharArray()), nullValue());
+	}
+
+	@Test
+	public void testMultipleNodes() throws Exception {
+		CharWordSet<String> dfa = builder
+			.extend("bachelor".toCharArray(), "Bachelor")
+			.extend("jar".toCharArray(), "Jar")
+			.extend("badge".toCharArray(), "Badge")
+			.extend("baby".toCharArray(), "Baby")
+			.build();
+
+		assertThat(dfa.find("bachelor".toCharArray()), equalTo("Bachelor"));
+		assertThat(dfa.find("jar".toCharArray()), equalTo("Jar"));
+		assertThat(dfa.find("badge".toCharArray()), equalTo("Badge"));
+		assertThat(dfa.find("baby".toCharArray()), equalTo("Baby"));
+		assertThat(dfa.contains("ba".toCharArray()), is(false));
+	}
+
+	@Test
+	public void testSmallAlphabet() throws Exception {
+		DenseCharDfa<String> dfa = (DenseCharDfa<String>) builder
+			.extend("abc".toCharArray(), "ABC")
+			.extend("bcd".toCharArray(), "BCD")
+			.build();
+
+		assertThat(dfa.getMapper(), instanceOf(SmallRangeCharClassMapper.class));
+		assertThat(dfa.getMapper().indexCount(), equalTo(5));
+		assertThat(dfa.getStates(), equalTo(7));
+	}
+
+	@Test
+	public void testLargeCharacterSpace() throws Exception {
+		DenseCharDfa<String> dfa = (DenseCharDfa<String>) builder
+			.extend("a\uffff".toCharArray(), "A")
+			.extend("\u0100".toCharArray(), "B")
+			.build();
+
+		assertThat(dfa.getMapper(), instanceOf(BitMaskCharClassMapper.class));
+		assertThat(dfa.find("a\uffff".toCharArray()), equalTo("A"));
+		assertThat(dfa.find("\u0100".toCharArray()), equalTo("B"));
+		assertThat(dfa.find("a\u00ff".toCharArray()), nullValue());
+	}
+
+	@Test
+	public void testCursor() throws Exception {
+		CharWordSet<String> dfa = builder
+			.extend("gat".toCharArray(), "GAT")
+			.extend("cgatggg".toCharArray(), "CGATGGG")
+			.work(new CharFallbackLinks<>())
+			.build();
+
+		CharAutomaton<String> cursor = dfa.cursor();
+		assertThat(cursor.accept('c'), is(true));
+		assertThat(cursor.accept('g'), is(true));
+		assertThat(cursor.accept('a'), is(true));
+		assertThat(cursor.accept('t'), is(true));
+		assertThat(cursor.hasAttachments(), is(true));
+		assertThat(cursor.iterator().next(), equalTo("GAT"));
+		assertThat(cursor.accept('g'), is(true));
+		assertThat(cursor.accept('g'), is(true));
+		assertThat(cursor.accept('g'), is(true));
+		assertThat(cursor.hasAttachments(), is(true));
+		assertThat(cursor.iterator().next(), equalTo("CGATGGG"));
+	}
+
+	@Test
+	public void testCursor2() throws Exception {
+		CharWordSet<String> dfa = builder
+			.extend("gatc".toCharArray(), "GATC")
+			.extend("cgatggg".toCharArray(), "CGATGGG")
+			.work(new CharFallbackLinks<>())
+			.build();
+
+		CharAutomaton<String> cursor = dfa.cursor();
+		assertThat(cursor.accept('c'), is(true));
+		assertThat(cursor.accept('g'), is(true));
+		assertThat(cursor.accept('a'), is(true));
+		assertThat(cursor.accept('t'), is(true));
+		assertThat(cursor.accept('c'), is(true));
+		assertThat(cursor.hasAttachments(), is(true));
+		assertThat(cursor.iterator().next(), equalTo("GATC"));
+	}
+
+	@Test
+	public void testCursor3() throws Exception {
+		CharWordSet<String> dfa = builder
+			.extend("aa\u0262ba".toCharArray(), "A")
+			.extend("a\u0262baa".toCharArray(), "B")
+			.work(new CharFallbackLinks<>())
+			.build();
+
+		CharAutomaton<String> cursor = dfa.cursor();
+		assertThat(cursor.accept('x'), is(false));
+		assertThat(cursor.accept('a'), is(true));
+		assertThat(cursor.accept('a'), is(true));
+		assertThat(cursor.accept('a'), is(true));
+		assertThat(cursor.accept('\u0262'), is(true));
+		assertThat(cursor.accept('b'), is(true));
+		assertThat(cursor.accept('a'), is(true));
+		assertThat(cursor.hasAttachments(), is(true));
+		assertThat(cursor.iterator().next(), equalTo("A"));
+		assertThat(cursor.accept('\u0262'), is(true));
+		assertThat(cursor.accept('b'), is(true));
+		assertThat(cursor.accept('a'), is(true));
+		assertThat(cursor.accept('a'), is(true));
+		assertThat(cursor.hasAttachments(), is(true));
+		assertThat(cursor.iterator().next(), equalTo("B"));
+	}
+
+	@Test
+	public void testCursorWithoutFallback() throws Exception {
+		CharWordSet<String> dfa = builder
+			.extend("ab".toCharArray(), "AB")
+			.build();
+
+		CharAutomaton<String> cursor = dfa.cursor();
+		assertThat(cursor.accept('a'), is(true));
+		assertThat(cursor.accept('a'), is(false));
+		assertThat(cursor.accept('a'), is(true));
+		assertThat(cursor.accept('b'), is(true));
+		assertThat(cursor.getAttached(), equalTo("AB"));
+	}
+
+	@Test
+	public void testLookahead() throws Exception {
+		CharWordSet<String> dfa = builder
+			.extend("ab".toCharArray(), "AB")
+			.extend("b".toCharArray(), "B")
+			.work(new CharFallbackLinks<>())
+			.build();
+
+		CharAutomaton<String> cursor = dfa.cursor();
+		assertThat(cursor.accept('a'), is(true));
+		assertThat(cursor.lookahead('b'), is(true));
+		assertThat(cursor.lookahead('a'), is(false));
+		assertThat(cursor.accept('a'), is(true));
+		assertThat(cursor.lookahead('x'), is(false));
+	}
+
+	@Test
+	public void testForEachAttachment() throws Exception {
+		CharWordSet<String> dfa = builder
+			.extend("abc".toCharArray(), "ABC")
+			.extend("bc".toCharArray(), "BC")
+			.extend("c".toCharArray(), "C")
+			.work(new CharFallbackLinks<>())
+			.build();
+
+		CharAutomaton<String> cursor = dfa.cursor();
+		cursor.accept('a');
+		cursor.accept('b');
+		List<String> attachments = new ArrayList<>();
+		cursor.forEachAttachment(attachments::add);
+		assertThat(attachments, empty());
+		assertThat(cursor.getAttached(), nullValue());
+
+		cursor.accept('c');
+		cursor.forEachAttachment(attachments::add);
+		assertThat(attachments, contains("ABC", "BC", "C"));
+		assertThat(cursor.getAttached(), equalTo("ABC"));
+		List<String> iterated = new ArrayList<>();
+		for (String attachment : cursor) {
+			iterated.add(attachment);
+		}
+		assertThat(iterated, equalTo(attachments));
+	}
+
+	@Test
+	public void testForEachAttachmentOnFallback() throws Exception {
+		CharWordSet<String> dfa = builder
+			.extend("xabc".toCharArray(), "XABC")
+			.extend("ab".toCharArray(), "AB")
+			.extend("b".toCharArray(), "B")
+			.work(new CharFallbackLinks<>())
+			.build();
+
+		CharAutomaton<String> cursor = dfa.cursor();
+		cursor.accept('x');
+		cursor.accept('a');
+		cursor.accept('b');
+		List<String> attachments = new ArrayList<>();
+		cursor.forEachAttachment(attachments::add);
+		assertThat(attachments, contains("AB", "B"));
+		assertThat(cursor.hasAttachments(), is(true));
+	}
+
+}
@@ -0,0 +1,125 @@
+package net.amygdalum.util.text.doublearraytrie;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import net.amygdalum.util.text.ByteWordSetBuilder;
+import net.amygdalum.util.text.IntByteAutomaton;
+import net.amygdalum.util.text.IntByteWordSet;
+
+public class DoubleArrayByteCompactIntTrieTest {
+
+	private ByteWordSetBuilder<Integer, IntByteWordSet> builder;
+
+	@Before
+	public void before() throws Exception {
+		builder = new ByteWordSetBuilder<>(new DoubleArrayByteCompactIntTrieCompiler(-1));
+	}
+
+	@Test
+	public void testSingleNode() throws Exception {
+		IntByteWordSet trie = builder
+			.extend("bachelor".getBytes(UTF_8), 1)
+			.build();
+
+		assertThat(trie.contains("bachelor".getBytes(UTF_8)), is(true));
+		assertThat(trie.find("bachelor".getBytes(UTF_8)), equalTo(1));
+		assertThat(trie.contains("jar".getBytes(UTF_8)), is(false));
+		assertThat(trie.find("jar".getBytes(UTF_8)), equalTo(-1));
+		assertThat(trie.contains("badge".getBytes(UTF_8)), is(false));
+		assertThat(trie.find("bachelors".getBytes(UTF_8)), equalTo(-1));
+	}
+
+	@Test
+	public void testMultipleCollidingNodes() throws Exception {
+		IntByteWordSet trie = builder
+			.extend("bachelor".getBytes(UTF_8), 1)
+			.extend("jar".getBytes(UTF_8), 2)
+			.extend("badge".getBytes(UTF_8), 3)
+			.extend("baby".getBytes(UTF_8), 4)
+			.build();
+
+		assertThat(trie.find("bachelor".getBytes(UTF_8)), equalTo(1));
+		assertThat(trie.find("jar".getBytes(UTF_8)), equalTo(2));
+		assertThat(trie.find("badge".getBytes(UTF_8)), equalTo(3));
+		assertThat(trie.find("baby".getBytes(UTF_8)), equalTo(4));
+		assertThat(trie.find("bab".getBytes(UTF_8)), equalTo(-1));
+	}
+
+	@Test
+	public void testSubsumingNodes() throws Exception {
+		IntByteWordSet trie = builder
+			.extend("a".getBytes(UTF_8), 1)
+			.extend("ab".getBytes(UTF_8), 2)
+			.extend("abcd".getBytes(UTF_8), 3)
+			.build();
+
+		assertThat(trie.find("a".getBytes(UTF_8)), equalTo(1));
+		assertThat(trie.find("ab".getBytes(UTF_8)), equalTo(2));
+		assertThat(trie.find("abc".getBytes(UTF_8)), equalTo(-1));
+		assertThat(trie.contains("abc".getBytes(UTF_8)), is(false));
+		assertThat(trie.find("abcd".getBytes(UTF_8)), equalTo(3));
+	}
+
+	@Test
+	public void testDefaultValue() throws Exception {
+		DoubleArrayByteCompactIntTrie trie = (DoubleArrayByteCompactIntTrie) new ByteWordSetBuilder<>(new DoubleArrayByteCompactIntTrieCompiler(42))
+			.extend("a".getBytes(UTF_8), 1)
+			.build();
+
+		assertThat(trie.getDefaultValue(), equalTo(42));
+		assertThat(trie.find("a".getBytes(UTF_8)), equalTo(1));
+		assertThat(trie.find("b".getBytes(UTF_8)), equalTo(42));
+	}
+
+	@Test
+	public void testCursor() throws Exception {
+		IntByteWordSet trie = builder
+			.extend("ab".getBytes(UTF_8), 1)
+			.extend("abcd".getBytes(UTF_8), 2)
+			.build();
+
+		IntByteAutomaton cursor = trie.cursor();
+		assertThat(cursor.accept((byte) 'a'), is(true));
+		assertThat(cursor.hasAttachments(), is(false));
+		assertThat(cursor.getAttached(), equalTo(-1));
+		assertThat(cursor.accept((byte) 'b'), is(true));
+		assertThat(cursor.hasAttachments(), is(true));
+		assertThat(cursor.getAttached(), equalTo(1));
+		assertThat(cursor.lookahead((byte) 'c'), is(true));
+		assertThat(cursor.accept((byte) 'c'), is(true));
+		assertThat(cursor.getAttached(), equalTo(-1));
+		assertThat(cursor.accept((byte) 'd'), is(true));
+		assertThat(cursor.getAttached(), equalTo(2));
+		assertThat(cursor.accept((byte) 'e'), is(false));
+		assertThat(cursor.accept((byte) 'a'), is(true));
+	}
+
+	@Test
+	public void testForEachAttachment() throws Exception {
+		IntByteWordSet trie = builder
+			.extend("ab".getBytes(UTF_8), 1)
+			.extend("abc".getBytes(UTF_8), 2)
+			.build();
+
+		IntByteAutomaton cursor = trie.cursor();
+		List<Integer> attachments = new ArrayList<>();
+		cursor.accept((byte) 'a');
+		cursor.forEachAttachment(attachments::add);
+		assertThat(attachments.isEmpty(), is(true));
+		cursor.accept((byte) 'b');
+		cursor.forEachAttachment(attachments::add);
+		cursor.accept((byte) 'c');
+		cursor.forEachAttachment(attachments::add);
+		assertThat(attachments.toString(), equalTo("[1, 2]"));
+	}
+
+}
@@ -6,9 +6,17 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertThat;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import org.junit.Before;
 import org.junit.Test;
 
+import net.amygdalum.util.text.AttachmentAdaptor;
+import net.amygdalum.util.text.ByteAutomaton;
 import net.amygdalum.util.text.ByteTrie;
 import net.amygdalum.util.text.ByteWordSetBuilder;
 
@@ -402,4 +410,218 @@ public class DoubleArrayByteCompactTrieTest {
 		assertThat(trie.find(revert("And God called the dry land Earth".getBytes("UTF-8"))), equalTo("Earth"));
 	}
 
+	@Test(expected = UnsupportedOperationException.class)
+	public void testFrozenRejectsAttach() throws Exception {
+		ByteTrie<String> trie = ((DoubleArrayByteCompactTrie<String>) builder
+			.extend("bachelor".getBytes("UTF-8"), "Bachelor")
+			.build())
+			.freeze();
+
+		assertThat(((DoubleArrayByteCompactTrie<String>) trie).isFrozen(), is(true));
+		((AttachmentAdaptor<String>) trie.navigator().nextNode((byte) 'b')).attach("B");
+	}
+
+	@Test
+	public void testFrozenConcurrentCursors() throws Exception {
+		List<String> words = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			words.add("word" + i);
+			builder.extend(("word" + i).getBytes("UTF-8"), "Word" + i);
+		}
+		ByteTrie<String> trie = ((DoubleArrayByteCompactTrie<String>) builder.build()).freeze();
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Boolean>> results = new ArrayList<>();
+			for (int thread = 0; thread < 8; thread++) {
+				results.add(executor.submit(() -> {
+					ByteAutomaton<String> cursor = trie.cursor();
+					for (int r = 0; r < 20; r++) {
+						for (String word : words) {
+							cursor.reset();
+							for (byte e : word.getBytes("UTF-8")) {
+								if (!cursor.accept(e)) {
+									return false;
+								}
+							}
+							if (!("W" + word.substring(1)).equals(cursor.getAttached()) || !trie.contains(word.getBytes("UTF-8"))) {
+								return false;
+							}
+						}
+					}
+					return true;
+				}));
+			}
+			for (Future<Boolean> result : results) {
+				assertThat(result.get(), is(true));
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testRemove() throws Exception {
+		DoubleArrayByteCompactTrie<String> trie = (DoubleArrayByteCompactTrie<String>) builder
+			.extend("bachelor".getBytes("UTF-8"), "Bachelor")
+			.extend("jar".getBytes("UTF-8"), "Jar")
+			.extend("badge".getBytes("UTF-8"), "Badge")
+			.extend("baby".getBytes("UTF-8"), "Baby")
+			.build();
+
+		assertThat(trie.remove("badge".getBytes("UTF-8")), equalTo("Badge"));
+		assertThat(trie.remove("badge".getBytes("UTF-8")), nullValue());
+		assertThat(trie.remove("bab".getBytes("UTF-8")), nullValue());
+		assertThat(trie.remove("babyx".getBytes("UTF-8")), nullValue());
+
+		assertThat(trie.contains("badge".getBytes("UTF-8")), is(false));
+		assertThat(trie.find("badge".getBytes("UTF-8")), nullValue());
+		assertThat(trie.find("bachelor".getBytes("UTF-8")), equalTo("Bachelor"));
+		assertThat(trie.find("jar".getBytes("UTF-8")), equalTo("Jar"));
+		assertThat(trie.find("baby".getBytes("UTF-8")), equalTo("Baby"));
+	}
+
+	@Test
+	public void testRemoveSubsumedAndSubsumingNodes() throws Exception {
+		DoubleArrayByteCompactTrie<String> trie = (DoubleArrayByteCompactTrie<String>) builder
+			.extend("ab".getBytes("UTF-8"), "AB")
+			.extend("abc".getBytes("UTF-8"), "ABC")
+			.extend("abcdef".getBytes("UTF-8"), "ABCDEF")
+			.build();
+
+		assertThat(trie.remove("abc".getBytes("UTF-8")), equalTo("ABC"));
+		assertThat(trie.contains("ab".getBytes("UTF-8")), is(true));
+		assertThat(trie.contains("abc".getBytes("UTF-8")), is(false));
+		assertThat(trie.contains("abcdef".getBytes("UTF-8")), is(true));
+
+		assertThat(trie.remove("abcdef".getBytes("UTF-8")), equalTo("ABCDEF"));
+		assertThat(trie.contains("ab".getBytes("UTF-8")), is(true));
+		assertThat(trie.contains("abc".getBytes("UTF-8")), is(false));
+		assertThat(trie.contains("abcdef".getBytes("UTF-8")), is(false));
+
+		ByteAutomaton<String> cursor = trie.cursor();
+		assertThat(cursor.accept((byte) 'a'), is(true));
+		assertThat(cursor.accept((byte) 'b'), is(true));
+		assertThat(cursor.getAttached(), equalTo("AB"));
+		assertThat(cursor.lookahead((byte) 'c'), is(false));
+	}
+
+	@Test
+	public void testRemoveAll() throws Exception {
+		DoubleArrayByteCompactTrie<String> trie = (DoubleArrayByteCompactTrie<String>) builder
+			.extend("".getBytes("UTF-8"), "Empty")
+			.extend("bachelor".getBytes("UTF-8"), "Bachelor")
+			.extend("jar".getBytes("UTF-8"), "Jar")
+			.build();
+
+		assertThat(trie.remove("".getBytes("UTF-8")), equalTo("Empty"));
+		assertThat(trie.remove("jar".getBytes("UTF-8")), equalTo("Jar"));
+		assertThat(trie.remove("bachelor".getBytes("UTF-8")), equalTo("Bachelor"));
+
+		assertThat(trie.contains("".getBytes("UTF-8")), is(false));
+		assertThat(trie.contains("jar".getBytes("UTF-8")), is(false));
+		assertThat(trie.contains("bachelor".getBytes("UTF-8")), is(false));
+		assertThat(trie.cursor().accept((byte) 'b'), is(false));
+	}
+
+	@Test
+	public void testReplace() throws Exception {
+		DoubleArrayByteCompactTrie<String> trie = (DoubleArrayByteCompactTrie<String>) builder
+			.extend("bachelor".getBytes("UTF-8"), "Bachelor")
+			.extend("baby".getBytes("UTF-8"), "Baby")
+			.build();
+
+		assertThat(trie.replace("bachelor".getBytes("UTF-8"), "BACHELOR"), equalTo("Bachelor"));
+		assertThat(trie.replace("bach".getBytes("UTF-8"), "BACH"), nullValue());
+
+		assertThat(trie.find("bachelor".getBytes("UTF-8")), equalTo("BACHELOR"));
+		assertThat(trie.find("baby".getBytes("UTF-8")), equalTo("Baby"));
+		assertThat(trie.contains("bach".getBytes("UTF-8")), is(false));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testFrozenRejectsRemove() throws Exception {
+		DoubleArrayByteCompactTrie<String> trie = ((DoubleArrayByteCompactTrie<String>) builder
+			.extend("bachelor".getBytes("UTF-8"), "Bachelor")
+			.build())
+			.freeze();
+
+		trie.remove("bachelor".getBytes("UTF-8"));
+	}
+
+	@Test
+	public void testCompact() throws Exception {
+		List<String> words = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			words.add("word" + i);
+			builder.extend(("word" + i).getBytes("UTF-8"), "Word" + i);
+		}
+		DoubleArrayByteCompactTrie<String> trie = (DoubleArrayByteCompactTrie<String>) builder.build();
+		for (int i = 0; i < 500; i += 3) {
+			trie.remove(words.get(i).getBytes("UTF-8"));
+		}
+
+		trie.compact();
+
+		for (int i = 0; i < 500; i++) {
+			String word = words.get(i);
+			assertThat(trie.contains(word.getBytes("UTF-8")), is(i % 3 != 0));
+			assertThat(trie.find(word.getBytes("UTF-8")), equalTo(i % 3 != 0 ? "W" + word.substring(1) : null));
+		}
+		assertThat(trie.remove("word1".getBytes("UTF-8")), equalTo("Word1"));
+		assertThat(trie.contains("word1".getBytes("UTF-8")), is(false));
+		assertThat(trie.contains("word10".getBytes("UTF-8")), is(true));
+	}
+
+	@Test
+	public void testCompactEmpty() throws Exception {
+		DoubleArrayByteCompactTrie<String> trie = (DoubleArrayByteCompactTrie<String>) builder
+			.extend("bachelor".getBytes("UTF-8"), "Bachelor")
+			.build();
+		trie.remove("bachelor".getBytes("UTF-8"));
+
+		trie.compact();
+
+		assertThat(trie.contains("bachelor".getBytes("UTF-8")), is(false));
+		assertThat(trie.contains("".getBytes("UTF-8")), is(false));
+	}
+
+	@Test
+	public void testFindAll() throws Exception {
+		ByteTrie<String> trie = builder
+			.extend("bachelor".getBytes("UTF-8"), "Bachelor")
+			.extend("jar".getBytes("UTF-8"), "Jar")
+			.extend("badge".getBytes("UTF-8"), "Badge")
+			.extend("baby".getBytes("UTF-8"), "Baby")
+			.build();
+
+		byte[][] keys = new byte[][] {"baby".getBytes("UTF-8"), "bab".getBytes("UTF-8"), "jar".getBytes("UTF-8"), "".getBytes("UTF-8"), "babyx".getBytes("UTF-8"), "badge".getBytes("UTF-8"), "bachelor".getBytes("UTF-8"), "x".getBytes("UTF-8"), "jar".getBytes("UTF-8"), "badg".getBytes("UTF-8")};
+		String[] found = new String[keys.length];
+		trie.findAll(keys, found);
+		assertThat(found, equalTo(new String[] {"Baby", null, "Jar", null, null, "Badge", "Bachelor", null, "Jar", null}));
+
+		boolean[] contained = new boolean[keys.length];
+		trie.containsAll(keys, contained);
+		assertThat(contained, equalTo(new boolean[] {true, false, true, false, false, true, true, false, true, false}));
+	}
+
+	@Test
+	public void testFindAllPacked() throws Exception {
+		ByteTrie<String> trie = builder
+			.extend("bachelor".getBytes("UTF-8"), "Bachelor")
+			.extend("jar".getBytes("UTF-8"), "Jar")
+			.extend("badge".getBytes("UTF-8"), "Badge")
+			.build();
+
+		byte[] data = "jarbadgebabybachelor".getBytes("UTF-8");
+		int[] offsets = new int[] {0, 3, 8, 12, 20, 20};
+		String[] found = new String[offsets.length - 1];
+		trie.findAll(data, offsets, found);
+		assertThat(found, equalTo(new String[] {"Jar", "Badge", null, "Bachelor", null}));
+
+		boolean[] contained = new boolean[offsets.length - 1];
+		trie.containsAll(data, offsets, contained);
+		assertThat(contained, equalTo(new boolean[] {true, true, false, true, false}));
+	}
+
 }
@@ -0,0 +1,118 @@
+package net.amygdalum.util.text.doublearraytrie;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import net.amygdalum.util.text.ByteFallbackLinks;
+import net.amygdalum.util.text.ByteWordSetBuilder;
+import net.amygdalum.util.text.IntByteAutomaton;
+import net.amygdalum.util.text.IntByteWordSet;
+
+public class DoubleArrayByteFallbackIntTrieTest {
+
+	private ByteWordSetBuilder<Integer, IntByteWordSet> builder;
+
+	@Before
+	public void before() throws Exception {
+		builder = new ByteWordSetBuilder<>(new DoubleArrayByteFallbackIntTrieCompiler(-1));
+	}
+
+	@Test
+	public void testSingleNode() throws Exception {
+		IntByteWordSet trie = builder
+			.extend("bachelor".getBytes(UTF_8), 1)
+			.build();
+
+		assertThat(trie.contains("bachelor".getBytes(UTF_8)), is(true));
+		assertThat(trie.find("bachelor".getBytes(UTF_8)), equalTo(1));
+		assertThat(trie.contains("jar".getBytes(UTF_8)), is(false));
+		assertThat(trie.find("jar".getBytes(UTF_8)), equalTo(-1));
+		assertThat(trie.find("bachelors".getBytes(UTF_8)), equalTo(-1));
+	}
+
+	@Test
+	public void testMultipleCollidingNodes() throws Exception {
+		IntByteWordSet trie = builder
+			.extend("bachelor".getBytes(UTF_8), 1)
+			.extend("jar".getBytes(UTF_8), 2)
+			.extend("badge".getBytes(UTF_8), 3)
+			.extend("baby".getBytes(UTF_8), 4)
+			.build();
+
+		assertThat(trie.find("bachelor".getBytes(UTF_8)), equalTo(1));
+		assertThat(trie.find("jar".getBytes(UTF_8)), equalTo(2));
+		assertThat(trie.find("badge".getBytes(UTF_8)), equalTo(3));
+		assertThat(trie.find("baby".getBytes(UTF_8)), equalTo(4));
+		assertThat(trie.find("bab".getBytes(UTF_8)), equalTo(-1));
+		assertThat(trie.contains("bab".getBytes(UTF_8)), is(false));
+	}
+
+	@Test
+	public void testCursor() throws Exception {
+		IntByteWordSet trie = builder
+			.extend("gat".getBytes(UTF_8), 1)
+			.extend("cgatggg".getBytes(UTF_8), 2)
+			.work(new ByteFallbackLinks<>())
+			.build();
+
+		IntByteAutomaton cursor = trie.cursor();
+		assertThat(cursor.accept((byte) 'c'), is(true));
+		assertThat(cursor.accept((byte) 'g'), is(true));
+		assertThat(cursor.accept((byte) 'a'), is(true));
+		assertThat(cursor.lookahead((byte) 't'), is(true));
+		assertThat(cursor.accept((byte) 't'), is(true));
+		assertThat(cursor.hasAttachments(), is(true));
+		assertThat(cursor.getAttached(), equalTo(1));
+		assertThat(cursor.accept((byte) 'g'), is(true));
+		assertThat(cursor.accept((byte) 'g'), is(true));
+		assertThat(cursor.hasAttachments(), is(false));
+		assertThat(cursor.accept((byte) 'g'), is(true));
+		assertThat(cursor.hasAttachments(), is(true));
+		assertThat(cursor.getAttached(), equalTo(2));
+	}
+
+	@Test
+	public void testCursorFallsBack() throws Exception {
+		IntByteWordSet trie = builder
+			.extend("gatc".getBytes(UTF_8), 1)
+			.extend("cgatggg".getBytes(UTF_8), 2)
+			.work(new ByteFallbackLinks<>())
+			.build();
+
+		IntByteAutomaton cursor = trie.cursor();
+		assertThat(cursor.accept((byte) 'c'), is(true));
+		assertThat(cursor.accept((byte) 'g'), is(true));
+		assertThat(cursor.accept((byte) 'a'), is(true));
+		assertThat(cursor.accept((byte) 't'), is(true));
+		assertThat(cursor.accept((byte) 'c'), is(true));
+		assertThat(cursor.getAttached(), equalTo(1));
+		assertThat(cursor.accept((byte) 'x'), is(false));
+	}
+
+	@Test
+	public void testForEachAttachment() throws Exception {
+		IntByteWordSet trie = builder
+			.extend("abc".getBytes(UTF_8), 1)
+			.extend("bc".getBytes(UTF_8), 2)
+			.extend("c".getBytes(UTF_8), 3)
+			.work(new ByteFallbackLinks<>())
+			.build();
+
+		IntByteAutomaton cursor = trie.cursor();
+		cursor.accept((byte) 'a');
+		cursor.accept((byte) 'b');
+		cursor.accept((byte) 'c');
+		List<Integer> attachments = new ArrayList<>();
+		cursor.forEachAttachment(attachments::add);
+		assertThat(attachments.toString(), equalTo("[1, 2, 3]"));
+	}
+
+}
@@ -1,13 +1,23 @@
 package net.amygdalum.util.text.doublearraytrie;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertThat;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import org.junit.Before;
 import org.junit.Test;
 
+import net.amygdalum.util.text.AttachmentAdaptor;
 import net.amygdalum.util.text.ByteAutomaton;
 import net.amygdalum.util.text.ByteFallbackLinks;
 import net.amygdalum.util.text.ByteFallbackNavigator;
@@ -401,7 +411,7 @@ public class DoubleArrayByteFallbackTrieTest {
 		ByteTrie<String> trie = builder
 			.extend("gat".getBytes("UTF-8"), "GAT")
 			.extend("cgatggg".getBytes("UTF-8"), "CGATGGG")
-			.work(new ByteFallbackLinks())
+			.work(new ByteFallbackLinks<>())
 			.build();
 
 		assertThat(trie.navigator()
@@ -427,7 +437,7 @@ public class DoubleArrayByteFallbackTrieTest {
 		ByteTrie<String> trie = builder
 			.extend("gat".getBytes("UTF-8"), "GAT")
 			.extend("cgatggg".getBytes("UTF-8"), "CGATGGG")
-			.work(new ByteFallbackLinks())
+			.work(new ByteFallbackLinks<>())
 			.build();
 
 		ByteAutomaton<String> cursor = trie.cursor();
@@ -449,7 +459,7 @@ public class DoubleArrayByteFallbackTrieTest {
 		ByteTrie<String> trie = builder
 			.extend("gatc".getBytes("UTF-8"), "GATC")
 			.extend("cgatggg".getBytes("UTF-8"), "CGATGGG")
-			.work(new ByteFallbackLinks())
+			.work(new ByteFallbackLinks<>())
 			.build();
 
 		ByteAutomaton<String> cursor = trie.cursor();
@@ -467,7 +477,7 @@ public class DoubleArrayByteFallbackTrieTest {
 		ByteTrie<String> trie = builder
 			.extend("aa\u0262ba".getBytes("UTF-8"), "A")
 			.extend("a\u0262baa".getBytes("UTF-8"), "B")
-			.work(new ByteFallbackLinks())
+			.work(new ByteFallbackLinks<>())
 			.build();
 
 		byte[] bytes = "xaaa\u0262ba\u0262baa".getBytes("UTF-8");
@@ -491,4 +501,139 @@ public class DoubleArrayByteFallbackTrieTest {
 		assertThat(cursor.iterator().next(), equalTo("B"));
 	}
 
+	@Test
+	public void testForEachAttachment() throws Exception {
+		ByteTrie<String> trie = builder
+			.extend("abc".getBytes(UTF_8), "ABC")
+			.extend("bc".getBytes(UTF_8), "BC")
+			.extend("c".getBytes(UTF_8), "C")
+			.work(new ByteFallbackLinks<>())
+			.build();
+
+		ByteAutomaton<String> cursor = trie.cursor();
+		cursor.accept((byte) 'a');
+		cursor.accept((byte) 'b');
+		List<String> attachments = new ArrayList<>();
+		cursor.forEachAttachment(attachments::add);
+		assertThat(attachments, empty());
+		assertThat(cursor.getAttached(), nullValue());
+
+		cursor.accept((byte) 'c');
+		cursor.forEachAttachment(attachments::add);
+		assertThat(attachments, contains("ABC", "BC", "C"));
+		assertThat(cursor.getAttached(), equalTo("ABC"));
+		List<String> iterated = new ArrayList<>();
+		for (String attachment : cursor) {
+			iterated.add(attachment);
+		}
+		assertThat(iterated, equalTo(attachments));
+	}
+
+	@Test
+	public void testForEachAttachmentOnFallback() throws Exception {
+		ByteTrie<String> trie = builder
+			.extend("xabc".getBytes(UTF_8), "XABC")
+			.extend("ab".getBytes(UTF_8), "AB")
+			.extend("b".getBytes(UTF_8), "B")
+			.work(new ByteFallbackLinks<>())
+			.build();
+
+		ByteAutomaton<String> cursor = trie.cursor();
+		cursor.accept((byte) 'x');
+		cursor.accept((byte) 'a');
+		cursor.accept((byte) 'b');
+		List<String> attachments = new ArrayList<>();
+		cursor.forEachAttachment(attachments::add);
+		assertThat(attachments, contains("AB", "B"));
+		assertThat(cursor.hasAttachments(), is(true));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testFrozenRejectsAttach() throws Exception {
+		ByteTrie<String> trie = ((DoubleArrayByteFallbackTrie<String>) builder
+			.extend("bachelor".getBytes("UTF-8"), "Bachelor")
+			.build())
+			.freeze();
+
+		assertThat(((DoubleArrayByteFallbackTrie<String>) trie).isFrozen(), is(true));
+		((AttachmentAdaptor<String>) trie.navigator().nextNode((byte) 'b')).attach("B");
+	}
+
+	@Test
+	public void testFrozenConcurrentCursors() throws Exception {
+		List<String> words = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			words.add("word" + i);
+			builder.extend(("word" + i).getBytes("UTF-8"), "Word" + i);
+		}
+		ByteTrie<String> trie = ((DoubleArrayByteFallbackTrie<String>) builder.build()).freeze();
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Boolean>> results = new ArrayList<>();
+			for (int thread = 0; thread < 8; thread++) {
+				results.add(executor.submit(() -> {
+					ByteAutomaton<String> cursor = trie.cursor();
+					for (int r = 0; r < 20; r++) {
+						for (String word : words) {
+							cursor.reset();
+							for (byte e : word.getBytes("UTF-8")) {
+								if (!cursor.accept(e)) {
+									return false;
+								}
+							}
+							if (!("W" + word.substring(1)).equals(cursor.getAttached()) || !trie.contains(word.getBytes("UTF-8"))) {
+								return false;
+							}
+						}
+					}
+					return true;
+				}));
+			}
+			for (Future<Boolean> result : results) {
+				assertThat(result.get(), is(true));
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testFindAll() throws Exception {
+		ByteTrie<String> trie = builder
+			.extend("bachelor".getBytes("UTF-8"), "Bachelor")
+			.extend("jar".getBytes("UTF-8"), "Jar")
+			.extend("badge".getBytes("UTF-8"), "Badge")
+			.extend("baby".getBytes("UTF-8"), "Baby")
+			.build();
+
+		byte[][] keys = new byte[][] {"baby".getBytes("UTF-8"), "bab".getBytes("UTF-8"), "jar".getBytes("UTF-8"), "".getBytes("UTF-8"), "babyx".getBytes("UTF-8"), "badge".getBytes("UTF-8"), "bachelor".getBytes("UTF-8"), "x".getBytes("UTF-8"), "jar".getBytes("UTF-8"), "badg".getBytes("UTF-8")};
+		String[] found = new String[keys.length];
+		trie.findAll(keys, found);
+		assertThat(found, equalTo(new String[] {"Baby", null, "Jar", null, null, "Badge", "Bachelor", null, "Jar", null}));
+
+		boolean[] contained = new boolean[keys.length];
+		trie.containsAll(keys, contained);
+		assertThat(contained, equalTo(new boolean[] {true, false, true, false, false, true, true, false, true, false}));
+	}
+
+	@Test
+	public void testFindAllPacked() throws Exception {
+		ByteTrie<String> trie = builder
+			.extend("bachelor".getBytes("UTF-8"), "Bachelor")
+			.extend("jar".getBytes("UTF-8"), "Jar")
+			.extend("badge".getBytes("UTF-8"), "Badge")
+			.build();
+
+		byte[] data = "jarbadgebabybachelor".getBytes("UTF-8");
+		int[] offsets = new int[] {0, 3, 8, 12, 20, 20};
+		String[] found = new String[offsets.length - 1];
+		trie.findAll(data, offsets, found);
+		assertThat(found, equalTo(new String[] {"Jar", "Badge", null, "Bachelor", null}));
+
+		boolean[] contained = new boolean[offsets.length - 1];
+		trie.containsAll(data, offsets, contained);
+		assertThat(contained, equalTo(new boolean[] {true, true, false, true, false}));
+	}
+
 }
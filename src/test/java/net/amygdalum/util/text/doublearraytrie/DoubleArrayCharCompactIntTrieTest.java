@@ -0,0 +1,124 @@
+package net.amygdalum.util.text.doublearraytrie;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import net.amygdalum.util.text.CharWordSetBuilder;
+import net.amygdalum.util.text.IntCharAutomaton;
+import net.amygdalum.util.text.IntCharWordSet;
+
+public class DoubleArrayCharCompactIntTrieTest {
+
+	private CharWordSetBuilder<Integer, IntCharWordSet> builder;
+
+	@Before
+	public void before() throws Exception {
+		builder = new CharWordSetBuilder<>(new DoubleArrayCharCompactIntTrieCompiler(-1));
+	}
+
+	@Test
+	public void testSingleNode() throws Exception {
+		IntCharWordSet trie = builder
+			.extend("bachelor".toCharArray(), 1)
+			.build();
+
+		assertThat(trie.contains("bachelor".toCharArray()), is(true));
+		assertThat(trie.find("bachelor".toCharArray()), equalTo(1));
+		assertThat(trie.contains("jar".toCharArray()), is(false));
+		assertThat(trie.find("jar".toCharArray()), equalTo(-1));
+		assertThat(trie.contains("badge".toCharArray()), is(false));
+		assertThat(trie.find("bachelors".toCharArray()), equalTo(-1));
+	}
+
+	@Test
+	public void testMultipleCollidingNodes() throws Exception {
+		IntCharWordSet trie = builder
+			.extend("bachelor".toCharArray(), 1)
+			.extend("jar".toCharArray(), 2)
+			.extend("badge".toCharArray(), 3)
+			.extend("baby".toCharArray(), 4)
+			.build();
+
+		assertThat(trie.find("bachelor".toCharArray()), equalTo(1));
+		assertThat(trie.find("jar".toCharArray()), equalTo(2));
+		assertThat(trie.find("badge".toCharArray()), equalTo(3));
+		assertThat(trie.find("baby".toCharArray()), equalTo(4));
+		assertThat(trie.find("bab".toCharArray()), equalTo(-1));
+	}
+
+	@Test
+	public void testSubsumingNodes() throws Exception {
+		IntCharWordSet trie = builder
+			.extend("a".toCharArray(), 1)
+			.extend("ab".toCharArray(), 2)
+			.extend("abcd".toCharArray(), 3)
+			.build();
+
+		assertThat(trie.find("a".toCharArray()), equalTo(1));
+		assertThat(trie.find("ab".toCharArray()), equalTo(2));
+		assertThat(trie.find("abc".toCharArray()), equalTo(-1));
+		assertThat(trie.contains("abc".toCharArray()), is(false));
+		assertThat(trie.find("abcd".toCharArray()), equalTo(3));
+	}
+
+	@Test
+	public void testDefaultValue() throws Exception {
+		DoubleArrayCharCompactIntTrie trie = (DoubleArrayCharCompactIntTrie) new CharWordSetBuilder<>(new DoubleArrayCharCompactIntTrieCompiler(42))
+			.extend("a".toCharArray(), 1)
+			.build();
+
+		assertThat(trie.getDefaultValue(), equalTo(42));
+		assertThat(trie.find("a".toCharArray()), equalTo(1));
+		assertThat(trie.find("b".toCharArray()), equalTo(42));
+	}
+
+	@Test
+	public void testCursor() throws Exception {
+		IntCharWordSet trie = builder
+			.extend("ab".toCharArray(), 1)
+			.extend("abcd".toCharArray(), 2)
+			.build();
+
+		IntCharAutomaton cursor = trie.cursor();
+		assertThat(cursor.accept('a'), is(true));
+		assertThat(cursor.hasAttachments(), is(false));
+		assertThat(cursor.getAttached(), equalTo(-1));
+		assertThat(cursor.accept('b'), is(true));
+		assertThat(cursor.hasAttachments(), is(true));
+		assertThat(cursor.getAttached(), equalTo(1));
+		assertThat(cursor.lookahead('c'), is(true));
+		assertThat(cursor.accept('c'), is(true));
+		assertThat(cursor.getAttached(), equalTo(-1));
+		assertThat(cursor.accept('d'), is(true));
+		assertThat(cursor.getAttached(), equalTo(2));
+		assertThat(cursor.accept('e'), is(false));
+		assertThat(cursor.accept('a'), is(true));
+	}
+
+	@Test
+	public void testForEachAttachment() throws Exception {
+		IntCharWordSet trie = builder
+			.extend("ab".toCharArray(), 1)
+			.extend("abc".toCharArray(), 2)
+			.build();
+
+		IntCharAutomaton cursor = trie.cursor();
+		List<Integer> attachments = new ArrayList<>();
+		cursor.accept('a');
+		cursor.forEachAttachment(attachments::add);
+		assertThat(attachments.isEmpty(), is(true));
+		cursor.accept('b');
+		cursor.forEachAttachment(attachments::add);
+		cursor.accept('c');
+		cursor.forEachAttachment(attachments::add);
+		assertThat(attachments.toString(), equalTo("[1, 2]"));
+	}
+
+}
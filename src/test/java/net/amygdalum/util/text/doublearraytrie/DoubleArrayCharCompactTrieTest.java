@@ -6,9 +6,17 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertThat;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import org.junit.Before;
 import org.junit.Test;
 
+import net.amygdalum.util.text.AttachmentAdaptor;
+import net.amygdalum.util.text.CharAutomaton;
 import net.amygdalum.util.text.CharTrie;
 import net.amygdalum.util.text.CharWordSetBuilder;
 
@@ -402,4 +410,218 @@ public class DoubleArrayCharCompactTrieTest {
 		assertThat(trie.find(revert("And God called the dry land Earth".toCharArray())), equalTo("Earth"));
 	}
 
+	@Test(expected = UnsupportedOperationException.class)
+	public void testFrozenRejectsAttach() throws Exception {
+		CharTrie<String> trie = ((DoubleArrayCharCompactTrie<String>) builder
+			.extend("bachelor".toCharArray(), "Bachelor")
+			.build())
+			.freeze();
+
+		assertThat(((DoubleArrayCharCompactTrie<String>) trie).isFrozen(), is(true));
+		((AttachmentAdaptor<String>) trie.navigator().nextNode('b')).attach("B");
+	}
+
+	@Test
+	public void testFrozenConcurrentCursors() throws Exception {
+		List<String> words = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			words.add("word" + i);
+			builder.extend(("word" + i).toCharArray(), "Word" + i);
+		}
+		CharTrie<String> trie = ((DoubleArrayCharCompactTrie<String>) builder.build()).freeze();
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Boolean>> results = new ArrayList<>();
+			for (int thread = 0; thread < 8; thread++) {
+				results.add(executor.submit(() -> {
+					CharAutomaton<String> cursor = trie.cursor();
+					for (int r = 0; r < 20; r++) {
+						for (String word : words) {
+							cursor.reset();
+							for (char e : word.toCharArray()) {
+								if (!cursor.accept(e)) {
+									return false;
+								}
+							}
+							if (!("W" + word.substring(1)).equals(cursor.getAttached()) || !trie.contains(word.toCharArray())) {
+								return false;
+							}
+						}
+					}
+					return true;
+				}));
+			}
+			for (Future<Boolean> result : results) {
+				assertThat(result.get(), is(true));
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testRemove() throws Exception {
+		DoubleArrayCharCompactTrie<String> trie = (DoubleArrayCharCompactTrie<String>) builder
+			.extend("bachelor".toCharArray(), "Bachelor")
+			.extend("jar".toCharArray(), "Jar")
+			.extend("badge".toCharArray(), "Badge")
+			.extend("baby".toCharArray(), "Baby")
+			.build();
+
+		assertThat(trie.remove("badge".toCharArray()), equalTo("Badge"));
+		assertThat(trie.remove("badge".toCharArray()), nullValue());
+		assertThat(trie.remove("bab".toCharArray()), nullValue());
+		assertThat(trie.remove("babyx".toCharArray()), nullValue());
+
+		assertThat(trie.contains("badge".toCharArray()), is(false));
+		assertThat(trie.find("badge".toCharArray()), nullValue());
+		assertThat(trie.find("bachelor".toCharArray()), equalTo("Bachelor"));
+		assertThat(trie.find("jar".toCharArray()), equalTo("Jar"));
+		assertThat(trie.find("baby".toCharArray()), equalTo("Baby"));
+	}
+
+	@Test
+	public void testRemoveSubsumedAndSubsumingNodes() throws Exception {
+		DoubleArrayCharCompactTrie<String> trie = (DoubleArrayCharCompactTrie<String>) builder
+			.extend("ab".toCharArray(), "AB")
+			.extend("abc".toCharArray(), "ABC")
+			.extend("abcdef".toCharArray(), "ABCDEF")
+			.build();
+
+		assertThat(trie.remove("abc".toCharArray()), equalTo("ABC"));
+		assertThat(trie.contains("ab".toCharArray()), is(true));
+		assertThat(trie.contains("abc".toCharArray()), is(false));
+		assertThat(trie.contains("abcdef".toCharArray()), is(true));
+
+		assertThat(trie.remove("abcdef".toCharArray()), equalTo("ABCDEF"));
+		assertThat(trie.contains("ab".toCharArray()), is(true));
+		assertThat(trie.contains("abc".toCharArray()), is(false));
+		assertThat(trie.contains("abcdef".toCharArray()), is(false));
+
+		CharAutomaton<String> cursor = trie.cursor();
+		assertThat(cursor.accept('a'), is(true));
+		assertThat(cursor.accept('b'), is(true));
+		assertThat(cursor.getAttached(), equalTo("AB"));
+		assertThat(cursor.lookahead('c'), is(false));
+	}
+
+	@Test
+	public void testRemoveAll() throws Exception {
+		DoubleArrayCharCompactTrie<String> trie = (DoubleArrayCharCompactTrie<String>) builder
+			.extend("".toCharArray(), "Empty")
+			.extend("bachelor".toCharArray(), "Bachelor")
+			.extend("jar".toCharArray(), "Jar")
+			.build();
+
+		assertThat(trie.remove("".toCharArray()), equalTo("Empty"));
+		assertThat(trie.remove("jar".toCharArray()), equalTo("Jar"));
+		assertThat(trie.remove("bachelor".toCharArray()), equalTo("Bachelor"));
+
+		assertThat(trie.contains("".toCharArray()), is(false));
+		assertThat(trie.contains("jar".toCharArray()), is(false));
+		assertThat(trie.contains("bachelor".toCharArray()), is(false));
+		assertThat(trie.cursor().accept('b'), is(false));
+	}
+
+	@Test
+	public void testReplace() throws Exception {
+		DoubleArrayCharCompactTrie<String> trie = (DoubleArrayCharCompactTrie<String>) builder
+			.extend("bachelor".toCharArray(), "Bachelor")
+			.extend("baby".toCharArray(), "Baby")
+			.build();
+
+		assertThat(trie.replace("bachelor".toCharArray(), "BACHELOR"), equalTo("Bachelor"));
+		assertThat(trie.replace("bach".toCharArray(), "BACH"), nullValue());
+
+		assertThat(trie.find("bachelor".toCharArray()), equalTo("BACHELOR"));
+		assertThat(trie.find("baby".toCharArray()), equalTo("Baby"));
+		assertThat(trie.contains("bach".toCharArray()), is(false));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testFrozenRejectsRemove() throws Exception {
+		DoubleArrayCharCompactTrie<String> trie = ((DoubleArrayCharCompactTrie<String>) builder
+			.extend("bachelor".toCharArray(), "Bachelor")
+			.build())
+			.freeze();
+
+		trie.remove("bachelor".toCharArray());
+	}
+
+	@Test
+	public void testCompact() throws Exception {
+		List<String> words = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			words.add("word" + i);
+			builder.extend(("word" + i).toCharArray(), "Word" + i);
+		}
+		DoubleArrayCharCompactTrie<String> trie = (DoubleArrayCharCompactTrie<String>) builder.build();
+		for (int i = 0; i < 500; i += 3) {
+			trie.remove(words.get(i).toCharArray());
+		}
+
+		trie.compact();
+
+		for (int i = 0; i < 500; i++) {
+			String word = words.get(i);
+			assertThat(trie.contains(word.toCharArray()), is(i % 3 != 0));
+			assertThat(trie.find(word.toCharArray()), equalTo(i % 3 != 0 ? "W" + word.substring(1) : null));
+		}
+		assertThat(trie.remove("word1".toCharArray()), equalTo("Word1"));
+		assertThat(trie.contains("word1".toCharArray()), is(false));
+		assertThat(trie.contains("word10".toCharArray()), is(true));
+	}
+
+	@Test
+	public void testCompactEmpty() throws Exception {
+		DoubleArrayCharCompactTrie<String> trie = (DoubleArrayCharCompactTrie<String>) builder
+			.extend("bachelor".toCharArray(), "Bachelor")
+			.build();
+		trie.remove("bachelor".toCharArray());
+
+		trie.compact();
+
+		assertThat(trie.contains("bachelor".toCharArray()), is(false));
+		assertThat(trie.contains("".toCharArray()), is(false));
+	}
+
+	@Test
+	public void testFindAll() throws Exception {
+		CharTrie<String> trie = builder
+			.extend("bachelor".toCharArray(), "Bachelor")
+			.extend("jar".toCharArray(), "Jar")
+			.extend("badge".toCharArray(), "Badge")
+			.extend("baby".toCharArray(), "Baby")
+			.build();
+
+		char[][] keys = new char[][] {"baby".toCharArray(), "bab".toCharArray(), "jar".toCharArray(), "".toCharArray(), "babyx".toCharArray(), "badge".toCharArray(), "bachelor".toCharArray(), "x".toCharArray(), "jar".toCharArray(), "badg".toCharArray()};
+		String[] found = new String[keys.length];
+		trie.findAll(keys, found);
+		assertThat(found, equalTo(new String[] {"Baby", null, "Jar", null, null, "Badge", "Bachelor", null, "Jar", null}));
+
+		boolean[] contained = new boolean[keys.length];
+		trie.containsAll(keys, contained);
+		assertThat(contained, equalTo(new boolean[] {true, false, true, false, false, true, true, false, true, false}));
+	}
+
+	@Test
+	public void testFindAllPacked() throws Exception {
+		CharTrie<String> trie = builder
+			.extend("bachelor".toCharArray(), "Bachelor")
+			.extend("jar".toCharArray(), "Jar")
+			.extend("badge".toCharArray(), "Badge")
+			.build();
+
+		char[] data = "jarbadgebabybachelor".toCharArray();
+		int[] offsets = new int[] {0, 3, 8, 12, 20, 20};
+		String[] found = new String[offsets.length - 1];
+		trie.findAll(data, offsets, found);
+		assertThat(found, equalTo(new String[] {"Jar", "Badge", null, "Bachelor", null}));
+
+		boolean[] contained = new boolean[offsets.length - 1];
+		trie.containsAll(data, offsets, contained);
+		assertThat(contained, equalTo(new boolean[] {true, true, false, true, false}));
+	}
+
 }
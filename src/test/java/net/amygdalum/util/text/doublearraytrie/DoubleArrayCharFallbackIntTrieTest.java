@@ -0,0 +1,117 @@
+package net.amygdalum.util.text.doublearraytrie;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import net.amygdalum.util.text.CharFallbackLinks;
+import net.amygdalum.util.text.CharWordSetBuilder;
+import net.amygdalum.util.text.IntCharAutomaton;
+import net.amygdalum.util.text.IntCharWordSet;
+
+public class DoubleArrayCharFallbackIntTrieTest {
+
+	private CharWordSetBuilder<Integer, IntCharWordSet> builder;
+
+	@Before
+	public void before() throws Exception {
+		builder = new CharWordSetBuilder<>(new DoubleArrayCharFallbackIntTrieCompiler(-1));
+	}
+
+	@Test
+	public void testSingleNode() throws Exception {
+		IntCharWordSet trie = builder
+			.extend("bachelor".toCharArray(), 1)
+			.build();
+
+		assertThat(trie.contains("bachelor".toCharArray()), is(true));
+		assertThat(trie.find("bachelor".toCharArray()), equalTo(1));
+		assertThat(trie.contains("jar".toCharArray()), is(false));
+		assertThat(trie.find("jar".toCharArray()), equalTo(-1));
+		assertThat(trie.find("bachelors".toCharArray()), equalTo(-1));
+	}
+
+	@Test
+	public void testMultipleCollidingNodes() throws Exception {
+		IntCharWordSet trie = builder
+			.extend("bachelor".toCharArray(), 1)
+			.extend("jar".toCharArray(), 2)
+			.extend("badge".toCharArray(), 3)
+			.extend("baby".toCharArray(), 4)
+			.build();
+
+		assertThat(trie.find("bachelor".toCharArray()), equalTo(1));
+		assertThat(trie.find("jar".toCharArray()), equalTo(2));
+		assertThat(trie.find("badge".toCharArray()), equalTo(3));
+		assertThat(trie.find("baby".toCharArray()), equalTo(4));
+		assertThat(trie.find("bab".toCharArray()), equalTo(-1));
+		assertThat(trie.contains("bab".toCharArray()), is(false));
+	}
+
+	@Test
+	public void testCursor() throws Exception {
+		IntCharWordSet trie = builder
+			.extend("gat".toCharArray(), 1)
+			.extend("cgatggg".toCharArray(), 2)
+			.work(new CharFallbackLinks<>())
+			.build();
+
+		IntCharAutomaton cursor = trie.cursor();
+		assertThat(cursor.accept('c'), is(true));
+		assertThat(cursor.accept('g'), is(true));
+		assertThat(cursor.accept('a'), is(true));
+		assertThat(cursor.lookahead('t'), is(true));
+		assertThat(cursor.accept('t'), is(true));
+		assertThat(cursor.hasAttachments(), is(true));
+		assertThat(cursor.getAttached(), equalTo(1));
+		assertThat(cursor.accept('g'), is(true));
+		assertThat(cursor.accept('g'), is(true));
+		assertThat(cursor.hasAttachments(), is(false));
+		assertThat(cursor.accept('g'), is(true));
+		assertThat(cursor.hasAttachments(), is(true));
+		assertThat(cursor.getAttached(), equalTo(2));
+	}
+
+	@Test
+	public void testCursorFallsBack() throws Exception {
+		IntCharWordSet trie = builder
+			.extend("gatc".toCharArray(), 1)
+			.extend("cgatggg".toCharArray(), 2)
+			.work(new CharFallbackLinks<>())
+			.build();
+
+		IntCharAutomaton cursor = trie.cursor();
+		assertThat(cursor.accept('c'), is(true));
+		assertThat(cursor.accept('g'), is(true));
+		assertThat(cursor.accept('a'), is(true));
+		assertThat(cursor.accept('t'), is(true));
+		assertThat(cursor.accept('c'), is(true));
+		assertThat(cursor.getAttached(), equalTo(1));
+		assertThat(cursor.accept('x'), is(false));
+	}
+
+	@Test
+	public void testForEachAttachment() throws Exception {
+		IntCharWordSet trie = builder
+			.extend("abc".toCharArray(), 1)
+			.extend("bc".toCharArray(), 2)
+			.extend("c".toCharArray(), 3)
+			.work(new CharFallbackLinks<>())
+			.build();
+
+		IntCharAutomaton cursor = trie.cursor();
+		cursor.accept('a');
+		cursor.accept('b');
+		cursor.accept('c');
+		List<Integer> attachments = new ArrayList<>();
+		cursor.forEachAttachment(attachments::add);
+		assertThat(attachments.toString(), equalTo("[1, 2, 3]"));
+	}
+
+}
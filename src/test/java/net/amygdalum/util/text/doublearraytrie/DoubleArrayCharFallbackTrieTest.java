@@ -2,12 +2,21 @@ package net.amygdalum.util.text.doublearraytrie;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertThat;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import org.junit.Before;
 import org.junit.Test;
 
+import net.amygdalum.util.text.AttachmentAdaptor;
 import net.amygdalum.util.text.CharAutomaton;
 import net.amygdalum.util.text.CharFallbackLinks;
 import net.amygdalum.util.text.CharFallbackNavigator;
@@ -396,7 +405,7 @@ public class DoubleArrayCharFallbackTrieTest {
 		CharTrie<String> trie = builder
 			.extend("gat".toCharArray(), "GAT")
 			.extend("cgatggg".toCharArray(), "CGATGGG")
-			.work(new CharFallbackLinks())
+			.work(new CharFallbackLinks<>())
 			.build();
 
 		assertThat(trie.navigator()
@@ -422,7 +431,7 @@ public class DoubleArrayCharFallbackTrieTest {
 		CharTrie<String> trie = builder
 			.extend("gat".toCharArray(), "GAT")
 			.extend("cgatggg".toCharArray(), "CGATGGG")
-			.work(new CharFallbackLinks())
+			.work(new CharFallbackLinks<>())
 			.build();
 
 		CharAutomaton<String> cursor = trie.cursor();
@@ -444,7 +453,7 @@ public class DoubleArrayCharFallbackTrieTest {
 		CharTrie<String> trie = builder
 			.extend("gatc".toCharArray(), "GATC")
 			.extend("cgatggg".toCharArray(), "CGATGGG")
-			.work(new CharFallbackLinks())
+			.work(new CharFallbackLinks<>())
 			.build();
 
 		CharAutomaton<String> cursor = trie.cursor();
@@ -462,7 +471,7 @@ public class DoubleArrayCharFallbackTrieTest {
 		CharTrie<String> trie = builder
 			.extend("aa\u0262ba".toCharArray(), "A")
 			.extend("a\u0262baa".toCharArray(), "B")
-			.work(new CharFallbackLinks())
+			.work(new CharFallbackLinks<>())
 			.build();
 
 		CharAutomaton<String> cursor = trie.cursor();
@@ -483,4 +492,139 @@ public class DoubleArrayCharFallbackTrieTest {
 		assertThat(cursor.iterator().next(), equalTo("B"));
 	}
 
+	@Test
+	public void testForEachAttachment() throws Exception {
+		CharTrie<String> trie = builder
+			.extend("abc".toCharArray(), "ABC")
+			.extend("bc".toCharArray(), "BC")
+			.extend("c".toCharArray(), "C")
+			.work(new CharFallbackLinks<>())
+			.build();
+
+		CharAutomaton<String> cursor = trie.cursor();
+		cursor.accept('a');
+		cursor.accept('b');
+		List<String> attachments = new ArrayList<>();
+		cursor.forEachAttachment(attachments::add);
+		assertThat(attachments, empty());
+		assertThat(cursor.getAttached(), nullValue());
+
+		cursor.accept('c');
+		cursor.forEachAttachment(attachments::add);
+		assertThat(attachments, contains("ABC", "BC", "C"));
+		assertThat(cursor.getAttached(), equalTo("ABC"));
+		List<String> iterated = new ArrayList<>();
+		for (String attachment : cursor) {
+			iterated.add(attachment);
+		}
+		assertThat(iterated, equalTo(attachments));
+	}
+
+	@Test
+	public void testForEachAttachmentOnFallback() throws Exception {
+		CharTrie<String> trie = builder
+			.extend("xabc".toCharArray(), "XABC")
+			.extend("ab".toCharArray(), "AB")
+			.extend("b".toCharArray(), "B")
+			.work(new CharFallbackLinks<>())
+			.build();
+
+		CharAutomaton<String> cursor = trie.cursor();
+		cursor.accept('x');
+		cursor.accept('a');
+		cursor.accept('b');
+		List<String> attachments = new ArrayList<>();
+		cursor.forEachAttachment(attachments::add);
+		assertThat(attachments, contains("AB", "B"));
+		assertThat(cursor.hasAttachments(), is(true));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testFrozenRejectsAttach() throws Exception {
+		CharTrie<String> trie = ((DoubleArrayCharFallbackTrie<String>) builder
+			.extend("bachelor".toCharArray(), "Bachelor")
+			.build())
+			.freeze();
+
+		assertThat(((DoubleArrayCharFallbackTrie<String>) trie).isFrozen(), is(true));
+		((AttachmentAdaptor<String>) trie.navigator().nextNode('b')).attach("B");
+	}
+
+	@Test
+	public void testFrozenConcurrentCursors() throws Exception {
+		List<String> words = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			words.add("word" + i);
+			builder.extend(("word" + i).toCharArray(), "Word" + i);
+		}
+		CharTrie<String> trie = ((DoubleArrayCharFallbackTrie<String>) builder.build()).freeze();
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Boolean>> results = new ArrayList<>();
+			for (int thread = 0; thread < 8; thread++) {
+				results.add(executor.submit(() -> {
+					CharAutomaton<String> cursor = trie.cursor();
+					for (int r = 0; r < 20; r++) {
+						for (String word : words) {
+							cursor.reset();
+							for (char e : word.toCharArray()) {
+								if (!cursor.accept(e)) {
+									return false;
+								}
+							}
+							if (!("W" + word.substring(1)).equals(cursor.getAttached()) || !trie.contains(word.toCharArray())) {
+								return false;
+							}
+						}
+					}
+					return true;
+				}));
+			}
+			for (Future<Boolean> result : results) {
+				assertThat(result.get(), is(true));
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testFindAll() throws Exception {
+		CharTrie<String> trie = builder
+			.extend("bachelor".toCharArray(), "Bachelor")
+			.extend("jar".toCharArray(), "Jar")
+			.extend("badge".toCharArray(), "Badge")
+			.extend("baby".toCharArray(), "Baby")
+			.build();
+
+		char[][] keys = new char[][] {"baby".toCharArray(), "bab".toCharArray(), "jar".toCharArray(), "".toCharArray(), "babyx".toCharArray(), "badge".toCharArray(), "bachelor".toCharArray(), "x".toCharArray(), "jar".toCharArray(), "badg".toCharArray()};
+		String[] found = new String[keys.length];
+		trie.findAll(keys, found);
+		assertThat(found, equalTo(new String[] {"Baby", null, "Jar", null, null, "Badge", "Bachelor", null, "Jar", null}));
+
+		boolean[] contained = new boolean[keys.length];
+		trie.containsAll(keys, contained);
+		assertThat(contained, equalTo(new boolean[] {true, false, true, false, false, true, true, false, true, false}));
+	}
+
+	@Test
+	public void testFindAllPacked() throws Exception {
+		CharTrie<String> trie = builder
+			.extend("bachelor".toCharArray(), "Bachelor")
+			.extend("jar".toCharArray(), "Jar")
+			.extend("badge".toCharArray(), "Badge")
+			.build();
+
+		char[] data = "jarbadgebabybachelor".toCharArray();
+		int[] offsets = new int[] {0, 3, 8, 12, 20, 20};
+		String[] found = new String[offsets.length - 1];
+		trie.findAll(data, offsets, found);
+		assertThat(found, equalTo(new String[] {"Jar", "Badge", null, "Bachelor", null}));
+
+		boolean[] contained = new boolean[offsets.length - 1];
+		trie.containsAll(data, offsets, contained);
+		assertThat(contained, equalTo(new boolean[] {true, true, false, true, false}));
+	}
+
 }
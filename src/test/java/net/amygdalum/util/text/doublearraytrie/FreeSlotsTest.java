@@ -0,0 +1,97 @@
+package net.amygdalum.util.text.doublearraytrie;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class FreeSlotsTest {
+
+	@Test
+	public void testReservesRoot() throws Exception {
+		FreeSlots slots = new FreeSlots();
+
+		assertThat(slots.isFree(0), equalTo(false));
+		assertThat(slots.isFree(1), equalTo(false));
+		assertThat(slots.nextFree(0), equalTo(2));
+	}
+
+	@Test
+	public void testNextFree() throws Exception {
+		FreeSlots slots = new FreeSlots();
+		for (int i = 2; i < 200; i++) {
+			slots.use(i);
+		}
+
+		assertThat(slots.nextFree(0), equalTo(200));
+		assertThat(slots.nextFree(250), equalTo(250));
+		assertThat(slots.nextFree(100000), equalTo(100000));
+		assertThat(slots.isFree(100000), equalTo(true));
+	}
+
+	@Test
+	public void testFree() throws Exception {
+		FreeSlots slots = new FreeSlots();
+		for (int i = 2; i < 200; i++) {
+			slots.use(i);
+		}
+
+		slots.free(70);
+		slots.free(71);
+
+		assertThat(slots.isFree(70), equalTo(true));
+		assertThat(slots.nextFree(0), equalTo(70));
+		assertThat(slots.base(new int[] {1, 2}, 1), equalTo(69));
+		assertThat(slots.nextFree(0), equalTo(200));
+	}
+
+	@Test
+	public void testBaseSingleKey() throws Exception {
+		FreeSlots slots = new FreeSlots();
+
+		assertThat(slots.base(new int[] {'a'}, 'a'), equalTo(1));
+		assertThat(slots.base(new int[] {'a'}, 'a'), equalTo(2));
+		assertThat(slots.base(new int[] {1}, 1), equalTo(1));
+		assertThat(slots.base(new int[] {1}, 1), equalTo(2));
+	}
+
+	@Test
+	public void testBaseMultipleKeys() throws Exception {
+		FreeSlots slots = new FreeSlots();
+		slots.use(4);
+
+		int base = slots.base(new int[] {1, 2, 3}, 1);
+
+		assertThat(base, equalTo(4));
+		assertThat(slots.isFree(5), equalTo(false));
+		assertThat(slots.isFree(6), equalTo(false));
+		assertThat(slots.isFree(7), equalTo(false));
+		assertThat(slots.nextFree(0), equalTo(2));
+	}
+
+	@Test
+	public void testBaseNeverCollides() throws Exception {
+		Random random = new Random(42);
+		FreeSlots slots = new FreeSlots();
+		java.util.BitSet used = new java.util.BitSet();
+		used.set(0, 2);
+		for (int i = 0; i < 2000; i++) {
+			int[] keys = random.ints(1 + random.nextInt(20), 1, 300).distinct().toArray();
+			int pivotKey = java.util.Arrays.stream(keys).min().getAsInt();
+
+			int base = slots.base(keys, pivotKey);
+
+			assertThat(base > 0, equalTo(true));
+			for (int key : keys) {
+				assertThat(used.get(base + key), equalTo(false));
+				used.set(base + key);
+			}
+		}
+		for (int i = 0; i < used.length(); i++) {
+			assertThat(slots.isFree(i), equalTo(!used.get(i)));
+		}
+	}
+
+}
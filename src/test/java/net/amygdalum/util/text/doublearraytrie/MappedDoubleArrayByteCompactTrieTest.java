@@ -0,0 +1,194 @@
+package net.amygdalum.util.text.doublearraytrie;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.emptyIterable;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import net.amygdalum.util.text.ByteAutomaton;
+import net.amygdalum.util.text.ByteTrie;
+import net.amygdalum.util.text.ByteWordSetBuilder;
+
+public class MappedDoubleArrayByteCompactTrieTest {
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private ByteWordSetBuilder<String, ByteTrie<String>> builder;
+
+	@Before
+	public void before() throws Exception {
+		builder = new ByteWordSetBuilder<>(new DoubleArrayByteCompactTrieCompiler<String>());
+	}
+
+	@Test
+	public void testSingleNode() throws Exception {
+		MappedDoubleArrayByteCompactTrie<String> trie = mapped(builder
+			.extend("bachelor".getBytes(UTF_8), "Bachelor")
+			.build());
+
+		assertThat(trie.contains("bachelor".getBytes(UTF_8)), is(true));
+		assertThat(trie.find("bachelor".getBytes(UTF_8)), equalTo("Bachelor"));
+		assertThat(trie.contains("jar".getBytes(UTF_8)), is(false));
+		assertThat(trie.contains("bachelors".getBytes(UTF_8)), is(false));
+		assertThat(trie.contains("bache".getBytes(UTF_8)), is(false));
+	}
+
+	@Test
+	public void testMultipleCollidingNodes() throws Exception {
+		MappedDoubleArrayByteCompactTrie<String> trie = mapped(builder
+			.extend("bachelor".getBytes(UTF_8), "Bachelor")
+			.extend("jar".getBytes(UTF_8), "Jar")
+			.extend("badge".getBytes(UTF_8), "Badge")
+			.extend("baby".getBytes(UTF_8), "Baby")
+			.build());
+
+		assertThat(trie.find("bachelor".getBytes(UTF_8)), equalTo("Bachelor"));
+		assertThat(trie.find("jar".getBytes(UTF_8)), equalTo("Jar"));
+		assertThat(trie.find("badge".getBytes(UTF_8)), equalTo("Badge"));
+		assertThat(trie.find("baby".getBytes(UTF_8)), equalTo("Baby"));
+		assertThat(trie.find("bab".getBytes(UTF_8)), nullValue());
+		assertThat(trie.contains("ba".getBytes(UTF_8)), is(false));
+	}
+
+	@Test
+	public void testSubsumingNodes() throws Exception {
+		MappedDoubleArrayByteCompactTrie<String> trie = mapped(builder
+			.extend("a".getBytes(UTF_8), "A")
+			.extend("ab".getBytes(UTF_8), "AB")
+			.extend("abcd".getBytes(UTF_8), "ABCD")
+			.build());
+
+		assertThat(trie.find("a".getBytes(UTF_8)), equalTo("A"));
+		assertThat(trie.find("ab".getBytes(UTF_8)), equalTo("AB"));
+		assertThat(trie.find("abc".getBytes(UTF_8)), nullValue());
+		assertThat(trie.find("abcd".getBytes(UTF_8)), equalTo("ABCD"));
+	}
+
+	@Test
+	public void testFullByteSpace() throws Exception {
+		MappedDoubleArrayByteCompactTrie<String> trie = mapped(builder
+			.extend(new byte[] {(byte) -128}, "MIN")
+			.extend(new byte[] {(byte) 127}, "MAX")
+			.extend(new byte[] {0}, "ZERO")
+			.build());
+
+		assertThat(trie.find(new byte[] {(byte) -128}), equalTo("MIN"));
+		assertThat(trie.find(new byte[] {(byte) 127}), equalTo("MAX"));
+		assertThat(trie.find(new byte[] {0}), equalTo("ZERO"));
+		assertThat(trie.find(new byte[] {1}), nullValue());
+	}
+
+	@Test
+	public void testCursor() throws Exception {
+		MappedDoubleArrayByteCompactTrie<String> trie = mapped(builder
+			.extend("ab".getBytes(UTF_8), "AB")
+			.extend("abcd".getBytes(UTF_8), "ABCD")
+			.build());
+
+		ByteAutomaton<String> cursor = trie.cursor();
+		assertThat(cursor.accept((byte) 'a'), is(true));
+		assertThat(cursor.hasAttachments(), is(false));
+		assertThat(cursor, emptyIterable());
+		assertThat(cursor.accept((byte) 'b'), is(true));
+		assertThat(cursor.hasAttachments(), is(true));
+		assertThat(cursor, contains("AB"));
+		assertThat(cursor.lookahead((byte) 'c'), is(true));
+		assertThat(cursor.lookahead((byte) 'd'), is(false));
+		assertThat(cursor.accept((byte) 'c'), is(true));
+		assertThat(cursor.hasAttachments(), is(false));
+		assertThat(cursor.accept((byte) 'd'), is(true));
+		assertThat(cursor, contains("ABCD"));
+		assertThat(cursor.accept((byte) 'e'), is(false));
+		assertThat(cursor.accept((byte) 'a'), is(true));
+	}
+
+	@Test
+	public void testCursorOnSingleWord() throws Exception {
+		MappedDoubleArrayByteCompactTrie<String> trie = mapped(builder
+			.extend("abc".getBytes(UTF_8), "ABC")
+			.build());
+
+		ByteAutomaton<String> cursor = trie.cursor();
+		assertThat(cursor.accept((byte) 'a'), is(true));
+		assertThat(cursor.accept((byte) 'b'), is(true));
+		assertThat(cursor.hasAttachments(), is(false));
+		assertThat(cursor.accept((byte) 'c'), is(true));
+		assertThat(cursor, contains("ABC"));
+		assertThat(cursor.accept((byte) 'd'), is(false));
+		assertThat(cursor.accept((byte) 'x'), is(false));
+	}
+
+	@Test
+	public void testIntegerAttachments() throws Exception {
+		ByteTrie<Integer> trie = new ByteWordSetBuilder<>(new DoubleArrayByteCompactTrieCompiler<Integer>())
+			.extend("one".getBytes(UTF_8), 1)
+			.extend("two".getBytes(UTF_8), 2)
+			.extend("many".getBytes(UTF_8), -1000000)
+			.build();
+
+		MappedDoubleArrayByteCompactTrie<Integer> mapped = mapped(trie, new IntegerAttachmentCodec());
+
+		assertThat(mapped.find("one".getBytes(UTF_8)), equalTo(1));
+		assertThat(mapped.find("two".getBytes(UTF_8)), equalTo(2));
+		assertThat(mapped.find("many".getBytes(UTF_8)), equalTo(-1000000));
+	}
+
+	@Test
+	public void testLoad() throws Exception {
+		ByteTrie<String> trie = builder
+			.extend("bachelor".getBytes(UTF_8), "Bachelor")
+			.extend("badge".getBytes(UTF_8), "Badge")
+			.build();
+		File file = folder.newFile();
+		try (OutputStream out = new FileOutputStream(file)) {
+			((DoubleArrayByteCompactTrie<String>) trie).write(out, new StringAttachmentCodec());
+		}
+
+		MappedDoubleArrayByteCompactTrie<String> mapped = MappedDoubleArrayByteCompactTrie.load(file.toPath(), new StringAttachmentCodec());
+
+		assertThat(mapped.find("bachelor".getBytes(UTF_8)), equalTo("Bachelor"));
+		assertThat(mapped.find("badge".getBytes(UTF_8)), equalTo("Badge"));
+		assertThat(mapped.find("bad".getBytes(UTF_8)), nullValue());
+	}
+
+	@Test
+	public void testIncompatibleBuffer() throws Exception {
+		thrown.expect(IllegalArgumentException.class);
+
+		new MappedDoubleArrayByteCompactTrie<>(ByteBuffer.wrap("no double array trie at all".getBytes(UTF_8)), new StringAttachmentCodec());
+	}
+
+	private MappedDoubleArrayByteCompactTrie<String> mapped(ByteTrie<String> trie) throws Exception {
+		return mapped(trie, new StringAttachmentCodec());
+	}
+
+	private <T> MappedDoubleArrayByteCompactTrie<T> mapped(ByteTrie<T> trie, AttachmentCodec<T> codec) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		((DoubleArrayByteCompactTrie<T>) trie).write(out, codec);
+		byte[] bytes = out.toByteArray();
+		ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+		buffer.put(bytes);
+		buffer.flip();
+		return new MappedDoubleArrayByteCompactTrie<>(buffer, codec);
+	}
+
+}
@@ -0,0 +1,205 @@
+package net.amygdalum.util.text.doublearraytrie;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.emptyIterable;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import net.amygdalum.util.text.ByteWordSetBuilder;
+import net.amygdalum.util.text.CharAutomaton;
+import net.amygdalum.util.text.CharTrie;
+import net.amygdalum.util.text.CharWordSetBuilder;
+
+public class MappedDoubleArrayCharCompactTrieTest {
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private CharWordSetBuilder<String, CharTrie<String>> builder;
+
+	@Before
+	public void before() throws Exception {
+		builder = new CharWordSetBuilder<>(new DoubleArrayCharCompactTrieCompiler<String>());
+	}
+
+	@Test
+	public void testSingleNode() throws Exception {
+		MappedDoubleArrayCharCompactTrie<String> trie = mapped(builder
+			.extend("bachelor".toCharArray(), "Bachelor")
+			.build());
+
+		assertThat(trie.contains("bachelor".toCharArray()), is(true));
+		assertThat(trie.find("bachelor".toCharArray()), equalTo("Bachelor"));
+		assertThat(trie.contains("jar".toCharArray()), is(false));
+		assertThat(trie.contains("bachelors".toCharArray()), is(false));
+		assertThat(trie.contains("bache".toCharArray()), is(false));
+	}
+
+	@Test
+	public void testMultipleCollidingNodes() throws Exception {
+		MappedDoubleArrayCharCompactTrie<String> trie = mapped(builder
+			.extend("bachelor".toCharArray(), "Bachelor")
+			.extend("jar".toCharArray(), "Jar")
+			.extend("badge".toCharArray(), "Badge")
+			.extend("baby".toCharArray(), "Baby")
+			.build());
+
+		assertThat(trie.find("bachelor".toCharArray()), equalTo("Bachelor"));
+		assertThat(trie.find("jar".toCharArray()), equalTo("Jar"));
+		assertThat(trie.find("badge".toCharArray()), equalTo("Badge"));
+		assertThat(trie.find("baby".toCharArray()), equalTo("Baby"));
+		assertThat(trie.find("bab".toCharArray()), nullValue());
+		assertThat(trie.contains("ba".toCharArray()), is(false));
+	}
+
+	@Test
+	public void testSubsumingNodes() throws Exception {
+		MappedDoubleArrayCharCompactTrie<String> trie = mapped(builder
+			.extend("a".toCharArray(), "A")
+			.extend("ab".toCharArray(), "AB")
+			.extend("abcd".toCharArray(), "ABCD")
+			.build());
+
+		assertThat(trie.find("a".toCharArray()), equalTo("A"));
+		assertThat(trie.find("ab".toCharArray()), equalTo("AB"));
+		assertThat(trie.find("abc".toCharArray()), nullValue());
+		assertThat(trie.find("abcd".toCharArray()), equalTo("ABCD"));
+	}
+
+	@Test
+	public void testLargeCharacterSpace() throws Exception {
+		MappedDoubleArrayCharCompactTrie<String> trie = mapped(builder
+			.extend("\u9999".toCharArray(), "U9999")
+			.extend("\u0000".toCharArray(), "U0000")
+			.build());
+
+		assertThat(trie.find("\u9999".toCharArray()), equalTo("U9999"));
+		assertThat(trie.find("\u0000".toCharArray()), equalTo("U0000"));
+	}
+
+	@Test
+	public void testCursor() throws Exception {
+		MappedDoubleArrayCharCompactTrie<String> trie = mapped(builder
+			.extend("ab".toCharArray(), "AB")
+			.extend("abcd".toCharArray(), "ABCD")
+			.build());
+
+		CharAutomaton<String> cursor = trie.cursor();
+		assertThat(cursor.accept('a'), is(true));
+		assertThat(cursor.hasAttachments(), is(false));
+		assertThat(cursor, emptyIterable());
+		assertThat(cursor.accept('b'), is(true));
+		assertThat(cursor.hasAttachments(), is(true));
+		assertThat(cursor, contains("AB"));
+		assertThat(cursor.lookahead('c'), is(true));
+		assertThat(cursor.lookahead('d'), is(false));
+		assertThat(cursor.accept('c'), is(true));
+		assertThat(cursor.hasAttachments(), is(false));
+		assertThat(cursor.accept('d'), is(true));
+		assertThat(cursor, contains("ABCD"));
+		assertThat(cursor.accept('e'), is(false));
+		assertThat(cursor.accept('a'), is(true));
+	}
+
+	@Test
+	public void testCursorOnSingleWord() throws Exception {
+		MappedDoubleArrayCharCompactTrie<String> trie = mapped(builder
+			.extend("abc".toCharArray(), "ABC")
+			.build());
+
+		CharAutomaton<String> cursor = trie.cursor();
+		assertThat(cursor.accept('a'), is(true));
+		assertThat(cursor.accept('b'), is(true));
+		assertThat(cursor.hasAttachments(), is(false));
+		assertThat(cursor.accept('c'), is(true));
+		assertThat(cursor, contains("ABC"));
+		assertThat(cursor.accept('d'), is(false));
+		assertThat(cursor.accept('x'), is(false));
+	}
+
+	@Test
+	public void testIntegerAttachments() throws Exception {
+		CharTrie<Integer> trie = new CharWordSetBuilder<>(new DoubleArrayCharCompactTrieCompiler<Integer>())
+			.extend("one".toCharArray(), 1)
+			.extend("two".toCharArray(), 2)
+			.extend("many".toCharArray(), -1000000)
+			.build();
+
+		MappedDoubleArrayCharCompactTrie<Integer> mapped = mapped(trie, new IntegerAttachmentCodec());
+
+		assertThat(mapped.find("one".toCharArray()), equalTo(1));
+		assertThat(mapped.find("two".toCharArray()), equalTo(2));
+		assertThat(mapped.find("many".toCharArray()), equalTo(-1000000));
+	}
+
+	@Test
+	public void testLoad() throws Exception {
+		CharTrie<String> trie = builder
+			.extend("bachelor".toCharArray(), "Bachelor")
+			.extend("badge".toCharArray(), "Badge")
+			.build();
+		File file = folder.newFile();
+		try (OutputStream out = new FileOutputStream(file)) {
+			((DoubleArrayCharCompactTrie<String>) trie).write(out, new StringAttachmentCodec());
+		}
+
+		MappedDoubleArrayCharCompactTrie<String> mapped = MappedDoubleArrayCharCompactTrie.load(file.toPath(), new StringAttachmentCodec());
+
+		assertThat(mapped.find("bachelor".toCharArray()), equalTo("Bachelor"));
+		assertThat(mapped.find("badge".toCharArray()), equalTo("Badge"));
+		assertThat(mapped.find("bad".toCharArray()), nullValue());
+	}
+
+	@Test
+	public void testIncompatibleBuffer() throws Exception {
+		thrown.expect(IllegalArgumentException.class);
+
+		new MappedDoubleArrayCharCompactTrie<>(ByteBuffer.wrap("no double array trie at all".getBytes(UTF_8)), new StringAttachmentCodec());
+	}
+
+	@Test
+	public void testByteTrieIsIncompatible() throws Exception {
+		DoubleArrayByteCompactTrie<String> trie = (DoubleArrayByteCompactTrie<String>) new ByteWordSetBuilder<>(new DoubleArrayByteCompactTrieCompiler<String>())
+			.extend("ab".getBytes(UTF_8), "AB")
+			.build();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		trie.write(out, new StringAttachmentCodec());
+
+		thrown.expect(IllegalArgumentException.class);
+
+		new MappedDoubleArrayCharCompactTrie<>(ByteBuffer.wrap(out.toByteArray()), new StringAttachmentCodec());
+	}
+
+	private MappedDoubleArrayCharCompactTrie<String> mapped(CharTrie<String> trie) throws Exception {
+		return mapped(trie, new StringAttachmentCodec());
+	}
+
+	private <T> MappedDoubleArrayCharCompactTrie<T> mapped(CharTrie<T> trie, AttachmentCodec<T> codec) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		((DoubleArrayCharCompactTrie<T>) trie).write(out, codec);
+		byte[] bytes = out.toByteArray();
+		ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+		buffer.put(bytes);
+		buffer.flip();
+		return new MappedDoubleArrayCharCompactTrie<>(buffer, codec);
+	}
+
+}
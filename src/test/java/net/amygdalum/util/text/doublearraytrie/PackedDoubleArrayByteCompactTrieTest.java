@@ -0,0 +1,217 @@
+package net.amygdalum.util.text.doublearraytrie;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.emptyIterable;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import net.amygdalum.util.text.AttachmentAdaptor;
+import net.amygdalum.util.text.ByteAutomaton;
+import net.amygdalum.util.text.ByteTrie;
+import net.amygdalum.util.text.ByteWalker;
+import net.amygdalum.util.text.ByteWordSetBuilder;
+
+public class PackedDoubleArrayByteCompactTrieTest {
+
+	private ByteWordSetBuilder<String, ByteTrie<String>> builder;
+
+	@Before
+	public void before() throws Exception {
+		builder = new ByteWordSetBuilder<>(new DoubleArrayByteCompactTrieCompiler<String>());
+	}
+
+	@Test
+	public void testSingleNode() throws Exception {
+		PackedDoubleArrayByteCompactTrie<String> trie = packed(builder
+			.extend("bachelor".getBytes(UTF_8), "Bachelor")
+			.build());
+
+		assertThat(trie.contains("bachelor".getBytes(UTF_8)), is(true));
+		assertThat(trie.find("bachelor".getBytes(UTF_8)), equalTo("Bachelor"));
+		assertThat(trie.contains("jar".getBytes(UTF_8)), is(false));
+		assertThat(trie.contains("bachelors".getBytes(UTF_8)), is(false));
+		assertThat(trie.contains("bache".getBytes(UTF_8)), is(false));
+	}
+
+	@Test
+	public void testMultipleCollidingNodes() throws Exception {
+		PackedDoubleArrayByteCompactTrie<String> trie = packed(builder
+			.extend("bachelor".getBytes(UTF_8), "Bachelor")
+			.extend("jar".getBytes(UTF_8), "Jar")
+			.extend("badge".getBytes(UTF_8), "Badge")
+			.extend("baby".getBytes(UTF_8), "Baby")
+			.build());
+
+		assertThat(trie.find("bachelor".getBytes(UTF_8)), equalTo("Bachelor"));
+		assertThat(trie.find("jar".getBytes(UTF_8)), equalTo("Jar"));
+		assertThat(trie.find("badge".getBytes(UTF_8)), equalTo("Badge"));
+		assertThat(trie.find("baby".getBytes(UTF_8)), equalTo("Baby"));
+		assertThat(trie.find("bab".getBytes(UTF_8)), nullValue());
+		assertThat(trie.contains("ba".getBytes(UTF_8)), is(false));
+	}
+
+	@Test
+	public void testSubsumingNodes() throws Exception {
+		PackedDoubleArrayByteCompactTrie<String> trie = packed(builder
+			.extend("a".getBytes(UTF_8), "A")
+			.extend("ab".getBytes(UTF_8), "AB")
+			.extend("abcd".getBytes(UTF_8), "ABCD")
+			.build());
+
+		assertThat(trie.find("a".getBytes(UTF_8)), equalTo("A"));
+		assertThat(trie.find("ab".getBytes(UTF_8)), equalTo("AB"));
+		assertThat(trie.find("abc".getBytes(UTF_8)), nullValue());
+		assertThat(trie.find("abcd".getBytes(UTF_8)), equalTo("ABCD"));
+	}
+
+	@Test
+	public void testFullByteSpace() throws Exception {
+		PackedDoubleArrayByteCompactTrie<String> trie = packed(builder
+			.extend(new byte[] {(byte) 0x80}, "x80")
+			.extend(new byte[] {(byte) 0x7f}, "x7f")
+			.extend(new byte[] {(byte) 0xff, 0}, "xff00")
+			.build());
+
+		assertThat(trie.find(new byte[] {(byte) 0x80}), equalTo("x80"));
+		assertThat(trie.find(new byte[] {(byte) 0x7f}), equalTo("x7f"));
+		assertThat(trie.find(new byte[] {(byte) 0xff, 0}), equalTo("xff00"));
+		assertThat(trie.find(new byte[] {(byte) 0xff}), nullValue());
+	}
+
+	@Test
+	public void testCursor() throws Exception {
+		PackedDoubleArrayByteCompactTrie<String> trie = packed(builder
+			.extend("ab".getBytes(UTF_8), "AB")
+			.extend("abcd".getBytes(UTF_8), "ABCD")
+			.build());
+
+		ByteAutomaton<String> cursor = trie.cursor();
+		assertThat(cursor.accept((byte) 'a'), is(true));
+		assertThat(cursor.hasAttachments(), is(false));
+		assertThat(cursor, emptyIterable());
+		assertThat(cursor.accept((byte) 'b'), is(true));
+		assertThat(cursor.hasAttachments(), is(true));
+		assertThat(cursor, contains("AB"));
+		assertThat(cursor.lookahead((byte) 'c'), is(true));
+		assertThat(cursor.lookahead((byte) 'd'), is(false));
+		assertThat(cursor.accept((byte) 'c'), is(true));
+		assertThat(cursor.hasAttachments(), is(false));
+		assertThat(cursor.accept((byte) 'd'), is(true));
+		assertThat(cursor, contains("ABCD"));
+		assertThat(cursor.accept((byte) 'e'), is(false));
+		assertThat(cursor.accept((byte) 'a'), is(true));
+	}
+
+	@Test
+	public void testCursorOnSingleWord() throws Exception {
+		PackedDoubleArrayByteCompactTrie<String> trie = packed(builder
+			.extend("abc".getBytes(UTF_8), "ABC")
+			.build());
+
+		ByteAutomaton<String> cursor = trie.cursor();
+		assertThat(cursor.accept((byte) 'a'), is(true));
+		assertThat(cursor.accept((byte) 'b'), is(true));
+		assertThat(cursor.hasAttachments(), is(false));
+		assertThat(cursor.accept((byte) 'c'), is(true));
+		assertThat(cursor, contains("ABC"));
+		assertThat(cursor.accept((byte) 'd'), is(false));
+		assertThat(cursor.accept((byte) 'x'), is(false));
+	}
+
+	@Test
+	public void testWalker() throws Exception {
+		PackedDoubleArrayByteCompactTrie<String> trie = packed(builder
+			.extend("ab".getBytes(UTF_8), "AB")
+			.extend("abcd".getBytes(UTF_8), "ABCD")
+			.extend("b".getBytes(UTF_8), "B")
+			.build());
+
+		ByteWalker<String> walker = trie.walker();
+		assertThat(walker.getAlternatives(), equalTo("ab".getBytes(UTF_8)));
+		assertThat(walker.step((byte) 'a'), is(true));
+		assertThat(walker.step((byte) 'b'), is(true));
+		assertThat(walker.getAttached(), equalTo("AB"));
+		assertThat(walker.step((byte) 'c'), is(true));
+		assertThat(walker.getAttached(), nullValue());
+		assertThat(walker.getAlternatives(), equalTo("d".getBytes(UTF_8)));
+		assertThat(walker.step((byte) 'x'), is(false));
+		assertThat(walker.step((byte) 'd'), is(true));
+		assertThat(walker.getAttached(), equalTo("ABCD"));
+		walker.back();
+		walker.back();
+		assertThat(walker.getAttached(), equalTo("AB"));
+		assertThat(trie.longestPrefixOf("abcx".getBytes(UTF_8)).getMatch(), equalTo("AB"));
+	}
+
+	@Test
+	public void testPackDoesNotChangeTrie() throws Exception {
+		ByteTrie<String> trie = builder
+			.extend("bachelor".getBytes(UTF_8), "Bachelor")
+			.build();
+		PackedDoubleArrayByteCompactTrie<String> packed = packed(trie);
+
+		((AttachmentAdaptor<String>) trie.navigator().nextNode((byte) 'b').nextNode((byte) 'a')).attach("Ba");
+
+		assertThat(trie.find("ba".getBytes(UTF_8)), equalTo("Ba"));
+		assertThat(packed.find("ba".getBytes(UTF_8)), nullValue());
+		assertThat(packed.find("bachelor".getBytes(UTF_8)), equalTo("Bachelor"));
+	}
+
+	@Test
+	public void testWrite() throws Exception {
+		PackedDoubleArrayByteCompactTrie<String> trie = packed(builder
+			.extend("bachelor".getBytes(UTF_8), "Bachelor")
+			.extend("badge".getBytes(UTF_8), "Badge")
+			.extend("ba".getBytes(UTF_8), "Ba")
+			.build());
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		trie.write(out, new StringAttachmentCodec());
+
+		MappedDoubleArrayByteCompactTrie<String> mapped = new MappedDoubleArrayByteCompactTrie<>(ByteBuffer.wrap(out.toByteArray()), new StringAttachmentCodec());
+
+		assertThat(mapped.find("bachelor".getBytes(UTF_8)), equalTo("Bachelor"));
+		assertThat(mapped.find("badge".getBytes(UTF_8)), equalTo("Badge"));
+		assertThat(mapped.find("ba".getBytes(UTF_8)), equalTo("Ba"));
+		assertThat(mapped.find("bad".getBytes(UTF_8)), nullValue());
+	}
+
+	@Test
+	public void testEqualToUnpacked() throws Exception {
+		Random random = new Random(42);
+		for (int i = 0; i < 2000; i++) {
+			String word = randomWord(random);
+			builder.extend(word.getBytes(UTF_8), word);
+		}
+		ByteTrie<String> trie = builder.build();
+		PackedDoubleArrayByteCompactTrie<String> packed = packed(trie);
+
+		for (int i = 0; i < 4000; i++) {
+			byte[] word = randomWord(random).getBytes(UTF_8);
+			assertThat(packed.find(word), equalTo(trie.find(word)));
+			assertThat(packed.contains(word), equalTo(trie.contains(word)));
+		}
+	}
+
+	private static String randomWord(Random random) {
+		char[] word = new char[1 + random.nextInt(8)];
+		for (int j = 0; j < word.length; j++) {
+			word[j] = (char) ('a' + random.nextInt(6));
+		}
+		return new String(word);
+	}
+
+	private static PackedDoubleArrayByteCompactTrie<String> packed(ByteTrie<String> trie) {
+		return ((DoubleArrayByteCompactTrie<String>) trie).pack();
+	}
+
+}
@@ -0,0 +1,213 @@
+package net.amygdalum.util.text.doublearraytrie;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.emptyIterable;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import net.amygdalum.util.text.AttachmentAdaptor;
+import net.amygdalum.util.text.CharAutomaton;
+import net.amygdalum.util.text.CharTrie;
+import net.amygdalum.util.text.CharWalker;
+import net.amygdalum.util.text.CharWordSetBuilder;
+
+public class PackedDoubleArrayCharCompactTrieTest {
+
+	private CharWordSetBuilder<String, CharTrie<String>> builder;
+
+	@Before
+	public void before() throws Exception {
+		builder = new CharWordSetBuilder<>(new DoubleArrayCharCompactTrieCompiler<String>());
+	}
+
+	@Test
+	public void testSingleNode() throws Exception {
+		PackedDoubleArrayCharCompactTrie<String> trie = packed(builder
+			.extend("bachelor".toCharArray(), "Bachelor")
+			.build());
+
+		assertThat(trie.contains("bachelor".toCharArray()), is(true));
+		assertThat(trie.find("bachelor".toCharArray()), equalTo("Bachelor"));
+		assertThat(trie.contains("jar".toCharArray()), is(false));
+		assertThat(trie.contains("bachelors".toCharArray()), is(false));
+		assertThat(trie.contains("bache".toCharArray()), is(false));
+	}
+
+	@Test
+	public void testMultipleCollidingNodes() throws Exception {
+		PackedDoubleArrayCharCompactTrie<String> trie = packed(builder
+			.extend("bachelor".toCharArray(), "Bachelor")
+			.extend("jar".toCharArray(), "Jar")
+			.extend("badge".toCharArray(), "Badge")
+			.extend("baby".toCharArray(), "Baby")
+			.build());
+
+		assertThat(trie.find("bachelor".toCharArray()), equalTo("Bachelor"));
+		assertThat(trie.find("jar".toCharArray()), equalTo("Jar"));
+		assertThat(trie.find("badge".toCharArray()), equalTo("Badge"));
+		assertThat(trie.find("baby".toCharArray()), equalTo("Baby"));
+		assertThat(trie.find("bab".toCharArray()), nullValue());
+		assertThat(trie.contains("ba".toCharArray()), is(false));
+	}
+
+	@Test
+	public void testSubsumingNodes() throws Exception {
+		PackedDoubleArrayCharCompactTrie<String> trie = packed(builder
+			.extend("a".toCharArray(), "A")
+			.extend("ab".toCharArray(), "AB")
+			.extend("abcd".toCharArray(), "ABCD")
+			.build());
+
+		assertThat(trie.find("a".toCharArray()), equalTo("A"));
+		assertThat(trie.find("ab".toCharArray()), equalTo("AB"));
+		assertThat(trie.find("abc".toCharArray()), nullValue());
+		assertThat(trie.find("abcd".toCharArray()), equalTo("ABCD"));
+	}
+
+	@Test
+	public void testLargeCharacterSpace() throws Exception {
+		PackedDoubleArrayCharCompactTrie<String> trie = packed(builder
+			.extend("\u9999".toCharArray(), "U9999")
+			.extend("\u0000".toCharArray(), "U0000")
+			.build());
+
+		assertThat(trie.find("\u9999".toCharArray()), equalTo("U9999"));
+		assertThat(trie.find("\u0000".toCharArray()), equalTo("U0000"));
+	}
+
+	@Test
+	public void testCursor() throws Exception {
+		PackedDoubleArrayCharCompactTrie<String> trie = packed(builder
+			.extend("ab".toCharArray(), "AB")
+			.extend("abcd".toCharArray(), "ABCD")
+			.build());
+
+		CharAutomaton<String> cursor = trie.cursor();
+		assertThat(cursor.accept('a'), is(true));
+		assertThat(cursor.hasAttachments(), is(false));
+		assertThat(cursor, emptyIterable());
+		assertThat(cursor.accept('b'), is(true));
+		assertThat(cursor.hasAttachments(), is(true));
+		assertThat(cursor, contains("AB"));
+		assertThat(cursor.lookahead('c'), is(true));
+		assertThat(cursor.lookahead('d'), is(false));
+		assertThat(cursor.accept('c'), is(true));
+		assertThat(cursor.hasAttachments(), is(false));
+		assertThat(cursor.accept('d'), is(true));
+		assertThat(cursor, contains("ABCD"));
+		assertThat(cursor.accept('e'), is(false));
+		assertThat(cursor.accept('a'), is(true));
+	}
+
+	@Test
+	public void testCursorOnSingleWord() throws Exception {
+		PackedDoubleArrayCharCompactTrie<String> trie = packed(builder
+			.extend("abc".toCharArray(), "ABC")
+			.build());
+
+		CharAutomaton<String> cursor = trie.cursor();
+		assertThat(cursor.accept('a'), is(true));
+		assertThat(cursor.accept('b'), is(true));
+		assertThat(cursor.hasAttachments(), is(false));
+		assertThat(cursor.accept('c'), is(true));
+		assertThat(cursor, contains("ABC"));
+		assertThat(cursor.accept('d'), is(false));
+		assertThat(cursor.accept('x'), is(false));
+	}
+
+	@Test
+	public void testWalker() throws Exception {
+		PackedDoubleArrayCharCompactTrie<String> trie = packed(builder
+			.extend("ab".toCharArray(), "AB")
+			.extend("abcd".toCharArray(), "ABCD")
+			.extend("b".toCharArray(), "B")
+			.build());
+
+		CharWalker<String> walker = trie.walker();
+		assertThat(walker.getAlternatives(), equalTo("ab".toCharArray()));
+		assertThat(walker.step('a'), is(true));
+		assertThat(walker.step('b'), is(true));
+		assertThat(walker.getAttached(), equalTo("AB"));
+		assertThat(walker.step('c'), is(true));
+		assertThat(walker.getAttached(), nullValue());
+		assertThat(walker.getAlternatives(), equalTo("d".toCharArray()));
+		assertThat(walker.step('x'), is(false));
+		assertThat(walker.step('d'), is(true));
+		assertThat(walker.getAttached(), equalTo("ABCD"));
+		walker.back();
+		walker.back();
+		assertThat(walker.getAttached(), equalTo("AB"));
+		assertThat(trie.longestPrefixOf("abcx".toCharArray()).getMatch(), equalTo("AB"));
+	}
+
+	@Test
+	public void testPackDoesNotChangeTrie() throws Exception {
+		CharTrie<String> trie = builder
+			.extend("bachelor".toCharArray(), "Bachelor")
+			.build();
+		PackedDoubleArrayCharCompactTrie<String> packed = packed(trie);
+
+		((AttachmentAdaptor<String>) trie.navigator().nextNode('b').nextNode('a')).attach("Ba");
+
+		assertThat(trie.find("ba".toCharArray()), equalTo("Ba"));
+		assertThat(packed.find("ba".toCharArray()), nullValue());
+		assertThat(packed.find("bachelor".toCharArray()), equalTo("Bachelor"));
+	}
+
+	@Test
+	public void testWrite() throws Exception {
+		PackedDoubleArrayCharCompactTrie<String> trie = packed(builder
+			.extend("bachelor".toCharArray(), "Bachelor")
+			.extend("badge".toCharArray(), "Badge")
+			.extend("ba".toCharArray(), "Ba")
+			.build());
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		trie.write(out, new StringAttachmentCodec());
+
+		MappedDoubleArrayCharCompactTrie<String> mapped = new MappedDoubleArrayCharCompactTrie<>(ByteBuffer.wrap(out.toByteArray()), new StringAttachmentCodec());
+
+		assertThat(mapped.find("bachelor".toCharArray()), equalTo("Bachelor"));
+		assertThat(mapped.find("badge".toCharArray()), equalTo("Badge"));
+		assertThat(mapped.find("ba".toCharArray()), equalTo("Ba"));
+		assertThat(mapped.find("bad".toCharArray()), nullValue());
+	}
+
+	@Test
+	public void testEqualToUnpacked() throws Exception {
+		Random random = new Random(42);
+		for (int i = 0; i < 2000; i++) {
+			String word = randomWord(random);
+			builder.extend(word.toCharArray(), word);
+		}
+		CharTrie<String> trie = builder.build();
+		PackedDoubleArrayCharCompactTrie<String> packed = packed(trie);
+
+		for (int i = 0; i < 4000; i++) {
+			char[] word = randomWord(random).toCharArray();
+			assertThat(packed.find(word), equalTo(trie.find(word)));
+			assertThat(packed.contains(word), equalTo(trie.contains(word)));
+		}
+	}
+
+	private static String randomWord(Random random) {
+		char[] word = new char[1 + random.nextInt(8)];
+		for (int j = 0; j < word.length; j++) {
+			word[j] = (char) ('a' + random.nextInt(6));
+		}
+		return new String(word);
+	}
+
+	private static PackedDoubleArrayCharCompactTrie<String> packed(CharTrie<String> trie) {
+		return ((DoubleArrayCharCompactTrie<String>) trie).pack();
+	}
+
+}
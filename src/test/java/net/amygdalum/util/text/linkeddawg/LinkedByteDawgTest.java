@@ -402,4 +402,42 @@ public class LinkedByteDawgTest {
 		assertThat(trie.find(revert("And God called the dry land Earth".getBytes("UTF-8"))), equalTo("Earth"));
 	}
 
+	@Test
+	public void testFindAll() throws Exception {
+		ByteDawg<String> trie = builder
+			.extend("bachelor".getBytes("UTF-8"), "Bachelor")
+			.extend("jar".getBytes("UTF-8"), "Jar")
+			.extend("badge".getBytes("UTF-8"), "Badge")
+			.extend("baby".getBytes("UTF-8"), "Baby")
+			.build();
+
+		byte[][] keys = new byte[][] {"baby".getBytes("UTF-8"), "bab".getBytes("UTF-8"), "jar".getBytes("UTF-8"), "".getBytes("UTF-8"), "babyx".getBytes("UTF-8"), "badge".getBytes("UTF-8"), "bachelor".getBytes("UTF-8"), "x".getBytes("UTF-8"), "jar".getBytes("UTF-8"), "badg".getBytes("UTF-8")};
+		String[] found = new String[keys.length];
+		trie.findAll(keys, found);
+		assertThat(found, equalTo(new String[] {"Baby", null, "Jar", null, null, "Badge", "Bachelor", null, "Jar", null}));
+
+		boolean[] contained = new boolean[keys.length];
+		trie.containsAll(keys, contained);
+		assertThat(contained, equalTo(new boolean[] {true, true, true, true, false, true, true, false, true, true}));
+	}
+
+	@Test
+	public void testFindAllPacked() throws Exception {
+		ByteDawg<String> trie = builder
+			.extend("bachelor".getBytes("UTF-8"), "Bachelor")
+			.extend("jar".getBytes("UTF-8"), "Jar")
+			.extend("badge".getBytes("UTF-8"), "Badge")
+			.build();
+
+		byte[] data = "jarbadgebabybachelor".getBytes("UTF-8");
+		int[] offsets = new int[] {0, 3, 8, 12, 20, 20};
+		String[] found = new String[offsets.length - 1];
+		trie.findAll(data, offsets, found);
+		assertThat(found, equalTo(new String[] {"Jar", "Badge", null, "Bachelor", null}));
+
+		boolean[] contained = new boolean[offsets.length - 1];
+		trie.containsAll(data, offsets, contained);
+		assertThat(contained, equalTo(new boolean[] {true, true, false, true, true}));
+	}
+
 }
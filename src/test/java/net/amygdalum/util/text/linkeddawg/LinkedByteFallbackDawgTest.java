@@ -1,10 +1,16 @@
 package net.amygdalum.util.text.linkeddawg;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertThat;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -401,7 +407,7 @@ public class LinkedByteFallbackDawgTest {
 		ByteDawg<String> trie = builder
 			.extend("gat".getBytes("UTF-8"), "GAT")
 			.extend("cgatggg".getBytes("UTF-8"), "CGATGGG")
-			.work(new ByteFallbackLinks())
+			.work(new ByteFallbackLinks<>())
 			.build();
 
 		assertThat(trie.navigator()
@@ -427,7 +433,7 @@ public class LinkedByteFallbackDawgTest {
 		ByteDawg<String> trie = builder
 			.extend("gat".getBytes("UTF-8"), "GAT")
 			.extend("cgatggg".getBytes("UTF-8"), "CGATGGG")
-			.work(new ByteFallbackLinks())
+			.work(new ByteFallbackLinks<>())
 			.build();
 
 		ByteAutomaton<String> cursor = trie.cursor();
@@ -449,7 +455,7 @@ public class LinkedByteFallbackDawgTest {
 		ByteDawg<String> trie = builder
 			.extend("gatc".getBytes("UTF-8"), "GATC")
 			.extend("cgatggg".getBytes("UTF-8"), "CGATGGG")
-			.work(new ByteFallbackLinks())
+			.work(new ByteFallbackLinks<>())
 			.build();
 
 		ByteAutomaton<String> cursor = trie.cursor();
@@ -462,4 +468,51 @@ public class LinkedByteFallbackDawgTest {
 		assertThat(cursor.iterator().next(), equalTo("GATC"));
 	}
 
+	@Test
+	public void testForEachAttachment() throws Exception {
+		ByteDawg<String> trie = builder
+			.extend("abc".getBytes(UTF_8), "ABC")
+			.extend("bc".getBytes(UTF_8), "BC")
+			.extend("c".getBytes(UTF_8), "C")
+			.work(new ByteFallbackLinks<>())
+			.build();
+
+		ByteAutomaton<String> cursor = trie.cursor();
+		cursor.accept((byte) 'a');
+		cursor.accept((byte) 'b');
+		List<String> attachments = new ArrayList<>();
+		cursor.forEachAttachment(attachments::add);
+		assertThat(attachments, empty());
+		assertThat(cursor.getAttached(), nullValue());
+
+		cursor.accept((byte) 'c');
+		cursor.forEachAttachment(attachments::add);
+		assertThat(attachments, contains("ABC", "BC", "C"));
+		assertThat(cursor.getAttached(), equalTo("ABC"));
+		List<String> iterated = new ArrayList<>();
+		for (String attachment : cursor) {
+			iterated.add(attachment);
+		}
+		assertThat(iterated, equalTo(attachments));
+	}
+
+	@Test
+	public void testForEachAttachmentOnFallback() throws Exception {
+		ByteDawg<String> trie = builder
+			.extend("xabc".getBytes(UTF_8), "XABC")
+			.extend("ab".getBytes(UTF_8), "AB")
+			.extend("b".getBytes(UTF_8), "B")
+			.work(new ByteFallbackLinks<>())
+			.build();
+
+		ByteAutomaton<String> cursor = trie.cursor();
+		cursor.accept((byte) 'x');
+		cursor.accept((byte) 'a');
+		cursor.accept((byte) 'b');
+		List<String> attachments = new ArrayList<>();
+		cursor.forEachAttachment(attachments::add);
+		assertThat(attachments, contains("AB", "B"));
+		assertThat(cursor.hasAttachments(), is(true));
+	}
+
 }
@@ -402,4 +402,42 @@ public class LinkedCharDawgTest {
 		assertThat(trie.find(revert("And God called the dry land Earth".toCharArray())), equalTo("Earth"));
 	}
 
+	@Test
+	public void testFindAll() throws Exception {
+		CharDawg<String> trie = builder
+			.extend("bachelor".toCharArray(), "Bachelor")
+			.extend("jar".toCharArray(), "Jar")
+			.extend("badge".toCharArray(), "Badge")
+			.extend("baby".toCharArray(), "Baby")
+			.build();
+
+		char[][] keys = new char[][] {"baby".toCharArray(), "bab".toCharArray(), "jar".toCharArray(), "".toCharArray(), "babyx".toCharArray(), "badge".toCharArray(), "bachelor".toCharArray(), "x".toCharArray(), "jar".toCharArray(), "badg".toCharArray()};
+		String[] found = new String[keys.length];
+		trie.findAll(keys, found);
+		assertThat(found, equalTo(new String[] {"Baby", null, "Jar", null, null, "Badge", "Bachelor", null, "Jar", null}));
+
+		boolean[] contained = new boolean[keys.length];
+		trie.containsAll(keys, contained);
+		assertThat(contained, equalTo(new boolean[] {true, true, true, true, false, true, true, false, true, true}));
+	}
+
+	@Test
+	public void testFindAllPacked() throws Exception {
+		CharDawg<String> trie = builder
+			.extend("bachelor".toCharArray(), "Bachelor")
+			.extend("jar".toCharArray(), "Jar")
+			.extend("badge".toCharArray(), "Badge")
+			.build();
+
+		char[] data = "jarbadgebabybachelor".toCharArray();
+		int[] offsets = new int[] {0, 3, 8, 12, 20, 20};
+		String[] found = new String[offsets.length - 1];
+		trie.findAll(data, offsets, found);
+		assertThat(found, equalTo(new String[] {"Jar", "Badge", null, "Bachelor", null}));
+
+		boolean[] contained = new boolean[offsets.length - 1];
+		trie.containsAll(data, offsets, contained);
+		assertThat(contained, equalTo(new boolean[] {true, true, false, true, true}));
+	}
+
 }
@@ -2,9 +2,14 @@ package net.amygdalum.util.text.linkeddawg;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertThat;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -396,7 +401,7 @@ public class LinkedCharFallbackDawgTest {
 		CharDawg<String> trie = builder
 			.extend("gat".toCharArray(), "GAT")
 			.extend("cgatggg".toCharArray(), "CGATGGG")
-			.work(new CharFallbackLinks())
+			.work(new CharFallbackLinks<>())
 			.build();
 
 		assertThat(trie.navigator()
@@ -422,7 +427,7 @@ public class LinkedCharFallbackDawgTest {
 		CharDawg<String> trie = builder
 			.extend("gat".toCharArray(), "GAT")
 			.extend("cgatggg".toCharArray(), "CGATGGG")
-			.work(new CharFallbackLinks())
+			.work(new CharFallbackLinks<>())
 			.build();
 		
 		CharAutomaton<String> cursor = trie.cursor();
@@ -444,7 +449,7 @@ public class LinkedCharFallbackDawgTest {
 		CharDawg<String> trie = builder
 			.extend("gatc".toCharArray(), "GATC")
 			.extend("cgatggg".toCharArray(), "CGATGGG")
-			.work(new CharFallbackLinks())
+			.work(new CharFallbackLinks<>())
 			.build();
 		
 		CharAutomaton<String> cursor = trie.cursor();
@@ -456,5 +461,52 @@ public class LinkedCharFallbackDawgTest {
 		assertThat(cursor.hasAttachments(), is(true));
 		assertThat(cursor.iterator().next(), equalTo("GATC"));
 	}
-	
+
+	@Test
+	public void testForEachAttachment() throws Exception {
+		CharDawg<String> trie = builder
+			.extend("abc".toCharArray(), "ABC")
+			.extend("bc".toCharArray(), "BC")
+			.extend("c".toCharArray(), "C")
+			.work(new CharFallbackLinks<>())
+			.build();
+
+		CharAutomaton<String> cursor = trie.cursor();
+		cursor.accept('a');
+		cursor.accept('b');
+		List<String> attachments = new ArrayList<>();
+		cursor.forEachAttachment(attachments::add);
+		assertThat(attachments, empty());
+		assertThat(cursor.getAttached(), nullValue());
+
+		cursor.accept('c');
+		cursor.forEachAttachment(attachments::add);
+		assertThat(attachments, contains("ABC", "BC", "C"));
+		assertThat(cursor.getAttached(), equalTo("ABC"));
+		List<String> iterated = new ArrayList<>();
+		for (String attachment : cursor) {
+			iterated.add(attachment);
+		}
+		assertThat(iterated, equalTo(attachments));
+	}
+
+	@Test
+	public void testForEachAttachmentOnFallback() throws Exception {
+		CharDawg<String> trie = builder
+			.extend("xabc".toCharArray(), "XABC")
+			.extend("ab".toCharArray(), "AB")
+			.extend("b".toCharArray(), "B")
+			.work(new CharFallbackLinks<>())
+			.build();
+
+		CharAutomaton<String> cursor = trie.cursor();
+		cursor.accept('x');
+		cursor.accept('a');
+		cursor.accept('b');
+		List<String> attachments = new ArrayList<>();
+		cursor.forEachAttachment(attachments::add);
+		assertThat(attachments, contains("AB", "B"));
+		assertThat(cursor.hasAttachments(), is(true));
+	}
+
 }
@@ -0,0 +1,524 @@
+package net.amygdalum.util.text.louds;
+
+import static net.amygdalum.util.text.ByteUtils.revert;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import net.amygdalum.util.text.ByteAutomaton;
+import net.amygdalum.util.text.ByteTrie;
+import net.amygdalum.util.text.ByteWordSetBuilder;
+import net.amygdalum.util.text.WordSetNavigationException;
+import net.amygdalum.util.text.doublearraytrie.DoubleArrayByteCompactTrieCompiler;
+
+public class LoudsByteTrieTest {
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	private ByteWordSetBuilder<String, ByteTrie<String>> builder;
+
+	@Before
+	public void before() throws Exception {
+		builder = new ByteWordSetBuilder<>(new LoudsByteTrieCompiler<String>());
+	}
+
+	@Test
+	public void testSingleNode() throws Exception {
+		ByteTrie<String> trie = builder
+			.extend("bachelor".getBytes("UTF-8"), "Bachelor")
+			.build();
+
+		assertThat(trie.contains("bachelor".getBytes("UTF-8")), is(true));
+		assertThat(trie.find("bachelor".getBytes("UTF-8")), equalTo("Bachelor"));
+		assertThat(trie.contains("jar".getBytes("UTF-8")), is(false));
+		assertThat(trie.contains("badge".getBytes("UTF-8")), is(false));
+		assertThat(trie.contains("baby".getBytes("UTF-8")), is(false));
+	}
+
+	@Test
+	public void testMultipleNonCollidingNodes() throws Exception {
+		ByteTrie<String> trie = builder
+			.extend("bachelor".getBytes("UTF-8"), "Bachelor")
+			.extend("jar".getBytes("UTF-8"), "Jar")
+			.build();
+
+		assertThat(trie.find("bachelor".getBytes("UTF-8")), equalTo("Bachelor"));
+		assertThat(trie.contains("jar".getBytes("UTF-8")), is(true));
+		assertThat(trie.find("jar".getBytes("UTF-8")), equalTo("Jar"));
+	}
+
+	@Test
+	public void testMultipleCollidingNodes() throws Exception {
+		ByteTrie<String> trie = builder
+			.extend("bachelor".getBytes("UTF-8"), "Bachelor")
+			.extend("jar".getBytes("UTF-8"), "Jar")
+			.extend("badge".getBytes("UTF-8"), "Badge")
+			.build();
+
+		assertThat(trie.find("bachelor".getBytes("UTF-8")), equalTo("Bachelor"));
+		assertThat(trie.find("jar".getBytes("UTF-8")), equalTo("Jar"));
+		assertThat(trie.contains("badge".getBytes("UTF-8")), is(true));
+		assertThat(trie.find("badge".getBytes("UTF-8")), equalTo("Badge"));
+	}
+
+	@Test
+	public void testMultipleMoreCollidingNodes() throws Exception {
+		ByteTrie<String> trie = builder
+			.extend("bachelor".getBytes("UTF-8"), "Bachelor")
+			.extend("jar".getBytes("UTF-8"), "Jar")
+			.extend("badge".getBytes("UTF-8"), "Badge")
+			.extend("baby".getBytes("UTF-8"), "Baby")
+			.build();
+
+		assertThat(trie.find("bachelor".getBytes("UTF-8")), equalTo("Bachelor"));
+		assertThat(trie.find("jar".getBytes("UTF-8")), equalTo("Jar"));
+		assertThat(trie.find("badge".getBytes("UTF-8")), equalTo("Badge"));
+		assertThat(trie.contains("baby".getBytes("UTF-8")), is(true));
+		assertThat(trie.find("baby".getBytes("UTF-8")), equalTo("Baby"));
+	}
+
+	@Test
+	public void testMultipleSubsumingNodes() throws Exception {
+		ByteTrie<String> trie = builder
+			.extend("bac".getBytes("UTF-8"), "Bac")
+			.extend("bachelor".getBytes("UTF-8"), "Bachelor")
+			.build();
+
+		assertThat(trie.find("bachelor".getBytes("UTF-8")), equalTo("Bachelor"));
+		assertThat(trie.find("bac".getBytes("UTF-8")), equalTo("Bac"));
+	}
+
+	@Test
+	public void testMultipleSubsumedNodes() throws Exception {
+		ByteTrie<String> trie = builder
+			.extend("bachelor".getBytes("UTF-8"), "Bachelor")
+			.extend("bac".getBytes("UTF-8"), "Bac")
+			.build();
+
+		assertThat(trie.find("bachelor".getBytes("UTF-8")), equalTo("Bachelor"));
+		assertThat(trie.find("bac".getBytes("UTF-8")), equalTo("Bac"));
+	}
+
+	@Test
+	public void testMultipleSubsumedNodes2() throws Exception {
+		ByteTrie<String> trie = builder
+			.extend("abcd".getBytes("UTF-8"), "ABCD")
+			.extend("ab".getBytes("UTF-8"), "AB")
+			.extend("bc".getBytes("UTF-8"), "BC")
+			.extend("cd".getBytes("UTF-8"), "CD")
+			.build();
+
+		assertThat(trie.find("abcd".getBytes("UTF-8")), equalTo("ABCD"));
+		assertThat(trie.find("ab".getBytes("UTF-8")), equalTo("AB"));
+		assertThat(trie.find("bc".getBytes("UTF-8")), equalTo("BC"));
+		assertThat(trie.find("cd".getBytes("UTF-8")), equalTo("CD"));
+	}
+
+	@Test
+	public void testMultipleSubsumedNodes3() throws Exception {
+		ByteTrie<String> trie = builder
+			.extend("aaa".getBytes("UTF-8"), "AAA")
+			.extend("aa".getBytes("UTF-8"), "AA")
+			.extend("a".getBytes("UTF-8"), "A")
+			.build();
+
+		assertThat(trie.find("aaa".getBytes("UTF-8")), equalTo("AAA"));
+		assertThat(trie.find("aa".getBytes("UTF-8")), equalTo("AA"));
+		assertThat(trie.find("a".getBytes("UTF-8")), equalTo("A"));
+	}
+
+	@Test
+	public void testAttachments() throws Exception {
+		ByteTrie<String> trie = builder
+			.extend("abc".getBytes("UTF-8"), "ABC")
+			.extend("bcd".getBytes("UTF-8"), "BCD")
+			.build();
+
+		assertThat(trie.find("abc".getBytes("UTF-8")), equalTo("ABC"));
+		assertThat(trie.find("bcd".getBytes("UTF-8")), equalTo("BCD"));
+		assertThat(trie.find("a".getBytes("UTF-8")), nullValue());
+		assertThat(trie.find("b".getBytes("UTF-8")), nullValue());
+		assertThat(trie.find("c".getBytes("UTF-8")), nullValue());
+		assertThat(trie.find("d".getBytes("UTF-8")), nullValue());
+	}
+
+	@Test
+	public void testAttachments2() throws Exception {
+		ByteTrie<String> trie = builder
+			.extend("".getBytes("UTF-8"), "")
+			.extend("a".getBytes("UTF-8"), "A")
+			.extend("b".getBytes("UTF-8"), "B")
+			.build();
+
+		assertThat(trie.find("".getBytes("UTF-8")), equalTo(""));
+		assertThat(trie.find("a".getBytes("UTF-8")), equalTo("A"));
+		assertThat(trie.find("b".getBytes("UTF-8")), equalTo("B"));
+		assertThat(trie.find("c".getBytes("UTF-8")), nullValue());
+	}
+
+	@Test
+	public void testAttachments3() throws Exception {
+		ByteTrie<String> trie = builder
+			.extend("ab".getBytes("UTF-8"), "AB")
+			.extend("aa".getBytes("UTF-8"), "AA")
+			.build();
+
+		assertThat(trie.find("ab".getBytes("UTF-8")), equalTo("AB"));
+		assertThat(trie.find("aa".getBytes("UTF-8")), equalTo("AA"));
+		assertThat(trie.find("bb".getBytes("UTF-8")), nullValue());
+	}
+
+	@Test
+	public void testAttachments4() throws Exception {
+		ByteTrie<String> trie = builder
+			.extend("bb".getBytes("UTF-8"), "BB")
+			.extend("ba".getBytes("UTF-8"), "BA")
+			.extend("bbc".getBytes("UTF-8"), "BBC")
+			.extend("bbd".getBytes("UTF-8"), "BBD")
+			.extend("bbf".getBytes("UTF-8"), "BBF")
+			.extend("bbg".getBytes("UTF-8"), "BBG")
+			.extend("bba".getBytes("UTF-8"), "BBA")
+			.build();
+
+		assertThat(trie.find("bb".getBytes("UTF-8")), equalTo("BB"));
+		assertThat(trie.find("ba".getBytes("UTF-8")), equalTo("BA"));
+		assertThat(trie.find("bbc".getBytes("UTF-8")), equalTo("BBC"));
+		assertThat(trie.find("bbd".getBytes("UTF-8")), equalTo("BBD"));
+		assertThat(trie.find("bbf".getBytes("UTF-8")), equalTo("BBF"));
+		assertThat(trie.find("bbg".getBytes("UTF-8")), equalTo("BBG"));
+		assertThat(trie.find("bba".getBytes("UTF-8")), equalTo("BBA"));
+	}
+
+	@Test
+	public void testAttachments5() throws Exception {
+		ByteTrie<String> trie = builder
+			.extend("cc".getBytes("UTF-8"), "CC")
+			.extend("ca".getBytes("UTF-8"), "CA")
+			.extend("ac".getBytes("UTF-8"), "AC")
+			.extend("aa".getBytes("UTF-8"), "AA")
+			.build();
+
+		assertThat(trie.find("cc".getBytes("UTF-8")), equalTo("CC"));
+		assertThat(trie.find("ca".getBytes("UTF-8")), equalTo("CA"));
+		assertThat(trie.find("ac".getBytes("UTF-8")), equalTo("AC"));
+		assertThat(trie.find("aa".getBytes("UTF-8")), equalTo("AA"));
+	}
+
+	@Test
+	public void testLargeByteacterSpace() throws Exception {
+		ByteTrie<String> trie = builder
+			.extend("\u9999".getBytes("UTF-8"), "U9999")
+			.extend("\u0000".getBytes("UTF-8"), "U0000")
+			.build();
+
+		assertThat(trie.find("\u9999".getBytes("UTF-8")), equalTo("U9999"));
+		assertThat(trie.find("\u0000".getBytes("UTF-8")), equalTo("U0000"));
+	}
+
+	@Test
+	public void testDoubleSubsumedNodes() throws Exception {
+		ByteTrie<String> trie = builder
+			.extend(new StringBuilder("and wood to fire").reverse().toString().getBytes("UTF-8"), "and wood to fire")
+			.extend(new StringBuilder("Then shalt thou enquire").reverse().toString().getBytes("UTF-8"), "Then shalt thou enquire")
+			.extend(new StringBuilder("fire").reverse().toString().getBytes("UTF-8"), "fire")
+			.build();
+
+		assertThat(trie.find(new StringBuilder("and wood to fire").reverse().toString().getBytes("UTF-8")), equalTo("and wood to fire"));
+		assertThat(trie.find(new StringBuilder("Then shalt thou enquire").reverse().toString().getBytes("UTF-8")), equalTo("Then shalt thou enquire"));
+		assertThat(trie.find(new StringBuilder("fire").reverse().toString().getBytes("UTF-8")), equalTo("fire"));
+	}
+
+	@Test
+	public void testStrings() throws Exception {
+		String a = (char) 0 + "a";
+		String b = (char) 0 + "b";
+		ByteTrie<String> trie = builder
+			.extend(a.getBytes("UTF-8"), "A")
+			.extend(b.getBytes("UTF-8"), "B")
+			.build();
+
+		assertThat(trie.find(a.getBytes("UTF-8")), equalTo("A"));
+		assertThat(trie.find(b.getBytes("UTF-8")), equalTo("B"));
+	}
+
+	@Test
+	public void testAsNodeSingleNode() throws Exception {
+		byte[] bachelor = "bachelor".getBytes("UTF-8");
+		ByteTrie<String> trie = builder
+			.extend(bachelor, "Bachelor")
+			.build();
+
+		assertThat(trie.navigator()
+			.nextNode(bachelor[0])
+			.nextNode(bachelor[1])
+			.nextNode(bachelor[2])
+			.nextNode(bachelor[3])
+			.nextNode(bachelor[4])
+			.nextNode(bachelor[5])
+			.nextNode(bachelor[6])
+			.nextNode(bachelor[7])
+			.getAttached(), equalTo("Bachelor"));
+	}
+
+	@Test
+	public void testAsNodeMutlipleNonCollidingNodes() throws Exception {
+		byte[] bachelor = "bachelor".getBytes("UTF-8");
+		byte[] jar = "jar".getBytes("UTF-8");
+		ByteTrie<String> trie = builder
+			.extend(bachelor, "Bachelor")
+			.extend(jar, "Jar")
+			.build();
+
+		assertThat(trie.navigator()
+			.nextNode(bachelor[0])
+			.nextNode(bachelor[1])
+			.nextNode(bachelor[2])
+			.nextNode(bachelor[3])
+			.nextNode(bachelor[4])
+			.nextNode(bachelor[5])
+			.nextNode(bachelor[6])
+			.nextNode(bachelor[7])
+			.getAttached(), equalTo("Bachelor"));
+		assertThat(trie.navigator()
+			.nextNode(jar[0])
+			.nextNode(jar[1])
+			.nextNode(jar[2])
+			.getAttached(), equalTo("Jar"));
+	}
+
+	@Test
+	public void testAsNodeMultipleCollidingNodes() throws Exception {
+		byte[] bachelor = "bachelor".getBytes("UTF-8");
+		byte[] jar = "jar".getBytes("UTF-8");
+		byte[] badge = "badge".getBytes("UTF-8");
+		ByteTrie<String> trie = builder
+			.extend(bachelor, "Bachelor")
+			.extend(jar, "Jar")
+			.extend(badge, "Badge")
+			.build();
+
+		assertThat(trie.navigator()
+			.nextNode(bachelor[0])
+			.nextNode(bachelor[1])
+			.nextNode(bachelor[2])
+			.nextNode(bachelor[3])
+			.nextNode(bachelor[4])
+			.nextNode(bachelor[5])
+			.nextNode(bachelor[6])
+			.nextNode(bachelor[7])
+			.getAttached(), equalTo("Bachelor"));
+		assertThat(trie.navigator()
+			.nextNode(jar[0])
+			.nextNode(jar[1])
+			.nextNode(jar[2])
+			.getAttached(), equalTo("Jar"));
+		assertThat(trie.navigator()
+			.nextNode(badge[0])
+			.nextNode(badge[1])
+			.nextNode(badge[2])
+			.nextNode(badge[3])
+			.nextNode(badge[4])
+			.getAttached(), equalTo("Badge"));
+	}
+
+	@Test
+	public void testAsNodeMultipleMoreCollidingNodes() throws Exception {
+		byte[] bachelor = "bachelor".getBytes("UTF-8");
+		byte[] jar = "jar".getBytes("UTF-8");
+		byte[] badge = "badge".getBytes("UTF-8");
+		byte[] baby = "baby".getBytes("UTF-8");
+		ByteTrie<String> trie = builder
+			.extend(bachelor, "Bachelor")
+			.extend(jar, "Jar")
+			.extend(badge, "Badge")
+			.extend(baby, "Baby")
+			.build();
+
+		assertThat(trie.navigator()
+			.nextNode(bachelor[0])
+			.nextNode(bachelor[1])
+			.nextNode(bachelor[2])
+			.nextNode(bachelor[3])
+			.nextNode(bachelor[4])
+			.nextNode(bachelor[5])
+			.nextNode(bachelor[6])
+			.nextNode(bachelor[7])
+			.getAttached(), equalTo("Bachelor"));
+		assertThat(trie.navigator()
+			.nextNode(jar[0])
+			.nextNode(jar[1])
+			.nextNode(jar[2])
+			.getAttached(), equalTo("Jar"));
+		assertThat(trie.navigator()
+			.nextNode(badge[0])
+			.nextNode(badge[1])
+			.nextNode(badge[2])
+			.nextNode(badge[3])
+			.nextNode(badge[4])
+			.getAttached(), equalTo("Badge"));
+		assertThat(trie.navigator()
+			.nextNode(baby[0])
+			.nextNode(baby[1])
+			.nextNode(baby[2])
+			.nextNode(baby[3])
+			.getAttached(), equalTo("Baby"));
+	}
+
+	@Test
+	public void testAsNodeMultipleSubsumedNodes() throws Exception {
+		byte[] bachelor = "bachelor".getBytes("UTF-8");
+		byte[] bac = "bac".getBytes("UTF-8");
+		ByteTrie<String> trie = builder
+			.extend(bachelor, "Bachelor")
+			.extend(bac, "Bac")
+			.build();
+
+		assertThat(trie.navigator()
+			.nextNode(bachelor[0])
+			.nextNode(bachelor[1])
+			.nextNode(bachelor[2])
+			.nextNode(bachelor[3])
+			.nextNode(bachelor[4])
+			.nextNode(bachelor[5])
+			.nextNode(bachelor[6])
+			.nextNode(bachelor[7])
+			.getAttached(), equalTo("Bachelor"));
+		assertThat(trie.navigator()
+			.nextNode(bac[0])
+			.nextNode(bac[1])
+			.nextNode(bac[2])
+			.getAttached(), equalTo("Bac"));
+	}
+
+	@Test
+	public void testReversedStrings() throws Exception {
+		ByteTrie<String> trie = builder
+			.extend(revert("And God called the firmament Heaven".getBytes("UTF-8")), "Heaven")
+			.extend(revert("Let the waters under the heaven be gathered together unto one place".getBytes("UTF-8")), "Water")
+			.extend(revert("And God called the dry land Earth".getBytes("UTF-8")), "Earth")
+			.build();
+		
+		assertThat(trie.find(revert("And God called the firmament Heaven".getBytes("UTF-8"))), equalTo("Heaven"));
+		assertThat(trie.find(revert("Let the waters under the heaven be gathered together unto one place".getBytes("UTF-8"))), equalTo("Water"));
+		assertThat(trie.find(revert("And God called the dry land Earth".getBytes("UTF-8"))), equalTo("Earth"));
+	}
+
+	@Test
+	public void testFindAll() throws Exception {
+		ByteTrie<String> trie = builder
+			.extend("bachelor".getBytes("UTF-8"), "Bachelor")
+			.extend("jar".getBytes("UTF-8"), "Jar")
+			.extend("badge".getBytes("UTF-8"), "Badge")
+			.extend("baby".getBytes("UTF-8"), "Baby")
+			.build();
+
+		byte[][] keys = new byte[][] {"baby".getBytes("UTF-8"), "bab".getBytes("UTF-8"), "jar".getBytes("UTF-8"), "".getBytes("UTF-8"), "babyx".getBytes("UTF-8"), "badge".getBytes("UTF-8"), "bachelor".getBytes("UTF-8"), "x".getBytes("UTF-8"), "jar".getBytes("UTF-8"), "badg".getBytes("UTF-8")};
+		String[] found = new String[keys.length];
+		trie.findAll(keys, found);
+		assertThat(found, equalTo(new String[] {"Baby", null, "Jar", null, null, "Badge", "Bachelor", null, "Jar", null}));
+
+		boolean[] contained = new boolean[keys.length];
+		trie.containsAll(keys, contained);
+		assertThat(contained, equalTo(new boolean[] {true, false, true, false, false, true, true, false, true, false}));
+	}
+
+	@Test
+	public void testFindAllPacked() throws Exception {
+		ByteTrie<String> trie = builder
+			.extend("bachelor".getBytes("UTF-8"), "Bachelor")
+			.extend("jar".getBytes("UTF-8"), "Jar")
+			.extend("badge".getBytes("UTF-8"), "Badge")
+			.build();
+
+		byte[] data = "jarbadgebabybachelor".getBytes("UTF-8");
+		int[] offsets = new int[] {0, 3, 8, 12, 20, 20};
+		String[] found = new String[offsets.length - 1];
+		trie.findAll(data, offsets, found);
+		assertThat(found, equalTo(new String[] {"Jar", "Badge", null, "Bachelor", null}));
+
+		boolean[] contained = new boolean[offsets.length - 1];
+		trie.containsAll(data, offsets, contained);
+		assertThat(contained, equalTo(new boolean[] {true, true, false, true, false}));
+	}
+
+	@Test
+	public void testNavigatorFailsOnUnknownByte() throws Exception {
+		ByteTrie<String> trie = builder
+			.extend("jar".getBytes("UTF-8"), "Jar")
+			.build();
+
+		thrown.expect(WordSetNavigationException.class);
+		trie.navigator().nextNode((byte) 'j').nextNode((byte) 'o');
+	}
+
+	@Test
+	public void testCursor() throws Exception {
+		ByteTrie<String> trie = builder
+			.extend("ab".getBytes("UTF-8"), "AB")
+			.extend("abc".getBytes("UTF-8"), "ABC")
+			.build();
+
+		ByteAutomaton<String> cursor = trie.cursor();
+		assertThat(cursor.lookahead((byte) 'a'), is(true));
+		assertThat(cursor.lookahead((byte) 'b'), is(false));
+		assertThat(cursor.accept((byte) 'a'), is(true));
+		assertThat(cursor.hasAttachments(), is(false));
+		assertThat(cursor.accept((byte) 'b'), is(true));
+		assertThat(cursor.getAttached(), equalTo("AB"));
+		assertThat(cursor.iterator().next(), equalTo("AB"));
+		assertThat(cursor.accept((byte) 'd'), is(false));
+		assertThat(cursor.accept((byte) 'c'), is(true));
+		assertThat(cursor.hasAttachments(), is(true));
+		assertThat(cursor.getAttached(), equalTo("ABC"));
+		cursor.reset();
+		assertThat(cursor.hasAttachments(), is(false));
+		assertThat(cursor.iterator().hasNext(), is(false));
+	}
+
+	@Test
+	public void testStates() throws Exception {
+		LoudsByteTrie<String> trie = (LoudsByteTrie<String>) builder
+			.extend("tap".getBytes("UTF-8"), "TAP")
+			.extend("top".getBytes("UTF-8"), "TOP")
+			.build();
+
+		assertThat(trie.getStates(), equalTo(6));
+	}
+
+	@Test
+	public void testEqualToCompactTrie() throws Exception {
+		Random random = new Random(42);
+		ByteWordSetBuilder<String, ByteTrie<String>> compactBuilder = new ByteWordSetBuilder<>(new DoubleArrayByteCompactTrieCompiler<String>());
+		for (int i = 0; i < 2000; i++) {
+			String word = randomWord(random);
+			builder.extend(word.getBytes("UTF-8"), word);
+			compactBuilder.extend(word.getBytes("UTF-8"), word);
+		}
+		ByteTrie<String> trie = builder.build();
+		ByteTrie<String> compactTrie = compactBuilder.build();
+
+		for (int i = 0; i < 5000; i++) {
+			byte[] word = randomWord(random).getBytes("UTF-8");
+			assertThat(trie.find(word), equalTo(compactTrie.find(word)));
+			assertThat(trie.contains(word), equalTo(compactTrie.contains(word)));
+		}
+	}
+
+	private static String randomWord(Random random) {
+		char[] word = new char[1 + random.nextInt(8)];
+		for (int j = 0; j < word.length; j++) {
+			word[j] = (char) ('a' + random.nextInt(6));
+		}
+		return new String(word);
+	}
+
+}